@@ -0,0 +1,102 @@
+package com.example.javajava.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "data")
+public class DataProperties {
+	
+	// Server-local datasets can only be loaded from within this directory
+	private String directory = "data";
+	// Loaded from the directory once the application has started, none when empty
+	private String initialFile;
+	// Where loaded graphs are kept: heap arrays, a file in the directory mapped outside the heap, or varint-compressed heap arrays
+	private Storage storage = Storage.HEAP;
+	// Renumber the locations of every loaded graph so neighbors sit close together in memory
+	private boolean reorderNodes = true;
+	// Drop self-loops and slower parallel edges and contract chains of pass-through locations in every loaded graph
+	private boolean simplify = true;
+	private final Snapshot snapshot = new Snapshot();
+	
+	public String getDirectory() {
+		return directory;
+	}
+	
+	public void setDirectory(String directory) {
+		if (directory == null || directory.isBlank()) {
+			throw new IllegalArgumentException("Data directory cannot be empty");
+		}
+		this.directory = directory;
+	}
+	
+	public String getInitialFile() {
+		return initialFile;
+	}
+	
+	public void setInitialFile(String initialFile) {
+		this.initialFile = initialFile == null || initialFile.isBlank() ? null : initialFile;
+	}
+	
+	public Storage getStorage() {
+		return storage;
+	}
+	
+	public void setStorage(Storage storage) {
+		if (storage == null) {
+			throw new IllegalArgumentException("Graph storage cannot be empty");
+		}
+		this.storage = storage;
+	}
+	
+	public boolean isReorderNodes() {
+		return reorderNodes;
+	}
+	
+	public void setReorderNodes(boolean reorderNodes) {
+		this.reorderNodes = reorderNodes;
+	}
+	
+	public boolean isSimplify() {
+		return simplify;
+	}
+	
+	public void setSimplify(boolean simplify) {
+		this.simplify = simplify;
+	}
+	
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+	
+	public enum Storage {
+		HEAP,
+		MAPPED,
+		COMPRESSED
+	}
+	
+	public static class Snapshot {
+		
+		// Write the compiled graph and its preprocessing to the file after every load and restore it at startup
+		private boolean enabled = true;
+		// Relative to the data directory
+		private String file = "graph.snapshot";
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public String getFile() {
+			return file;
+		}
+		
+		public void setFile(String file) {
+			if (file == null || file.isBlank()) {
+				throw new IllegalArgumentException("Snapshot file cannot be empty");
+			}
+			this.file = file;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,339 @@
+package com.example.javajava.config;
+
+import com.example.javajava.model.RoutingAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "routing")
+public class RoutingProperties {
+	
+	private RoutingAlgorithm algorithm = RoutingAlgorithm.DIJKSTRA;
+	private final Landmarks landmarks = new Landmarks();
+	private final ContractionHierarchy contractionHierarchy = new ContractionHierarchy();
+	private final HubLabels hubLabels = new HubLabels();
+	private final Overlay overlay = new Overlay();
+	private final DistanceTable distanceTable = new DistanceTable();
+	private final RouteCache routeCache = new RouteCache();
+	private final ShortestPathTrees shortestPathTrees = new ShortestPathTrees();
+	private final ResumableSearches resumableSearches = new ResumableSearches();
+	private final WarmStart warmStart = new WarmStart();
+	private final Batching batching = new Batching();
+	
+	public RoutingAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+	
+	public void setAlgorithm(RoutingAlgorithm algorithm) {
+		if (algorithm == null) {
+			throw new IllegalArgumentException("Routing algorithm cannot be null");
+		}
+		this.algorithm = algorithm;
+	}
+	
+	public Landmarks getLandmarks() {
+		return landmarks;
+	}
+	
+	public ContractionHierarchy getContractionHierarchy() {
+		return contractionHierarchy;
+	}
+	
+	public HubLabels getHubLabels() {
+		return hubLabels;
+	}
+	
+	public Overlay getOverlay() {
+		return overlay;
+	}
+	
+	public DistanceTable getDistanceTable() {
+		return distanceTable;
+	}
+	
+	public RouteCache getRouteCache() {
+		return routeCache;
+	}
+	
+	public ShortestPathTrees getShortestPathTrees() {
+		return shortestPathTrees;
+	}
+	
+	public ResumableSearches getResumableSearches() {
+		return resumableSearches;
+	}
+	
+	public WarmStart getWarmStart() {
+		return warmStart;
+	}
+	
+	public Batching getBatching() {
+		return batching;
+	}
+	
+	public static class Landmarks {
+		
+		// 0 disables landmark preprocessing
+		private int count = 8;
+		
+		public int getCount() {
+			return count;
+		}
+		
+		public void setCount(int count) {
+			if (count < 0) {
+				throw new IllegalArgumentException("Landmark count cannot be negative");
+			}
+			this.count = count;
+		}
+	}
+	
+	public static class ContractionHierarchy {
+		
+		// Built in the background after each load, queries use Dijkstra until it is ready
+		private boolean enabled = true;
+		// Keeps a metric-independent order so reloads that only change weights just re-customize it
+		private boolean customizable = true;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public boolean isCustomizable() {
+			return customizable;
+		}
+		
+		public void setCustomizable(boolean customizable) {
+			this.customizable = customizable;
+		}
+	}
+	
+	public static class HubLabels {
+		
+		// Derived from the contraction hierarchy; off by default because labels cost far more memory than the graph
+		private boolean enabled = false;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+	}
+	
+	public static class Overlay {
+		
+		// Multi-level cell overlay for the largest networks, customized in the background
+		private boolean enabled = false;
+		// Nodes per level-1 cell, each level above groups up to 16 times as many
+		private int cellSize = 256;
+		private int levels = 2;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public int getCellSize() {
+			return cellSize;
+		}
+		
+		public void setCellSize(int cellSize) {
+			if (cellSize <= 0) {
+				throw new IllegalArgumentException("Overlay cell size must be positive");
+			}
+			this.cellSize = cellSize;
+		}
+		
+		public int getLevels() {
+			return levels;
+		}
+		
+		public void setLevels(int levels) {
+			if (levels <= 0) {
+				throw new IllegalArgumentException("Overlay level count must be positive");
+			}
+			this.levels = levels;
+		}
+	}
+	
+	public static class DistanceTable {
+		
+		// Datasets with at most this many locations get an all-pairs table, 0 disables it.
+		// Memory grows with the square of the count: 2000 locations take about 32 MB.
+		private int maxLocations = 2000;
+		
+		public int getMaxLocations() {
+			return maxLocations;
+		}
+		
+		public void setMaxLocations(int maxLocations) {
+			if (maxLocations < 0) {
+				throw new IllegalArgumentException("Distance table location limit cannot be negative");
+			}
+			this.maxLocations = maxLocations;
+		}
+	}
+	
+	public static class RouteCache {
+		
+		// Route results kept per dataset version for /route without ?algorithm=, 0 disables the cache
+		private int maxEntries = 10_000;
+		
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+		
+		public void setMaxEntries(int maxEntries) {
+			if (maxEntries < 0) {
+				throw new IllegalArgumentException("Route cache size cannot be negative");
+			}
+			this.maxEntries = maxEntries;
+		}
+	}
+	
+	public static class ShortestPathTrees {
+		
+		// One full search per origin, reused for every destination of /route without ?algorithm=
+		private boolean enabled = false;
+		// Each tree takes 8 bytes per location
+		private int maxMemoryMb = 64;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public int getMaxMemoryMb() {
+			return maxMemoryMb;
+		}
+		
+		public void setMaxMemoryMb(int maxMemoryMb) {
+			if (maxMemoryMb <= 0) {
+				throw new IllegalArgumentException("Shortest-path tree memory must be positive");
+			}
+			this.maxMemoryMb = maxMemoryMb;
+		}
+		
+		public long getMaxMemoryBytes() {
+			return maxMemoryMb * 1024L * 1024L;
+		}
+	}
+	
+	public static class ResumableSearches {
+		
+		// Keep recent searches per origin and continue them for farther destinations of /route without ?algorithm=
+		private boolean enabled = false;
+		// Each search takes 28 bytes per location
+		private int maxMemoryMb = 64;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public int getMaxMemoryMb() {
+			return maxMemoryMb;
+		}
+		
+		public void setMaxMemoryMb(int maxMemoryMb) {
+			if (maxMemoryMb <= 0) {
+				throw new IllegalArgumentException("Resumable search memory must be positive");
+			}
+			this.maxMemoryMb = maxMemoryMb;
+		}
+		
+		public long getMaxMemoryBytes() {
+			return maxMemoryMb * 1024L * 1024L;
+		}
+	}
+	
+	public static class WarmStart {
+		
+		// After each load, precompute the most requested routes and, with shortest-path trees, the most requested origins
+		private boolean enabled = true;
+		private int pairs = 100;
+		private int sources = 10;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public int getPairs() {
+			return pairs;
+		}
+		
+		public void setPairs(int pairs) {
+			if (pairs < 0) {
+				throw new IllegalArgumentException("Warm start pair count cannot be negative");
+			}
+			this.pairs = pairs;
+		}
+		
+		public int getSources() {
+			return sources;
+		}
+		
+		public void setSources(int sources) {
+			if (sources < 0) {
+				throw new IllegalArgumentException("Warm start source count cannot be negative");
+			}
+			this.sources = sources;
+		}
+	}
+	
+	public static class Batching {
+		
+		// Group concurrent /route requests without ?algorithm= by origin and answer each group with one search
+		private boolean enabled = false;
+		// How long the first request of a group waits for others to join
+		private int windowMicros = 300;
+		private int maxSize = 64;
+		
+		public boolean isEnabled() {
+			return enabled;
+		}
+		
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+		public int getWindowMicros() {
+			return windowMicros;
+		}
+		
+		public void setWindowMicros(int windowMicros) {
+			if (windowMicros < 0) {
+				throw new IllegalArgumentException("Batching window cannot be negative");
+			}
+			this.windowMicros = windowMicros;
+		}
+		
+		public int getMaxSize() {
+			return maxSize;
+		}
+		
+		public void setMaxSize(int maxSize) {
+			if (maxSize <= 0) {
+				throw new IllegalArgumentException("Batch size must be positive");
+			}
+			this.maxSize = maxSize;
+		}
+	}
+}
\ No newline at end of file
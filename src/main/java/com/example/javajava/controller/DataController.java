@@ -1,8 +1,9 @@
 package com.example.javajava.controller;
 
-import com.example.javajava.model.TravelTime;
+import com.example.javajava.graph.CompiledGraph;
 import com.example.javajava.service.CsvDataService;
 import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.LocalDataService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,9 +11,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,10 +21,12 @@ public class DataController {
 	
 	private final CsvDataService csvDataService;
 	private final DataStorageService dataStorageService;
+	private final LocalDataService localDataService;
 	
-	public DataController(CsvDataService csvDataService, DataStorageService dataStorageService) {
+	public DataController(CsvDataService csvDataService, DataStorageService dataStorageService, LocalDataService localDataService) {
 		this.csvDataService = csvDataService;
 		this.dataStorageService = dataStorageService;
+		this.localDataService = localDataService;
 	}
 	
 	@PostMapping("/load-data")
@@ -39,19 +42,47 @@ public class DataController {
 				return ResponseEntity.badRequest().body(response);
 			}
 			
-			byte[] fileBytes = file.getBytes();
-			String csvContent = new String(fileBytes, StandardCharsets.UTF_8);
+			// Parsed while reading, the upload is never held in memory as a whole
+			long start = System.nanoTime();
+			CompiledGraph graph;
+			try (InputStream input = file.getInputStream()) {
+				graph = csvDataService.parseCSV(input);
+			}
+			dataStorageService.storeGraph(graph);
+			
+			response.put("message", "Data loaded successfully");
+			response.put("recordsProcessed", graph.getEdgeCount());
+			response.put("loadMillis", (System.nanoTime() - start) / 1_000_000);
 			
-			List<TravelTime> travelTimes = csvDataService.parseCSVContent(csvContent);
-			dataStorageService.storeTravelTimes(travelTimes);
+			return ResponseEntity.ok(response);
+		} catch (IllegalArgumentException e) {
+			response.put("error", e.getMessage());
+			return ResponseEntity.badRequest().body(response);
+		} catch (Exception e) {
+			response.put("error", "An error occurred while processing the file");
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+		}
+	}
+	
+	// Loads a file that is already on the server, from the configured data directory
+	@PostMapping("/load-data/local")
+	public ResponseEntity<Map<String, Object>> loadLocalData(@RequestParam("file") String fileName) {
+		Map<String, Object> response = new HashMap<>();
+		try {
+			long start = System.nanoTime();
+			CompiledGraph graph = localDataService.loadFile(fileName);
 			
 			response.put("message", "Data loaded successfully");
-			response.put("recordsProcessed", travelTimes.size());
+			response.put("recordsProcessed", graph.getEdgeCount());
+			response.put("loadMillis", (System.nanoTime() - start) / 1_000_000);
 			
 			return ResponseEntity.ok(response);
 		} catch (IllegalArgumentException e) {
 			response.put("error", e.getMessage());
 			return ResponseEntity.badRequest().body(response);
+		} catch (NoSuchFileException e) {
+			response.put("error", "File not found: " + fileName);
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
 		} catch (Exception e) {
 			response.put("error", "An error occurred while processing the file");
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
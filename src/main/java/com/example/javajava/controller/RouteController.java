@@ -2,6 +2,7 @@ package com.example.javajava.controller;
 
 import com.example.javajava.model.PathResult;
 import com.example.javajava.model.RouteResponse;
+import com.example.javajava.model.RoutingAlgorithm;
 import com.example.javajava.service.RouteService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,10 +22,44 @@ public class RouteController {
 		this.routeService = routeService;
 	}
 	
+	public ResponseEntity<?> calculateRoute(String from, String to) {
+		return calculateRoute(from, to, null);
+	}
+	
 	@GetMapping("/route")
-	public ResponseEntity<?> calculateRoute(@RequestParam String from, @RequestParam String to) {
-		PathResult pathResult = routeService.calculateOptimalRoute(from, to);
+	public ResponseEntity<?> calculateRoute(@RequestParam String from, @RequestParam String to,
+			@RequestParam(required = false) String algorithm) {
+		if (algorithm == null) {
+			return toResponse(routeService.calculateOptimalRoute(from, to), from, to);
+		}
+		
+		RoutingAlgorithm routingAlgorithm;
+		try {
+			routingAlgorithm = RoutingAlgorithm.fromParameter(algorithm);
+		} catch (IllegalArgumentException e) {
+			Map<String, String> errorResponse = new HashMap<>();
+			errorResponse.put("error", e.getMessage());
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+		return toResponse(routeService.calculateOptimalRoute(from, to, routingAlgorithm), from, to);
+	}
+	
+	// For callers that only need tiempoTotal, skips building the path
+	@GetMapping("/route/time")
+	public ResponseEntity<?> calculateTravelTime(@RequestParam String from, @RequestParam String to) {
+		int travelTime = routeService.calculateTravelTime(from, to);
+		if (travelTime < 0) {
+			Map<String, String> errorResponse = new HashMap<>();
+			errorResponse.put("error", "No route found between " + from + " and " + to);
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+		}
 		
+		Map<String, Integer> response = new HashMap<>();
+		response.put("tiempoTotal", travelTime);
+		return ResponseEntity.ok(response);
+	}
+	
+	private ResponseEntity<?> toResponse(PathResult pathResult, String from, String to) {
 		if (!pathResult.isPathFound()) {
 			Map<String, String> errorResponse = new HashMap<>();
 			errorResponse.put("error", "No route found between " + from + " and " + to);
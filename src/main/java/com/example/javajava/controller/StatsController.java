@@ -0,0 +1,75 @@
+package com.example.javajava.controller;
+
+import com.example.javajava.service.GraphIndexService;
+import com.example.javajava.service.ResumableSearchCache;
+import com.example.javajava.service.RouteBatcher;
+import com.example.javajava.service.RouteCache;
+import com.example.javajava.service.RouteCoalescer;
+import com.example.javajava.service.ShortestPathTreeCache;
+import com.example.javajava.service.SnapshotPersistenceService;
+import com.example.javajava.service.WarmStartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+public class StatsController {
+	
+	private final GraphIndexService graphIndexService;
+	private final RouteCache routeCache;
+	private final RouteCoalescer routeCoalescer;
+	private final RouteBatcher routeBatcher;
+	private final ShortestPathTreeCache shortestPathTreeCache;
+	private final ResumableSearchCache resumableSearchCache;
+	private final WarmStartService warmStartService;
+	private final SnapshotPersistenceService snapshotPersistenceService;
+	
+	public StatsController(GraphIndexService graphIndexService) {
+		this(graphIndexService, null, null, null, null, null, null, null);
+	}
+	
+	@Autowired
+	public StatsController(GraphIndexService graphIndexService, RouteCache routeCache, RouteCoalescer routeCoalescer,
+			RouteBatcher routeBatcher, ShortestPathTreeCache shortestPathTreeCache, ResumableSearchCache resumableSearchCache, WarmStartService warmStartService,
+			SnapshotPersistenceService snapshotPersistenceService) {
+		this.graphIndexService = graphIndexService;
+		this.routeCache = routeCache;
+		this.routeCoalescer = routeCoalescer;
+		this.routeBatcher = routeBatcher;
+		this.shortestPathTreeCache = shortestPathTreeCache;
+		this.resumableSearchCache = resumableSearchCache;
+		this.warmStartService = warmStartService;
+		this.snapshotPersistenceService = snapshotPersistenceService;
+	}
+	
+	@GetMapping("/stats")
+	public ResponseEntity<Map<String, Object>> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>(graphIndexService.getStatistics());
+		if (routeCache != null) {
+			statistics.put("routeCache", routeCache.getStatistics());
+		}
+		if (routeCoalescer != null) {
+			statistics.put("coalescing", routeCoalescer.getStatistics());
+		}
+		if (routeBatcher != null) {
+			statistics.put("batching", routeBatcher.getStatistics());
+		}
+		if (shortestPathTreeCache != null) {
+			statistics.put("shortestPathTrees", shortestPathTreeCache.getStatistics());
+		}
+		if (resumableSearchCache != null) {
+			statistics.put("resumableSearches", resumableSearchCache.getStatistics());
+		}
+		if (warmStartService != null) {
+			statistics.put("warmStart", warmStartService.getStatistics());
+		}
+		if (snapshotPersistenceService != null) {
+			statistics.put("snapshot", snapshotPersistenceService.getStatistics());
+		}
+		return ResponseEntity.ok(statistics);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.List;
+
+// A* search whose heuristic is the landmark lower bound. The bound is
+// consistent, so every node is still settled at most once and the search can
+// stop as soon as the target leaves the heap.
+public class AltEngine {
+
+	private final WorkspacePool pool;
+
+	public AltEngine() {
+		this(new WorkspacePool());
+	}
+
+	public AltEngine(WorkspacePool pool) {
+		this.pool = pool;
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, LandmarkIndex landmarks, int source, int target) {
+		if (source == target) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		SearchWorkspace workspace = pool.acquire(graph.getLocationCount());
+		try {
+			int distance = search(graph, landmarks, source, target, workspace);
+			if (distance == SearchWorkspace.UNREACHABLE) {
+				return new PathResult();
+			}
+			return new PathResult(workspace.buildPath(graph, target), distance);
+		} finally {
+			pool.release(workspace);
+		}
+	}
+
+	// Runs on an already reset workspace and returns the distance to target
+	public int search(CompiledGraph graph, LandmarkIndex landmarks, int source, int target, SearchWorkspace workspace) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, landmarks.lowerBound(source, target));
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+			if (node == target) {
+				return workspace.getDistance(node);
+			}
+
+			int distance = workspace.getDistance(node);
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				int newDistance = distance + edges.weight();
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, node);
+					heap.insertOrDecrease(neighbor, newDistance + landmarks.lowerBound(neighbor, target));
+				}
+			}
+		}
+
+		return SearchWorkspace.UNREACHABLE;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// The heap layout of a CompiledGraph: plain int arrays and a map from name to id
+final class ArrayGraph extends CompiledGraph {
+
+	private final String[] locations;
+	private final Map<String, Integer> locationIds;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final int[] reverseOffsets;
+	private final int[] reverseSources;
+	private final int[] reverseWeights;
+
+	ArrayGraph(String[] locations, Map<String, Integer> locationIds, int[] offsets, int[] targets, int[] weights,
+			int[] reverseOffsets, int[] reverseSources, int[] reverseWeights) {
+		this.locations = locations;
+		this.locationIds = locationIds;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.reverseOffsets = reverseOffsets;
+		this.reverseSources = reverseSources;
+		this.reverseWeights = reverseWeights;
+	}
+
+	@Override
+	public int getLocationCount() {
+		return locations.length;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return targets.length;
+	}
+
+	@Override
+	public int indexOf(String location) {
+		Integer id = location == null ? null : locationIds.get(location);
+		return id == null ? -1 : id;
+	}
+
+	@Override
+	public String getLocation(int node) {
+		return locations[node];
+	}
+
+	@Override
+	public int firstEdge(int node) {
+		return offsets[node];
+	}
+
+	@Override
+	public int endEdge(int node) {
+		return offsets[node + 1];
+	}
+
+	@Override
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+
+	@Override
+	public int getWeight(int edge) {
+		return weights[edge];
+	}
+
+	@Override
+	public int firstInEdge(int node) {
+		return reverseOffsets[node];
+	}
+
+	@Override
+	public int endInEdge(int node) {
+		return reverseOffsets[node + 1];
+	}
+
+	@Override
+	public int getSource(int inEdge) {
+		return reverseSources[inEdge];
+	}
+
+	@Override
+	public int getInWeight(int inEdge) {
+		return reverseWeights[inEdge];
+	}
+
+	@Override
+	public String getStorage() {
+		return "heap";
+	}
+
+	// Arrays only; names and the id map come on top
+	@Override
+	public long getMemoryBytes() {
+		return 4L * (offsets.length + reverseOffsets.length + 4L * targets.length);
+	}
+
+	// For CompressedGraph, which shares the names instead of copying them
+	String[] locations() {
+		return locations;
+	}
+
+	Map<String, Integer> locationIds() {
+		return locationIds;
+	}
+
+	@Override
+	void writeTo(GraphSnapshotFile.Output output) throws IOException {
+		output.writeStrings(locations);
+		output.writeInts(offsets);
+		output.writeInts(targets);
+		output.writeInts(weights);
+		output.writeInts(reverseOffsets);
+		output.writeInts(reverseSources);
+		output.writeInts(reverseWeights);
+	}
+
+	static ArrayGraph readFrom(GraphSnapshotFile.Input input) throws IOException {
+		String[] locations = input.readStrings();
+		int[] offsets = input.readInts();
+		int[] targets = input.readInts();
+		int[] weights = input.readInts();
+		int[] reverseOffsets = input.readInts();
+		int[] reverseSources = input.readInts();
+		int[] reverseWeights = input.readInts();
+
+		int nodeCount = locations.length;
+		GraphSnapshotFile.check(offsets.length == nodeCount + 1 && reverseOffsets.length == nodeCount + 1, "graph offsets do not match its locations");
+		GraphSnapshotFile.check(offsets[nodeCount] == targets.length && weights.length == targets.length
+			&& reverseOffsets[nodeCount] == targets.length && reverseSources.length == targets.length
+			&& reverseWeights.length == targets.length, "graph edge arrays differ in length");
+
+		Map<String, Integer> locationIds = new HashMap<>(Math.max(16, nodeCount * 4 / 3 + 1));
+		for (int node = 0; node < nodeCount; node++) {
+			GraphSnapshotFile.check(locationIds.put(locations[node], node) == null, "duplicate location " + locations[node]);
+		}
+		return new ArrayGraph(locations, locationIds, offsets, targets, weights, reverseOffsets, reverseSources, reverseWeights);
+	}
+}
\ No newline at end of file
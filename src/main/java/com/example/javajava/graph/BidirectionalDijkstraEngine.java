@@ -0,0 +1,127 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.List;
+
+// One-to-one Dijkstra that grows a forward search from the source over out-edges
+// and a backward search from the target over in-edges, always expanding the side
+// with the smaller queue head. It stops once the two heads together cannot beat
+// the best meeting distance found so far.
+public class BidirectionalDijkstraEngine {
+
+	private final WorkspacePool pool;
+
+	public BidirectionalDijkstraEngine() {
+		this(new WorkspacePool());
+	}
+
+	public BidirectionalDijkstraEngine(WorkspacePool pool) {
+		this.pool = pool;
+	}
+
+	public WorkspacePool getPool() {
+		return pool;
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, int source, int target) {
+		if (source == target) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		SearchWorkspace forward = pool.acquire(graph.getLocationCount());
+		SearchWorkspace backward = pool.acquire(graph.getLocationCount());
+		try {
+			int meetingNode = search(graph, source, target, forward, backward);
+			if (meetingNode < 0) {
+				return new PathResult();
+			}
+			return new PathResult(buildPath(graph, meetingNode, forward, backward),
+				forward.getDistance(meetingNode) + backward.getDistance(meetingNode));
+		} finally {
+			pool.release(backward);
+			pool.release(forward);
+		}
+	}
+
+	// Runs on two reset workspaces and returns the meeting node, or -1 when target is unreachable
+	public int search(CompiledGraph graph, int source, int target, SearchWorkspace forward, SearchWorkspace backward) {
+		IndexedDaryHeap forwardHeap = forward.getHeap();
+		IndexedDaryHeap backwardHeap = backward.getHeap();
+		EdgeCursor outEdges = graph.outEdges();
+		EdgeCursor inEdges = graph.inEdges();
+		forward.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		forwardHeap.insertOrDecrease(source, 0);
+		backward.reach(target, 0, SearchWorkspace.NO_PREDECESSOR);
+		backwardHeap.insertOrDecrease(target, 0);
+
+		// Sums involving an unreached side are never below UNREACHABLE, so they can't become the best
+		long best = SearchWorkspace.UNREACHABLE;
+		int meetingNode = -1;
+
+		while (true) {
+			long forwardTop = forwardHeap.isEmpty() ? SearchWorkspace.UNREACHABLE : forwardHeap.peekKey();
+			long backwardTop = backwardHeap.isEmpty() ? SearchWorkspace.UNREACHABLE : backwardHeap.peekKey();
+			if (forwardTop + backwardTop >= best) {
+				break;
+			}
+
+			if (forwardTop <= backwardTop) {
+				int node = forwardHeap.poll();
+				forward.settle(node);
+				int distance = forward.getDistance(node);
+				outEdges.moveTo(node);
+				while (outEdges.next()) {
+					int neighbor = outEdges.neighbor();
+					int newDistance = distance + outEdges.weight();
+					if (newDistance < forward.getDistance(neighbor)) {
+						forward.reach(neighbor, newDistance, node);
+						forwardHeap.insertOrDecrease(neighbor, newDistance);
+					}
+					long candidate = (long) forward.getDistance(neighbor) + backward.getDistance(neighbor);
+					if (candidate < best) {
+						best = candidate;
+						meetingNode = neighbor;
+					}
+				}
+				if ((long) distance + backward.getDistance(node) < best) {
+					best = (long) distance + backward.getDistance(node);
+					meetingNode = node;
+				}
+			} else {
+				int node = backwardHeap.poll();
+				backward.settle(node);
+				int distance = backward.getDistance(node);
+				inEdges.moveTo(node);
+				while (inEdges.next()) {
+					int neighbor = inEdges.neighbor();
+					int newDistance = distance + inEdges.weight();
+					if (newDistance < backward.getDistance(neighbor)) {
+						backward.reach(neighbor, newDistance, node);
+						backwardHeap.insertOrDecrease(neighbor, newDistance);
+					}
+					long candidate = (long) forward.getDistance(neighbor) + backward.getDistance(neighbor);
+					if (candidate < best) {
+						best = candidate;
+						meetingNode = neighbor;
+					}
+				}
+				if ((long) distance + forward.getDistance(node) < best) {
+					best = (long) distance + forward.getDistance(node);
+					meetingNode = node;
+				}
+			}
+		}
+
+		return meetingNode;
+	}
+
+	private List<String> buildPath(CompiledGraph graph, int meetingNode, SearchWorkspace forward, SearchWorkspace backward) {
+		List<String> path = forward.buildPath(graph, meetingNode);
+		// Backward predecessors point one step closer to the target
+		for (int node = backward.getPredecessor(meetingNode); node != SearchWorkspace.NO_PREDECESSOR; node = backward.getPredecessor(node)) {
+			path.add(graph.getLocation(node));
+		}
+		return path;
+	}
+}
\ No newline at end of file
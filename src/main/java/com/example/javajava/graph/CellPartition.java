@@ -0,0 +1,293 @@
+package com.example.javajava.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// Nested multi-level partition of a CompiledGraph for the overlay engine. Level 1
+// cells are grown breadth-first over the undirected topology up to cellSize
+// nodes; every further level groups whole cells of the level below, each
+// allowing LEVEL_GROWTH times as many nodes. A node is a boundary node of its
+// level-l cell when any edge, in either direction, links it to another cell.
+// Only topology is used, so the partition survives weight-only reloads.
+public final class CellPartition {
+
+	private static final int LEVEL_GROWTH = 16;
+
+	private final int[][] cells;
+	private final int[] cellCounts;
+	private final int[][] boundaryOffsets;
+	private final int[][] boundaryNodes;
+	private final int[][] boundaryIndices;
+	private final int[] edgeOffsets;
+	private final int[] edgeTargets;
+	private final long preprocessingMillis;
+
+	private CellPartition(int[][] cells, int[] cellCounts, int[][] boundaryOffsets, int[][] boundaryNodes,
+			int[][] boundaryIndices, int[] edgeOffsets, int[] edgeTargets, long preprocessingMillis) {
+		this.cells = cells;
+		this.cellCounts = cellCounts;
+		this.boundaryOffsets = boundaryOffsets;
+		this.boundaryNodes = boundaryNodes;
+		this.boundaryIndices = boundaryIndices;
+		this.edgeOffsets = edgeOffsets;
+		this.edgeTargets = edgeTargets;
+		this.preprocessingMillis = preprocessingMillis;
+	}
+
+	public static CellPartition build(CompiledGraph graph, int cellSize, int levelCount) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("Cell size must be positive");
+		}
+		if (levelCount <= 0) {
+			throw new IllegalArgumentException("Level count must be positive");
+		}
+
+		long start = System.nanoTime();
+		int nodeCount = graph.getLocationCount();
+		int[] adjacencyOffsets = new int[nodeCount + 1];
+		int[] adjacency = undirectedAdjacency(graph, adjacencyOffsets);
+
+		int[][] cells = new int[levelCount][];
+		int[] cellCounts = new int[levelCount];
+		int[] unitOf = new int[nodeCount];
+		int[] unitSizes = new int[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			unitOf[node] = node;
+			unitSizes[node] = 1;
+		}
+		int unitCount = nodeCount;
+		int[] unitAdjacencyOffsets = adjacencyOffsets;
+		int[] unitAdjacency = adjacency;
+		long limit = cellSize;
+
+		// Each level grows regions over the cells of the level below, treated as weighted units
+		for (int level = 0; level < levelCount; level++) {
+			int[] groupOf = growRegions(unitCount, unitSizes, unitAdjacencyOffsets, unitAdjacency, limit);
+			int groupCount = 0;
+			for (int unit = 0; unit < unitCount; unit++) {
+				groupCount = Math.max(groupCount, groupOf[unit] + 1);
+			}
+
+			cells[level] = new int[nodeCount];
+			for (int node = 0; node < nodeCount; node++) {
+				cells[level][node] = groupOf[unitOf[node]];
+			}
+			cellCounts[level] = groupCount;
+
+			int[] groupSizes = new int[groupCount];
+			for (int unit = 0; unit < unitCount; unit++) {
+				groupSizes[groupOf[unit]] += unitSizes[unit];
+			}
+			int[] groupAdjacencyOffsets = new int[groupCount + 1];
+			unitAdjacency = contractAdjacency(unitCount, unitAdjacencyOffsets, unitAdjacency, groupOf, groupCount, groupAdjacencyOffsets);
+			unitAdjacencyOffsets = groupAdjacencyOffsets;
+			unitOf = cells[level];
+			unitSizes = groupSizes;
+			unitCount = groupCount;
+			limit = Math.min(Integer.MAX_VALUE, limit * LEVEL_GROWTH);
+		}
+
+		int[][] boundaryOffsets = new int[levelCount][];
+		int[][] boundaryNodes = new int[levelCount][];
+		int[][] boundaryIndices = new int[levelCount][];
+		for (int level = 0; level < levelCount; level++) {
+			int[] cell = cells[level];
+			boolean[] boundary = new boolean[nodeCount];
+			for (int node = 0; node < nodeCount; node++) {
+				for (int i = adjacencyOffsets[node]; i < adjacencyOffsets[node + 1]; i++) {
+					if (cell[adjacency[i]] != cell[node]) {
+						boundary[node] = true;
+						break;
+					}
+				}
+			}
+
+			int[] offsets = new int[cellCounts[level] + 1];
+			for (int node = 0; node < nodeCount; node++) {
+				if (boundary[node]) {
+					offsets[cell[node] + 1]++;
+				}
+			}
+			for (int c = 0; c < cellCounts[level]; c++) {
+				offsets[c + 1] += offsets[c];
+			}
+
+			// Node ids ascend within each cell, so the index of a node is stable across customizations
+			int[] nodes = new int[offsets[cellCounts[level]]];
+			int[] indices = new int[nodeCount];
+			Arrays.fill(indices, -1);
+			int[] cursor = Arrays.copyOf(offsets, cellCounts[level]);
+			for (int node = 0; node < nodeCount; node++) {
+				if (boundary[node]) {
+					int slot = cursor[cell[node]]++;
+					nodes[slot] = node;
+					indices[node] = slot - offsets[cell[node]];
+				}
+			}
+			boundaryOffsets[level] = offsets;
+			boundaryNodes[level] = nodes;
+			boundaryIndices[level] = indices;
+		}
+
+		int[] edgeOffsets = new int[nodeCount + 1];
+		int[] edgeTargets = new int[graph.getEdgeCount()];
+		for (int node = 0; node < nodeCount; node++) {
+			edgeOffsets[node + 1] = graph.endEdge(node);
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				edgeTargets[edge] = graph.getTarget(edge);
+			}
+		}
+
+		return new CellPartition(cells, cellCounts, boundaryOffsets, boundaryNodes, boundaryIndices,
+			edgeOffsets, edgeTargets, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static int[] undirectedAdjacency(CompiledGraph graph, int[] offsets) {
+		int nodeCount = graph.getLocationCount();
+		for (int node = 0; node < nodeCount; node++) {
+			offsets[node + 1] = offsets[node] + (graph.endEdge(node) - graph.firstEdge(node))
+				+ (graph.endInEdge(node) - graph.firstInEdge(node));
+		}
+		int[] adjacency = new int[offsets[nodeCount]];
+		for (int node = 0; node < nodeCount; node++) {
+			int slot = offsets[node];
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				adjacency[slot++] = graph.getTarget(edge);
+			}
+			for (int inEdge = graph.firstInEdge(node); inEdge < graph.endInEdge(node); inEdge++) {
+				adjacency[slot++] = graph.getSource(inEdge);
+			}
+		}
+		return adjacency;
+	}
+
+	// Breadth-first region growing: a region takes neighbouring units while they fit under the limit
+	private static int[] growRegions(int unitCount, int[] sizes, int[] offsets, int[] adjacency, long limit) {
+		int[] groupOf = new int[unitCount];
+		Arrays.fill(groupOf, -1);
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		int groupCount = 0;
+
+		for (int seed = 0; seed < unitCount; seed++) {
+			if (groupOf[seed] >= 0) continue;
+
+			int group = groupCount++;
+			long size = sizes[seed];
+			groupOf[seed] = group;
+			queue.add(seed);
+			while (!queue.isEmpty()) {
+				int unit = queue.poll();
+				for (int i = offsets[unit]; i < offsets[unit + 1]; i++) {
+					int neighbor = adjacency[i];
+					if (groupOf[neighbor] < 0 && size + sizes[neighbor] <= limit) {
+						groupOf[neighbor] = group;
+						size += sizes[neighbor];
+						queue.add(neighbor);
+					}
+				}
+			}
+		}
+		return groupOf;
+	}
+
+	// Adjacency between groups, without self links or duplicates
+	private static int[] contractAdjacency(int unitCount, int[] offsets, int[] adjacency, int[] groupOf, int groupCount,
+			int[] groupOffsets) {
+		IntArrayList[] members = new IntArrayList[groupCount];
+		for (int group = 0; group < groupCount; group++) {
+			members[group] = new IntArrayList();
+		}
+		for (int unit = 0; unit < unitCount; unit++) {
+			members[groupOf[unit]].add(unit);
+		}
+
+		IntArrayList result = new IntArrayList();
+		int[] marks = new int[groupCount];
+		Arrays.fill(marks, -1);
+		for (int group = 0; group < groupCount; group++) {
+			groupOffsets[group] = result.size();
+			marks[group] = group;
+			for (int m = 0; m < members[group].size(); m++) {
+				int unit = members[group].get(m);
+				for (int i = offsets[unit]; i < offsets[unit + 1]; i++) {
+					int neighborGroup = groupOf[adjacency[i]];
+					if (marks[neighborGroup] != group) {
+						marks[neighborGroup] = group;
+						result.add(neighborGroup);
+					}
+				}
+			}
+		}
+		groupOffsets[groupCount] = result.size();
+		return result.toArray();
+	}
+
+	// Same locations and the same edges in the same order, as produced by reloading
+	// a file whose rows only changed their travel times
+	public boolean supports(CompiledGraph graph) {
+		if (graph.getLocationCount() != edgeOffsets.length - 1 || graph.getEdgeCount() != edgeTargets.length) {
+			return false;
+		}
+		for (int node = 0; node < edgeOffsets.length - 1; node++) {
+			if (graph.endEdge(node) != edgeOffsets[node + 1]) {
+				return false;
+			}
+		}
+		for (int edge = 0; edge < edgeTargets.length; edge++) {
+			if (graph.getTarget(edge) != edgeTargets[edge]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getLevelCount() {
+		return cells.length;
+	}
+
+	public int getNodeCount() {
+		return edgeOffsets.length - 1;
+	}
+
+	// Levels are numbered from 1, the finest; level 0 would be the original graph
+	public int getCellCount(int level) {
+		return cellCounts[level - 1];
+	}
+
+	public int getCell(int level, int node) {
+		return cells[level - 1][node];
+	}
+
+	public int firstBoundary(int level, int cell) {
+		return boundaryOffsets[level - 1][cell];
+	}
+
+	public int endBoundary(int level, int cell) {
+		return boundaryOffsets[level - 1][cell + 1];
+	}
+
+	public int getBoundaryNode(int level, int slot) {
+		return boundaryNodes[level - 1][slot];
+	}
+
+	// Position of node among its cell's boundary nodes, or -1 when it is interior
+	public int getBoundaryIndex(int level, int node) {
+		return boundaryIndices[level - 1][node];
+	}
+
+	public int getBoundaryCount(int level) {
+		return boundaryNodes[level - 1].length;
+	}
+
+	public long getPreprocessingMillis() {
+		return preprocessingMillis;
+	}
+
+	public long getMemoryBytes() {
+		long bytes = 4L * (edgeOffsets.length + edgeTargets.length);
+		for (int level = 0; level < cells.length; level++) {
+			bytes += 4L * (cells[level].length + boundaryOffsets[level].length + boundaryNodes[level].length + boundaryIndices[level].length);
+		}
+		return bytes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+// Immutable compressed-sparse-row graph: locations are dense int ids and the
+// out-edges of node n are the slots firstEdge(n) .. endEdge(n) - 1. The same
+// layout is kept for in-edges so backward searches never scan the whole graph.
+// Graphs are built on the heap (ArrayGraph) and may be moved into a mapped
+// file (MappedGraph); engines only see this class, and with a single storage
+// in use the JIT binds its calls to that one implementation.
+public abstract class CompiledGraph {
+
+	public static final CompiledGraph EMPTY = new ArrayGraph(new String[0], new HashMap<>(),
+		new int[1], new int[0], new int[0], new int[1], new int[0], new int[0]);
+
+	CompiledGraph() {
+	}
+
+	public static CompiledGraph fromTravelTimes(List<TravelTime> travelTimes) {
+		return new GraphBuilder().addTravelTimes(travelTimes).build();
+	}
+
+	public abstract int getLocationCount();
+
+	public abstract int getEdgeCount();
+
+	public abstract int indexOf(String location);
+
+	public boolean hasLocation(String location) {
+		return indexOf(location) >= 0;
+	}
+
+	public abstract String getLocation(int node);
+
+	public abstract int firstEdge(int node);
+
+	public abstract int endEdge(int node);
+
+	public abstract int getTarget(int edge);
+
+	public abstract int getWeight(int edge);
+
+	public abstract int firstInEdge(int node);
+
+	public abstract int endInEdge(int node);
+
+	public abstract int getSource(int inEdge);
+
+	public abstract int getInWeight(int inEdge);
+
+	// Relaxation loops walk edges through these rather than the slot accessors
+	public EdgeCursor outEdges() {
+		return new EdgeCursor.OutEdges(this);
+	}
+
+	public EdgeCursor inEdges() {
+		return new EdgeCursor.InEdges(this);
+	}
+
+	// Where the arrays and location names live, "heap", "mapped" or "compressed"
+	public abstract String getStorage();
+
+	public abstract long getMemoryBytes();
+
+	public GraphBuilder toBuilder() {
+		GraphBuilder builder = new GraphBuilder();
+		for (int node = 0; node < getLocationCount(); node++) {
+			builder.addLocation(getLocation(node));
+		}
+		EdgeCursor edges = outEdges();
+		for (int node = 0; node < getLocationCount(); node++) {
+			edges.moveTo(node);
+			while (edges.next()) {
+				builder.addEdge(node, edges.neighbor(), edges.weight());
+			}
+		}
+		return builder;
+	}
+
+	abstract void writeTo(GraphSnapshotFile.Output output) throws IOException;
+
+	static CompiledGraph readFrom(GraphSnapshotFile.Input input) throws IOException {
+		return ArrayGraph.readFrom(input);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,339 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// A heap layout that trades some decoding for space. The out-edges of every
+// node are sorted by target; the first target is stored as the zigzagged
+// difference to the node itself and every further one as the gap to the one
+// before, each as a LEB128 varint. Weights keep one fixed width for the whole
+// graph, the narrowest of 1, 2 or 4 bytes that holds all of them, so they stay
+// addressable by slot. In-edges are encoded the same way by source. Searches
+// walk edges through outEdges and inEdges, which decode as they advance; the
+// slot accessors first look up the edge's node and decode its list up to the
+// slot, which preprocessing can afford but a relaxation loop cannot.
+public final class CompressedGraph extends CompiledGraph {
+
+	private static final VarHandle SHORTS = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private final String[] locations;
+	private final Map<String, Integer> locationIds;
+	private final int weightWidth;
+	private final Adjacency out;
+	private final Adjacency in;
+
+	private CompressedGraph(String[] locations, Map<String, Integer> locationIds, int weightWidth, Adjacency out, Adjacency in) {
+		this.locations = locations;
+		this.locationIds = locationIds;
+		this.weightWidth = weightWidth;
+		this.out = out;
+		this.in = in;
+	}
+
+	// Encodes any graph; one that is already compressed is returned as is
+	public static CompressedGraph create(CompiledGraph graph) {
+		if (graph instanceof CompressedGraph compressed) {
+			return compressed;
+		}
+
+		String[] locations;
+		Map<String, Integer> locationIds;
+		if (graph instanceof ArrayGraph arrays) {
+			locations = arrays.locations();
+			locationIds = arrays.locationIds();
+		} else {
+			locations = new String[graph.getLocationCount()];
+			locationIds = new HashMap<>(Math.max(16, locations.length * 4 / 3 + 1));
+			for (int node = 0; node < locations.length; node++) {
+				locations[node] = graph.getLocation(node);
+				locationIds.put(locations[node], node);
+			}
+		}
+
+		int minWeight = 0;
+		int maxWeight = 0;
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			minWeight = Math.min(minWeight, graph.getWeight(edge));
+			maxWeight = Math.max(maxWeight, graph.getWeight(edge));
+		}
+		int weightWidth = minWeight < 0 || maxWeight > 0xffff ? 4 : maxWeight > 0xff ? 2 : 1;
+		return new CompressedGraph(locations, locationIds, weightWidth,
+			Adjacency.encode(graph, false, weightWidth), Adjacency.encode(graph, true, weightWidth));
+	}
+
+	@Override
+	public int getLocationCount() {
+		return locations.length;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return out.offsets[locations.length];
+	}
+
+	@Override
+	public int indexOf(String location) {
+		Integer id = location == null ? null : locationIds.get(location);
+		return id == null ? -1 : id;
+	}
+
+	@Override
+	public String getLocation(int node) {
+		return locations[node];
+	}
+
+	@Override
+	public int firstEdge(int node) {
+		return out.offsets[node];
+	}
+
+	@Override
+	public int endEdge(int node) {
+		return out.offsets[node + 1];
+	}
+
+	@Override
+	public int getTarget(int edge) {
+		return out.neighbor(edge);
+	}
+
+	@Override
+	public int getWeight(int edge) {
+		return weight(out.weights, weightWidth, edge);
+	}
+
+	@Override
+	public int firstInEdge(int node) {
+		return in.offsets[node];
+	}
+
+	@Override
+	public int endInEdge(int node) {
+		return in.offsets[node + 1];
+	}
+
+	@Override
+	public int getSource(int inEdge) {
+		return in.neighbor(inEdge);
+	}
+
+	@Override
+	public int getInWeight(int inEdge) {
+		return weight(in.weights, weightWidth, inEdge);
+	}
+
+	@Override
+	public EdgeCursor outEdges() {
+		return new Cursor(out, weightWidth);
+	}
+
+	@Override
+	public EdgeCursor inEdges() {
+		return new Cursor(in, weightWidth);
+	}
+
+	@Override
+	public String getStorage() {
+		return "compressed";
+	}
+
+	// Offsets, encoded neighbors and weights of both directions; names and the id map come on top
+	@Override
+	public long getMemoryBytes() {
+		return out.getMemoryBytes() + in.getMemoryBytes();
+	}
+
+	public int getWeightWidth() {
+		return weightWidth;
+	}
+
+	// Decoded into the arrays an ArrayGraph writes, so snapshots do not depend on the storage mode
+	@Override
+	void writeTo(GraphSnapshotFile.Output output) throws IOException {
+		output.writeStrings(locations);
+		output.writeInts(out.offsets);
+		writeEdges(output, outEdges());
+		output.writeInts(in.offsets);
+		writeEdges(output, inEdges());
+	}
+
+	private void writeEdges(GraphSnapshotFile.Output output, EdgeCursor edges) throws IOException {
+		int[] neighbors = new int[getEdgeCount()];
+		int[] weights = new int[getEdgeCount()];
+		int edge = 0;
+		for (int node = 0; node < locations.length; node++) {
+			edges.moveTo(node);
+			while (edges.next()) {
+				neighbors[edge] = edges.neighbor();
+				weights[edge++] = edges.weight();
+			}
+		}
+		output.writeInts(neighbors);
+		output.writeInts(weights);
+	}
+
+	private static int weight(byte[] weights, int width, int edge) {
+		return switch (width) {
+			case 1 -> weights[edge] & 0xff;
+			case 2 -> (short) SHORTS.get(weights, 2 * edge) & 0xffff;
+			default -> (int) INTS.get(weights, 4 * edge);
+		};
+	}
+
+	// One direction: edge slots per node, where each node's varints start, the varints and the weights
+	private static final class Adjacency {
+
+		private final int[] offsets;
+		private final int[] positions;
+		private final byte[] neighbors;
+		private final byte[] weights;
+
+		private Adjacency(int[] offsets, int[] positions, byte[] neighbors, byte[] weights) {
+			this.offsets = offsets;
+			this.positions = positions;
+			this.neighbors = neighbors;
+			this.weights = weights;
+		}
+
+		static Adjacency encode(CompiledGraph graph, boolean reverse, int weightWidth) {
+			int nodeCount = graph.getLocationCount();
+			int edgeCount = graph.getEdgeCount();
+			int[] offsets = new int[nodeCount + 1];
+			int[] positions = new int[nodeCount + 1];
+			byte[] neighbors = new byte[Math.max(16, edgeCount + edgeCount / 2)];
+			byte[] weights = new byte[edgeCount * weightWidth];
+			// Neighbor in the high half and weight in the low, so sorting orders by neighbor
+			long[] edges = new long[16];
+			int position = 0;
+
+			for (int node = 0; node < nodeCount; node++) {
+				int first = reverse ? graph.firstInEdge(node) : graph.firstEdge(node);
+				int degree = (reverse ? graph.endInEdge(node) : graph.endEdge(node)) - first;
+				if (degree > edges.length) {
+					edges = new long[Math.max(degree, 2 * edges.length)];
+				}
+				for (int i = 0; i < degree; i++) {
+					int neighbor = reverse ? graph.getSource(first + i) : graph.getTarget(first + i);
+					int weight = reverse ? graph.getInWeight(first + i) : graph.getWeight(first + i);
+					edges[i] = (long) neighbor << 32 | weight & 0xffffffffL;
+				}
+				Arrays.sort(edges, 0, degree);
+
+				int previous = node;
+				for (int i = 0; i < degree; i++) {
+					int neighbor = (int) (edges[i] >>> 32);
+					int delta = neighbor - previous;
+					int value = i == 0 ? delta << 1 ^ delta >> 31 : delta;
+					if (position + 5 > neighbors.length) {
+						neighbors = Arrays.copyOf(neighbors, Math.max(position + 5, 2 * neighbors.length));
+					}
+					while ((value & ~0x7f) != 0) {
+						neighbors[position++] = (byte) (value & 0x7f | 0x80);
+						value >>>= 7;
+					}
+					neighbors[position++] = (byte) value;
+					putWeight(weights, weightWidth, first + i, (int) edges[i]);
+					previous = neighbor;
+				}
+				offsets[node + 1] = first + degree;
+				positions[node + 1] = position;
+			}
+			return new Adjacency(offsets, positions, Arrays.copyOf(neighbors, position), weights);
+		}
+
+		private static void putWeight(byte[] weights, int width, int edge, int weight) {
+			switch (width) {
+				case 1 -> weights[edge] = (byte) weight;
+				case 2 -> SHORTS.set(weights, 2 * edge, (short) weight);
+				default -> INTS.set(weights, 4 * edge, weight);
+			}
+		}
+
+		// Slot access: the node owning the slot is the last one starting at or before it
+		int neighbor(int edge) {
+			int low = 0;
+			int high = offsets.length - 2;
+			while (low < high) {
+				int middle = (low + high + 1) >>> 1;
+				if (offsets[middle] <= edge) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+
+			Cursor cursor = new Cursor(this, 1);
+			cursor.moveTo(low);
+			for (int slot = offsets[low]; slot <= edge; slot++) {
+				cursor.next();
+			}
+			return cursor.neighbor();
+		}
+
+		long getMemoryBytes() {
+			return 4L * (offsets.length + positions.length) + neighbors.length + weights.length;
+		}
+	}
+
+	private static final class Cursor extends EdgeCursor {
+
+		private final int[] offsets;
+		private final int[] positions;
+		private final byte[] neighbors;
+		private final byte[] weights;
+		private final int weightWidth;
+		private int first;
+		private int edge;
+		private int end;
+		private int position;
+		private int neighbor;
+
+		Cursor(Adjacency adjacency, int weightWidth) {
+			this.offsets = adjacency.offsets;
+			this.positions = adjacency.positions;
+			this.neighbors = adjacency.neighbors;
+			this.weights = adjacency.weights;
+			this.weightWidth = weightWidth;
+		}
+
+		@Override
+		public void moveTo(int node) {
+			first = offsets[node];
+			edge = first - 1;
+			end = offsets[node + 1];
+			position = positions[node];
+			neighbor = node;
+		}
+
+		@Override
+		public boolean next() {
+			if (++edge >= end) {
+				return false;
+			}
+			int b = neighbors[position++];
+			int value = b & 0x7f;
+			for (int shift = 7; b < 0; shift += 7) {
+				b = neighbors[position++];
+				value |= (b & 0x7f) << shift;
+			}
+			neighbor += edge == first ? value >>> 1 ^ -(value & 1) : value;
+			return true;
+		}
+
+		@Override
+		public int neighbor() {
+			return neighbor;
+		}
+
+		@Override
+		public int weight() {
+			return CompressedGraph.weight(weights, weightWidth, edge);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,202 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Result of contracting a CompiledGraph. Every edge, original or shortcut, is
+// stored once; a shortcut remembers the two lower edges it replaces so a path
+// can be unpacked back to original locations. Searches only ever move towards
+// higher ranks: forward over up edges, backward over down edges.
+public final class ContractionHierarchy {
+
+	public static final int NO_CHILD = -1;
+
+	private final int[] ranks;
+	private final int[] edgeSources;
+	private final int[] edgeTargets;
+	private final int[] edgeWeights;
+	private final int[] firstChildren;
+	private final int[] secondChildren;
+	private final int originalEdgeCount;
+	private final int[] upOffsets;
+	private final int[] upEdges;
+	private final int[] downOffsets;
+	private final int[] downEdges;
+	private final long preprocessingMillis;
+	private final long customizationMillis;
+
+	ContractionHierarchy(int[] ranks, int[] edgeSources, int[] edgeTargets, int[] edgeWeights,
+			int[] firstChildren, int[] secondChildren, int originalEdgeCount, long preprocessingMillis) {
+		this(ranks, edgeSources, edgeTargets, edgeWeights, firstChildren, secondChildren, originalEdgeCount, preprocessingMillis, 0);
+	}
+
+	// For hierarchies customized from a ContractionOrder, preprocessing is the
+	// topology-only part and customization the per-metric weight pass
+	ContractionHierarchy(int[] ranks, int[] edgeSources, int[] edgeTargets, int[] edgeWeights,
+			int[] firstChildren, int[] secondChildren, int originalEdgeCount, long preprocessingMillis,
+			long customizationMillis) {
+		this.ranks = ranks;
+		this.edgeSources = edgeSources;
+		this.edgeTargets = edgeTargets;
+		this.edgeWeights = edgeWeights;
+		this.firstChildren = firstChildren;
+		this.secondChildren = secondChildren;
+		this.originalEdgeCount = originalEdgeCount;
+		this.preprocessingMillis = preprocessingMillis;
+		this.customizationMillis = customizationMillis;
+
+		int nodeCount = ranks.length;
+		upOffsets = new int[nodeCount + 1];
+		downOffsets = new int[nodeCount + 1];
+		for (int edge = 0; edge < edgeSources.length; edge++) {
+			if (isUpward(edge)) {
+				upOffsets[edgeSources[edge] + 1]++;
+			} else {
+				downOffsets[edgeTargets[edge] + 1]++;
+			}
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			upOffsets[node + 1] += upOffsets[node];
+			downOffsets[node + 1] += downOffsets[node];
+		}
+
+		upEdges = new int[upOffsets[nodeCount]];
+		downEdges = new int[downOffsets[nodeCount]];
+		int[] upCursor = Arrays.copyOf(upOffsets, nodeCount);
+		int[] downCursor = Arrays.copyOf(downOffsets, nodeCount);
+		for (int edge = 0; edge < edgeSources.length; edge++) {
+			if (isUpward(edge)) {
+				upEdges[upCursor[edgeSources[edge]]++] = edge;
+			} else {
+				downEdges[downCursor[edgeTargets[edge]]++] = edge;
+			}
+		}
+	}
+
+	public static ContractionHierarchy build(CompiledGraph graph) {
+		return new ContractionHierarchyBuilder(graph).build();
+	}
+
+	private boolean isUpward(int edge) {
+		return ranks[edgeTargets[edge]] > ranks[edgeSources[edge]];
+	}
+
+	public int getNodeCount() {
+		return ranks.length;
+	}
+
+	public int getRank(int node) {
+		return ranks[node];
+	}
+
+	public int getEdgeCount() {
+		return edgeSources.length;
+	}
+
+	public int getShortcutCount() {
+		return edgeSources.length - originalEdgeCount;
+	}
+
+	public int getEdgeSource(int edge) {
+		return edgeSources[edge];
+	}
+
+	public int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+	public int getEdgeWeight(int edge) {
+		return edgeWeights[edge];
+	}
+
+	public int getFirstChild(int edge) {
+		return firstChildren[edge];
+	}
+
+	public int getSecondChild(int edge) {
+		return secondChildren[edge];
+	}
+
+	public int firstUpEdge(int node) {
+		return upOffsets[node];
+	}
+
+	public int endUpEdge(int node) {
+		return upOffsets[node + 1];
+	}
+
+	public int getUpEdge(int slot) {
+		return upEdges[slot];
+	}
+
+	public int firstDownEdge(int node) {
+		return downOffsets[node];
+	}
+
+	public int endDownEdge(int node) {
+		return downOffsets[node + 1];
+	}
+
+	public int getDownEdge(int slot) {
+		return downEdges[slot];
+	}
+
+	public long getPreprocessingMillis() {
+		return preprocessingMillis;
+	}
+
+	public long getCustomizationMillis() {
+		return customizationMillis;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * (ranks.length * 3L + edgeSources.length * 5L + upEdges.length + downEdges.length);
+	}
+
+	// Appends the original nodes an edge stands for, excluding its source
+	void unpackEdge(int edge, IntArrayList nodes) {
+		IntArrayList stack = new IntArrayList();
+		stack.add(edge);
+		while (!stack.isEmpty()) {
+			int current = stack.removeLast();
+			if (firstChildren[current] == NO_CHILD) {
+				nodes.add(edgeTargets[current]);
+			} else {
+				stack.add(secondChildren[current]);
+				stack.add(firstChildren[current]);
+			}
+		}
+	}
+
+	// Only the edges are stored, the up and down adjacency is rebuilt on reading
+	void writeTo(GraphSnapshotFile.Output output) throws IOException {
+		output.writeInts(ranks);
+		output.writeInts(edgeSources);
+		output.writeInts(edgeTargets);
+		output.writeInts(edgeWeights);
+		output.writeInts(firstChildren);
+		output.writeInts(secondChildren);
+		output.writeInt(originalEdgeCount);
+		output.writeLong(preprocessingMillis);
+		output.writeLong(customizationMillis);
+	}
+
+	static ContractionHierarchy readFrom(GraphSnapshotFile.Input input) throws IOException {
+		int[] ranks = input.readInts();
+		int[] edgeSources = input.readInts();
+		int[] edgeTargets = input.readInts();
+		int[] edgeWeights = input.readInts();
+		int[] firstChildren = input.readInts();
+		int[] secondChildren = input.readInts();
+		int originalEdgeCount = input.readInt();
+		int edgeCount = edgeSources.length;
+		GraphSnapshotFile.check(edgeTargets.length == edgeCount && edgeWeights.length == edgeCount && firstChildren.length == edgeCount
+			&& secondChildren.length == edgeCount && originalEdgeCount >= 0 && originalEdgeCount <= edgeCount, "hierarchy edge arrays differ in length");
+		for (int edge = 0; edge < edgeCount; edge++) {
+			GraphSnapshotFile.check(edgeSources[edge] >= 0 && edgeSources[edge] < ranks.length
+				&& edgeTargets[edge] >= 0 && edgeTargets[edge] < ranks.length, "hierarchy edge outside the graph");
+		}
+		return new ContractionHierarchy(ranks, edgeSources, edgeTargets, edgeWeights, firstChildren, secondChildren,
+			originalEdgeCount, input.readLong(), input.readLong());
+	}
+}
\ No newline at end of file
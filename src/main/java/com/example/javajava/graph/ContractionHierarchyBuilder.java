@@ -0,0 +1,229 @@
+package com.example.javajava.graph;
+
+// Contracts nodes in order of edge difference (shortcuts added minus edges
+// removed) plus contracted neighbours and hierarchy depth, which spreads the
+// contraction evenly across the graph. Priorities are refreshed lazily
+// when a node reaches the top of the queue. Witness searches are bounded, so
+// an occasional unnecessary shortcut is possible but never a missing one.
+class ContractionHierarchyBuilder {
+
+	// Priority estimates only need a rough shortcut count, contraction needs tighter witnesses
+	private static final int ESTIMATE_SETTLE_LIMIT = 40;
+	private static final int CONTRACTION_SETTLE_LIMIT = 500;
+
+	private final int nodeCount;
+	private final IntArrayList edgeSources = new IntArrayList();
+	private final IntArrayList edgeTargets = new IntArrayList();
+	private final IntArrayList edgeWeights = new IntArrayList();
+	private final IntArrayList firstChildren = new IntArrayList();
+	private final IntArrayList secondChildren = new IntArrayList();
+	private final IntArrayList[] outEdges;
+	private final IntArrayList[] inEdges;
+	private final boolean[] contracted;
+	private final int[] contractedNeighbors;
+	private final int[] levels;
+	private final int originalEdgeCount;
+	private final SearchWorkspace witnessWorkspace;
+
+	ContractionHierarchyBuilder(CompiledGraph graph) {
+		nodeCount = graph.getLocationCount();
+		outEdges = new IntArrayList[nodeCount];
+		inEdges = new IntArrayList[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			outEdges[node] = new IntArrayList();
+			inEdges[node] = new IntArrayList();
+		}
+		contracted = new boolean[nodeCount];
+		contractedNeighbors = new int[nodeCount];
+		levels = new int[nodeCount];
+		witnessWorkspace = new SearchWorkspace(nodeCount);
+
+		for (int node = 0; node < nodeCount; node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				// Self-loops never lie on a shortest path
+				if (graph.getTarget(edge) != node) {
+					addEdge(node, graph.getTarget(edge), graph.getWeight(edge), ContractionHierarchy.NO_CHILD, ContractionHierarchy.NO_CHILD);
+				}
+			}
+		}
+		originalEdgeCount = edgeSources.size();
+	}
+
+	ContractionHierarchy build() {
+		long start = System.nanoTime();
+		int[] ranks = new int[nodeCount];
+		IndexedDaryHeap queue = new IndexedDaryHeap(nodeCount);
+		for (int node = 0; node < nodeCount; node++) {
+			queue.insertOrDecrease(node, priority(node));
+		}
+
+		int rank = 0;
+		while (!queue.isEmpty()) {
+			int node = queue.poll();
+			int priority = priority(node);
+			if (!queue.isEmpty() && priority > queue.peekKey()) {
+				queue.insertOrDecrease(node, priority);
+				continue;
+			}
+
+			contract(node);
+			ranks[node] = rank++;
+			pruneNeighbors(node);
+		}
+
+		return new ContractionHierarchy(ranks, edgeSources.toArray(), edgeTargets.toArray(), edgeWeights.toArray(),
+			firstChildren.toArray(), secondChildren.toArray(), originalEdgeCount, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private int priority(int node) {
+		int shortcuts = processShortcuts(node, false);
+		int removedEdges = activeDegree(inEdges[node], true) + activeDegree(outEdges[node], false);
+		return 2 * (shortcuts - removedEdges) + contractedNeighbors[node] + levels[node];
+	}
+
+	private void contract(int node) {
+		processShortcuts(node, true);
+		contracted[node] = true;
+		for (int i = 0; i < inEdges[node].size(); i++) {
+			markContractedNeighbor(edgeSources.get(inEdges[node].get(i)), node);
+		}
+		for (int i = 0; i < outEdges[node].size(); i++) {
+			markContractedNeighbor(edgeTargets.get(outEdges[node].get(i)), node);
+		}
+	}
+
+	private void markContractedNeighbor(int neighbor, int node) {
+		contractedNeighbors[neighbor]++;
+		levels[neighbor] = Math.max(levels[neighbor], levels[node] + 1);
+	}
+
+	// Drops edges into the contracted node from its neighbours' lists; their
+	// priorities are refreshed lazily when they reach the top of the queue
+	private void pruneNeighbors(int node) {
+		for (int i = 0; i < inEdges[node].size(); i++) {
+			int neighbor = edgeSources.get(inEdges[node].get(i));
+			removeContracted(outEdges[neighbor], edgeTargets);
+		}
+		for (int i = 0; i < outEdges[node].size(); i++) {
+			int neighbor = edgeTargets.get(outEdges[node].get(i));
+			removeContracted(inEdges[neighbor], edgeSources);
+		}
+	}
+
+	private void removeContracted(IntArrayList edges, IntArrayList endpoints) {
+		int kept = 0;
+		for (int i = 0; i < edges.size(); i++) {
+			int edge = edges.get(i);
+			if (!contracted[endpoints.get(edge)]) {
+				edges.set(kept++, edge);
+			}
+		}
+		edges.truncate(kept);
+	}
+
+	private int activeDegree(IntArrayList edges, boolean incoming) {
+		int degree = 0;
+		for (int i = 0; i < edges.size(); i++) {
+			int edge = edges.get(i);
+			if (!contracted[incoming ? edgeSources.get(edge) : edgeTargets.get(edge)]) {
+				degree++;
+			}
+		}
+		return degree;
+	}
+
+	// For each u -> node -> w among uncontracted nodes, a shortcut u -> w is needed
+	// unless a witness path avoiding node is at most as long
+	private int processShortcuts(int node, boolean addShortcuts) {
+		int shortcuts = 0;
+		IntArrayList incoming = inEdges[node];
+		IntArrayList outgoing = outEdges[node];
+
+		for (int i = 0; i < incoming.size(); i++) {
+			int inEdge = incoming.get(i);
+			int source = edgeSources.get(inEdge);
+			if (contracted[source]) continue;
+
+			int maxDistance = 0;
+			for (int j = 0; j < outgoing.size(); j++) {
+				int outEdge = outgoing.get(j);
+				int target = edgeTargets.get(outEdge);
+				if (!contracted[target] && target != source) {
+					maxDistance = Math.max(maxDistance, edgeWeights.get(inEdge) + edgeWeights.get(outEdge));
+				}
+			}
+			if (maxDistance == 0) continue;
+
+			witnessSearch(source, node, maxDistance, addShortcuts ? CONTRACTION_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+			for (int j = 0; j < outgoing.size(); j++) {
+				int outEdge = outgoing.get(j);
+				int target = edgeTargets.get(outEdge);
+				if (contracted[target] || target == source) continue;
+
+				int viaNode = edgeWeights.get(inEdge) + edgeWeights.get(outEdge);
+				if (witnessWorkspace.getDistance(target) > viaNode) {
+					shortcuts++;
+					if (addShortcuts) {
+						addOrImproveEdge(source, target, viaNode, inEdge, outEdge);
+					}
+				}
+			}
+		}
+		return shortcuts;
+	}
+
+	private void witnessSearch(int source, int excluded, int maxDistance, int settleLimit) {
+		witnessWorkspace.reset();
+		IndexedDaryHeap heap = witnessWorkspace.getHeap();
+		witnessWorkspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+
+		while (!heap.isEmpty() && witnessWorkspace.getSettledCount() < settleLimit) {
+			int node = heap.poll();
+			witnessWorkspace.settle(node);
+			int distance = witnessWorkspace.getDistance(node);
+			if (distance > maxDistance) break;
+
+			IntArrayList edges = outEdges[node];
+			for (int i = 0; i < edges.size(); i++) {
+				int edge = edges.get(i);
+				int target = edgeTargets.get(edge);
+				if (target == excluded || contracted[target]) continue;
+
+				int newDistance = distance + edgeWeights.get(edge);
+				if (newDistance < witnessWorkspace.getDistance(target)) {
+					witnessWorkspace.reach(target, newDistance, node);
+					heap.insertOrDecrease(target, newDistance);
+				}
+			}
+		}
+	}
+
+	// A shorter shortcut replaces an existing parallel edge instead of sitting beside it
+	private void addOrImproveEdge(int source, int target, int weight, int firstChild, int secondChild) {
+		IntArrayList edges = outEdges[source];
+		for (int i = 0; i < edges.size(); i++) {
+			int edge = edges.get(i);
+			if (edgeTargets.get(edge) == target) {
+				if (weight < edgeWeights.get(edge)) {
+					edgeWeights.set(edge, weight);
+					firstChildren.set(edge, firstChild);
+					secondChildren.set(edge, secondChild);
+				}
+				return;
+			}
+		}
+		addEdge(source, target, weight, firstChild, secondChild);
+	}
+
+	private void addEdge(int source, int target, int weight, int firstChild, int secondChild) {
+		int edge = edgeSources.size();
+		edgeSources.add(source);
+		edgeTargets.add(target);
+		edgeWeights.add(weight);
+		firstChildren.add(firstChild);
+		secondChildren.add(secondChild);
+		outEdges[source].add(edge);
+		inEdges[target].add(edge);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Bidirectional upward search on a ContractionHierarchy. Workspaces record the
+// edge each node was reached by, so the up-down path can be unpacked into the
+// original locations afterwards.
+public class ContractionHierarchyEngine {
+
+	private final WorkspacePool pool;
+
+	public ContractionHierarchyEngine() {
+		this(new WorkspacePool());
+	}
+
+	public ContractionHierarchyEngine(WorkspacePool pool) {
+		this.pool = pool;
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, ContractionHierarchy hierarchy, int source, int target) {
+		if (source == target) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		SearchWorkspace forward = pool.acquire(graph.getLocationCount());
+		SearchWorkspace backward = pool.acquire(graph.getLocationCount());
+		try {
+			int meetingNode = search(hierarchy, source, target, forward, backward);
+			if (meetingNode < 0) {
+				return new PathResult();
+			}
+
+			IntArrayList nodes = unpackPath(hierarchy, source, meetingNode, forward, backward);
+			List<String> path = new ArrayList<>(nodes.size());
+			for (int i = 0; i < nodes.size(); i++) {
+				path.add(graph.getLocation(nodes.get(i)));
+			}
+			return new PathResult(path, forward.getDistance(meetingNode) + backward.getDistance(meetingNode));
+		} finally {
+			pool.release(backward);
+			pool.release(forward);
+		}
+	}
+
+	// Runs on two reset workspaces and returns the meeting node, or -1 when target is unreachable.
+	// Each side stops once its queue head can no longer improve the best meeting distance.
+	public int search(ContractionHierarchy hierarchy, int source, int target, SearchWorkspace forward, SearchWorkspace backward) {
+		IndexedDaryHeap forwardHeap = forward.getHeap();
+		IndexedDaryHeap backwardHeap = backward.getHeap();
+		forward.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		forwardHeap.insertOrDecrease(source, 0);
+		backward.reach(target, 0, SearchWorkspace.NO_PREDECESSOR);
+		backwardHeap.insertOrDecrease(target, 0);
+
+		long best = SearchWorkspace.UNREACHABLE;
+		int meetingNode = -1;
+
+		while (true) {
+			boolean forwardActive = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+			boolean backwardActive = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+			if (!forwardActive && !backwardActive) {
+				break;
+			}
+
+			boolean expandForward = forwardActive && (!backwardActive || forwardHeap.peekKey() <= backwardHeap.peekKey());
+			SearchWorkspace workspace = expandForward ? forward : backward;
+			SearchWorkspace opposite = expandForward ? backward : forward;
+			IndexedDaryHeap heap = workspace.getHeap();
+
+			int node = heap.poll();
+			workspace.settle(node);
+			int distance = workspace.getDistance(node);
+			long candidate = (long) distance + opposite.getDistance(node);
+			if (candidate < best) {
+				best = candidate;
+				meetingNode = node;
+			}
+
+			int end = expandForward ? hierarchy.endUpEdge(node) : hierarchy.endDownEdge(node);
+			for (int slot = expandForward ? hierarchy.firstUpEdge(node) : hierarchy.firstDownEdge(node); slot < end; slot++) {
+				int edge = expandForward ? hierarchy.getUpEdge(slot) : hierarchy.getDownEdge(slot);
+				int neighbor = expandForward ? hierarchy.getEdgeTarget(edge) : hierarchy.getEdgeSource(edge);
+				int newDistance = distance + hierarchy.getEdgeWeight(edge);
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, edge);
+					heap.insertOrDecrease(neighbor, newDistance);
+				}
+			}
+		}
+
+		return meetingNode;
+	}
+
+	private IntArrayList unpackPath(ContractionHierarchy hierarchy, int source, int meetingNode,
+			SearchWorkspace forward, SearchWorkspace backward) {
+		// Forward predecessors are collected meeting node first, so replay them in reverse
+		IntArrayList forwardEdges = new IntArrayList();
+		for (int edge = forward.getPredecessor(meetingNode); edge != SearchWorkspace.NO_PREDECESSOR;
+				edge = forward.getPredecessor(hierarchy.getEdgeSource(edge))) {
+			forwardEdges.add(edge);
+		}
+
+		IntArrayList nodes = new IntArrayList();
+		nodes.add(source);
+		for (int i = forwardEdges.size() - 1; i >= 0; i--) {
+			hierarchy.unpackEdge(forwardEdges.get(i), nodes);
+		}
+		for (int edge = backward.getPredecessor(meetingNode); edge != SearchWorkspace.NO_PREDECESSOR;
+				edge = backward.getPredecessor(hierarchy.getEdgeTarget(edge))) {
+			hierarchy.unpackEdge(edge, nodes);
+		}
+		return nodes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+
+// Metric-independent half of a customizable contraction hierarchy: a node
+// order and the undirected arcs it induces, computed from topology alone.
+// Customization turns it into a ContractionHierarchy for one set of weights
+// in a single pass over lower triangles, without any witness searches, so a
+// reload that only changes travel times skips the expensive part entirely.
+public final class ContractionOrder {
+
+	// Each arc has two directed slots: from its lower-ranked end up and back down
+	private static final int UP = 0;
+	private static final int DOWN = 1;
+	private static final int NO_MIDDLE = -1;
+
+	private final String[] locations;
+	private final int[] ranks;
+	private final int[] arcOffsets;
+	private final int[] arcHeads;
+	private final long preprocessingMillis;
+
+	// Arcs are stored at their lower-ranked end, heads sorted by node id for lookup
+	ContractionOrder(String[] locations, int[] ranks, int[] arcOffsets, int[] arcHeads, long preprocessingMillis) {
+		this.locations = locations;
+		this.ranks = ranks;
+		this.arcOffsets = arcOffsets;
+		this.arcHeads = arcHeads;
+		this.preprocessingMillis = preprocessingMillis;
+	}
+
+	public static ContractionOrder build(CompiledGraph graph) {
+		return new ContractionOrderBuilder(graph).build();
+	}
+
+	// Any graph over the same locations whose edges all map onto existing arcs
+	// can be customized: changed weights, and even removed edges, keep the order valid
+	public boolean supports(CompiledGraph graph) {
+		if (graph.getLocationCount() != ranks.length) {
+			return false;
+		}
+		for (int node = 0; node < ranks.length; node++) {
+			if (!locations[node].equals(graph.getLocation(node))) {
+				return false;
+			}
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int target = graph.getTarget(edge);
+				if (target != node && findArc(node, target) < 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public ContractionHierarchy customize(CompiledGraph graph) {
+		if (!supports(graph)) {
+			throw new IllegalArgumentException("Graph topology does not match the contraction order");
+		}
+
+		long start = System.nanoTime();
+		int nodeCount = ranks.length;
+		int[] weights = new int[arcHeads.length * 2];
+		int[] middles = new int[arcHeads.length * 2];
+		Arrays.fill(weights, SearchWorkspace.UNREACHABLE);
+		Arrays.fill(middles, NO_MIDDLE);
+
+		for (int node = 0; node < nodeCount; node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int target = graph.getTarget(edge);
+				if (target != node) {
+					int slot = slot(findArc(node, target), ranks[node] < ranks[target] ? UP : DOWN);
+					weights[slot] = Math.min(weights[slot], graph.getWeight(edge));
+				}
+			}
+		}
+
+		// Lowest node first: every triangle below an arc is handled before the arc is used
+		int[] nodesByRank = new int[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			nodesByRank[ranks[node]] = node;
+		}
+		for (int rank = 0; rank < nodeCount; rank++) {
+			int middle = nodesByRank[rank];
+			for (int first = arcOffsets[middle]; first < arcOffsets[middle + 1]; first++) {
+				for (int second = arcOffsets[middle]; second < arcOffsets[middle + 1]; second++) {
+					int low = arcHeads[first];
+					int high = arcHeads[second];
+					if (ranks[low] >= ranks[high]) continue;
+
+					// low -> middle -> high and back, both shortcutting the arc low - high
+					int arc = findArc(low, high);
+					relax(weights, middles, slot(arc, UP), weights[slot(first, DOWN)], weights[slot(second, UP)], middle);
+					relax(weights, middles, slot(arc, DOWN), weights[slot(second, DOWN)], weights[slot(first, UP)], middle);
+				}
+			}
+		}
+
+		return toHierarchy(weights, middles, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static void relax(int[] weights, int[] middles, int slot, int firstWeight, int secondWeight, int middle) {
+		long viaMiddle = (long) firstWeight + secondWeight;
+		if (viaMiddle < weights[slot]) {
+			weights[slot] = (int) viaMiddle;
+			middles[slot] = middle;
+		}
+	}
+
+	// Unreachable slots are dropped; a slot improved through a middle node becomes
+	// a shortcut whose children are the two slots of that lower triangle
+	private ContractionHierarchy toHierarchy(int[] weights, int[] middles, long customizationMillis) {
+		int[] edgeIds = new int[weights.length];
+		int edgeCount = 0;
+		int originalEdgeCount = 0;
+		for (int slot = 0; slot < weights.length; slot++) {
+			if (weights[slot] == SearchWorkspace.UNREACHABLE) {
+				edgeIds[slot] = ContractionHierarchy.NO_CHILD;
+			} else {
+				edgeIds[slot] = edgeCount++;
+				if (middles[slot] == NO_MIDDLE) {
+					originalEdgeCount++;
+				}
+			}
+		}
+
+		int[] edgeSources = new int[edgeCount];
+		int[] edgeTargets = new int[edgeCount];
+		int[] edgeWeights = new int[edgeCount];
+		int[] firstChildren = new int[edgeCount];
+		int[] secondChildren = new int[edgeCount];
+		for (int lower = 0; lower < ranks.length; lower++) {
+			for (int arc = arcOffsets[lower]; arc < arcOffsets[lower + 1]; arc++) {
+				int higher = arcHeads[arc];
+				for (int direction = UP; direction <= DOWN; direction++) {
+					int edge = edgeIds[slot(arc, direction)];
+					if (edge == ContractionHierarchy.NO_CHILD) continue;
+
+					int source = direction == UP ? lower : higher;
+					int target = direction == UP ? higher : lower;
+					int middle = middles[slot(arc, direction)];
+					edgeSources[edge] = source;
+					edgeTargets[edge] = target;
+					edgeWeights[edge] = weights[slot(arc, direction)];
+					firstChildren[edge] = middle == NO_MIDDLE ? ContractionHierarchy.NO_CHILD
+						: edgeIds[slot(findArc(middle, source), DOWN)];
+					secondChildren[edge] = middle == NO_MIDDLE ? ContractionHierarchy.NO_CHILD
+						: edgeIds[slot(findArc(middle, target), UP)];
+				}
+			}
+		}
+
+		return new ContractionHierarchy(ranks, edgeSources, edgeTargets, edgeWeights, firstChildren, secondChildren,
+			originalEdgeCount, preprocessingMillis, customizationMillis);
+	}
+
+	private static int slot(int arc, int direction) {
+		return arc * 2 + direction;
+	}
+
+	private int findArc(int first, int second) {
+		int lower = ranks[first] < ranks[second] ? first : second;
+		int higher = lower == first ? second : first;
+		int index = Arrays.binarySearch(arcHeads, arcOffsets[lower], arcOffsets[lower + 1], higher);
+		return index >= 0 ? index : -1;
+	}
+
+	public int getNodeCount() {
+		return ranks.length;
+	}
+
+	public int getArcCount() {
+		return arcHeads.length;
+	}
+
+	public long getPreprocessingMillis() {
+		return preprocessingMillis;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * (ranks.length * 2L + arcHeads.length);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+
+// Eliminates the nodes of the undirected topology by minimum degree and
+// connects the remaining neighbours of every eliminated node. Weights are
+// never looked at, so the order and its arcs serve every metric on the
+// same topology.
+class ContractionOrderBuilder {
+
+	private final int nodeCount;
+	private final String[] locations;
+	private final IntArrayList[] neighbors;
+	private final int[] degrees;
+	private final boolean[] eliminated;
+	private final int[] marks;
+	private int markStamp;
+
+	ContractionOrderBuilder(CompiledGraph graph) {
+		nodeCount = graph.getLocationCount();
+		locations = new String[nodeCount];
+		neighbors = new IntArrayList[nodeCount];
+		degrees = new int[nodeCount];
+		eliminated = new boolean[nodeCount];
+		marks = new int[nodeCount];
+
+		for (int node = 0; node < nodeCount; node++) {
+			locations[node] = graph.getLocation(node);
+			neighbors[node] = new IntArrayList();
+			markStamp++;
+			marks[node] = markStamp;
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				addNeighbor(node, graph.getTarget(edge));
+			}
+			for (int inEdge = graph.firstInEdge(node); inEdge < graph.endInEdge(node); inEdge++) {
+				addNeighbor(node, graph.getSource(inEdge));
+			}
+			degrees[node] = neighbors[node].size();
+		}
+	}
+
+	private void addNeighbor(int node, int neighbor) {
+		if (marks[neighbor] != markStamp) {
+			marks[neighbor] = markStamp;
+			neighbors[node].add(neighbor);
+		}
+	}
+
+	ContractionOrder build() {
+		long start = System.nanoTime();
+		int[] ranks = new int[nodeCount];
+		IntArrayList[] upperNeighbors = new IntArrayList[nodeCount];
+		IndexedDaryHeap queue = new IndexedDaryHeap(nodeCount);
+		for (int node = 0; node < nodeCount; node++) {
+			queue.insertOrDecrease(node, degrees[node]);
+		}
+
+		int rank = 0;
+		while (!queue.isEmpty()) {
+			int node = queue.poll();
+			ranks[node] = rank++;
+			eliminated[node] = true;
+			removeEliminated(neighbors[node]);
+
+			// Every remaining neighbour is ranked higher, so these become the node's upward arcs
+			IntArrayList upper = neighbors[node];
+			upperNeighbors[node] = upper;
+			for (int i = 0; i < upper.size(); i++) {
+				degrees[upper.get(i)]--;
+			}
+			addFill(upper);
+			for (int i = 0; i < upper.size(); i++) {
+				queue.update(upper.get(i), degrees[upper.get(i)]);
+			}
+		}
+
+		int[] arcOffsets = new int[nodeCount + 1];
+		for (int node = 0; node < nodeCount; node++) {
+			arcOffsets[node + 1] = arcOffsets[node] + upperNeighbors[node].size();
+		}
+		int[] arcHeads = new int[arcOffsets[nodeCount]];
+		for (int node = 0; node < nodeCount; node++) {
+			int[] heads = upperNeighbors[node].toArray();
+			Arrays.sort(heads);
+			System.arraycopy(heads, 0, arcHeads, arcOffsets[node], heads.length);
+		}
+
+		return new ContractionOrder(locations, ranks, arcOffsets, arcHeads, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Turns the eliminated node's neighbourhood into a clique so no shortest path
+	// through it can be lost, whatever the weights turn out to be
+	private void addFill(IntArrayList clique) {
+		for (int i = 0; i < clique.size(); i++) {
+			int first = clique.get(i);
+			removeEliminated(neighbors[first]);
+			markStamp++;
+			for (int k = 0; k < neighbors[first].size(); k++) {
+				marks[neighbors[first].get(k)] = markStamp;
+			}
+
+			for (int j = i + 1; j < clique.size(); j++) {
+				int second = clique.get(j);
+				if (marks[second] != markStamp) {
+					neighbors[first].add(second);
+					neighbors[second].add(first);
+					degrees[first]++;
+					degrees[second]++;
+				}
+			}
+		}
+	}
+
+	private void removeEliminated(IntArrayList list) {
+		int kept = 0;
+		for (int i = 0; i < list.size(); i++) {
+			int neighbor = list.get(i);
+			if (!eliminated[neighbor]) {
+				list.set(kept++, neighbor);
+			}
+		}
+		list.truncate(kept);
+	}
+}
\ No newline at end of file
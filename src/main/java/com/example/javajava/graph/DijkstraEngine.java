@@ -0,0 +1,144 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Primitive one-to-one Dijkstra over a CompiledGraph. All per-query state lives
+// in pooled workspaces, so a search allocates nothing besides the final path.
+public class DijkstraEngine {
+
+	private final WorkspacePool pool;
+
+	public DijkstraEngine() {
+		this(new WorkspacePool());
+	}
+
+	public DijkstraEngine(WorkspacePool pool) {
+		this.pool = pool;
+	}
+
+	public WorkspacePool getPool() {
+		return pool;
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, int source, int target) {
+		if (source == target) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		SearchWorkspace workspace = pool.acquire(graph.getLocationCount());
+		try {
+			int distance = search(graph, source, target, workspace);
+			if (distance == SearchWorkspace.UNREACHABLE) {
+				return new PathResult();
+			}
+			return new PathResult(workspace.buildPath(graph, target), distance);
+		} finally {
+			pool.release(workspace);
+		}
+	}
+
+	// Results line up with targets, which may repeat and may include source
+	public PathResult[] findShortestPaths(CompiledGraph graph, int source, int[] targets) {
+		int[] distinct = Arrays.stream(targets).distinct().sorted().toArray();
+		PathResult[] results = new PathResult[targets.length];
+		SearchWorkspace workspace = pool.acquire(graph.getLocationCount());
+		try {
+			searchTargets(graph, source, distinct, workspace);
+			for (int i = 0; i < targets.length; i++) {
+				int distance = workspace.getDistance(targets[i]);
+				results[i] = distance == SearchWorkspace.UNREACHABLE
+					? new PathResult()
+					: new PathResult(workspace.buildPath(graph, targets[i]), distance);
+			}
+			return results;
+		} finally {
+			pool.release(workspace);
+		}
+	}
+
+	// Runs on an already reset workspace and returns the distance to target
+	public int search(CompiledGraph graph, int source, int target, SearchWorkspace workspace) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+			if (node == target) {
+				return workspace.getDistance(node);
+			}
+
+			int distance = workspace.getDistance(node);
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				int newDistance = distance + edges.weight();
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, node);
+					heap.insertOrDecrease(neighbor, newDistance);
+				}
+			}
+		}
+
+		return SearchWorkspace.UNREACHABLE;
+	}
+
+	// One search for several targets from the same source, stopping once all of
+	// them are settled. targets must be sorted and distinct; afterwards the
+	// workspace holds the distance and path to each of them.
+	public void searchTargets(CompiledGraph graph, int source, int[] targets, SearchWorkspace workspace) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+		int remaining = targets.length;
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+			if (Arrays.binarySearch(targets, node) >= 0 && --remaining == 0) {
+				return;
+			}
+
+			int distance = workspace.getDistance(node);
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				int newDistance = distance + edges.weight();
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, node);
+					heap.insertOrDecrease(neighbor, newDistance);
+				}
+			}
+		}
+	}
+
+	// Settles every node reachable from source, over in-edges when reverse is set
+	public void searchAll(CompiledGraph graph, int source, SearchWorkspace workspace, boolean reverse) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = reverse ? graph.inEdges() : graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+
+			int distance = workspace.getDistance(node);
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				int newDistance = distance + edges.weight();
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, node);
+					heap.insertOrDecrease(neighbor, newDistance);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
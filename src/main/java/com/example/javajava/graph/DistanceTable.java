@@ -0,0 +1,159 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// All-pairs distances and next hops for small graphs, so a route is read off in
+// O(path length). Distances come from a blocked Floyd-Warshall: for every block
+// of pivots the diagonal block goes first, then its row and column blocks, then
+// all remaining blocks in parallel. The min-plus kernel is written so HotSpot's
+// superword pass compiles it to SIMD instructions where the CPU has them and to
+// scalar code where it does not: every row is its own array, indexed the same
+// in source and destination, and the minimum is taken with a sign mask because
+// an int Math.min becomes a conditional move that the pass leaves scalar.
+public final class DistanceTable {
+
+	public static final int NO_HOP = -1;
+
+	// Half of int range, so adding two unreachable entries cannot overflow
+	static final int INFINITY = Integer.MAX_VALUE / 2;
+	private static final int BLOCK = 128;
+
+	private final int nodeCount;
+	private final int[][] distances;
+	private final int[] nextHops;
+	private final long preprocessingMillis;
+
+	private DistanceTable(int nodeCount, int[][] distances, int[] nextHops, long preprocessingMillis) {
+		this.nodeCount = nodeCount;
+		this.distances = distances;
+		this.nextHops = nextHops;
+		this.preprocessingMillis = preprocessingMillis;
+	}
+
+	// Every finite distance must stay below INFINITY, which holds whenever the
+	// heaviest edge times the longest possible path does
+	public static boolean fits(CompiledGraph graph) {
+		long maxWeight = 0;
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			maxWeight = Math.max(maxWeight, graph.getWeight(edge));
+		}
+		return maxWeight * Math.max(1, graph.getLocationCount() - 1) < INFINITY;
+	}
+
+	public static DistanceTable build(CompiledGraph graph) {
+		if (!fits(graph)) {
+			throw new IllegalArgumentException("Travel times too large for a distance table");
+		}
+
+		long start = System.nanoTime();
+		int nodeCount = graph.getLocationCount();
+		// Padded to whole blocks; padding cells stay unreachable
+		int size = Math.max(1, (nodeCount + BLOCK - 1) / BLOCK) * BLOCK;
+		int[][] distances = new int[size][size];
+		for (int node = 0; node < size; node++) {
+			Arrays.fill(distances[node], INFINITY);
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			distances[node][node] = 0;
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int target = graph.getTarget(edge);
+				distances[node][target] = Math.min(distances[node][target], graph.getWeight(edge));
+			}
+		}
+
+		floydWarshall(distances, size / BLOCK);
+		return new DistanceTable(nodeCount, distances, nextHops(graph, distances), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static void floydWarshall(int[][] distances, int blockCount) {
+		for (int pivot = 0; pivot < blockCount; pivot++) {
+			int k = pivot;
+			minPlus(distances, k, k, k);
+
+			IntStream.range(0, blockCount).parallel().filter(block -> block != k).forEach(block -> {
+				minPlus(distances, k, block, k);
+				minPlus(distances, block, k, k);
+			});
+
+			IntStream.range(0, blockCount * blockCount).parallel().forEach(index -> {
+				int row = index / blockCount;
+				int column = index % blockCount;
+				if (row != k && column != k) {
+					minPlus(distances, row, column, k);
+				}
+			});
+		}
+	}
+
+	// d[i][j] = min(d[i][j], d[i][k] + d[k][j]) for i in the row block, j in the
+	// column block and k in the pivot block. Pivots stay outermost so the
+	// in-place update is also correct when blocks coincide.
+	private static void minPlus(int[][] distances, int rowBlock, int columnBlock, int pivotBlock) {
+		int rowStart = rowBlock * BLOCK;
+		int columnStart = columnBlock * BLOCK;
+		int columnEnd = columnStart + BLOCK;
+		for (int k = pivotBlock * BLOCK; k < (pivotBlock + 1) * BLOCK; k++) {
+			int[] pivotRow = distances[k];
+			for (int i = rowStart; i < rowStart + BLOCK; i++) {
+				int[] row = distances[i];
+				int throughPivot = row[k];
+				if (throughPivot >= INFINITY) continue;
+
+				for (int j = columnStart; j < columnEnd; j++) {
+					// Both terms stay within int range, so the sign of the difference picks the minimum
+					int difference = throughPivot + pivotRow[j] - row[j];
+					row[j] += difference & (difference >> 31);
+				}
+			}
+		}
+	}
+
+	// The first hop from i towards j is any out-neighbour v with w(i, v) + d(v, j) = d(i, j);
+	// found after the fact so the distance kernel stays a branch-free min-plus
+	private static int[] nextHops(CompiledGraph graph, int[][] distances) {
+		int nodeCount = graph.getLocationCount();
+		int[] nextHops = new int[nodeCount * nodeCount];
+		Arrays.fill(nextHops, NO_HOP);
+		IntStream.range(0, nodeCount).parallel().forEach(node -> {
+			int[] row = distances[node];
+			int hopRow = node * nodeCount;
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int neighbor = graph.getTarget(edge);
+				if (neighbor == node) continue;
+
+				int weight = graph.getWeight(edge);
+				int[] neighborRow = distances[neighbor];
+				for (int target = 0; target < nodeCount; target++) {
+					if (nextHops[hopRow + target] == NO_HOP && target != node && row[target] < INFINITY
+							&& weight + neighborRow[target] == row[target]) {
+						nextHops[hopRow + target] = neighbor;
+					}
+				}
+			}
+		});
+		return nextHops;
+	}
+
+	// Returns d(source, target), or SearchWorkspace.UNREACHABLE
+	public int distance(int source, int target) {
+		int distance = distances[source][target];
+		return distance >= INFINITY ? SearchWorkspace.UNREACHABLE : distance;
+	}
+
+	public int nextHop(int source, int target) {
+		return nextHops[source * nodeCount + target];
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public long getPreprocessingMillis() {
+		return preprocessingMillis;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * distances.length * distances.length + 4L * nextHops.length;
+	}
+}
\ No newline at end of file
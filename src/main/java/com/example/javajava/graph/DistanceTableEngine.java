@@ -0,0 +1,29 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Table lookups: the distance is one read and the path one next-hop read per node on it
+public class DistanceTableEngine {
+
+	public int distance(DistanceTable table, int source, int target) {
+		return table.distance(source, target);
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, DistanceTable table, int source, int target) {
+		int distance = table.distance(source, target);
+		if (distance == SearchWorkspace.UNREACHABLE) {
+			return new PathResult();
+		}
+
+		List<String> path = new ArrayList<>();
+		path.add(graph.getLocation(source));
+		for (int node = source; node != target; ) {
+			node = table.nextHop(node, target);
+			path.add(graph.getLocation(node));
+		}
+		return new PathResult(path, distance);
+	}
+}
\ No newline at end of file
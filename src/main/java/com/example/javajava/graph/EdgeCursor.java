@@ -0,0 +1,86 @@
+package com.example.javajava.graph;
+
+// Walks the out- or in-edges of one node after another, in slot order. A
+// search takes one from the graph per run and moves it to every node it
+// settles; layouts that can only decode a node's edges front to back, like
+// CompressedGraph, decode them as the walk advances. Not thread-safe.
+public abstract class EdgeCursor {
+
+	EdgeCursor() {
+	}
+
+	public abstract void moveTo(int node);
+
+	// Advances to the next edge of the current node, false once there is none
+	public abstract boolean next();
+
+	// Target of the current out-edge or source of the current in-edge
+	public abstract int neighbor();
+
+	public abstract int weight();
+
+	// Over the slot accessors, for layouts with random access to every edge
+	static final class OutEdges extends EdgeCursor {
+
+		private final CompiledGraph graph;
+		private int edge;
+		private int end;
+
+		OutEdges(CompiledGraph graph) {
+			this.graph = graph;
+		}
+
+		@Override
+		public void moveTo(int node) {
+			edge = graph.firstEdge(node) - 1;
+			end = graph.endEdge(node);
+		}
+
+		@Override
+		public boolean next() {
+			return ++edge < end;
+		}
+
+		@Override
+		public int neighbor() {
+			return graph.getTarget(edge);
+		}
+
+		@Override
+		public int weight() {
+			return graph.getWeight(edge);
+		}
+	}
+
+	static final class InEdges extends EdgeCursor {
+
+		private final CompiledGraph graph;
+		private int edge;
+		private int end;
+
+		InEdges(CompiledGraph graph) {
+			this.graph = graph;
+		}
+
+		@Override
+		public void moveTo(int node) {
+			edge = graph.firstInEdge(node) - 1;
+			end = graph.endInEdge(node);
+		}
+
+		@Override
+		public boolean next() {
+			return ++edge < end;
+		}
+
+		@Override
+		public int neighbor() {
+			return graph.getSource(edge);
+		}
+
+		@Override
+		public int weight() {
+			return graph.getInWeight(edge);
+		}
+	}
+}
\ No newline at end of file
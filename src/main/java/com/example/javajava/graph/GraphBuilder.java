@@ -0,0 +1,129 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GraphBuilder {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final Map<String, Integer> locationIds = new HashMap<>();
+	private String[] locations = new String[INITIAL_CAPACITY];
+	private int[] sources = new int[INITIAL_CAPACITY];
+	private int[] targets = new int[INITIAL_CAPACITY];
+	private int[] weights = new int[INITIAL_CAPACITY];
+	private int edgeCount;
+
+	public GraphBuilder addTravelTimes(List<TravelTime> travelTimes) {
+		if (travelTimes == null) {
+			throw new IllegalArgumentException("Travel times list cannot be null");
+		}
+
+		for (TravelTime travelTime : travelTimes) {
+			addEdge(travelTime.getFrom(), travelTime.getTo(), travelTime.getTime());
+		}
+		return this;
+	}
+
+	public GraphBuilder addEdge(String from, String to, int weight) {
+		if (weight <= 0) {
+			throw new IllegalArgumentException("Weight must be positive");
+		}
+
+		return addEdge(addLocation(from), addLocation(to), weight);
+	}
+
+	// For callers that intern location names themselves; ids must come from
+	// addLocation, at the latest before build()
+	public GraphBuilder addEdge(int fromId, int toId, int weight) {
+		if (weight <= 0) {
+			throw new IllegalArgumentException("Weight must be positive");
+		}
+
+		if (edgeCount == sources.length) {
+			int capacity = edgeCount * 2;
+			sources = Arrays.copyOf(sources, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+		}
+		sources[edgeCount] = fromId;
+		targets[edgeCount] = toId;
+		weights[edgeCount] = weight;
+		edgeCount++;
+		return this;
+	}
+
+	public int addLocation(String location) {
+		if (location == null || location.isEmpty()) {
+			throw new IllegalArgumentException("Location cannot be null or empty");
+		}
+
+		Integer existing = locationIds.get(location);
+		if (existing != null) {
+			return existing;
+		}
+
+		int id = locationIds.size();
+		if (id == locations.length) {
+			locations = Arrays.copyOf(locations, id * 2);
+		}
+		locations[id] = location;
+		locationIds.put(location, id);
+		return id;
+	}
+
+	public int getLocationCount() {
+		return locationIds.size();
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	public CompiledGraph build() {
+		int nodeCount = locationIds.size();
+
+		// Counting sort by source keeps each row in insertion order
+		int[] offsets = new int[nodeCount + 1];
+		for (int i = 0; i < edgeCount; i++) {
+			offsets[sources[i] + 1]++;
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			offsets[node + 1] += offsets[node];
+		}
+
+		int[] cursor = Arrays.copyOf(offsets, nodeCount);
+		int[] csrTargets = new int[edgeCount];
+		int[] csrWeights = new int[edgeCount];
+		for (int i = 0; i < edgeCount; i++) {
+			int slot = cursor[sources[i]]++;
+			csrTargets[slot] = targets[i];
+			csrWeights[slot] = weights[i];
+		}
+
+		// Reverse adjacency for searches that walk edges backwards from the target
+		int[] reverseOffsets = new int[nodeCount + 1];
+		for (int i = 0; i < edgeCount; i++) {
+			reverseOffsets[targets[i] + 1]++;
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			reverseOffsets[node + 1] += reverseOffsets[node];
+		}
+
+		cursor = Arrays.copyOf(reverseOffsets, nodeCount);
+		int[] reverseSources = new int[edgeCount];
+		int[] reverseWeights = new int[edgeCount];
+		for (int i = 0; i < edgeCount; i++) {
+			int slot = cursor[targets[i]]++;
+			reverseSources[slot] = sources[i];
+			reverseWeights[slot] = weights[i];
+		}
+
+		return new ArrayGraph(Arrays.copyOf(locations, nodeCount), new HashMap<>(locationIds),
+			offsets, csrTargets, csrWeights, reverseOffsets, reverseSources, reverseWeights);
+	}
+}
\ No newline at end of file
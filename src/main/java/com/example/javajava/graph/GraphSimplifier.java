@@ -0,0 +1,312 @@
+package com.example.javajava.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Shrinks a freshly loaded graph before anything searches it. The stages run
+// in order over a flat edge list: self-loops are dropped, parallel edges are
+// collapsed to the fastest one, chains of pass-through locations are
+// contracted into one shortcut per direction, and parallel edges are collapsed
+// once more, since a shortcut may run next to a direct edge between the same
+// two ends. A pass-through location has exactly two neighbors and is only
+// driven through: one edge in from one of them and one out to the other, or
+// edges both ways with both. Contracted locations leave the graph; the
+// Simplification keeps their chains so routes can start, end and be expanded
+// there. Chains that lead back to where they started are left alone.
+public final class GraphSimplifier {
+
+	private static final int KEPT = 0;
+	private static final int ONE_WAY = 1;
+	private static final int TWO_WAY = 2;
+	// Shortcuts are flagged in the edge list as chain * 2 + direction; plain edges carry this
+	private static final int PLAIN = -1;
+
+	private GraphSimplifier() {
+	}
+
+	public record Result(CompiledGraph graph, Simplification simplification) {
+	}
+
+	public static Result simplify(CompiledGraph graph) {
+		int nodeCount = graph.getLocationCount();
+		List<Simplification.Stage> stages = new ArrayList<>();
+
+		long start = System.nanoTime();
+		Edges edges = withoutSelfLoops(graph);
+		stages.add(stage("self-loops", start, nodeCount, edges.count));
+
+		start = System.nanoTime();
+		edges = withoutParallelEdges(edges, nodeCount);
+		stages.add(stage("parallel-edges", start, nodeCount, edges.count));
+
+		start = System.nanoTime();
+		List<Simplification.Chain> chains = new ArrayList<>();
+		boolean[] contracted = new boolean[nodeCount];
+		edges = contractChains(graph, edges, nodeCount, chains, contracted);
+		int keptCount = nodeCount;
+		for (boolean removed : contracted) {
+			if (removed) {
+				keptCount--;
+			}
+		}
+		stages.add(stage("chains", start, keptCount, edges.count));
+
+		start = System.nanoTime();
+		edges = withoutParallelEdges(edges, nodeCount);
+		for (int i = 0; i < edges.count; i++) {
+			if (edges.chains[i] != PLAIN) {
+				chains.get(edges.chains[i] >> 1).keepShortcut((edges.chains[i] & 1) == 1);
+			}
+		}
+		CompiledGraph simplified = build(graph, edges, contracted);
+		// Indexing the chains by location counts towards the last stage, which the report sees once it is added
+		Simplification simplification = new Simplification(nodeCount, graph.getEdgeCount(), stages, chains);
+		stages.add(stage("parallel-shortcuts", start, keptCount, edges.count));
+
+		return new Result(simplified, simplification);
+	}
+
+	private static Simplification.Stage stage(String name, long start, int locations, int edges) {
+		return new Simplification.Stage(name, (System.nanoTime() - start) / 1_000_000, locations, edges);
+	}
+
+	private static Edges withoutSelfLoops(CompiledGraph graph) {
+		Edges edges = new Edges(graph.getEdgeCount());
+		EdgeCursor cursor = graph.outEdges();
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			cursor.moveTo(node);
+			while (cursor.next()) {
+				if (cursor.neighbor() != node) {
+					edges.add(node, cursor.neighbor(), cursor.weight(), PLAIN);
+				}
+			}
+		}
+		return edges;
+	}
+
+	// Keeps the fastest edge per source and target, a plain edge over a shortcut
+	// of the same time; survivors stay in input order per source
+	private static Edges withoutParallelEdges(Edges edges, int nodeCount) {
+		int[] offsets = new int[nodeCount + 1];
+		int[] order = edges.bySource(nodeCount, offsets);
+		int[] best = new int[nodeCount];
+		// Marks the targets already seen from the current source with source + 1
+		int[] seen = new int[nodeCount];
+		int[] targets = new int[16];
+		Edges result = new Edges(edges.count);
+		for (int source = 0; source < nodeCount; source++) {
+			int targetCount = 0;
+			for (int slot = offsets[source]; slot < offsets[source + 1]; slot++) {
+				int edge = order[slot];
+				int target = edges.targets[edge];
+				if (seen[target] != source + 1) {
+					seen[target] = source + 1;
+					best[target] = edge;
+					if (targetCount == targets.length) {
+						targets = Arrays.copyOf(targets, targetCount * 2);
+					}
+					targets[targetCount++] = target;
+				} else if (edges.isBetter(edge, best[target])) {
+					best[target] = edge;
+				}
+			}
+			for (int i = 0; i < targetCount; i++) {
+				int edge = best[targets[i]];
+				result.add(source, edges.targets[edge], edges.weights[edge], edges.chains[edge]);
+			}
+		}
+		return result;
+	}
+
+	private static Edges contractChains(CompiledGraph graph, Edges edges, int nodeCount,
+			List<Simplification.Chain> chains, boolean[] contracted) {
+		int[] outOffsets = new int[nodeCount + 1];
+		int[] out = edges.bySource(nodeCount, outOffsets);
+		int[] inOffsets = new int[nodeCount + 1];
+		int[] in = edges.byTarget(nodeCount, inOffsets);
+		byte[] kinds = new byte[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			kinds[node] = (byte) kind(edges, node, out, outOffsets, in, inOffsets);
+		}
+
+		Edges shortcuts = new Edges(16);
+		IntArrayList path = new IntArrayList();
+		IntArrayList forward = new IntArrayList();
+		IntArrayList backward = new IntArrayList();
+		for (int end = 0; end < nodeCount; end++) {
+			if (kinds[end] != KEPT) {
+				continue;
+			}
+			for (int slot = outOffsets[end]; slot < outOffsets[end + 1]; slot++) {
+				int first = edges.targets[out[slot]];
+				int kind = kinds[first];
+				if (kind == KEPT || contracted[first]) {
+					continue;
+				}
+
+				// Walks on until the chain reaches a location that stays; a chain
+				// cannot run into itself, as that location would have three neighbors
+				path.clear();
+				forward.clear();
+				backward.clear();
+				path.add(end);
+				forward.add(0);
+				backward.add(0);
+				long forwardTime = edges.weights[out[slot]];
+				long backwardTime = 0;
+				int previous = end;
+				int current = first;
+				while (true) {
+					if (kind == TWO_WAY) {
+						backwardTime += edges.weights[edgeTo(edges, current, previous, out, outOffsets)];
+					}
+					path.add(current);
+					forward.add((int) Math.min(forwardTime, Integer.MAX_VALUE));
+					backward.add((int) Math.min(backwardTime, Integer.MAX_VALUE));
+					if (kinds[current] != kind) {
+						break;
+					}
+					int next = edgeOnward(edges, current, previous, out, outOffsets);
+					forwardTime += edges.weights[next];
+					previous = current;
+					current = edges.targets[next];
+				}
+
+				// Loops back to the start, or too long to sum up in an int
+				if (current == end || forwardTime > Integer.MAX_VALUE || backwardTime > Integer.MAX_VALUE) {
+					continue;
+				}
+				String[] locations = new String[path.size()];
+				for (int i = 0; i < locations.length; i++) {
+					locations[i] = graph.getLocation(path.get(i));
+				}
+				for (int i = 1; i < path.size() - 1; i++) {
+					contracted[path.get(i)] = true;
+				}
+				int chain = chains.size();
+				chains.add(new Simplification.Chain(locations, forward.toArray(), kind == TWO_WAY ? backward.toArray() : null));
+				shortcuts.add(end, current, (int) forwardTime, 2 * chain);
+				if (kind == TWO_WAY) {
+					shortcuts.add(current, end, (int) backwardTime, 2 * chain + 1);
+				}
+			}
+		}
+
+		Edges result = new Edges(edges.count);
+		for (int i = 0; i < edges.count; i++) {
+			if (!contracted[edges.sources[i]] && !contracted[edges.targets[i]]) {
+				result.add(edges.sources[i], edges.targets[i], edges.weights[i], edges.chains[i]);
+			}
+		}
+		for (int i = 0; i < shortcuts.count; i++) {
+			result.add(shortcuts.sources[i], shortcuts.targets[i], shortcuts.weights[i], shortcuts.chains[i]);
+		}
+		return result;
+	}
+
+	// Edges are free of self-loops and parallels here, so degrees count distinct neighbors
+	private static int kind(Edges edges, int node, int[] out, int[] outOffsets, int[] in, int[] inOffsets) {
+		int outDegree = outOffsets[node + 1] - outOffsets[node];
+		int inDegree = inOffsets[node + 1] - inOffsets[node];
+		if (outDegree == 1 && inDegree == 1) {
+			return edges.targets[out[outOffsets[node]]] != edges.sources[in[inOffsets[node]]] ? ONE_WAY : KEPT;
+		}
+		if (outDegree == 2 && inDegree == 2) {
+			int first = edges.targets[out[outOffsets[node]]];
+			int second = edges.targets[out[outOffsets[node] + 1]];
+			int from = edges.sources[in[inOffsets[node]]];
+			int otherFrom = edges.sources[in[inOffsets[node] + 1]];
+			return (from == first && otherFrom == second) || (from == second && otherFrom == first) ? TWO_WAY : KEPT;
+		}
+		return KEPT;
+	}
+
+	// The edge out of a chain location that does not lead back to where the walk came from
+	private static int edgeOnward(Edges edges, int node, int previous, int[] out, int[] outOffsets) {
+		int edge = out[outOffsets[node]];
+		return edges.targets[edge] != previous ? edge : out[outOffsets[node] + 1];
+	}
+
+	private static int edgeTo(Edges edges, int node, int target, int[] out, int[] outOffsets) {
+		int slot = outOffsets[node];
+		while (edges.targets[out[slot]] != target) {
+			slot++;
+		}
+		return out[slot];
+	}
+
+	// Locations that stay keep their relative order and their edges
+	private static CompiledGraph build(CompiledGraph graph, Edges edges, boolean[] contracted) {
+		GraphBuilder builder = new GraphBuilder();
+		int[] newIds = new int[graph.getLocationCount()];
+		for (int node = 0; node < newIds.length; node++) {
+			if (!contracted[node]) {
+				newIds[node] = builder.addLocation(graph.getLocation(node));
+			}
+		}
+		for (int i = 0; i < edges.count; i++) {
+			builder.addEdge(newIds[edges.sources[i]], newIds[edges.targets[i]], edges.weights[i]);
+		}
+		return builder.build();
+	}
+
+	private static final class Edges {
+
+		private int[] sources;
+		private int[] targets;
+		private int[] weights;
+		private int[] chains;
+		private int count;
+
+		Edges(int capacity) {
+			capacity = Math.max(16, capacity);
+			sources = new int[capacity];
+			targets = new int[capacity];
+			weights = new int[capacity];
+			chains = new int[capacity];
+		}
+
+		void add(int source, int target, int weight, int chain) {
+			if (count == sources.length) {
+				sources = Arrays.copyOf(sources, count * 2);
+				targets = Arrays.copyOf(targets, count * 2);
+				weights = Arrays.copyOf(weights, count * 2);
+				chains = Arrays.copyOf(chains, count * 2);
+			}
+			sources[count] = source;
+			targets[count] = target;
+			weights[count] = weight;
+			chains[count] = chain;
+			count++;
+		}
+
+		boolean isBetter(int edge, int than) {
+			return weights[edge] < weights[than] || (weights[edge] == weights[than] && chains[edge] == PLAIN && chains[than] != PLAIN);
+		}
+
+		int[] bySource(int nodeCount, int[] offsets) {
+			return group(sources, nodeCount, offsets);
+		}
+
+		int[] byTarget(int nodeCount, int[] offsets) {
+			return group(targets, nodeCount, offsets);
+		}
+
+		// Edge indexes grouped by the given end with a counting sort, in input order within a group
+		private int[] group(int[] ends, int nodeCount, int[] offsets) {
+			for (int i = 0; i < count; i++) {
+				offsets[ends[i] + 1]++;
+			}
+			for (int node = 0; node < nodeCount; node++) {
+				offsets[node + 1] += offsets[node];
+			}
+			int[] cursor = Arrays.copyOf(offsets, nodeCount);
+			int[] order = new int[count];
+			for (int i = 0; i < count; i++) {
+				order[cursor[ends[i]]++] = i;
+			}
+			return order;
+		}
+	}
+}
\ No newline at end of file
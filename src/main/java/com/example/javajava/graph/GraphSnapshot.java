@@ -0,0 +1,148 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One loaded dataset: the raw rows, the graph compiled from them and any
+// preprocessed indexes. Never mutated after construction, so readers can use
+// it without locking; indexes are attached by publishing a copy.
+public final class GraphSnapshot {
+
+	public static final GraphSnapshot EMPTY = new GraphSnapshot(0, List.of(), CompiledGraph.EMPTY);
+
+	private final long version;
+	private final List<TravelTime> travelTimes;
+	private final CompiledGraph graph;
+	private final LandmarkIndex landmarks;
+	private final ContractionHierarchy hierarchy;
+	private final HubLabels hubLabels;
+	private final OverlayGraph overlay;
+	private final DistanceTable distanceTable;
+	private final Simplification simplification;
+	// For a streamed dataset that was simplified: the graph as parsed, which its rows are rebuilt from
+	private final CompiledGraph parsedGraph;
+
+	public GraphSnapshot(long version, List<TravelTime> travelTimes, CompiledGraph graph) {
+		this(version, List.copyOf(travelTimes), graph, null, null, null, null, null, null, null);
+	}
+
+	// A dataset streamed straight into a graph, without the raw rows
+	public GraphSnapshot(long version, CompiledGraph graph) {
+		this(version, null, graph, null, null, null, null, null, null, null);
+	}
+
+	private GraphSnapshot(long version, List<TravelTime> travelTimes, CompiledGraph graph, LandmarkIndex landmarks,
+			ContractionHierarchy hierarchy, HubLabels hubLabels, OverlayGraph overlay, DistanceTable distanceTable,
+			Simplification simplification, CompiledGraph parsedGraph) {
+		this.version = version;
+		this.travelTimes = travelTimes;
+		this.graph = graph;
+		this.landmarks = landmarks;
+		this.hierarchy = hierarchy;
+		this.hubLabels = hubLabels;
+		this.overlay = overlay;
+		this.distanceTable = distanceTable;
+		this.simplification = simplification;
+		this.parsedGraph = parsedGraph;
+	}
+
+	public static GraphSnapshot compile(long version, List<TravelTime> travelTimes) {
+		return new GraphSnapshot(version, travelTimes, CompiledGraph.fromTravelTimes(travelTimes));
+	}
+
+	// The same dataset published under a new version, as when it is restored from a file
+	public GraphSnapshot withVersion(long version) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	// The same dataset in another storage; indexes refer to node ids only and stay valid
+	public GraphSnapshot withGraph(CompiledGraph graph) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	public GraphSnapshot withLandmarks(LandmarkIndex landmarks) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	public GraphSnapshot withHierarchy(ContractionHierarchy hierarchy) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	public GraphSnapshot withHubLabels(HubLabels hubLabels) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	public GraphSnapshot withOverlay(OverlayGraph overlay) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	public GraphSnapshot withDistanceTable(DistanceTable distanceTable) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	// What was contracted out of the graph when it was loaded, so routes can be expanded again
+	public GraphSnapshot withSimplification(Simplification simplification) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	// Rows of a streamed dataset are rebuilt from the graph as parsed once simplification changed the stored one
+	public GraphSnapshot withParsedGraph(CompiledGraph parsedGraph) {
+		return new GraphSnapshot(version, travelTimes, graph, landmarks, hierarchy, hubLabels, overlay, distanceTable, simplification, parsedGraph);
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	// Without raw rows they are rebuilt from the edges on every call, grouped by origin
+	public List<TravelTime> getTravelTimes() {
+		return travelTimes != null ? travelTimes : rowsOf(parsedGraph != null ? parsedGraph : graph);
+	}
+
+	private static List<TravelTime> rowsOf(CompiledGraph graph) {
+		List<TravelTime> rows = new ArrayList<>(graph.getEdgeCount());
+		EdgeCursor edges = graph.outEdges();
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			edges.moveTo(node);
+			while (edges.next()) {
+				rows.add(new TravelTime(graph.getLocation(node), graph.getLocation(edges.neighbor()), edges.weight()));
+			}
+		}
+		return rows;
+	}
+
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	public LandmarkIndex getLandmarks() {
+		return landmarks;
+	}
+
+	public ContractionHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+	public HubLabels getHubLabels() {
+		return hubLabels;
+	}
+
+	public OverlayGraph getOverlay() {
+		return overlay;
+	}
+
+	public DistanceTable getDistanceTable() {
+		return distanceTable;
+	}
+
+	public Simplification getSimplification() {
+		return simplification;
+	}
+
+	// Whether routes can start or end at the location: it is in the graph or was contracted out of it
+	public boolean hasLocation(String location) {
+		return graph.hasLocation(location) || (simplification != null && simplification.isContracted(location));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,298 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Binary form of a GraphSnapshot, so a restart maps the compiled graph, its
+// landmarks and contraction hierarchy and the chains simplification contracted
+// back instead of parsing and preprocessing again. Little-endian throughout: a
+// header of magic and format version, then sections of tag, payload length,
+// payload and the payload's CRC32C. Readers skip sections with unknown tags, so
+// a newer writer may add sections without a new format version; changing an
+// existing section needs one. Indexes that are cheap to rebuild or only enabled
+// on demand are not stored.
+public final class GraphSnapshotFile {
+
+	static final int MAGIC = 0x53474a4a;
+	public static final int FORMAT_VERSION = 1;
+
+	private static final int GRAPH = 1;
+	private static final int LANDMARKS = 2;
+	private static final int HIERARCHY = 3;
+	private static final int SIMPLIFICATION = 4;
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	private GraphSnapshotFile() {
+	}
+
+	// Written next to the target and moved over it, so a crash never leaves a torn file behind
+	public static long write(GraphSnapshot snapshot, Path file) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Output output = new Output(channel);
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+
+			output.beginSection(GRAPH);
+			snapshot.getGraph().writeTo(output);
+			output.endSection();
+			if (snapshot.getLandmarks() != null) {
+				output.beginSection(LANDMARKS);
+				snapshot.getLandmarks().writeTo(output);
+				output.endSection();
+			}
+			if (snapshot.getHierarchy() != null) {
+				output.beginSection(HIERARCHY);
+				snapshot.getHierarchy().writeTo(output);
+				output.endSection();
+			}
+			if (snapshot.getSimplification() != null) {
+				output.beginSection(SIMPLIFICATION);
+				snapshot.getSimplification().writeTo(output);
+				output.endSection();
+			}
+			output.flush();
+			channel.force(false);
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return Files.size(file);
+	}
+
+	// Checksums are verified over the mapped file before anything is decoded;
+	// the returned snapshot has version 0 until it is published
+	public static GraphSnapshot read(Path file) throws IOException {
+		ByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot too large to map: " + channel.size() + " bytes");
+			}
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		if (mapped.remaining() < 8 || mapped.getInt() != MAGIC) {
+			throw new IOException("Not a graph snapshot: " + file);
+		}
+		int formatVersion = mapped.getInt();
+		if (formatVersion != FORMAT_VERSION) {
+			throw new IOException("Unsupported snapshot format version " + formatVersion + ", expected " + FORMAT_VERSION);
+		}
+
+		CompiledGraph graph = null;
+		LandmarkIndex landmarks = null;
+		ContractionHierarchy hierarchy = null;
+		Simplification simplification = null;
+		while (mapped.hasRemaining()) {
+			Input section = nextSection(mapped);
+			switch (section.tag) {
+				case GRAPH -> graph = CompiledGraph.readFrom(section);
+				case LANDMARKS -> landmarks = LandmarkIndex.readFrom(section);
+				case HIERARCHY -> hierarchy = ContractionHierarchy.readFrom(section);
+				case SIMPLIFICATION -> simplification = Simplification.readFrom(section);
+				default -> {
+					// Written by a newer version, not needed here
+				}
+			}
+		}
+		if (graph == null) {
+			throw new IOException("Snapshot has no graph section");
+		}
+
+		GraphSnapshot snapshot = new GraphSnapshot(0, graph);
+		if (landmarks != null) {
+			check(landmarks.fits(graph), "landmarks do not match the graph");
+			snapshot = snapshot.withLandmarks(landmarks);
+		}
+		if (hierarchy != null) {
+			check(hierarchy.getNodeCount() == graph.getLocationCount(), "hierarchy does not match the graph");
+			snapshot = snapshot.withHierarchy(hierarchy);
+		}
+		if (simplification != null) {
+			snapshot = snapshot.withSimplification(simplification);
+		}
+		return snapshot;
+	}
+
+	private static Input nextSection(ByteBuffer mapped) throws IOException {
+		check(mapped.remaining() >= 12, "truncated section header");
+		int tag = mapped.getInt();
+		long length = mapped.getLong();
+		check(length >= 0 && length <= mapped.remaining() - 4, "truncated section " + tag);
+
+		ByteBuffer payload = mapped.slice(mapped.position(), (int) length).order(ByteOrder.LITTLE_ENDIAN);
+		mapped.position(mapped.position() + (int) length);
+		CRC32C crc = new CRC32C();
+		crc.update(payload.duplicate());
+		check((int) crc.getValue() == mapped.getInt(), "checksum mismatch in section " + tag);
+		return new Input(tag, payload);
+	}
+
+	static void check(boolean condition, String problem) throws IOException {
+		if (!condition) {
+			throw new IOException("Corrupt graph snapshot: " + problem);
+		}
+	}
+
+	// Buffered writes to the channel; bytes between beginSection and endSection go into the section's checksum
+	static final class Output {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		private final CRC32C crc = new CRC32C();
+		private long sectionStart = -1;
+
+		private Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		private void beginSection(int tag) throws IOException {
+			writeInt(tag);
+			// Length is filled in by endSection
+			writeLong(0);
+			flush();
+			crc.reset();
+			sectionStart = channel.position();
+		}
+
+		private void endSection() throws IOException {
+			flush();
+			long length = channel.position() - sectionStart;
+			ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, length);
+			channel.write(header, sectionStart - 8);
+			sectionStart = -1;
+			writeInt((int) crc.getValue());
+		}
+
+		void writeInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+		}
+
+		void writeLong(long value) throws IOException {
+			ensure(8);
+			buffer.putLong(value);
+		}
+
+		void writeInts(int[] values) throws IOException {
+			writeInt(values.length);
+			for (int i = 0; i < values.length; ) {
+				ensure(4);
+				int count = Math.min(values.length - i, buffer.remaining() / 4);
+				buffer.asIntBuffer().put(values, i, count);
+				buffer.position(buffer.position() + 4 * count);
+				i += count;
+			}
+		}
+
+		// From a mapped graph, which keeps its arrays in native order
+		void writeInts(IntBuffer values) throws IOException {
+			writeInt(values.limit());
+			for (int i = 0; i < values.limit(); ) {
+				ensure(4);
+				int count = Math.min(values.limit() - i, buffer.remaining() / 4);
+				buffer.asIntBuffer().put(values.slice(i, count));
+				buffer.position(buffer.position() + 4 * count);
+				i += count;
+			}
+		}
+
+		// Raw bytes, without a length
+		void writeBytes(ByteBuffer values) throws IOException {
+			for (int i = 0; i < values.limit(); ) {
+				ensure(1);
+				int count = Math.min(values.limit() - i, buffer.remaining());
+				buffer.put(values.slice(i, count));
+				i += count;
+			}
+		}
+
+		void writeStrings(String[] values) throws IOException {
+			writeInt(values.length);
+			for (String value : values) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeInt(bytes.length);
+				for (int i = 0; i < bytes.length; ) {
+					ensure(1);
+					int count = Math.min(bytes.length - i, buffer.remaining());
+					buffer.put(bytes, i, count);
+					i += count;
+				}
+			}
+		}
+
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			if (sectionStart >= 0) {
+				crc.update(buffer.duplicate());
+			}
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
+	// One verified section payload, read front to back
+	static final class Input {
+
+		private final int tag;
+		private final ByteBuffer payload;
+
+		private Input(int tag, ByteBuffer payload) {
+			this.tag = tag;
+			this.payload = payload;
+		}
+
+		int readInt() throws IOException {
+			check(payload.remaining() >= 4, "section " + tag + " ends early");
+			return payload.getInt();
+		}
+
+		long readLong() throws IOException {
+			check(payload.remaining() >= 8, "section " + tag + " ends early");
+			return payload.getLong();
+		}
+
+		int[] readInts() throws IOException {
+			int length = readInt();
+			check(length >= 0 && length <= payload.remaining() / 4, "section " + tag + " ends early");
+			int[] values = new int[length];
+			IntBuffer ints = payload.asIntBuffer();
+			ints.get(values);
+			payload.position(payload.position() + 4 * length);
+			return values;
+		}
+
+		String[] readStrings() throws IOException {
+			int count = readInt();
+			check(count >= 0 && count <= payload.remaining() / 4, "section " + tag + " ends early");
+			String[] values = new String[count];
+			byte[] bytes = new byte[64];
+			for (int i = 0; i < count; i++) {
+				int length = readInt();
+				check(length >= 0 && length <= payload.remaining(), "section " + tag + " ends early");
+				if (length > bytes.length) {
+					bytes = new byte[Math.max(length, bytes.length * 2)];
+				}
+				payload.get(bytes, 0, length);
+				values[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+			}
+			return values;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Distance queries are a single label merge. Paths are only rebuilt when asked
+// for, by following each label entry's hop edge from source up to the meeting
+// hub and from target back up to it, then unpacking the hierarchy shortcuts.
+public class HubLabelEngine {
+
+	public int distance(HubLabels labels, int source, int target) {
+		return labels.distance(source, target);
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, HubLabels labels, int source, int target) {
+		if (source == target) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		int hub = labels.meetingHub(source, target);
+		if (hub < 0) {
+			return new PathResult();
+		}
+
+		ContractionHierarchy hierarchy = labels.getHierarchy();
+		IntArrayList nodes = new IntArrayList();
+		nodes.add(source);
+		for (int node = source, edge = labels.forwardHop(node, hub); edge != HubLabels.NO_HOP; edge = labels.forwardHop(node, hub)) {
+			hierarchy.unpackEdge(edge, nodes);
+			node = hierarchy.getEdgeTarget(edge);
+		}
+
+		// Backward hops are found from the target upwards, so replay them in reverse
+		IntArrayList backwardEdges = new IntArrayList();
+		for (int node = target, edge = labels.backwardHop(node, hub); edge != HubLabels.NO_HOP; edge = labels.backwardHop(node, hub)) {
+			backwardEdges.add(edge);
+			node = hierarchy.getEdgeSource(edge);
+		}
+		for (int i = backwardEdges.size() - 1; i >= 0; i--) {
+			hierarchy.unpackEdge(backwardEdges.get(i), nodes);
+		}
+
+		List<String> path = new ArrayList<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			path.add(graph.getLocation(nodes.get(i)));
+		}
+		return new PathResult(path, labels.distance(source, target));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,266 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+
+// Hub labels derived from a ContractionHierarchy. The forward label of v lists
+// hubs h of higher rank with d(v, h), the backward label hubs with d(h, v); both
+// are sorted by hub id in flat primitive arrays, so d(s, t) is a single merge of
+// two short arrays. Every entry also keeps the hierarchy edge it was reached
+// over, which is enough to recover the path when a caller asks for it.
+public final class HubLabels {
+
+	public static final int NO_HOP = -1;
+
+	private final ContractionHierarchy hierarchy;
+	private final int[] forwardOffsets;
+	private final int[] forwardHubs;
+	private final int[] forwardDistances;
+	private final int[] forwardHops;
+	private final int[] backwardOffsets;
+	private final int[] backwardHubs;
+	private final int[] backwardDistances;
+	private final int[] backwardHops;
+	private final long preprocessingMillis;
+
+	private HubLabels(ContractionHierarchy hierarchy, Label[] forward, Label[] backward, long preprocessingMillis) {
+		this.hierarchy = hierarchy;
+		this.preprocessingMillis = preprocessingMillis;
+		int nodeCount = forward.length;
+
+		forwardOffsets = offsets(forward);
+		backwardOffsets = offsets(backward);
+		forwardHubs = new int[forwardOffsets[nodeCount]];
+		forwardDistances = new int[forwardOffsets[nodeCount]];
+		forwardHops = new int[forwardOffsets[nodeCount]];
+		backwardHubs = new int[backwardOffsets[nodeCount]];
+		backwardDistances = new int[backwardOffsets[nodeCount]];
+		backwardHops = new int[backwardOffsets[nodeCount]];
+		for (int node = 0; node < nodeCount; node++) {
+			forward[node].copyInto(forwardHubs, forwardDistances, forwardHops, forwardOffsets[node]);
+			backward[node].copyInto(backwardHubs, backwardDistances, backwardHops, backwardOffsets[node]);
+		}
+	}
+
+	private static int[] offsets(Label[] labels) {
+		int[] offsets = new int[labels.length + 1];
+		for (int node = 0; node < labels.length; node++) {
+			offsets[node + 1] = offsets[node] + labels[node].size();
+		}
+		return offsets;
+	}
+
+	// Labels are built from the highest rank down: a node's label is its own entry
+	// plus its upward neighbours' labels shifted by the edge weight, minus every
+	// entry that another hub in the label already beats
+	public static HubLabels build(ContractionHierarchy hierarchy) {
+		long start = System.nanoTime();
+		int nodeCount = hierarchy.getNodeCount();
+		int[] nodesByRank = new int[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			nodesByRank[hierarchy.getRank(node)] = node;
+		}
+
+		Label[] forward = new Label[nodeCount];
+		Label[] backward = new Label[nodeCount];
+		LabelCollector collector = new LabelCollector(nodeCount);
+		for (int rank = nodeCount - 1; rank >= 0; rank--) {
+			int node = nodesByRank[rank];
+
+			collector.start(node);
+			for (int slot = hierarchy.firstUpEdge(node); slot < hierarchy.endUpEdge(node); slot++) {
+				int edge = hierarchy.getUpEdge(slot);
+				collector.merge(forward[hierarchy.getEdgeTarget(edge)], hierarchy.getEdgeWeight(edge), edge);
+			}
+			forward[node] = collector.finish(backward);
+
+			collector.start(node);
+			for (int slot = hierarchy.firstDownEdge(node); slot < hierarchy.endDownEdge(node); slot++) {
+				int edge = hierarchy.getDownEdge(slot);
+				collector.merge(backward[hierarchy.getEdgeSource(edge)], hierarchy.getEdgeWeight(edge), edge);
+			}
+			backward[node] = collector.finish(forward);
+		}
+
+		return new HubLabels(hierarchy, forward, backward, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Returns d(source, target), or SearchWorkspace.UNREACHABLE when no hub is shared
+	public int distance(int source, int target) {
+		return merge(forwardHubs, forwardDistances, forwardOffsets[source], forwardOffsets[source + 1],
+			backwardHubs, backwardDistances, backwardOffsets[target], backwardOffsets[target + 1], null);
+	}
+
+	// Returns the hub on a shortest source-target path, or -1 when target is unreachable
+	public int meetingHub(int source, int target) {
+		int[] hub = {-1};
+		merge(forwardHubs, forwardDistances, forwardOffsets[source], forwardOffsets[source + 1],
+			backwardHubs, backwardDistances, backwardOffsets[target], backwardOffsets[target + 1], hub);
+		return hub[0];
+	}
+
+	private static int merge(int[] firstHubs, int[] firstDistances, int firstStart, int firstEnd,
+			int[] secondHubs, int[] secondDistances, int secondStart, int secondEnd, int[] bestHub) {
+		long best = SearchWorkspace.UNREACHABLE;
+		int i = firstStart;
+		int j = secondStart;
+		while (i < firstEnd && j < secondEnd) {
+			if (firstHubs[i] < secondHubs[j]) {
+				i++;
+			} else if (firstHubs[i] > secondHubs[j]) {
+				j++;
+			} else {
+				long candidate = (long) firstDistances[i] + secondDistances[j];
+				if (candidate < best) {
+					best = candidate;
+					if (bestHub != null) {
+						bestHub[0] = firstHubs[i];
+					}
+				}
+				i++;
+				j++;
+			}
+		}
+		return (int) best;
+	}
+
+	// Hierarchy edge leaving node on its shortest way up to hub, NO_HOP once node is the hub
+	int forwardHop(int node, int hub) {
+		int index = Arrays.binarySearch(forwardHubs, forwardOffsets[node], forwardOffsets[node + 1], hub);
+		return forwardHops[index];
+	}
+
+	// Hierarchy edge entering node on its shortest way down from hub, NO_HOP once node is the hub
+	int backwardHop(int node, int hub) {
+		int index = Arrays.binarySearch(backwardHubs, backwardOffsets[node], backwardOffsets[node + 1], hub);
+		return backwardHops[index];
+	}
+
+	ContractionHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+	public int getNodeCount() {
+		return forwardOffsets.length - 1;
+	}
+
+	public long getEntryCount() {
+		return (long) forwardHubs.length + backwardHubs.length;
+	}
+
+	public double getAverageLabelSize() {
+		int nodeCount = getNodeCount();
+		return nodeCount == 0 ? 0 : getEntryCount() / (2.0 * nodeCount);
+	}
+
+	public int getMaxLabelSize() {
+		int max = 0;
+		for (int node = 0; node < getNodeCount(); node++) {
+			max = Math.max(max, forwardOffsets[node + 1] - forwardOffsets[node]);
+			max = Math.max(max, backwardOffsets[node + 1] - backwardOffsets[node]);
+		}
+		return max;
+	}
+
+	public long getPreprocessingMillis() {
+		return preprocessingMillis;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * (forwardOffsets.length + backwardOffsets.length) + 12L * getEntryCount();
+	}
+
+	private static final class Label {
+
+		private final int[] hubs;
+		private final int[] distances;
+		private final int[] hops;
+
+		Label(int[] hubs, int[] distances, int[] hops) {
+			this.hubs = hubs;
+			this.distances = distances;
+			this.hops = hops;
+		}
+
+		int size() {
+			return hubs.length;
+		}
+
+		void copyInto(int[] hubs, int[] distances, int[] hops, int offset) {
+			System.arraycopy(this.hubs, 0, hubs, offset, this.hubs.length);
+			System.arraycopy(this.distances, 0, distances, offset, this.distances.length);
+			System.arraycopy(this.hops, 0, hops, offset, this.hops.length);
+		}
+	}
+
+	// Scratch space for the label under construction, reused for every node
+	private static final class LabelCollector {
+
+		private final int[] distances;
+		private final int[] hops;
+		private final int[] stamps;
+		private final IntArrayList touched = new IntArrayList();
+		private int stamp;
+		private int node;
+
+		LabelCollector(int nodeCount) {
+			distances = new int[nodeCount];
+			hops = new int[nodeCount];
+			stamps = new int[nodeCount];
+		}
+
+		void start(int node) {
+			this.node = node;
+			stamp++;
+			touched.clear();
+			offer(node, 0, NO_HOP);
+		}
+
+		void merge(Label label, int weight, int edge) {
+			for (int i = 0; i < label.size(); i++) {
+				offer(label.hubs[i], label.distances[i] + weight, edge);
+			}
+		}
+
+		private void offer(int hub, int distance, int hop) {
+			if (stamps[hub] != stamp) {
+				stamps[hub] = stamp;
+				touched.add(hub);
+			} else if (distance >= distances[hub]) {
+				return;
+			}
+			distances[hub] = distance;
+			hops[hub] = hop;
+		}
+
+		// Drops entries that are not shortest distances: for a forward label, d(node, hub)
+		// is beaten when a detour through another hub shared with the hub's backward label is shorter
+		Label finish(Label[] opposite) {
+			int[] hubs = touched.toArray();
+			Arrays.sort(hubs);
+			int[] candidateDistances = new int[hubs.length];
+			for (int i = 0; i < hubs.length; i++) {
+				candidateDistances[i] = distances[hubs[i]];
+			}
+
+			int kept = 0;
+			int[] keptHubs = new int[hubs.length];
+			int[] keptDistances = new int[hubs.length];
+			int[] keptHops = new int[hubs.length];
+			for (int i = 0; i < hubs.length; i++) {
+				int hub = hubs[i];
+				if (hub != node) {
+					Label hubLabel = opposite[hub];
+					int best = HubLabels.merge(hubs, candidateDistances, 0, hubs.length, hubLabel.hubs, hubLabel.distances, 0, hubLabel.size(), null);
+					if (best < candidateDistances[i]) {
+						continue;
+					}
+				}
+				keptHubs[kept] = hub;
+				keptDistances[kept] = candidateDistances[i];
+				keptHops[kept] = hops[hub];
+				kept++;
+			}
+			return new Label(Arrays.copyOf(keptHubs, kept), Arrays.copyOf(keptDistances, kept), Arrays.copyOf(keptHops, kept));
+		}
+	}
+}
\ No newline at end of file
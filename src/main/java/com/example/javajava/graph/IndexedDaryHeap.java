@@ -0,0 +1,156 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+
+// Min-heap of node ids keyed by int distance. Each node appears at most once,
+// so a shorter tentative distance is a decrease-key instead of a second push.
+public class IndexedDaryHeap {
+
+	private static final int ARITY = 4;
+	private static final int ABSENT = -1;
+
+	private int[] nodes;
+	private int[] keys;
+	private int[] positions;
+	private int size;
+
+	public IndexedDaryHeap(int capacity) {
+		nodes = new int[Math.max(capacity, 1)];
+		keys = new int[Math.max(capacity, 1)];
+		positions = new int[Math.max(capacity, 1)];
+		Arrays.fill(positions, ABSENT);
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity <= positions.length) {
+			return;
+		}
+
+		int oldCapacity = positions.length;
+		nodes = Arrays.copyOf(nodes, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+		positions = Arrays.copyOf(positions, capacity);
+		Arrays.fill(positions, oldCapacity, capacity, ABSENT);
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(int node) {
+		return positions[node] != ABSENT;
+	}
+
+	public int peekKey() {
+		return keys[0];
+	}
+
+	public int peekNode() {
+		return nodes[0];
+	}
+
+	public int keyOf(int node) {
+		return keys[positions[node]];
+	}
+
+	// Inserts the node or lowers its key; a larger key is ignored
+	public void insertOrDecrease(int node, int key) {
+		int position = positions[node];
+		if (position == ABSENT) {
+			position = size++;
+			nodes[position] = node;
+			keys[position] = key;
+			positions[node] = position;
+		} else if (key < keys[position]) {
+			keys[position] = key;
+		} else {
+			return;
+		}
+		siftUp(position);
+	}
+
+	// Sets the key of a queued node in either direction, or inserts it
+	public void update(int node, int key) {
+		int position = positions[node];
+		if (position == ABSENT) {
+			insertOrDecrease(node, key);
+			return;
+		}
+
+		int oldKey = keys[position];
+		keys[position] = key;
+		if (key < oldKey) {
+			siftUp(position);
+		} else if (key > oldKey) {
+			siftDown(position);
+		}
+	}
+
+	public int poll() {
+		int top = nodes[0];
+		positions[top] = ABSENT;
+		size--;
+		if (size > 0) {
+			move(nodes[size], keys[size], 0);
+			siftDown(0);
+		}
+		return top;
+	}
+
+	// Only touches the nodes still queued, so an early-stopped search is cheap to reset
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[nodes[i]] = ABSENT;
+		}
+		size = 0;
+	}
+
+	private void siftUp(int position) {
+		int node = nodes[position];
+		int key = keys[position];
+		while (position > 0) {
+			int parent = (position - 1) / ARITY;
+			if (keys[parent] <= key) {
+				break;
+			}
+			move(nodes[parent], keys[parent], position);
+			position = parent;
+		}
+		move(node, key, position);
+	}
+
+	private void siftDown(int position) {
+		int node = nodes[position];
+		int key = keys[position];
+		while (true) {
+			int firstChild = position * ARITY + 1;
+			if (firstChild >= size) {
+				break;
+			}
+
+			int lastChild = Math.min(firstChild + ARITY, size);
+			int best = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (keys[child] < keys[best]) {
+					best = child;
+				}
+			}
+			if (keys[best] >= key) {
+				break;
+			}
+			move(nodes[best], keys[best], position);
+			position = best;
+		}
+		move(node, key, position);
+	}
+
+	private void move(int node, int key, int position) {
+		nodes[position] = node;
+		keys[position] = key;
+		positions[node] = position;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+
+// Growable int array for preprocessing code that would otherwise box into List<Integer>
+final class IntArrayList {
+
+	private int[] values;
+	private int size;
+
+	IntArrayList() {
+		this(4);
+	}
+
+	IntArrayList(int capacity) {
+		values = new int[Math.max(capacity, 1)];
+	}
+
+	void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	int get(int index) {
+		return values[index];
+	}
+
+	void set(int index, int value) {
+		values[index] = value;
+	}
+
+	int removeLast() {
+		return values[--size];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	void truncate(int newSize) {
+		size = newSize;
+	}
+
+	int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Landmark distance tables for ALT. For each node v and landmark L it keeps
+// d(L, v) and d(v, L); the triangle inequality turns them into admissible
+// lower bounds on d(v, t) without any coordinates.
+public final class LandmarkIndex {
+
+	private final int[] landmarks;
+	private final int[] fromLandmark;
+	private final int[] toLandmark;
+	private final long preprocessingMillis;
+
+	private LandmarkIndex(int[] landmarks, int[] fromLandmark, int[] toLandmark, long preprocessingMillis) {
+		this.landmarks = landmarks;
+		this.fromLandmark = fromLandmark;
+		this.toLandmark = toLandmark;
+		this.preprocessingMillis = preprocessingMillis;
+	}
+
+	// Farthest selection: each new landmark is the node farthest from all chosen so
+	// far, and nodes no landmark reaches yet are taken first so every component is covered.
+	public static LandmarkIndex build(CompiledGraph graph, int landmarkCount) {
+		if (landmarkCount <= 0) {
+			throw new IllegalArgumentException("Landmark count must be positive");
+		}
+
+		long start = System.nanoTime();
+		int nodeCount = graph.getLocationCount();
+		int count = Math.min(landmarkCount, nodeCount);
+		if (count == 0) {
+			return new LandmarkIndex(new int[0], new int[0], new int[0], 0);
+		}
+
+		int[] landmarks = new int[count];
+		int[] fromLandmark = new int[nodeCount * count];
+		int[] toLandmark = new int[nodeCount * count];
+		int[] nearestLandmark = new int[nodeCount];
+		Arrays.fill(nearestLandmark, SearchWorkspace.UNREACHABLE);
+
+		DijkstraEngine engine = new DijkstraEngine();
+		SearchWorkspace workspace = new SearchWorkspace(nodeCount);
+		workspace.reset();
+		engine.searchAll(graph, 0, workspace, false);
+		int candidate = farthest(workspace, nodeCount, null);
+
+		for (int i = 0; i < count; i++) {
+			landmarks[i] = candidate;
+
+			workspace.reset();
+			engine.searchAll(graph, candidate, workspace, false);
+			for (int node = 0; node < nodeCount; node++) {
+				int distance = workspace.getDistance(node);
+				fromLandmark[node * count + i] = distance;
+				nearestLandmark[node] = Math.min(nearestLandmark[node], distance);
+			}
+
+			workspace.reset();
+			engine.searchAll(graph, candidate, workspace, true);
+			for (int node = 0; node < nodeCount; node++) {
+				toLandmark[node * count + i] = workspace.getDistance(node);
+			}
+
+			candidate = farthest(null, nodeCount, nearestLandmark);
+		}
+
+		return new LandmarkIndex(landmarks, fromLandmark, toLandmark, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static int farthest(SearchWorkspace workspace, int nodeCount, int[] distances) {
+		int best = 0;
+		long bestDistance = -1;
+		for (int node = 0; node < nodeCount; node++) {
+			long distance = distances != null ? distances[node] : workspace.getDistance(node);
+			// Existing landmarks sit at distance zero and are never picked again
+			if (distance > bestDistance) {
+				best = node;
+				bestDistance = distance;
+			}
+		}
+		return best;
+	}
+
+	// max over landmarks of d(L, t) - d(L, v) and d(v, L) - d(t, L)
+	public int lowerBound(int node, int target) {
+		int count = landmarks.length;
+		int nodeBase = node * count;
+		int targetBase = target * count;
+		int bound = 0;
+		for (int i = 0; i < count; i++) {
+			int fromNode = fromLandmark[nodeBase + i];
+			int fromTarget = fromLandmark[targetBase + i];
+			if (fromNode != SearchWorkspace.UNREACHABLE && fromTarget != SearchWorkspace.UNREACHABLE) {
+				bound = Math.max(bound, fromTarget - fromNode);
+			}
+
+			int toNode = toLandmark[nodeBase + i];
+			int toTarget = toLandmark[targetBase + i];
+			if (toNode != SearchWorkspace.UNREACHABLE && toTarget != SearchWorkspace.UNREACHABLE) {
+				bound = Math.max(bound, toNode - toTarget);
+			}
+		}
+		return bound;
+	}
+
+	public int getLandmarkCount() {
+		return landmarks.length;
+	}
+
+	public int getLandmark(int i) {
+		return landmarks[i];
+	}
+
+	public long getPreprocessingMillis() {
+		return preprocessingMillis;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * (landmarks.length + fromLandmark.length + toLandmark.length);
+	}
+
+	boolean fits(CompiledGraph graph) {
+		return fromLandmark.length == landmarks.length * graph.getLocationCount() && toLandmark.length == fromLandmark.length;
+	}
+
+	void writeTo(GraphSnapshotFile.Output output) throws IOException {
+		output.writeInts(landmarks);
+		output.writeInts(fromLandmark);
+		output.writeInts(toLandmark);
+		output.writeLong(preprocessingMillis);
+	}
+
+	static LandmarkIndex readFrom(GraphSnapshotFile.Input input) throws IOException {
+		return new LandmarkIndex(input.readInts(), input.readInts(), input.readInts(), input.readLong());
+	}
+}
\ No newline at end of file
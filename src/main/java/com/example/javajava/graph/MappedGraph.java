@@ -0,0 +1,303 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// The off-heap layout of a CompiledGraph. The CSR arrays, the location names
+// and an open-addressing table over the names are written to a file in the
+// given directory and mapped read-only, so none of it is on the heap and the
+// kernel pages it in and out as queries touch it; searches keep only their
+// own workspaces on the heap. Every array gets a mapping of its own, which
+// keeps each under the 2 GiB a buffer can address. The file is unlinked when
+// its channel closes, right after mapping, and its pages stay reachable
+// through the mappings until they are released with the graph.
+public final class MappedGraph extends CompiledGraph {
+
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	private final int locationCount;
+	private final int edgeCount;
+	private final IntBuffer offsets;
+	private final IntBuffer targets;
+	private final IntBuffer weights;
+	private final IntBuffer reverseOffsets;
+	private final IntBuffer reverseSources;
+	private final IntBuffer reverseWeights;
+	// Start of every name in names, plus the end of the last
+	private final IntBuffer nameOffsets;
+	// A power of two at least twice the location count; a slot holds id + 1, 0 marks it empty
+	private final IntBuffer slots;
+	private final ByteBuffer names;
+	private final long memoryBytes;
+
+	private MappedGraph(int locationCount, int edgeCount, IntBuffer[] arrays, ByteBuffer names, long memoryBytes) {
+		this.locationCount = locationCount;
+		this.edgeCount = edgeCount;
+		this.offsets = arrays[0];
+		this.targets = arrays[1];
+		this.weights = arrays[2];
+		this.reverseOffsets = arrays[3];
+		this.reverseSources = arrays[4];
+		this.reverseWeights = arrays[5];
+		this.nameOffsets = arrays[6];
+		this.slots = arrays[7];
+		this.names = names;
+		this.memoryBytes = memoryBytes;
+	}
+
+	// Copies any graph into a new mapping; one that is already mapped is returned as is
+	public static MappedGraph create(CompiledGraph graph, Path directory) throws IOException {
+		if (graph instanceof MappedGraph mapped) {
+			return mapped;
+		}
+
+		int locationCount = graph.getLocationCount();
+		int edgeCount = graph.getEdgeCount();
+		int capacity = 2;
+		while (capacity < 2 * locationCount) {
+			capacity <<= 1;
+		}
+
+		Path file = Files.createTempFile(directory, "graph-", ".mapped");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE)) {
+			Writer writer = new Writer(channel);
+			long[] starts = new long[9];
+
+			starts[0] = writer.position();
+			for (int node = 0; node < locationCount; node++) {
+				writer.putInt(graph.firstEdge(node));
+			}
+			writer.putInt(edgeCount);
+			starts[1] = writer.position();
+			for (int edge = 0; edge < edgeCount; edge++) {
+				writer.putInt(graph.getTarget(edge));
+			}
+			starts[2] = writer.position();
+			for (int edge = 0; edge < edgeCount; edge++) {
+				writer.putInt(graph.getWeight(edge));
+			}
+			starts[3] = writer.position();
+			for (int node = 0; node < locationCount; node++) {
+				writer.putInt(graph.firstInEdge(node));
+			}
+			writer.putInt(edgeCount);
+			starts[4] = writer.position();
+			for (int inEdge = 0; inEdge < edgeCount; inEdge++) {
+				writer.putInt(graph.getSource(inEdge));
+			}
+			starts[5] = writer.position();
+			for (int inEdge = 0; inEdge < edgeCount; inEdge++) {
+				writer.putInt(graph.getInWeight(inEdge));
+			}
+
+			// Names are encoded twice, once for the offsets and the table and once for
+			// the bytes, rather than keeping every encoded name on the heap in between
+			starts[6] = writer.position();
+			int[] table = new int[capacity];
+			long nameBytes = 0;
+			writer.putInt(0);
+			for (int node = 0; node < locationCount; node++) {
+				byte[] name = graph.getLocation(node).getBytes(StandardCharsets.UTF_8);
+				nameBytes += name.length;
+				if (nameBytes > Integer.MAX_VALUE) {
+					throw new IOException("Location names exceed " + Integer.MAX_VALUE + " bytes");
+				}
+				writer.putInt((int) nameBytes);
+				int slot = NameHash.hash(name) & (capacity - 1);
+				while (table[slot] != 0) {
+					slot = (slot + 1) & (capacity - 1);
+				}
+				table[slot] = node + 1;
+			}
+			starts[7] = writer.position();
+			for (int entry : table) {
+				writer.putInt(entry);
+			}
+			starts[8] = writer.position();
+			for (int node = 0; node < locationCount; node++) {
+				writer.putBytes(graph.getLocation(node).getBytes(StandardCharsets.UTF_8));
+			}
+			writer.flush();
+			long size = writer.position();
+
+			IntBuffer[] arrays = new IntBuffer[8];
+			for (int i = 0; i < arrays.length; i++) {
+				arrays[i] = map(channel, starts[i], starts[i + 1]).asIntBuffer();
+			}
+			return new MappedGraph(locationCount, edgeCount, arrays, map(channel, starts[8], size), size);
+		}
+	}
+
+	private static ByteBuffer map(FileChannel channel, long start, long end) throws IOException {
+		return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start).order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	public int getLocationCount() {
+		return locationCount;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	@Override
+	public int indexOf(String location) {
+		if (location == null) {
+			return -1;
+		}
+		byte[] name = location.getBytes(StandardCharsets.UTF_8);
+		int mask = slots.limit() - 1;
+		for (int slot = NameHash.hash(name) & mask; ; slot = (slot + 1) & mask) {
+			int entry = slots.get(slot);
+			if (entry == 0) {
+				return -1;
+			}
+			if (nameEquals(entry - 1, name)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	private boolean nameEquals(int node, byte[] name) {
+		int start = nameOffsets.get(node);
+		if (nameOffsets.get(node + 1) - start != name.length) {
+			return false;
+		}
+		for (int i = 0; i < name.length; i++) {
+			if (names.get(start + i) != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Decoded on every call; names are only needed when a result is rendered
+	@Override
+	public String getLocation(int node) {
+		int start = nameOffsets.get(node);
+		byte[] name = new byte[nameOffsets.get(node + 1) - start];
+		names.get(start, name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public int firstEdge(int node) {
+		return offsets.get(node);
+	}
+
+	@Override
+	public int endEdge(int node) {
+		return offsets.get(node + 1);
+	}
+
+	@Override
+	public int getTarget(int edge) {
+		return targets.get(edge);
+	}
+
+	@Override
+	public int getWeight(int edge) {
+		return weights.get(edge);
+	}
+
+	@Override
+	public int firstInEdge(int node) {
+		return reverseOffsets.get(node);
+	}
+
+	@Override
+	public int endInEdge(int node) {
+		return reverseOffsets.get(node + 1);
+	}
+
+	@Override
+	public int getSource(int inEdge) {
+		return reverseSources.get(inEdge);
+	}
+
+	@Override
+	public int getInWeight(int inEdge) {
+		return reverseWeights.get(inEdge);
+	}
+
+	@Override
+	public String getStorage() {
+		return "mapped";
+	}
+
+	// Size of the mapping, all of it outside the heap
+	@Override
+	public long getMemoryBytes() {
+		return memoryBytes;
+	}
+
+	// The same section an ArrayGraph writes, so snapshots do not depend on the storage mode
+	@Override
+	void writeTo(GraphSnapshotFile.Output output) throws IOException {
+		output.writeInt(locationCount);
+		for (int node = 0; node < locationCount; node++) {
+			int start = nameOffsets.get(node);
+			int length = nameOffsets.get(node + 1) - start;
+			output.writeInt(length);
+			output.writeBytes(names.slice(start, length));
+		}
+		output.writeInts(offsets);
+		output.writeInts(targets);
+		output.writeInts(weights);
+		output.writeInts(reverseOffsets);
+		output.writeInts(reverseSources);
+		output.writeInts(reverseWeights);
+	}
+
+	// Buffered sequential writes in the byte order the mappings are read with
+	private static final class Writer {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+		private long written;
+
+		Writer(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		void putInt(int value) throws IOException {
+			if (buffer.remaining() < 4) {
+				flush();
+			}
+			buffer.putInt(value);
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			for (int i = 0; i < bytes.length; ) {
+				if (!buffer.hasRemaining()) {
+					flush();
+				}
+				int count = Math.min(bytes.length - i, buffer.remaining());
+				buffer.put(bytes, i, count);
+				i += count;
+			}
+		}
+
+		long position() {
+			return written + buffer.position();
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				written += channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
\ No newline at end of file
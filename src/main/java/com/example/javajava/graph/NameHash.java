@@ -0,0 +1,25 @@
+package com.example.javajava.graph;
+
+// Hash of a location name's UTF-8 bytes, shared by the in-memory dictionary the
+// loader interns names into and the table MappedGraph writes into its file
+public final class NameHash {
+
+	private NameHash() {
+	}
+
+	public static int hash(byte[] name) {
+		return hash(name, 0, name.length);
+	}
+
+	// FNV-1a, finished with a murmur mix so the low bits used for the slot are well spread
+	public static int hash(byte[] buffer, int offset, int length) {
+		int hash = 0x811c9dc5;
+		for (int i = offset; i < offset + length; i++) {
+			hash = (hash ^ buffer[i]) * 0x01000193;
+		}
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		return hash;
+	}
+}
\ No newline at end of file
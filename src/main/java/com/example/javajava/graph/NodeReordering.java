@@ -0,0 +1,189 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Renumbers the nodes of a graph so that nodes close in the graph get close
+// ids, and with them close slots in every per-node array a search touches.
+// Ids otherwise follow the order locations first appear in the input, which
+// scatters neighbors across memory. The order is reverse Cuthill-McKee over
+// the graph taken as undirected: a breadth-first search per component, from
+// a node found at the far end of a first sweep, that visits neighbors by
+// increasing degree, reversed at the end. Names move with their nodes, so
+// callers that go through location names see no difference.
+public final class NodeReordering {
+
+	private NodeReordering() {
+	}
+
+	public static CompiledGraph reorder(CompiledGraph graph) {
+		return apply(graph, reverseCuthillMcKee(graph));
+	}
+
+	// order[newId] is the old id of the node placed there; every node keeps its edges in their order
+	static CompiledGraph apply(CompiledGraph graph, int[] order) {
+		int nodeCount = graph.getLocationCount();
+		int[] newIds = new int[nodeCount];
+		String[] locations = new String[nodeCount];
+		Map<String, Integer> locationIds = new HashMap<>(Math.max(16, nodeCount * 4 / 3 + 1));
+		for (int newId = 0; newId < nodeCount; newId++) {
+			newIds[order[newId]] = newId;
+			locations[newId] = graph.getLocation(order[newId]);
+			locationIds.put(locations[newId], newId);
+		}
+
+		int[] offsets = new int[nodeCount + 1];
+		int[] targets = new int[graph.getEdgeCount()];
+		int[] weights = new int[graph.getEdgeCount()];
+		renumber(graph.outEdges(), order, newIds, offsets, targets, weights);
+		int[] reverseOffsets = new int[nodeCount + 1];
+		int[] reverseSources = new int[graph.getEdgeCount()];
+		int[] reverseWeights = new int[graph.getEdgeCount()];
+		renumber(graph.inEdges(), order, newIds, reverseOffsets, reverseSources, reverseWeights);
+		return new ArrayGraph(locations, locationIds, offsets, targets, weights, reverseOffsets, reverseSources, reverseWeights);
+	}
+
+	private static void renumber(EdgeCursor edges, int[] order, int[] newIds, int[] offsets, int[] neighbors, int[] weights) {
+		int slot = 0;
+		for (int newId = 0; newId < order.length; newId++) {
+			edges.moveTo(order[newId]);
+			while (edges.next()) {
+				neighbors[slot] = newIds[edges.neighbor()];
+				weights[slot++] = edges.weight();
+			}
+			offsets[newId + 1] = slot;
+		}
+	}
+
+	static int[] reverseCuthillMcKee(CompiledGraph graph) {
+		int nodeCount = graph.getLocationCount();
+		int[] degrees = new int[nodeCount];
+		long[] byDegree = new long[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			degrees[node] = graph.endEdge(node) - graph.firstEdge(node) + graph.endInEdge(node) - graph.firstInEdge(node);
+			byDegree[node] = (long) degrees[node] << 32 | node;
+		}
+		// Components are started from their lowest-degree node
+		Arrays.sort(byDegree);
+
+		int[] order = new int[nodeCount];
+		boolean[] visited = new boolean[nodeCount];
+		// The sweep that finds the start node marks nodes with its round number
+		int[] sweepRounds = new int[nodeCount];
+		Sweep sweep = new Sweep(graph, degrees);
+		int placed = 0;
+		for (long entry : byDegree) {
+			int seed = (int) entry;
+			if (visited[seed]) {
+				continue;
+			}
+			int start = sweep.farthestFrom(seed, sweepRounds);
+			placed = sweep.visit(start, visited, order, placed);
+		}
+
+		for (int i = 0, j = nodeCount - 1; i < j; i++, j--) {
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+		return order;
+	}
+
+	// Breadth-first searches over in- and out-edges alike
+	private static final class Sweep {
+
+		private final int[] degrees;
+		private final EdgeCursor outEdges;
+		private final EdgeCursor inEdges;
+		private final int[] queue;
+		private long[] neighbors = new long[16];
+		private int round;
+
+		Sweep(CompiledGraph graph, int[] degrees) {
+			this.degrees = degrees;
+			this.outEdges = graph.outEdges();
+			this.inEdges = graph.inEdges();
+			this.queue = new int[graph.getLocationCount()];
+		}
+
+		// The last node a search from seed reaches, at the greatest hop distance; lowest degree breaks ties
+		int farthestFrom(int seed, int[] rounds) {
+			round++;
+			rounds[seed] = round;
+			queue[0] = seed;
+			int head = 0;
+			int tail = 1;
+			int levelEnd = 1;
+			int farthest = seed;
+			while (head < tail) {
+				int node = queue[head++];
+				tail = enqueue(node, rounds, tail);
+				if (head == levelEnd && head < tail) {
+					farthest = queue[head];
+					for (int i = head + 1; i < tail; i++) {
+						if (degrees[queue[i]] < degrees[farthest]) {
+							farthest = queue[i];
+						}
+					}
+					levelEnd = tail;
+				}
+			}
+			return farthest;
+		}
+
+		// Appends the component of start to order in Cuthill-McKee order
+		int visit(int start, boolean[] visited, int[] order, int placed) {
+			visited[start] = true;
+			order[placed] = start;
+			int head = placed;
+			int tail = placed + 1;
+			while (head < tail) {
+				int node = order[head++];
+				int count = collect(outEdges, node, visited, 0);
+				count = collect(inEdges, node, visited, count);
+				Arrays.sort(neighbors, 0, count);
+				for (int i = 0; i < count; i++) {
+					order[tail++] = (int) neighbors[i];
+				}
+			}
+			return tail;
+		}
+
+		private int enqueue(int node, int[] rounds, int tail) {
+			outEdges.moveTo(node);
+			while (outEdges.next()) {
+				int neighbor = outEdges.neighbor();
+				if (rounds[neighbor] != round) {
+					rounds[neighbor] = round;
+					queue[tail++] = neighbor;
+				}
+			}
+			inEdges.moveTo(node);
+			while (inEdges.next()) {
+				int neighbor = inEdges.neighbor();
+				if (rounds[neighbor] != round) {
+					rounds[neighbor] = round;
+					queue[tail++] = neighbor;
+				}
+			}
+			return tail;
+		}
+
+		// Unvisited neighbors keyed by degree, then id, marked visited as they are collected
+		private int collect(EdgeCursor edges, int node, boolean[] visited, int count) {
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				if (!visited[neighbor]) {
+					visited[neighbor] = true;
+					if (count == neighbors.length) {
+						neighbors = Arrays.copyOf(neighbors, 2 * count);
+					}
+					neighbors[count++] = (long) degrees[neighbor] << 32 | neighbor;
+				}
+			}
+			return count;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Multi-level overlay query. Each node is scanned on the highest level whose cell
+// holds neither source nor target: level 0 means its original edges, level l its
+// level-l clique plus the original edges leaving that cell. Near the endpoints
+// the search walks the real graph, everywhere else it hops across whole cells.
+public class OverlayEngine {
+
+	private final WorkspacePool pool;
+
+	public OverlayEngine() {
+		this(new WorkspacePool());
+	}
+
+	public OverlayEngine(WorkspacePool pool) {
+		this.pool = pool;
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, OverlayGraph overlay, int source, int target) {
+		if (source == target) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		SearchWorkspace workspace = pool.acquire(graph.getLocationCount());
+		try {
+			int distance = search(overlay, source, target, workspace);
+			if (distance == SearchWorkspace.UNREACHABLE) {
+				return new PathResult();
+			}
+
+			IntArrayList nodes = unpackPath(overlay, source, target, workspace);
+			List<String> path = new ArrayList<>(nodes.size());
+			for (int i = 0; i < nodes.size(); i++) {
+				path.add(graph.getLocation(nodes.get(i)));
+			}
+			return new PathResult(path, distance);
+		} finally {
+			pool.release(workspace);
+		}
+	}
+
+	// Runs on a reset workspace and returns d(source, target) or UNREACHABLE; predecessors are overlay nodes
+	public int search(OverlayGraph overlay, int source, int target, SearchWorkspace workspace) {
+		CompiledGraph graph = overlay.getGraph();
+		CellPartition partition = overlay.getPartition();
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+			if (node == target) {
+				return workspace.getDistance(node);
+			}
+
+			int distance = workspace.getDistance(node);
+			int level = queryLevel(partition, node, source, target);
+			if (level == 0) {
+				edges.moveTo(node);
+				while (edges.next()) {
+					relax(workspace, heap, node, edges.neighbor(), distance + edges.weight());
+				}
+				continue;
+			}
+
+			// A node entered over its own cell's clique would only rediscover that clique
+			int cell = partition.getCell(level, node);
+			int predecessor = workspace.getPredecessor(node);
+			if (predecessor == SearchWorkspace.NO_PREDECESSOR || partition.getCell(level, predecessor) != cell
+					|| queryLevel(partition, predecessor, source, target) != level) {
+				int first = partition.firstBoundary(level, cell);
+				int end = partition.endBoundary(level, cell);
+				int row = partition.getBoundaryIndex(level, node);
+				int offset = overlay.cliqueRow(level, cell, row);
+				for (int column = 0; column < end - first; column++) {
+					int weight = overlay.getCliqueDistance(level, offset + column);
+					if (column != row && weight != SearchWorkspace.UNREACHABLE) {
+						relax(workspace, heap, node, partition.getBoundaryNode(level, first + column), distance + weight);
+					}
+				}
+			}
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				if (partition.getCell(level, neighbor) != cell) {
+					relax(workspace, heap, node, neighbor, distance + edges.weight());
+				}
+			}
+		}
+		return SearchWorkspace.UNREACHABLE;
+	}
+
+	// Highest level on which node shares a cell with neither endpoint; cells nest,
+	// so once a level is shared every level above it is too
+	static int queryLevel(CellPartition partition, int node, int source, int target) {
+		int level = 0;
+		while (level < partition.getLevelCount()) {
+			int cell = partition.getCell(level + 1, node);
+			if (cell == partition.getCell(level + 1, source) || cell == partition.getCell(level + 1, target)) {
+				break;
+			}
+			level++;
+		}
+		return level;
+	}
+
+	private static void relax(SearchWorkspace workspace, IndexedDaryHeap heap, int from, int to, int distance) {
+		if (distance < workspace.getDistance(to)) {
+			workspace.reach(to, distance, from);
+			heap.insertOrDecrease(to, distance);
+		}
+	}
+
+	// Clique hops are expanded by searching the original graph inside their cell
+	private IntArrayList unpackPath(OverlayGraph overlay, int source, int target, SearchWorkspace workspace) {
+		IntArrayList overlayNodes = new IntArrayList();
+		for (int node = target; node != SearchWorkspace.NO_PREDECESSOR; node = workspace.getPredecessor(node)) {
+			overlayNodes.add(node);
+		}
+
+		CellPartition partition = overlay.getPartition();
+		IntArrayList nodes = new IntArrayList();
+		nodes.add(source);
+		SearchWorkspace cellWorkspace = pool.acquire(partition.getNodeCount());
+		try {
+			for (int i = overlayNodes.size() - 1; i > 0; i--) {
+				int from = overlayNodes.get(i);
+				int to = overlayNodes.get(i - 1);
+				int level = queryLevel(partition, from, source, target);
+				if (level == 0 || partition.getCell(level, to) != partition.getCell(level, from)) {
+					nodes.add(to);
+					continue;
+				}
+
+				cellWorkspace.reset();
+				overlay.searchInCell(level, partition.getCell(level, from), from, to, cellWorkspace);
+				int start = nodes.size();
+				for (int node = to; node != from; node = cellWorkspace.getPredecessor(node)) {
+					nodes.add(node);
+				}
+				reverse(nodes, start);
+			}
+		} finally {
+			pool.release(cellWorkspace);
+		}
+		return nodes;
+	}
+
+	private static void reverse(IntArrayList nodes, int start) {
+		for (int i = start, j = nodes.size() - 1; i < j; i++, j--) {
+			int swap = nodes.get(i);
+			nodes.set(i, nodes.get(j));
+			nodes.set(j, swap);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,250 @@
+package com.example.javajava.graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Customized overlay on top of a CellPartition: for every cell on every level, a
+// boundary-to-boundary distance matrix (the cell's clique). Level 1 cliques come
+// from searches on the original graph confined to the cell, higher levels from
+// searches over the cliques of their sub-cells. Cells on one level are
+// independent and customized in parallel; after a weight-only reload only the
+// cells containing a changed edge, and the cells above them, are redone.
+public final class OverlayGraph {
+
+	private final CellPartition partition;
+	private final CompiledGraph graph;
+	private final int[][] matrixOffsets;
+	private final int[][] matrices;
+	private final long customizationMillis;
+	private final int customizedCells;
+
+	private OverlayGraph(CellPartition partition, CompiledGraph graph, int[][] matrixOffsets, int[][] matrices,
+			long customizationMillis, int customizedCells) {
+		this.partition = partition;
+		this.graph = graph;
+		this.matrixOffsets = matrixOffsets;
+		this.matrices = matrices;
+		this.customizationMillis = customizationMillis;
+		this.customizedCells = customizedCells;
+	}
+
+	public static OverlayGraph customize(CompiledGraph graph, CellPartition partition) {
+		if (!partition.supports(graph)) {
+			throw new IllegalArgumentException("Graph topology does not match the partition");
+		}
+
+		int levelCount = partition.getLevelCount();
+		int[][] matrixOffsets = new int[levelCount][];
+		int[][] matrices = new int[levelCount][];
+		boolean[][] dirty = new boolean[levelCount][];
+		for (int level = 1; level <= levelCount; level++) {
+			int cellCount = partition.getCellCount(level);
+			int[] offsets = new int[cellCount + 1];
+			for (int cell = 0; cell < cellCount; cell++) {
+				int boundary = partition.endBoundary(level, cell) - partition.firstBoundary(level, cell);
+				offsets[cell + 1] = Math.addExact(offsets[cell], boundary * boundary);
+			}
+			matrixOffsets[level - 1] = offsets;
+			matrices[level - 1] = new int[offsets[cellCount]];
+			dirty[level - 1] = new boolean[cellCount];
+			Arrays.fill(dirty[level - 1], true);
+		}
+		return customizeCells(graph, partition, matrixOffsets, matrices, dirty);
+	}
+
+	// Weight-only reload: compares every edge with the graph this overlay was built
+	// for and re-customizes just the cells that contain a changed one
+	public OverlayGraph recustomize(CompiledGraph newGraph) {
+		if (!partition.supports(newGraph)) {
+			throw new IllegalArgumentException("Graph topology does not match the partition");
+		}
+
+		int levelCount = partition.getLevelCount();
+		boolean[][] dirty = new boolean[levelCount][];
+		int[][] copies = new int[levelCount][];
+		for (int level = 1; level <= levelCount; level++) {
+			dirty[level - 1] = new boolean[partition.getCellCount(level)];
+			copies[level - 1] = matrices[level - 1].clone();
+		}
+		for (int node = 0; node < newGraph.getLocationCount(); node++) {
+			for (int edge = newGraph.firstEdge(node); edge < newGraph.endEdge(node); edge++) {
+				if (newGraph.getWeight(edge) != graph.getWeight(edge)) {
+					// Marking the tail's cell on every level covers the lowest level where the edge is internal
+					for (int level = 1; level <= levelCount; level++) {
+						dirty[level - 1][partition.getCell(level, node)] = true;
+					}
+				}
+			}
+		}
+		return customizeCells(newGraph, partition, matrixOffsets, copies, dirty);
+	}
+
+	private static OverlayGraph customizeCells(CompiledGraph graph, CellPartition partition, int[][] matrixOffsets,
+			int[][] matrices, boolean[][] dirty) {
+		long start = System.nanoTime();
+		WorkspacePool pool = new WorkspacePool();
+		int customized = 0;
+		OverlayGraph overlay = new OverlayGraph(partition, graph, matrixOffsets, matrices, 0, 0);
+
+		// Bottom-up, since a level's cliques are searched over the finished level below
+		for (int level = 1; level <= partition.getLevelCount(); level++) {
+			int currentLevel = level;
+			boolean[] dirtyCells = dirty[level - 1];
+			IntStream.range(0, dirtyCells.length).parallel().filter(cell -> dirtyCells[cell]).forEach(cell -> {
+				SearchWorkspace workspace = pool.acquire(graph.getLocationCount());
+				try {
+					overlay.customizeCell(currentLevel, cell, workspace);
+				} finally {
+					pool.release(workspace);
+				}
+			});
+			for (boolean cellDirty : dirtyCells) {
+				if (cellDirty) {
+					customized++;
+				}
+			}
+		}
+		return new OverlayGraph(partition, graph, matrixOffsets, matrices, (System.nanoTime() - start) / 1_000_000, customized);
+	}
+
+	private void customizeCell(int level, int cell, SearchWorkspace workspace) {
+		int first = partition.firstBoundary(level, cell);
+		int end = partition.endBoundary(level, cell);
+		int size = end - first;
+		int[] matrix = matrices[level - 1];
+		int offset = matrixOffsets[level - 1][cell];
+
+		for (int row = 0; row < size; row++) {
+			workspace.reset();
+			int source = partition.getBoundaryNode(level, first + row);
+			if (level == 1) {
+				searchInCell(level, cell, source, -1, workspace);
+			} else {
+				searchSubcells(level, cell, source, workspace);
+			}
+			for (int column = 0; column < size; column++) {
+				matrix[offset + row * size + column] = workspace.getDistance(partition.getBoundaryNode(level, first + column));
+			}
+		}
+	}
+
+	// Dijkstra over the original edges that stay inside one cell, stopping early at target when given
+	void searchInCell(int level, int cell, int source, int target, SearchWorkspace workspace) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+			if (node == target) {
+				return;
+			}
+			int distance = workspace.getDistance(node);
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				if (partition.getCell(level, neighbor) != cell) continue;
+
+				int newDistance = distance + edges.weight();
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, node);
+					heap.insertOrDecrease(neighbor, newDistance);
+				}
+			}
+		}
+	}
+
+	// Dijkstra over the sub-cell cliques of the level below plus the original edges
+	// between those sub-cells, confined to one cell of this level
+	private void searchSubcells(int level, int cell, int source, SearchWorkspace workspace) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		EdgeCursor edges = graph.outEdges();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		heap.insertOrDecrease(source, 0);
+		int lower = level - 1;
+
+		while (!heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+			int distance = workspace.getDistance(node);
+			int subcell = partition.getCell(lower, node);
+
+			// Cliques are closed under concatenation, so a node entered over its own
+			// sub-cell's clique has nothing to add by scanning that clique again
+			int predecessor = workspace.getPredecessor(node);
+			if (predecessor == SearchWorkspace.NO_PREDECESSOR || partition.getCell(lower, predecessor) != subcell) {
+				int first = partition.firstBoundary(lower, subcell);
+				int size = partition.endBoundary(lower, subcell) - first;
+				int row = partition.getBoundaryIndex(lower, node);
+				int offset = matrixOffsets[lower - 1][subcell] + row * size;
+				for (int column = 0; column < size; column++) {
+					int weight = matrices[lower - 1][offset + column];
+					if (column != row && weight != SearchWorkspace.UNREACHABLE) {
+						relax(workspace, heap, node, partition.getBoundaryNode(lower, first + column), distance + weight);
+					}
+				}
+			}
+
+			edges.moveTo(node);
+			while (edges.next()) {
+				int neighbor = edges.neighbor();
+				if (partition.getCell(lower, neighbor) != subcell && partition.getCell(level, neighbor) == cell) {
+					relax(workspace, heap, node, neighbor, distance + edges.weight());
+				}
+			}
+		}
+	}
+
+	private static void relax(SearchWorkspace workspace, IndexedDaryHeap heap, int from, int to, int distance) {
+		if (distance < workspace.getDistance(to)) {
+			workspace.reach(to, distance, from);
+			heap.insertOrDecrease(to, distance);
+		}
+	}
+
+	// Clique rows are laid out like the cell's boundary list: the distance from the
+	// row's node to the boundary node at position i sits at cliqueRow(...) + i
+	int cliqueRow(int level, int cell, int row) {
+		int size = partition.endBoundary(level, cell) - partition.firstBoundary(level, cell);
+		return matrixOffsets[level - 1][cell] + row * size;
+	}
+
+	int getCliqueDistance(int level, int index) {
+		return matrices[level - 1][index];
+	}
+
+	public CellPartition getPartition() {
+		return partition;
+	}
+
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	public long getCustomizationMillis() {
+		return customizationMillis;
+	}
+
+	// Cells recomputed by the customization that produced this overlay
+	public int getCustomizedCells() {
+		return customizedCells;
+	}
+
+	public int getTotalCells() {
+		int total = 0;
+		for (int level = 1; level <= partition.getLevelCount(); level++) {
+			total += partition.getCellCount(level);
+		}
+		return total;
+	}
+
+	public long getMemoryBytes() {
+		long bytes = partition.getMemoryBytes();
+		for (int level = 0; level < matrices.length; level++) {
+			bytes += 4L * (matrixOffsets[level].length + matrices[level].length);
+		}
+		return bytes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.List;
+
+// Dijkstra from one source that keeps its heap frontier and settled prefix
+// between queries. A destination that is already settled is answered from the
+// stored state; otherwise the search resumes where the last query stopped.
+// Callers from several threads are serialized on the search itself.
+public final class ResumableSearch {
+
+	private final CompiledGraph graph;
+	private final int source;
+	private final SearchWorkspace workspace;
+	private final EdgeCursor outEdges;
+
+	public ResumableSearch(CompiledGraph graph, int source) {
+		this.graph = graph;
+		this.source = source;
+		this.workspace = new SearchWorkspace(graph.getLocationCount());
+		this.outEdges = graph.outEdges();
+		workspace.reset();
+		workspace.reach(source, 0, SearchWorkspace.NO_PREDECESSOR);
+		workspace.getHeap().insertOrDecrease(source, 0);
+	}
+
+	// Settles nodes until target is settled or the frontier runs out and returns how many it settled
+	public synchronized int advanceTo(int target) {
+		IndexedDaryHeap heap = workspace.getHeap();
+		int settledBefore = workspace.getSettledCount();
+		while (!workspace.isSettled(target) && !heap.isEmpty()) {
+			int node = heap.poll();
+			workspace.settle(node);
+
+			// Relaxed even for the target, so the frontier stays complete for the next query
+			int distance = workspace.getDistance(node);
+			outEdges.moveTo(node);
+			while (outEdges.next()) {
+				int neighbor = outEdges.neighbor();
+				int newDistance = distance + outEdges.weight();
+				if (newDistance < workspace.getDistance(neighbor)) {
+					workspace.reach(neighbor, newDistance, node);
+					heap.insertOrDecrease(neighbor, newDistance);
+				}
+			}
+		}
+		return workspace.getSettledCount() - settledBefore;
+	}
+
+	public synchronized PathResult findShortestPath(int target) {
+		if (target == source) {
+			return new PathResult(List.of(graph.getLocation(source)), 0);
+		}
+
+		advanceTo(target);
+		if (!workspace.isSettled(target)) {
+			return new PathResult();
+		}
+		return new PathResult(workspace.buildPath(graph, target), workspace.getDistance(target));
+	}
+
+	public synchronized boolean isSettled(int node) {
+		return workspace.isSettled(node);
+	}
+
+	public synchronized int getSettledCount() {
+		return workspace.getSettledCount();
+	}
+
+	public int getSource() {
+		return source;
+	}
+
+	// Four per-node arrays in the workspace and three in its heap
+	public long getMemoryBytes() {
+		return 28L * workspace.getCapacity();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.example.javajava.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Per-query Dijkstra state. Entries are only valid when their stamp equals the
+// current generation, so starting a new search is O(1) instead of O(nodes).
+public class SearchWorkspace {
+
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+	public static final int NO_PREDECESSOR = -1;
+
+	private int[] distances;
+	private int[] predecessors;
+	private int[] reachedStamps;
+	private int[] settledStamps;
+	private final IndexedDaryHeap heap;
+	private int generation;
+	private int settledCount;
+
+	public SearchWorkspace(int capacity) {
+		int size = Math.max(capacity, 1);
+		distances = new int[size];
+		predecessors = new int[size];
+		reachedStamps = new int[size];
+		settledStamps = new int[size];
+		heap = new IndexedDaryHeap(size);
+	}
+
+	public int getCapacity() {
+		return distances.length;
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity <= distances.length) {
+			return;
+		}
+
+		distances = Arrays.copyOf(distances, capacity);
+		predecessors = Arrays.copyOf(predecessors, capacity);
+		reachedStamps = Arrays.copyOf(reachedStamps, capacity);
+		settledStamps = Arrays.copyOf(settledStamps, capacity);
+		heap.ensureCapacity(capacity);
+	}
+
+	public void reset() {
+		heap.clear();
+		settledCount = 0;
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			// Stamps would start to collide after wrapping, so pay for one full clear
+			Arrays.fill(reachedStamps, 0);
+			Arrays.fill(settledStamps, 0);
+			generation = 1;
+		}
+	}
+
+	public IndexedDaryHeap getHeap() {
+		return heap;
+	}
+
+	public int getDistance(int node) {
+		return reachedStamps[node] == generation ? distances[node] : UNREACHABLE;
+	}
+
+	public int getPredecessor(int node) {
+		return reachedStamps[node] == generation ? predecessors[node] : NO_PREDECESSOR;
+	}
+
+	public void reach(int node, int distance, int predecessor) {
+		reachedStamps[node] = generation;
+		distances[node] = distance;
+		predecessors[node] = predecessor;
+	}
+
+	public boolean isSettled(int node) {
+		return settledStamps[node] == generation;
+	}
+
+	public void settle(int node) {
+		settledStamps[node] = generation;
+		settledCount++;
+	}
+
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	// Collected from the target back and reversed in place, one array for the whole path
+	public List<String> buildPath(CompiledGraph graph, int target) {
+		List<String> path = new ArrayList<>();
+		for (int node = target; node != NO_PREDECESSOR; node = getPredecessor(node)) {
+			path.add(graph.getLocation(node));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Result of one complete Dijkstra from a source, kept as plain distance and
+// predecessor arrays. Any destination is then answered by walking predecessors
+// back to the source, without searching again.
+public final class ShortestPathTree {
+
+	private final int source;
+	private final int[] distances;
+	private final int[] predecessors;
+	private final long buildMillis;
+
+	private ShortestPathTree(int source, int[] distances, int[] predecessors, long buildMillis) {
+		this.source = source;
+		this.distances = distances;
+		this.predecessors = predecessors;
+		this.buildMillis = buildMillis;
+	}
+
+	public static ShortestPathTree build(CompiledGraph graph, int source, DijkstraEngine engine) {
+		long start = System.nanoTime();
+		int nodeCount = graph.getLocationCount();
+		int[] distances = new int[nodeCount];
+		int[] predecessors = new int[nodeCount];
+		SearchWorkspace workspace = engine.getPool().acquire(nodeCount);
+		try {
+			engine.searchAll(graph, source, workspace, false);
+			for (int node = 0; node < nodeCount; node++) {
+				distances[node] = workspace.getDistance(node);
+				predecessors[node] = distances[node] == SearchWorkspace.UNREACHABLE
+					? SearchWorkspace.NO_PREDECESSOR
+					: workspace.getPredecessor(node);
+			}
+		} finally {
+			engine.getPool().release(workspace);
+		}
+		return new ShortestPathTree(source, distances, predecessors, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, int target) {
+		if (distances[target] == SearchWorkspace.UNREACHABLE) {
+			return new PathResult();
+		}
+
+		List<String> path = new ArrayList<>();
+		for (int node = target; node != SearchWorkspace.NO_PREDECESSOR; node = predecessors[node]) {
+			path.add(graph.getLocation(node));
+		}
+		Collections.reverse(path);
+		return new PathResult(path, distances[target]);
+	}
+
+	// Returns d(source, target), or SearchWorkspace.UNREACHABLE
+	public int distance(int target) {
+		return distances[target];
+	}
+
+	public int getSource() {
+		return source;
+	}
+
+	public long getBuildMillis() {
+		return buildMillis;
+	}
+
+	public long getMemoryBytes() {
+		return 4L * (distances.length + predecessors.length);
+	}
+}
\ No newline at end of file
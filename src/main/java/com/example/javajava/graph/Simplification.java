@@ -0,0 +1,281 @@
+package com.example.javajava.graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// What GraphSimplifier took out of a graph: the chains of pass-through
+// locations it contracted, and how long each stage took and what it left.
+// Everything is keyed by location name, so it stays valid when the simplified
+// graph is renumbered or moved to another storage. A chain runs from its start
+// through its contracted locations to its end, both of which stay in the graph;
+// one-way chains are only driven from start to end.
+public final class Simplification {
+
+	private final int inputLocations;
+	private final int inputEdges;
+	private final List<Stage> stages;
+	private final List<Chain> chains;
+	private final Map<String, Position> positions;
+	// Shortcuts that made it into the graph, by the location they leave from
+	private final Map<String, List<Shortcut>> shortcuts;
+	private final int contractedLocationCount;
+
+	Simplification(int inputLocations, int inputEdges, List<Stage> stages, List<Chain> chains) {
+		this.inputLocations = inputLocations;
+		this.inputEdges = inputEdges;
+		this.stages = Collections.unmodifiableList(stages);
+		this.chains = List.copyOf(chains);
+		int contracted = 0;
+		for (Chain chain : chains) {
+			contracted += chain.locations.length - 2;
+		}
+		positions = new HashMap<>(Math.max(16, contracted * 4 / 3 + 1));
+		shortcuts = new HashMap<>(Math.max(16, chains.size() * 8 / 3 + 1));
+		for (Chain chain : chains) {
+			String[] locations = chain.locations;
+			for (int i = 1; i < locations.length - 1; i++) {
+				positions.put(locations[i], new Position(chain, i));
+			}
+			if (chain.forwardShortcut) {
+				shortcuts.computeIfAbsent(chain.start(), key -> new ArrayList<>(2)).add(new Shortcut(chain.end(), chain));
+			}
+			if (chain.backwardShortcut) {
+				shortcuts.computeIfAbsent(chain.end(), key -> new ArrayList<>(2)).add(new Shortcut(chain.start(), chain));
+			}
+		}
+		this.contractedLocationCount = contracted;
+	}
+
+	// How long a stage took and how many locations and edges were left after it
+	public record Stage(String name, long millis, int locations, int edges) {
+	}
+
+	// A way between a location and one that is in the graph: the time it takes
+	// and every location passed, both ends included
+	public record Access(String location, int time, List<String> path) {
+	}
+
+	public boolean isContracted(String location) {
+		return positions.containsKey(location);
+	}
+
+	// Where a route from the location enters the graph: the location itself
+	// unless it was contracted, otherwise the ends of its chain it can drive to
+	public List<Access> departures(String location) {
+		Position position = positions.get(location);
+		if (position == null) {
+			return List.of(new Access(location, 0, List.of(location)));
+		}
+
+		Chain chain = position.chain;
+		int index = position.index;
+		int last = chain.locations.length - 1;
+		List<Access> departures = new ArrayList<>(2);
+		departures.add(new Access(chain.end(), chain.forward[last] - chain.forward[index], chain.slice(index, last)));
+		if (chain.backward != null) {
+			departures.add(new Access(chain.start(), chain.backward[index], chain.slice(index, 0)));
+		}
+		return departures;
+	}
+
+	// Where a route to the location leaves the graph, the counterpart of departures
+	public List<Access> arrivals(String location) {
+		Position position = positions.get(location);
+		if (position == null) {
+			return List.of(new Access(location, 0, List.of(location)));
+		}
+
+		Chain chain = position.chain;
+		int index = position.index;
+		int last = chain.locations.length - 1;
+		List<Access> arrivals = new ArrayList<>(2);
+		arrivals.add(new Access(chain.start(), chain.forward[index], chain.slice(0, index)));
+		if (chain.backward != null) {
+			arrivals.add(new Access(chain.end(), chain.backward[last] - chain.backward[index], chain.slice(last, index)));
+		}
+		return arrivals;
+	}
+
+	// The way along the chain between two contracted locations on the same one, null if there is none
+	public Access within(String from, String to) {
+		Position source = positions.get(from);
+		Position target = positions.get(to);
+		if (source == null || target == null || source.chain != target.chain) {
+			return null;
+		}
+
+		Chain chain = source.chain;
+		if (source.index <= target.index) {
+			return new Access(to, chain.forward[target.index] - chain.forward[source.index], chain.slice(source.index, target.index));
+		}
+		if (chain.backward != null) {
+			return new Access(to, chain.backward[source.index] - chain.backward[target.index], chain.slice(source.index, target.index));
+		}
+		return null;
+	}
+
+	// Puts the contracted locations back into a path through the simplified graph;
+	// a path without shortcuts is returned as it is
+	public List<String> expand(List<String> path) {
+		List<String> expanded = null;
+		for (int i = 0; i + 1 < path.size(); i++) {
+			Chain chain = shortcut(path.get(i), path.get(i + 1));
+			if (chain != null && expanded == null) {
+				expanded = new ArrayList<>(path.subList(0, i + 1));
+			}
+			if (chain != null) {
+				String[] locations = chain.locations;
+				boolean reversed = !path.get(i).equals(chain.start());
+				for (int j = 1; j < locations.length - 1; j++) {
+					expanded.add(locations[reversed ? locations.length - 1 - j : j]);
+				}
+			}
+			if (expanded != null) {
+				expanded.add(path.get(i + 1));
+			}
+		}
+		return expanded != null ? expanded : path;
+	}
+
+	private Chain shortcut(String from, String to) {
+		List<Shortcut> candidates = shortcuts.get(from);
+		if (candidates != null) {
+			for (Shortcut candidate : candidates) {
+				if (candidate.to.equals(to)) {
+					return candidate.chain;
+				}
+			}
+		}
+		return null;
+	}
+
+	public int getInputLocations() {
+		return inputLocations;
+	}
+
+	public int getInputEdges() {
+		return inputEdges;
+	}
+
+	public List<Stage> getStages() {
+		return stages;
+	}
+
+	public int getChainCount() {
+		return chains.size();
+	}
+
+	public int getContractedLocationCount() {
+		return contractedLocationCount;
+	}
+
+	void writeTo(GraphSnapshotFile.Output output) throws IOException {
+		output.writeInt(inputLocations);
+		output.writeInt(inputEdges);
+		output.writeInt(stages.size());
+		for (Stage stage : stages) {
+			output.writeStrings(new String[] {stage.name()});
+			output.writeLong(stage.millis());
+			output.writeInt(stage.locations());
+			output.writeInt(stage.edges());
+		}
+		output.writeInt(chains.size());
+		for (Chain chain : chains) {
+			output.writeStrings(chain.locations);
+			output.writeInts(chain.forward);
+			output.writeInts(chain.backward != null ? chain.backward : new int[0]);
+			output.writeInt((chain.forwardShortcut ? 1 : 0) | (chain.backwardShortcut ? 2 : 0));
+		}
+	}
+
+	static Simplification readFrom(GraphSnapshotFile.Input input) throws IOException {
+		int inputLocations = input.readInt();
+		int inputEdges = input.readInt();
+		int stageCount = input.readInt();
+		GraphSnapshotFile.check(stageCount >= 0, "negative stage count");
+		List<Stage> stages = new ArrayList<>(stageCount);
+		for (int i = 0; i < stageCount; i++) {
+			String[] name = input.readStrings();
+			GraphSnapshotFile.check(name.length == 1, "stage without a name");
+			stages.add(new Stage(name[0], input.readLong(), input.readInt(), input.readInt()));
+		}
+
+		int chainCount = input.readInt();
+		GraphSnapshotFile.check(chainCount >= 0, "negative chain count");
+		List<Chain> chains = new ArrayList<>(chainCount);
+		for (int i = 0; i < chainCount; i++) {
+			String[] locations = input.readStrings();
+			int[] forward = input.readInts();
+			int[] backward = input.readInts();
+			int flags = input.readInt();
+			GraphSnapshotFile.check(locations.length >= 3 && forward.length == locations.length
+				&& (backward.length == 0 || backward.length == locations.length), "chain does not match its times");
+			Chain chain = new Chain(locations, forward, backward.length == 0 ? null : backward);
+			if ((flags & 1) != 0) {
+				chain.keepShortcut(false);
+			}
+			if ((flags & 2) != 0) {
+				chain.keepShortcut(true);
+			}
+			chains.add(chain);
+		}
+		return new Simplification(inputLocations, inputEdges, stages, chains);
+	}
+
+	// forward[i] is the time from the start to locations[i]; backward[i], for
+	// two-way chains, the time from locations[i] back to the start
+	static final class Chain {
+
+		private final String[] locations;
+		private final int[] forward;
+		private final int[] backward;
+		private boolean forwardShortcut;
+		private boolean backwardShortcut;
+
+		Chain(String[] locations, int[] forward, int[] backward) {
+			this.locations = locations;
+			this.forward = forward;
+			this.backward = backward;
+		}
+
+		// Only while simplifying, before the Simplification is built
+		void keepShortcut(boolean backwards) {
+			if (backwards) {
+				backwardShortcut = true;
+			} else {
+				forwardShortcut = true;
+			}
+		}
+
+		String start() {
+			return locations[0];
+		}
+
+		String end() {
+			return locations[locations.length - 1];
+		}
+
+		// Locations from one index to another, walking backwards when from is the larger
+		List<String> slice(int from, int to) {
+			if (from <= to) {
+				return Collections.unmodifiableList(Arrays.asList(locations).subList(from, to + 1));
+			}
+			List<String> slice = new ArrayList<>(from - to + 1);
+			for (int i = from; i >= to; i--) {
+				slice.add(locations[i]);
+			}
+			return slice;
+		}
+	}
+
+	private record Position(Chain chain, int index) {
+	}
+
+	private record Shortcut(String to, Chain chain) {
+	}
+}
\ No newline at end of file
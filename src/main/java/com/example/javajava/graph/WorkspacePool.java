@@ -0,0 +1,67 @@
+package com.example.javajava.graph;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Lock-free bounded pool of search workspaces. Slots are claimed by swapping
+// them to null, so it works the same for platform and virtual threads and does
+// not pin per-thread state like a ThreadLocal would.
+public class WorkspacePool {
+
+	private static final int DEFAULT_SLOTS = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+
+	private final AtomicReferenceArray<SearchWorkspace> slots;
+
+	public WorkspacePool() {
+		this(DEFAULT_SLOTS);
+	}
+
+	public WorkspacePool(int slotCount) {
+		if (slotCount <= 0) {
+			throw new IllegalArgumentException("Slot count must be positive");
+		}
+		slots = new AtomicReferenceArray<>(slotCount);
+	}
+
+	public SearchWorkspace acquire(int nodeCount) {
+		int start = startSlot();
+		for (int i = 0; i < slots.length(); i++) {
+			int slot = (start + i) % slots.length();
+			SearchWorkspace workspace = slots.get(slot);
+			if (workspace != null && slots.compareAndSet(slot, workspace, null)) {
+				workspace.ensureCapacity(nodeCount);
+				workspace.reset();
+				return workspace;
+			}
+		}
+
+		// Pool exhausted by concurrent searches, the extra workspace is kept if a slot frees up
+		SearchWorkspace workspace = new SearchWorkspace(nodeCount);
+		workspace.reset();
+		return workspace;
+	}
+
+	public void release(SearchWorkspace workspace) {
+		int start = startSlot();
+		for (int i = 0; i < slots.length(); i++) {
+			int slot = (start + i) % slots.length();
+			if (slots.get(slot) == null && slots.compareAndSet(slot, null, workspace)) {
+				return;
+			}
+		}
+	}
+
+	public int getIdleCount() {
+		int idle = 0;
+		for (int i = 0; i < slots.length(); i++) {
+			if (slots.get(i) != null) {
+				idle++;
+			}
+		}
+		return idle;
+	}
+
+	// Stable per thread, so a thread tends to get back the workspace it released
+	private int startSlot() {
+		return Math.floorMod(System.identityHashCode(Thread.currentThread()), slots.length());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.javajava.model;
+
+public enum RoutingAlgorithm {
+	
+	DIJKSTRA,
+	BIDIRECTIONAL,
+	ALT,
+	CH,
+	HUB_LABELS,
+	OVERLAY,
+	TABLE;
+	
+	public static RoutingAlgorithm fromParameter(String value) {
+		if (value == null || value.isEmpty()) {
+			throw new IllegalArgumentException("Routing algorithm cannot be null or empty");
+		}
+		
+		for (RoutingAlgorithm algorithm : values()) {
+			if (algorithm.name().equalsIgnoreCase(value.replace('-', '_'))) {
+				return algorithm;
+			}
+		}
+		throw new IllegalArgumentException("Unknown routing algorithm: " + value);
+	}
+}
\ No newline at end of file
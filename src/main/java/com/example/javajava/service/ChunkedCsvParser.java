@@ -0,0 +1,236 @@
+package com.example.javajava.service;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.GraphBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Parallel CSV parsing. The input is read in chunks cut just after their last
+// \n, and every chunk is tokenized on the fork-join pool into its own location
+// dictionary and rows of local ids. Chunks are then merged in input order:
+// interning each chunk's names into one dictionary in order of first local
+// appearance reproduces the ids a sequential pass would hand out, and rows are
+// appended in order, so the graph does not depend on where chunks were cut.
+// Only a bounded number of chunks is kept unparsed at a time, and a pool with
+// a single worker skips chunking altogether. Input that is already in a
+// buffer, such as a mapped file, is cut at line feeds up front and every task
+// copies only its own chunk out of it.
+final class ChunkedCsvParser {
+
+	private final int chunkSize;
+	private final ForkJoinPool pool;
+
+	ChunkedCsvParser(int chunkSize, ForkJoinPool pool) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		this.chunkSize = chunkSize;
+		this.pool = pool;
+	}
+
+	CompiledGraph parse(InputStream input) throws IOException {
+		if (pool.getParallelism() == 1) {
+			return parseSequentially(input);
+		}
+
+		List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+		int maxPending = 2 * pool.getParallelism();
+		int joined = 0;
+		byte[] buffer = new byte[chunkSize];
+		int limit = 0;
+		while (true) {
+			limit += input.readNBytes(buffer, limit, buffer.length - limit);
+			boolean last = limit < buffer.length;
+			int end = last ? limit : afterLastLineFeed(buffer, limit);
+			if (!last && end == 0) {
+				// No line ends in this chunk yet, so it has to grow
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				continue;
+			}
+
+			byte[] next = new byte[buffer.length];
+			System.arraycopy(buffer, end, next, 0, limit - end);
+			Chunk chunk = new Chunk(buffer, end, last);
+			if (last && tasks.isEmpty()) {
+				// Everything fit into one chunk, not worth a hand-off
+				return merge(List.of(chunk.parse()));
+			}
+
+			tasks.add(pool.submit(chunk::parse));
+			while (tasks.size() - joined > maxPending) {
+				tasks.get(joined++).join();
+			}
+			if (last) break;
+			buffer = next;
+			limit -= end;
+		}
+
+		List<Chunk> chunks = new ArrayList<>(tasks.size());
+		for (ForkJoinTask<Chunk> task : tasks) {
+			chunks.add(task.join());
+		}
+		return merge(chunks);
+	}
+
+	// Parses buffer[position, limit); the position is left unchanged
+	CompiledGraph parse(ByteBuffer input) {
+		int from = input.position();
+		int limit = input.limit();
+		if (pool.getParallelism() == 1 || limit - from <= chunkSize) {
+			return parseSequentially(input.duplicate());
+		}
+
+		// Tasks copy their chunk when they run, so only chunks being parsed or awaiting an error report are on the heap
+		List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+		while (from < limit) {
+			int start = from;
+			int end = chunkEnd(input, start, limit);
+			tasks.add(pool.submit(() -> {
+				byte[] bytes = new byte[end - start];
+				input.get(start, bytes);
+				return new Chunk(bytes, bytes.length, end == limit).parse();
+			}));
+			from = end;
+		}
+
+		List<Chunk> chunks = new ArrayList<>(tasks.size());
+		for (ForkJoinTask<Chunk> task : tasks) {
+			chunks.add(task.join());
+		}
+		return merge(chunks);
+	}
+
+	// With a single worker, chunks would only add the merge; rows go straight into the builder
+	private static CompiledGraph parseSequentially(InputStream input) throws IOException {
+		GraphBuilder builder = new GraphBuilder();
+		LocationDictionary locations = new LocationDictionary();
+		new CsvTokenizer(locations, builder::addEdge).tokenize(input);
+		return build(builder, locations);
+	}
+
+	private static CompiledGraph parseSequentially(ByteBuffer input) {
+		GraphBuilder builder = new GraphBuilder();
+		LocationDictionary locations = new LocationDictionary();
+		new CsvTokenizer(locations, builder::addEdge).tokenize(input);
+		return build(builder, locations);
+	}
+
+	// Just after the last \n within a chunk's size from start, or after the first one beyond it
+	private int chunkEnd(ByteBuffer input, int start, int limit) {
+		if (limit - start <= chunkSize) {
+			return limit;
+		}
+		int end = start + chunkSize;
+		for (int i = end - 1; i >= start; i--) {
+			if (input.get(i) == '\n') {
+				return i + 1;
+			}
+		}
+		for (int i = end; i < limit; i++) {
+			if (input.get(i) == '\n') {
+				return i + 1;
+			}
+		}
+		return limit;
+	}
+
+	private static int afterLastLineFeed(byte[] buffer, int limit) {
+		for (int i = limit - 1; i >= 0; i--) {
+			if (buffer[i] == '\n') {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+
+	private static CompiledGraph merge(List<Chunk> chunks) {
+		// The first invalid line in input order wins; its chunk is tokenized again
+		// knowing how many lines precede it, which rethrows with the global line number
+		int precedingLines = 0;
+		for (Chunk chunk : chunks) {
+			if (chunk.failed) {
+				chunk.tokenize(new LocationDictionary(), (from, to, time) -> { }, precedingLines);
+				throw new IllegalStateException("Chunk failed once but parsed on retry");
+			}
+			precedingLines += chunk.lineCount;
+		}
+
+		GraphBuilder builder = new GraphBuilder();
+		LocationDictionary locations = new LocationDictionary();
+		for (Chunk chunk : chunks) {
+			int[] globalIds = new int[chunk.dictionary.size()];
+			for (int id = 0; id < globalIds.length; id++) {
+				globalIds[id] = locations.intern(chunk.dictionary, id);
+			}
+			for (int row = 0; row < chunk.rowCount; row++) {
+				builder.addEdge(globalIds[chunk.rows[3 * row]], globalIds[chunk.rows[3 * row + 1]], chunk.rows[3 * row + 2]);
+			}
+		}
+		return build(builder, locations);
+	}
+
+	// Dictionary ids are handed out in order of first appearance, just like the builder's
+	private static CompiledGraph build(GraphBuilder builder, LocationDictionary locations) {
+		for (int id = 0; id < locations.size(); id++) {
+			builder.addLocation(locations.getName(id));
+		}
+		return builder.build();
+	}
+
+	// One slice of the input; its bytes are dropped once parsed unless they are needed to report an error
+	private static final class Chunk {
+
+		private byte[] bytes;
+		private final int length;
+		private final boolean last;
+		private LocationDictionary dictionary;
+		private int[] rows;
+		private int rowCount;
+		private int lineCount;
+		private boolean failed;
+
+		Chunk(byte[] bytes, int length, boolean last) {
+			this.bytes = bytes;
+			this.length = length;
+			this.last = last;
+		}
+
+		Chunk parse() {
+			dictionary = new LocationDictionary();
+			rows = new int[3 * Math.max(16, length / 24)];
+			try {
+				lineCount = tokenize(dictionary, this::addRow, 0);
+				bytes = null;
+			} catch (IllegalArgumentException e) {
+				failed = true;
+			}
+			return this;
+		}
+
+		int tokenize(LocationDictionary locations, CsvTokenizer.RowHandler handler, int precedingLines) {
+			CsvTokenizer tokenizer = new CsvTokenizer(locations, handler, precedingLines);
+			int rest = tokenizer.tokenizeLines(bytes, 0, length);
+			if (last) {
+				tokenizer.tokenizeLastLine(bytes, rest, length);
+			}
+			return tokenizer.getLineNumber() - precedingLines;
+		}
+
+		private void addRow(int from, int to, int time) {
+			if (3 * rowCount + 3 > rows.length) {
+				rows = Arrays.copyOf(rows, rows.length * 2);
+			}
+			rows[3 * rowCount] = from;
+			rows[3 * rowCount + 1] = to;
+			rows[3 * rowCount + 2] = time;
+			rowCount++;
+		}
+	}
+}
\ No newline at end of file
@@ -1,9 +1,18 @@
 package com.example.javajava.service;
 
+import com.example.javajava.graph.CompiledGraph;
 import com.example.javajava.model.TravelTime;
 import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 public class CsvDataService {
@@ -11,6 +20,17 @@ public class CsvDataService {
 	private static final String FIELD_SEPARATOR = ";";
 	private static final int EXPECTED_FIELD_COUNT = 3;
 	private static final String HEADER_PREFIX = "loc_start";
+	private static final int CHUNK_SIZE = 1024 * 1024;
+	
+	private final ChunkedCsvParser chunkedParser;
+	
+	public CsvDataService() {
+		this(CHUNK_SIZE, ForkJoinPool.commonPool());
+	}
+	
+	public CsvDataService(int chunkSize, ForkJoinPool pool) {
+		this.chunkedParser = new ChunkedCsvParser(chunkSize, pool);
+	}
 	
 	public List<TravelTime> parseCSVContent(String csvContent) {
 		List<TravelTime> travelTimes = new ArrayList<>();
@@ -19,18 +39,44 @@ public class CsvDataService {
 			return travelTimes;
 		}
 		
-		String[] lines = csvContent.split("\\r?\\n");
+		try {
+			parseLines(new BufferedReader(new StringReader(csvContent)), (from, to, time) -> travelTimes.add(new TravelTime(from, to, time)));
+		} catch (IOException e) {
+			// A StringReader does not fail
+			throw new UncheckedIOException(e);
+		}
 		
-		for (String line : lines) {
+		return travelTimes;
+	}
+	
+	// Tokenizes the upload's bytes as they are read, chunk by chunk in parallel,
+	// and feeds the rows into a GraphBuilder. Location names are interned by
+	// their bytes, so a row allocates nothing and the heap grows with the graph
+	// (its distinct locations and int-packed edges), never with the file.
+	public CompiledGraph parseCSV(InputStream input) throws IOException {
+		return chunkedParser.parse(input);
+	}
+	
+	// Same as parseCSV(InputStream) for input that is already in memory or mapped
+	// from a file, the bytes between position and limit
+	public CompiledGraph parseCSV(ByteBuffer input) {
+		return chunkedParser.parse(input);
+	}
+	
+	private void parseLines(BufferedReader reader, RowConsumer rows) throws IOException {
+		int lineNumber = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			lineNumber++;
 			line = line.trim();
 			
 			if (line.isEmpty()) continue;
 			if (line.startsWith(HEADER_PREFIX)) continue;
 			
+			// A one-character separator takes String.split's fast path, no regex is compiled
 			String[] fields = line.split(FIELD_SEPARATOR);
 			
 			if (fields.length != EXPECTED_FIELD_COUNT) {
-				throw new IllegalArgumentException("Invalid CSV format. Expected 3 fields separated by ';', got " + fields.length + " fields in line: " + line);
+				throw new IllegalArgumentException("Invalid CSV format. Expected 3 fields separated by ';', got " + fields.length + " fields in line " + lineNumber + ": " + line);
 			}
 			
 			String from = fields[0].trim();
@@ -38,20 +84,24 @@ public class CsvDataService {
 			String timeStr = fields[2].trim();
 			
 			if (from.isEmpty() || to.isEmpty() || timeStr.isEmpty()) {
-				throw new IllegalArgumentException("Empty fields are not allowed in line: " + line);
+				throw new IllegalArgumentException("Empty fields are not allowed in line " + lineNumber + ": " + line);
 			}
 			
 			int time;
 			try {
 				time = Integer.parseInt(timeStr);
 			} catch (NumberFormatException e) {
-				throw new IllegalArgumentException("Invalid time value. Must be a number: " + timeStr);
+				throw new IllegalArgumentException("Invalid time value. Must be a number: " + timeStr + " in line " + lineNumber);
+			}
+			if (time <= 0) {
+				throw new IllegalArgumentException("Time must be positive in line " + lineNumber + ": " + line);
 			}
 			
-			// TravelTime constructor will validate the data
-			travelTimes.add(new TravelTime(from, to, time));
+			rows.accept(from, to, time);
 		}
-		
-		return travelTimes;
+	}
+	
+	private interface RowConsumer {
+		void accept(String from, String to, int time);
 	}
 }
\ No newline at end of file
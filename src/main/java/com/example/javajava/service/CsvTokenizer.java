@@ -0,0 +1,216 @@
+package com.example.javajava.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Byte-level tokenizer for loc_start;loc_end;time rows. It scans raw bytes for
+// line breaks and separators, trims and parses fields in place and resolves
+// locations through a LocationDictionary, so a row of known locations
+// allocates nothing. Rows are accepted and rejected exactly like
+// CsvDataService.parseCSVContent: lines end at \n, \r or \r\n, blank lines and
+// headers are skipped, surrounding whitespace is ignored, and a trailing empty
+// field does not count, as with String.split. Line text is only decoded to
+// build an error message.
+final class CsvTokenizer {
+
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	private static final byte FIELD_SEPARATOR = ';';
+	private static final int EXPECTED_FIELD_COUNT = 3;
+	private static final byte[] HEADER_PREFIX = "loc_start".getBytes(StandardCharsets.US_ASCII);
+
+	interface RowHandler {
+		void row(int from, int to, int time);
+	}
+
+	private interface ByteSource {
+		int read(byte[] buffer, int offset, int length) throws IOException;
+	}
+
+	private final LocationDictionary dictionary;
+	private final RowHandler rows;
+	private final int[] fieldStarts = new int[EXPECTED_FIELD_COUNT];
+	private final int[] fieldEnds = new int[EXPECTED_FIELD_COUNT];
+	private int lineNumber;
+	private boolean afterCarriageReturn;
+
+	CsvTokenizer(LocationDictionary dictionary, RowHandler rows) {
+		this(dictionary, rows, 0);
+	}
+
+	// For a slice of a larger input; line numbers in errors continue after precedingLines
+	CsvTokenizer(LocationDictionary dictionary, RowHandler rows, int precedingLines) {
+		this.dictionary = dictionary;
+		this.rows = rows;
+		this.lineNumber = precedingLines;
+	}
+
+	void tokenize(InputStream input) throws IOException {
+		tokenize(input::read);
+	}
+
+	// Copies the remaining bytes window by window, so a mapped file is read
+	// straight from the page cache and never held on the heap as a whole
+	void tokenize(ByteBuffer input) {
+		try {
+			tokenize((buffer, offset, length) -> {
+				if (!input.hasRemaining()) {
+					return -1;
+				}
+				int read = Math.min(length, input.remaining());
+				input.get(buffer, offset, read);
+				return read;
+			});
+		} catch (IOException e) {
+			// Reading a buffer does not fail
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void tokenize(ByteSource input) throws IOException {
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+		int limit = 0;
+		for (int read = input.read(buffer, limit, buffer.length - limit); read >= 0; read = input.read(buffer, limit, buffer.length - limit)) {
+			limit += read;
+			int unfinished = tokenizeLines(buffer, 0, limit);
+
+			// Keep the unfinished last line at the front, growing the buffer only for a line longer than it
+			limit -= unfinished;
+			System.arraycopy(buffer, unfinished, buffer, 0, limit);
+			if (limit == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+		}
+		tokenizeLastLine(buffer, 0, limit);
+	}
+
+	// Tokenizes every terminated line in buffer[from, to) and returns where the unterminated rest begins
+	int tokenizeLines(byte[] buffer, int from, int to) {
+		int start = from;
+		for (int i = from; i < to; i++) {
+			byte b = buffer[i];
+			if (b != '\n' && b != '\r') continue;
+
+			// The \n of a \r\n pair ends no line of its own
+			if (b == '\n' && afterCarriageReturn && i == start) {
+				afterCarriageReturn = false;
+				start = i + 1;
+				continue;
+			}
+			tokenizeLine(buffer, start, i);
+			afterCarriageReturn = b == '\r';
+			start = i + 1;
+		}
+		return start;
+	}
+
+	void tokenizeLastLine(byte[] buffer, int from, int to) {
+		if (from < to) {
+			tokenizeLine(buffer, from, to);
+		}
+	}
+
+	// Lines seen so far, including precedingLines
+	int getLineNumber() {
+		return lineNumber;
+	}
+
+	private void tokenizeLine(byte[] buffer, int start, int end) {
+		lineNumber++;
+		while (start < end && isWhitespace(buffer[start])) start++;
+		while (end > start && isWhitespace(buffer[end - 1])) end--;
+
+		if (start == end) return;
+		if (startsWith(buffer, start, end, HEADER_PREFIX)) return;
+
+		// Fields as String.split counts them: trailing empty fields are dropped
+		int fieldCount = 0;
+		int segment = 0;
+		int segmentStart = start;
+		for (int i = start; i <= end; i++) {
+			if (i < end && buffer[i] != FIELD_SEPARATOR) continue;
+
+			if (segment < EXPECTED_FIELD_COUNT) {
+				fieldStarts[segment] = segmentStart;
+				fieldEnds[segment] = i;
+			}
+			segment++;
+			if (i > segmentStart) {
+				fieldCount = segment;
+			}
+			segmentStart = i + 1;
+		}
+		if (fieldCount != EXPECTED_FIELD_COUNT) {
+			throw new IllegalArgumentException("Invalid CSV format. Expected 3 fields separated by ';', got " + fieldCount
+				+ " fields in line " + lineNumber + ": " + decode(buffer, start, end));
+		}
+
+		for (int field = 0; field < EXPECTED_FIELD_COUNT; field++) {
+			while (fieldStarts[field] < fieldEnds[field] && isWhitespace(buffer[fieldStarts[field]])) fieldStarts[field]++;
+			while (fieldEnds[field] > fieldStarts[field] && isWhitespace(buffer[fieldEnds[field] - 1])) fieldEnds[field]--;
+			if (fieldStarts[field] == fieldEnds[field]) {
+				throw new IllegalArgumentException("Empty fields are not allowed in line " + lineNumber + ": " + decode(buffer, start, end));
+			}
+		}
+
+		int time = parseTime(buffer, fieldStarts[2], fieldEnds[2]);
+		if (time <= 0) {
+			throw new IllegalArgumentException("Time must be positive in line " + lineNumber + ": " + decode(buffer, start, end));
+		}
+
+		int from = dictionary.intern(buffer, fieldStarts[0], fieldEnds[0] - fieldStarts[0]);
+		int to = dictionary.intern(buffer, fieldStarts[1], fieldEnds[1] - fieldStarts[1]);
+		rows.row(from, to, time);
+	}
+
+	// Optional sign and decimal digits within int range, as Integer.parseInt accepts for ASCII input
+	private int parseTime(byte[] buffer, int start, int end) {
+		int i = start;
+		boolean negative = buffer[i] == '-';
+		if (negative || buffer[i] == '+') {
+			i++;
+		}
+		if (i == end) {
+			throw invalidTime(buffer, start, end);
+		}
+
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw invalidTime(buffer, start, end);
+			}
+			value = value * 10 + digit;
+			if (value > Integer.MAX_VALUE + 1L) {
+				throw invalidTime(buffer, start, end);
+			}
+		}
+		if (negative) {
+			value = -value;
+		}
+		if (value > Integer.MAX_VALUE) {
+			throw invalidTime(buffer, start, end);
+		}
+		return (int) value;
+	}
+
+	private IllegalArgumentException invalidTime(byte[] buffer, int start, int end) {
+		return new IllegalArgumentException("Invalid time value. Must be a number: " + decode(buffer, start, end) + " in line " + lineNumber);
+	}
+
+	// Matches String.trim, which treats every char up to U+0020 as whitespace; UTF-8 continuation bytes are all above
+	private static boolean isWhitespace(byte b) {
+		return b >= 0 && b <= ' ';
+	}
+
+	private static boolean startsWith(byte[] buffer, int start, int end, byte[] prefix) {
+		return end - start >= prefix.length && Arrays.equals(buffer, start, start + prefix.length, prefix, 0, prefix.length);
+	}
+
+	private static String decode(byte[] buffer, int start, int end) {
+		return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+	}
+}
\ No newline at end of file
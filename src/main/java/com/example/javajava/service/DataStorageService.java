@@ -1,39 +1,177 @@
 package com.example.javajava.service;
 
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.CompressedGraph;
+import com.example.javajava.graph.GraphSimplifier;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.MappedGraph;
+import com.example.javajava.graph.NodeReordering;
+import com.example.javajava.graph.Simplification;
 import com.example.javajava.model.TravelTime;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
 public class DataStorageService {
 	
-	private List<TravelTime> travelTimes = new ArrayList<>();
+	// Readers take the current snapshot without locking, a reload swaps it in one step
+	private final AtomicReference<GraphSnapshot> snapshot = new AtomicReference<>(GraphSnapshot.EMPTY);
+	private final AtomicLong versions = new AtomicLong();
+	private final List<Consumer<GraphSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+	private final List<Consumer<GraphSnapshot>> updateListeners = new CopyOnWriteArrayList<>();
+	private final DataProperties dataProperties;
+	
+	public DataStorageService() {
+		this(new DataProperties());
+	}
+	
+	@Autowired
+	public DataStorageService(DataProperties dataProperties) {
+		this.dataProperties = dataProperties;
+	}
 	
 	public void storeTravelTimes(List<TravelTime> travelTimes) {
 		if (travelTimes == null) {
 			throw new IllegalArgumentException("Travel times list cannot be null");
 		}
 		
-		this.travelTimes = new ArrayList<>(travelTimes);
+		publish(loadedSnapshot(travelTimes, CompiledGraph.fromTravelTimes(travelTimes)));
+	}
+	
+	// For uploads parsed straight into a graph; the snapshot keeps no raw rows
+	public void storeGraph(CompiledGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null");
+		}
+		
+		publish(loadedSnapshot(null, graph));
+	}
+	
+	// For a dataset read back from a snapshot file, with whatever preprocessing it carries
+	public void restoreSnapshot(GraphSnapshot restored) {
+		if (restored == null) {
+			throw new IllegalArgumentException("Snapshot cannot be null");
+		}
+		
+		publish(restored.withGraph(prepareGraph(restored.getGraph())).withVersion(versions.incrementAndGet()));
+	}
+	
+	// Restored graphs were simplified and renumbered when they were loaded, and their indexes rely on those ids;
+	// raw rows are kept as loaded
+	private GraphSnapshot loadedSnapshot(List<TravelTime> travelTimes, CompiledGraph graph) {
+		CompiledGraph parsed = graph;
+		Simplification simplification = null;
+		if (dataProperties.isSimplify() && graph.getLocationCount() > 0) {
+			GraphSimplifier.Result simplified = GraphSimplifier.simplify(graph);
+			graph = simplified.graph();
+			simplification = simplified.simplification();
+		}
+		if (dataProperties.isReorderNodes() && graph.getLocationCount() > 0) {
+			graph = NodeReordering.reorder(graph);
+		}
+		graph = prepareGraph(graph);
+		
+		long version = versions.incrementAndGet();
+		GraphSnapshot loaded = travelTimes != null ? new GraphSnapshot(version, travelTimes, graph) : new GraphSnapshot(version, graph);
+		if (simplification == null) {
+			return loaded;
+		}
+		// Without raw rows, the simplified graph would report shortcuts instead of what was loaded
+		loaded = loaded.withSimplification(simplification);
+		return travelTimes != null ? loaded : loaded.withParsedGraph(parsed);
+	}
+	
+	// Moves a graph into the configured storage; the heap copy it came from is left to the collector
+	public CompiledGraph prepareGraph(CompiledGraph graph) {
+		if (graph.getLocationCount() == 0) {
+			return graph;
+		}
+		return switch (dataProperties.getStorage()) {
+			case HEAP -> graph;
+			case MAPPED -> mapGraph(graph);
+			case COMPRESSED -> CompressedGraph.create(graph);
+		};
+	}
+	
+	private CompiledGraph mapGraph(CompiledGraph graph) {
+		try {
+			Path directory = Path.of(dataProperties.getDirectory());
+			Files.createDirectories(directory);
+			return MappedGraph.create(graph, directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not map the graph: " + e.getMessage(), e);
+		}
+	}
+	
+	private void publish(GraphSnapshot loaded) {
+		snapshot.set(loaded);
+		for (Consumer<GraphSnapshot> listener : snapshotListeners) {
+			listener.accept(loaded);
+		}
+	}
+	
+	public void addSnapshotListener(Consumer<GraphSnapshot> listener) {
+		snapshotListeners.add(listener);
+	}
+	
+	// Called with the updated snapshot whenever preprocessing is attached to the current dataset
+	public void addUpdateListener(Consumer<GraphSnapshot> listener) {
+		updateListeners.add(listener);
+	}
+	
+	// Attaches preprocessing to the given dataset version unless a newer load replaced it meanwhile
+	public boolean updateSnapshot(long version, UnaryOperator<GraphSnapshot> update) {
+		while (true) {
+			GraphSnapshot current = snapshot.get();
+			if (current.getVersion() != version) {
+				return false;
+			}
+			GraphSnapshot updated = update.apply(current);
+			if (snapshot.compareAndSet(current, updated)) {
+				for (Consumer<GraphSnapshot> listener : updateListeners) {
+					listener.accept(updated);
+				}
+				return true;
+			}
+		}
+	}
+	
+	public GraphSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+	
+	public CompiledGraph getGraph() {
+		return snapshot.get().getGraph();
 	}
 	
 	public List<TravelTime> getAllTravelTimes() {
-		return new ArrayList<>(travelTimes);
+		return new ArrayList<>(snapshot.get().getTravelTimes());
 	}
 	
 	// Testing functions
-
+	
 	public void clearAllData() {
-		travelTimes.clear();
+		snapshot.set(new GraphSnapshot(versions.incrementAndGet(), List.of(), CompiledGraph.EMPTY));
 	}
-
+	
 	public List<TravelTime> getTravelTimesFrom(String fromLocation) {
-		return travelTimes.stream()
+		return snapshot.get().getTravelTimes().stream()
 			.filter(tt -> fromLocation.equals(tt.getFrom()))
 			.collect(Collectors.toList());
 	}
@@ -41,7 +179,7 @@ public class DataStorageService {
 	public List<String> getAllLocations() {
 		Set<String> locations = new HashSet<>();
 		
-		for (TravelTime travelTime : travelTimes) {
+		for (TravelTime travelTime : snapshot.get().getTravelTimes()) {
 			locations.add(travelTime.getFrom());
 			locations.add(travelTime.getTo());
 		}
@@ -49,7 +187,10 @@ public class DataStorageService {
 		return new ArrayList<>(locations);
 	}
 	
+	// Rows loaded, before simplification removed any of them
 	public int getDataCount() {
-		return travelTimes.size();
+		GraphSnapshot current = snapshot.get();
+		Simplification simplification = current.getSimplification();
+		return simplification != null ? simplification.getInputEdges() : current.getGraph().getEdgeCount();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CellPartition;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.ContractionHierarchy;
+import com.example.javajava.graph.ContractionOrder;
+import com.example.javajava.graph.DistanceTable;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.HubLabels;
+import com.example.javajava.graph.LandmarkIndex;
+import com.example.javajava.graph.OverlayGraph;
+import com.example.javajava.graph.Simplification;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Builds the preprocessed routing indexes for every dataset load and attaches
+// them to the snapshot the load published. Every index is built on a background
+// executor, so loads return as soon as the graph is published; queries fall
+// back to plain Dijkstra until the index they need is attached.
+@Service
+public class GraphIndexService {
+	
+	private final DataStorageService dataStorageService;
+	private final RoutingProperties routingProperties;
+	private final Executor backgroundExecutor;
+	private final AtomicLong orderBuilds = new AtomicLong();
+	private final AtomicLong orderReuses = new AtomicLong();
+	// Only touched by background tasks, which the default executor runs one at a time
+	private volatile ContractionOrder contractionOrder;
+	private volatile OverlayGraph lastOverlay;
+	
+	@Autowired
+	public GraphIndexService(DataStorageService dataStorageService, RoutingProperties routingProperties) {
+		this(dataStorageService, routingProperties, Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "graph-index");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+	
+	public GraphIndexService(DataStorageService dataStorageService, RoutingProperties routingProperties, Executor backgroundExecutor) {
+		this.dataStorageService = dataStorageService;
+		this.routingProperties = routingProperties;
+		this.backgroundExecutor = backgroundExecutor;
+		dataStorageService.addSnapshotListener(this::onSnapshotLoaded);
+	}
+	
+	private void onSnapshotLoaded(GraphSnapshot snapshot) {
+		if (snapshot.getGraph().getLocationCount() == 0) {
+			return;
+		}
+		
+		// Queued first: on small datasets the table answers every query once it is ready
+		int maxLocations = routingProperties.getDistanceTable().getMaxLocations();
+		if (snapshot.getGraph().getLocationCount() <= maxLocations && DistanceTable.fits(snapshot.getGraph())) {
+			backgroundExecutor.execute(() -> {
+				if (dataStorageService.getSnapshot().getVersion() != snapshot.getVersion()) {
+					return;
+				}
+				DistanceTable table = DistanceTable.build(snapshot.getGraph());
+				dataStorageService.updateSnapshot(snapshot.getVersion(), current -> current.withDistanceTable(table));
+			});
+		}
+		
+		// A restored snapshot may already carry landmarks and a hierarchy
+		int landmarkCount = routingProperties.getLandmarks().getCount();
+		LandmarkIndex restoredLandmarks = snapshot.getLandmarks();
+		if (landmarkCount > 0 && (restoredLandmarks == null
+				|| restoredLandmarks.getLandmarkCount() != Math.min(landmarkCount, snapshot.getGraph().getLocationCount()))) {
+			backgroundExecutor.execute(() -> {
+				if (dataStorageService.getSnapshot().getVersion() != snapshot.getVersion()) {
+					return;
+				}
+				LandmarkIndex landmarks = LandmarkIndex.build(snapshot.getGraph(), landmarkCount);
+				dataStorageService.updateSnapshot(snapshot.getVersion(), current -> current.withLandmarks(landmarks));
+			});
+		}
+		
+		if (routingProperties.getContractionHierarchy().isEnabled()) {
+			backgroundExecutor.execute(() -> {
+				// A newer load already replaced this dataset, its own task will contract it
+				if (dataStorageService.getSnapshot().getVersion() != snapshot.getVersion()) {
+					return;
+				}
+				ContractionHierarchy hierarchy = snapshot.getHierarchy();
+				if (hierarchy == null) {
+					ContractionHierarchy built = routingProperties.getContractionHierarchy().isCustomizable()
+						? customize(snapshot.getGraph())
+						: ContractionHierarchy.build(snapshot.getGraph());
+					dataStorageService.updateSnapshot(snapshot.getVersion(), current -> current.withHierarchy(built));
+					hierarchy = built;
+				}
+				
+				if (routingProperties.getHubLabels().isEnabled()
+						&& dataStorageService.getSnapshot().getVersion() == snapshot.getVersion()) {
+					HubLabels hubLabels = HubLabels.build(hierarchy);
+					dataStorageService.updateSnapshot(snapshot.getVersion(), current -> current.withHubLabels(hubLabels));
+				}
+			});
+		}
+		
+		if (routingProperties.getOverlay().isEnabled()) {
+			backgroundExecutor.execute(() -> {
+				if (dataStorageService.getSnapshot().getVersion() != snapshot.getVersion()) {
+					return;
+				}
+				OverlayGraph overlay = customizeOverlay(snapshot.getGraph());
+				dataStorageService.updateSnapshot(snapshot.getVersion(), current -> current.withOverlay(overlay));
+			});
+		}
+	}
+	
+	// A reload with the same edges keeps the partition and only redoes cells whose weights changed
+	private OverlayGraph customizeOverlay(CompiledGraph graph) {
+		RoutingProperties.Overlay settings = routingProperties.getOverlay();
+		OverlayGraph previous = lastOverlay;
+		OverlayGraph overlay;
+		if (previous != null && previous.getPartition().supports(graph)
+				&& previous.getPartition().getLevelCount() == settings.getLevels()) {
+			overlay = previous.recustomize(graph);
+		} else {
+			overlay = OverlayGraph.customize(graph, CellPartition.build(graph, settings.getCellSize(), settings.getLevels()));
+		}
+		lastOverlay = overlay;
+		return overlay;
+	}
+	
+	// The order depends on topology only, so a reload that keeps the same
+	// location pairs just pushes the new travel times through it
+	private ContractionHierarchy customize(CompiledGraph graph) {
+		ContractionOrder order = contractionOrder;
+		if (order != null && order.supports(graph)) {
+			orderReuses.incrementAndGet();
+		} else {
+			order = ContractionOrder.build(graph);
+			contractionOrder = order;
+			orderBuilds.incrementAndGet();
+		}
+		return order.customize(graph);
+	}
+	
+	public Map<String, Object> getStatistics() {
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("datasetVersion", snapshot.getVersion());
+		statistics.put("locations", snapshot.getGraph().getLocationCount());
+		statistics.put("edges", snapshot.getGraph().getEdgeCount());
+		statistics.put("graphStorage", snapshot.getGraph().getStorage());
+		statistics.put("graphMemoryBytes", snapshot.getGraph().getMemoryBytes());
+		
+		Simplification simplification = snapshot.getSimplification();
+		if (simplification != null) {
+			List<Map<String, Object>> stages = new ArrayList<>();
+			for (Simplification.Stage stage : simplification.getStages()) {
+				Map<String, Object> stageStatistics = new LinkedHashMap<>();
+				stageStatistics.put("stage", stage.name());
+				stageStatistics.put("millis", stage.millis());
+				stageStatistics.put("locations", stage.locations());
+				stageStatistics.put("edges", stage.edges());
+				stages.add(stageStatistics);
+			}
+			Map<String, Object> simplificationStatistics = new LinkedHashMap<>();
+			simplificationStatistics.put("inputLocations", simplification.getInputLocations());
+			simplificationStatistics.put("inputEdges", simplification.getInputEdges());
+			simplificationStatistics.put("stages", stages);
+			simplificationStatistics.put("chains", simplification.getChainCount());
+			simplificationStatistics.put("contractedLocations", simplification.getContractedLocationCount());
+			statistics.put("simplification", simplificationStatistics);
+		}
+		
+		LandmarkIndex landmarks = snapshot.getLandmarks();
+		if (landmarks != null) {
+			Map<String, Object> landmarkStatistics = new LinkedHashMap<>();
+			landmarkStatistics.put("count", landmarks.getLandmarkCount());
+			landmarkStatistics.put("preprocessingMillis", landmarks.getPreprocessingMillis());
+			landmarkStatistics.put("memoryBytes", landmarks.getMemoryBytes());
+			statistics.put("landmarks", landmarkStatistics);
+		}
+		
+		ContractionHierarchy hierarchy = snapshot.getHierarchy();
+		if (hierarchy != null) {
+			Map<String, Object> hierarchyStatistics = new LinkedHashMap<>();
+			hierarchyStatistics.put("shortcuts", hierarchy.getShortcutCount());
+			hierarchyStatistics.put("preprocessingMillis", hierarchy.getPreprocessingMillis());
+			hierarchyStatistics.put("customizationMillis", hierarchy.getCustomizationMillis());
+			hierarchyStatistics.put("memoryBytes", hierarchy.getMemoryBytes());
+			if (routingProperties.getContractionHierarchy().isCustomizable()) {
+				hierarchyStatistics.put("orderBuilds", orderBuilds.get());
+				hierarchyStatistics.put("orderReuses", orderReuses.get());
+			}
+			statistics.put("contractionHierarchy", hierarchyStatistics);
+		}
+		
+		HubLabels hubLabels = snapshot.getHubLabels();
+		if (hubLabels != null) {
+			Map<String, Object> labelStatistics = new LinkedHashMap<>();
+			labelStatistics.put("entries", hubLabels.getEntryCount());
+			labelStatistics.put("averageLabelSize", hubLabels.getAverageLabelSize());
+			labelStatistics.put("maxLabelSize", hubLabels.getMaxLabelSize());
+			labelStatistics.put("preprocessingMillis", hubLabels.getPreprocessingMillis());
+			labelStatistics.put("memoryBytes", hubLabels.getMemoryBytes());
+			statistics.put("hubLabels", labelStatistics);
+		}
+		
+		OverlayGraph overlay = snapshot.getOverlay();
+		if (overlay != null) {
+			CellPartition partition = overlay.getPartition();
+			List<Map<String, Object>> levels = new ArrayList<>();
+			for (int level = 1; level <= partition.getLevelCount(); level++) {
+				Map<String, Object> levelStatistics = new LinkedHashMap<>();
+				levelStatistics.put("cells", partition.getCellCount(level));
+				levelStatistics.put("boundaryNodes", partition.getBoundaryCount(level));
+				levels.add(levelStatistics);
+			}
+			Map<String, Object> overlayStatistics = new LinkedHashMap<>();
+			overlayStatistics.put("levels", levels);
+			overlayStatistics.put("partitionMillis", partition.getPreprocessingMillis());
+			overlayStatistics.put("customizationMillis", overlay.getCustomizationMillis());
+			overlayStatistics.put("customizedCells", overlay.getCustomizedCells());
+			overlayStatistics.put("totalCells", overlay.getTotalCells());
+			overlayStatistics.put("memoryBytes", overlay.getMemoryBytes());
+			statistics.put("overlay", overlayStatistics);
+		}
+		
+		DistanceTable distanceTable = snapshot.getDistanceTable();
+		if (distanceTable != null) {
+			Map<String, Object> tableStatistics = new LinkedHashMap<>();
+			tableStatistics.put("locations", distanceTable.getNodeCount());
+			tableStatistics.put("preprocessingMillis", distanceTable.getPreprocessingMillis());
+			tableStatistics.put("memoryBytes", distanceTable.getMemoryBytes());
+			statistics.put("distanceTable", tableStatistics);
+		}
+		return statistics;
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		if (backgroundExecutor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+}
\ No newline at end of file
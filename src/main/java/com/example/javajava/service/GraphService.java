@@ -1,114 +1,151 @@
 package com.example.javajava.service;
 
+import com.example.javajava.graph.AltEngine;
+import com.example.javajava.graph.BidirectionalDijkstraEngine;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.ContractionHierarchyEngine;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.DistanceTableEngine;
+import com.example.javajava.graph.GraphBuilder;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.HubLabelEngine;
+import com.example.javajava.graph.OverlayEngine;
+import com.example.javajava.graph.SearchWorkspace;
+import com.example.javajava.graph.WorkspacePool;
 import com.example.javajava.model.Edge;
 import com.example.javajava.model.PathResult;
+import com.example.javajava.model.RoutingAlgorithm;
 import com.example.javajava.model.TravelTime;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class GraphService {
-	
-	private Map<String, List<Edge>> adjacencyList = new HashMap<>();
-	
+
+	private final AtomicReference<CompiledGraph> graph = new AtomicReference<>(CompiledGraph.EMPTY);
+	private final WorkspacePool workspacePool = new WorkspacePool();
+	private final DijkstraEngine dijkstraEngine = new DijkstraEngine(workspacePool);
+	private final BidirectionalDijkstraEngine bidirectionalEngine = new BidirectionalDijkstraEngine(workspacePool);
+	private final AltEngine altEngine = new AltEngine(workspacePool);
+	private final ContractionHierarchyEngine hierarchyEngine = new ContractionHierarchyEngine(workspacePool);
+	private final HubLabelEngine hubLabelEngine = new HubLabelEngine();
+	private final OverlayEngine overlayEngine = new OverlayEngine(workspacePool);
+	private final DistanceTableEngine distanceTableEngine = new DistanceTableEngine();
+
 	public void buildGraphFromTravelTimes(List<TravelTime> travelTimes) {
 		if (travelTimes == null) {
 			throw new IllegalArgumentException("Travel times list cannot be null");
 		}
-		
-		adjacencyList.clear();
-		for (TravelTime travelTime : travelTimes) {
-			addEdge(travelTime.getFrom(), travelTime.getTo(), travelTime.getTime());
-		}
+
+		graph.set(CompiledGraph.fromTravelTimes(travelTimes));
 	}
-	
+
+	// Every call recompiles the whole graph, so adding edges one by one is quadratic; use addEdges for more than a few
 	public void addEdge(String from, String to, int weight) {
-		adjacencyList.computeIfAbsent(from, k -> new ArrayList<>());
-		adjacencyList.computeIfAbsent(to, k -> new ArrayList<>());
-		
-		Edge edge = new Edge(to, weight);
-		adjacencyList.get(from).add(edge);
+		addEdges(List.of(new TravelTime(from, to, weight)));
 	}
-	
+
+	// Appends the batch to the current graph with a single recompile
+	public void addEdges(List<TravelTime> travelTimes) {
+		if (travelTimes == null) {
+			throw new IllegalArgumentException("Travel times list cannot be null");
+		}
+
+		graph.updateAndGet(current -> {
+			GraphBuilder builder = current.toBuilder();
+			for (TravelTime travelTime : travelTimes) {
+				builder.addEdge(travelTime.getFrom(), travelTime.getTo(), travelTime.getTime());
+			}
+			return builder.build();
+		});
+	}
+
+	public CompiledGraph getGraph() {
+		return graph.get();
+	}
+
 	public List<Edge> getNeighbors(String location) {
-		return adjacencyList.getOrDefault(location, new ArrayList<>());
+		CompiledGraph graph = this.graph.get();
+		int node = graph.indexOf(location);
+		if (node < 0) {
+			return new ArrayList<>();
+		}
+
+		List<Edge> neighbors = new ArrayList<>(graph.endEdge(node) - graph.firstEdge(node));
+		for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+			neighbors.add(new Edge(graph.getLocation(graph.getTarget(edge)), graph.getWeight(edge)));
+		}
+		return neighbors;
 	}
-	
+
 	public boolean hasLocation(String location) {
-		return adjacencyList.containsKey(location);
+		return graph.get().hasLocation(location);
 	}
-	
+
 	public PathResult findShortestPath(String source, String destination) {
-		if (!hasLocation(source) || !hasLocation(destination)) {
+		return findShortestPath(graph.get(), source, destination);
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, String source, String destination) {
+		return findShortestPath(graph, source, destination, RoutingAlgorithm.DIJKSTRA);
+	}
+
+	public PathResult findShortestPath(CompiledGraph graph, String source, String destination, RoutingAlgorithm algorithm) {
+		return findShortestPath(new GraphSnapshot(0, List.of(), graph), source, destination, algorithm);
+	}
+
+	// Algorithms that need preprocessing fall back to plain Dijkstra until their index is attached
+	public PathResult findShortestPath(GraphSnapshot snapshot, String source, String destination, RoutingAlgorithm algorithm) {
+		CompiledGraph graph = snapshot.getGraph();
+		int sourceId = graph.indexOf(source);
+		int destinationId = graph.indexOf(destination);
+		if (sourceId < 0 || destinationId < 0) {
 			return new PathResult();
 		}
-		
-		if (source.equals(destination)) {
-			return new PathResult(Arrays.asList(source), 0);
-		}
-		
-		// Dijkstra's
-		Map<String, Integer> distances = new HashMap<>();
-		Map<String, String> previous = new HashMap<>();
-		PriorityQueue<Node> unvisited = new PriorityQueue<>(Comparator.comparingInt(n -> n.distance));
-		Set<String> visited = new HashSet<>();
-		
-		// Initialize distances
-		for (String location : adjacencyList.keySet()) {
-			distances.put(location, Integer.MAX_VALUE);
-		}
-		distances.put(source, 0);
-		unvisited.add(new Node(source, 0));
-		
-		while (!unvisited.isEmpty()) {
-			Node current = unvisited.poll();
-			String currentLocation = current.location;
-			
-			if (visited.contains(currentLocation)) continue;
-			
-			visited.add(currentLocation);
-			
-			// Found destination
-			if (currentLocation.equals(destination)) break;
-			
-			// Process neighbors
-			List<Edge> neighbors = getNeighbors(currentLocation);
-			for (Edge edge : neighbors) {
-				String neighbor = edge.getDestination();
-				int newDistance = distances.get(currentLocation) + edge.getWeight();
-				
-				if (newDistance < distances.get(neighbor)) {
-					distances.put(neighbor, newDistance);
-					previous.put(neighbor, currentLocation);
-					unvisited.add(new Node(neighbor, newDistance));
-				}
-			}
-		}
-		
-		// Reconstruct path
-		if (!previous.containsKey(destination) && !source.equals(destination)) {
-			return new PathResult(); // No path found
-		}
-		
-		List<String> path = new ArrayList<>();
-		String current = destination;
-		
-		while (current != null) {
-			path.add(0, current);
-			current = previous.get(current);
-		}
-		
-		return new PathResult(path, distances.get(destination));
+
+		return switch (algorithm) {
+			case BIDIRECTIONAL -> bidirectionalEngine.findShortestPath(graph, sourceId, destinationId);
+			case ALT -> snapshot.getLandmarks() != null
+				? altEngine.findShortestPath(graph, snapshot.getLandmarks(), sourceId, destinationId)
+				: dijkstraEngine.findShortestPath(graph, sourceId, destinationId);
+			case CH -> snapshot.getHierarchy() != null
+				? hierarchyEngine.findShortestPath(graph, snapshot.getHierarchy(), sourceId, destinationId)
+				: dijkstraEngine.findShortestPath(graph, sourceId, destinationId);
+			case HUB_LABELS -> snapshot.getHubLabels() != null
+				? hubLabelEngine.findShortestPath(graph, snapshot.getHubLabels(), sourceId, destinationId)
+				: dijkstraEngine.findShortestPath(graph, sourceId, destinationId);
+			case OVERLAY -> snapshot.getOverlay() != null
+				? overlayEngine.findShortestPath(graph, snapshot.getOverlay(), sourceId, destinationId)
+				: dijkstraEngine.findShortestPath(graph, sourceId, destinationId);
+			case TABLE -> snapshot.getDistanceTable() != null
+				? distanceTableEngine.findShortestPath(graph, snapshot.getDistanceTable(), sourceId, destinationId)
+				: dijkstraEngine.findShortestPath(graph, sourceId, destinationId);
+			case DIJKSTRA -> dijkstraEngine.findShortestPath(graph, sourceId, destinationId);
+		};
 	}
 	
-	private static class Node {
-		String location;
-		int distance;
+	// Travel time only, -1 when there is no route. With a distance table this is a
+	// single read and with hub labels a label merge, neither builds a path;
+	// otherwise the chosen search runs as usual.
+	public int findTravelTime(GraphSnapshot snapshot, String source, String destination, RoutingAlgorithm algorithm) {
+		CompiledGraph graph = snapshot.getGraph();
+		int sourceId = graph.indexOf(source);
+		int destinationId = graph.indexOf(destination);
+		if (sourceId < 0 || destinationId < 0) {
+			return -1;
+		}
 		
-		Node(String location, int distance) {
-			this.location = location;
-			this.distance = distance;
+		if (snapshot.getDistanceTable() != null) {
+			int distance = distanceTableEngine.distance(snapshot.getDistanceTable(), sourceId, destinationId);
+			return distance == SearchWorkspace.UNREACHABLE ? -1 : distance;
+		}
+		if (snapshot.getHubLabels() != null) {
+			int distance = hubLabelEngine.distance(snapshot.getHubLabels(), sourceId, destinationId);
+			return distance == SearchWorkspace.UNREACHABLE ? -1 : distance;
 		}
+		PathResult result = findShortestPath(snapshot, source, destination, algorithm);
+		return result.isPathFound() ? result.getTotalTime() : -1;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.graph.CompiledGraph;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Loads datasets that already sit on the server, in the configured data
+// directory. The file is memory-mapped and tokenized from the page cache one
+// window at a time, so neither an upload nor a heap copy of the whole file is
+// involved; files too large for a single mapping are streamed instead. Names
+// are resolved against the directory and may not leave it, not even through
+// symbolic links.
+@Service
+public class LocalDataService {
+	
+	private final DataProperties dataProperties;
+	private final CsvDataService csvDataService;
+	private final DataStorageService dataStorageService;
+	
+	public LocalDataService(DataProperties dataProperties, CsvDataService csvDataService, DataStorageService dataStorageService) {
+		this.dataProperties = dataProperties;
+		this.csvDataService = csvDataService;
+		this.dataStorageService = dataStorageService;
+	}
+	
+	// After a snapshot restore, which already brought a dataset back
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void loadInitialFile() throws IOException {
+		if (dataProperties.getInitialFile() != null && dataStorageService.getSnapshot().getVersion() == 0) {
+			loadFile(dataProperties.getInitialFile());
+		}
+	}
+	
+	// Returns the graph as parsed, with one edge per row; storage may simplify it further
+	public CompiledGraph loadFile(String fileName) throws IOException {
+		CompiledGraph graph = parseFile(resolve(fileName));
+		dataStorageService.storeGraph(graph);
+		return graph;
+	}
+	
+	private Path resolve(String fileName) throws IOException {
+		if (fileName == null || fileName.isBlank()) {
+			throw new IllegalArgumentException("No file name provided");
+		}
+		Path directory = Path.of(dataProperties.getDirectory()).toAbsolutePath().normalize();
+		Path file = directory.resolve(fileName).normalize();
+		if (!file.startsWith(directory) || file.equals(directory)) {
+			throw new IllegalArgumentException("File must be inside the data directory: " + fileName);
+		}
+		if (!Files.isRegularFile(file)) {
+			throw new NoSuchFileException(fileName);
+		}
+		
+		// Checked again after resolving links, which may point anywhere
+		Path realFile = file.toRealPath();
+		if (!realFile.startsWith(directory.toRealPath())) {
+			throw new IllegalArgumentException("File must be inside the data directory: " + fileName);
+		}
+		return realFile;
+	}
+	
+	private CompiledGraph parseFile(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size == 0) {
+				throw new IllegalArgumentException("File is empty");
+			}
+			if (size > Integer.MAX_VALUE) {
+				try (InputStream input = Channels.newInputStream(channel)) {
+					return csvDataService.parseCSV(input);
+				}
+			}
+			
+			// The mapping stays valid after the channel is closed and is released with the buffer
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return csvDataService.parseCSV(buffer);
+		}
+	}
+}
\ No newline at end of file
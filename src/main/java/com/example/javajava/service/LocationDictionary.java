@@ -0,0 +1,92 @@
+package com.example.javajava.service;
+
+import com.example.javajava.graph.NameHash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Location names keyed by their UTF-8 bytes, handing out dense ids in order of
+// first appearance. Lookups hash and compare the bytes in place, so a name
+// that was seen before costs no allocation; a new one is copied into the byte
+// pool and decoded into a String exactly once.
+final class LocationDictionary {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	// Open addressing with linear probing; a slot holds id + 1, 0 marks it empty
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+	private int[] hashes = new int[INITIAL_CAPACITY];
+	private int[] offsets = new int[INITIAL_CAPACITY + 1];
+	private byte[] bytes = new byte[INITIAL_CAPACITY * 8];
+	private String[] names = new String[INITIAL_CAPACITY];
+	private int size;
+
+	int intern(byte[] buffer, int offset, int length) {
+		return intern(buffer, offset, length, null);
+	}
+
+	// Interns another dictionary's entry, reusing its String instead of decoding again
+	int intern(LocationDictionary other, int otherId) {
+		int offset = other.offsets[otherId];
+		return intern(other.bytes, offset, other.offsets[otherId + 1] - offset, other.names[otherId]);
+	}
+
+	private int intern(byte[] buffer, int offset, int length, String name) {
+		int hash = NameHash.hash(buffer, offset, length);
+		int mask = slots.length - 1;
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				int id = add(buffer, offset, length, hash, name);
+				slots[slot] = id + 1;
+				if (size * 2 > slots.length) {
+					rehash();
+				}
+				return id;
+			}
+
+			int id = entry - 1;
+			if (hashes[id] == hash && Arrays.equals(bytes, offsets[id], offsets[id + 1], buffer, offset, offset + length)) {
+				return id;
+			}
+		}
+	}
+
+	private int add(byte[] buffer, int offset, int length, int hash, String name) {
+		int id = size++;
+		if (id == names.length) {
+			hashes = Arrays.copyOf(hashes, id * 2);
+			offsets = Arrays.copyOf(offsets, id * 2 + 1);
+			names = Arrays.copyOf(names, id * 2);
+		}
+		int start = offsets[id];
+		if (start + length > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, start + length));
+		}
+		System.arraycopy(buffer, offset, bytes, start, length);
+		offsets[id + 1] = start + length;
+		hashes[id] = hash;
+		names[id] = name != null ? name : new String(buffer, offset, length, StandardCharsets.UTF_8);
+		return id;
+	}
+
+	private void rehash() {
+		slots = new int[slots.length * 2];
+		int mask = slots.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = hashes[id] & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = id + 1;
+		}
+	}
+
+	String getName(int id) {
+		return names[id];
+	}
+
+	int size() {
+		return size;
+	}
+}
\ No newline at end of file
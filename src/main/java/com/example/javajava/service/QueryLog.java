@@ -0,0 +1,61 @@
+package com.example.javajava.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// How often each (from, to) pair and each origin was asked for, across
+// reloads, so a new dataset can be warmed with the routes traffic wants most.
+// Only the first MAX_TRACKED keys are counted, so the log stays bounded even
+// when clients send a long tail of one-off pairs.
+@Service
+public class QueryLog {
+	
+	private static final int MAX_TRACKED = 100_000;
+	
+	private final ConcurrentHashMap<RoutePair, LongAdder> pairs = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, LongAdder> sources = new ConcurrentHashMap<>();
+	
+	public void record(String from, String to) {
+		count(pairs, new RoutePair(from, to));
+		count(sources, from);
+	}
+	
+	private static <K> void count(ConcurrentHashMap<K, LongAdder> counts, K key) {
+		LongAdder counter = counts.get(key);
+		if (counter == null) {
+			if (counts.size() >= MAX_TRACKED) {
+				return;
+			}
+			counter = counts.computeIfAbsent(key, ignored -> new LongAdder());
+		}
+		counter.increment();
+	}
+	
+	public List<RoutePair> getTopPairs(int limit) {
+		return top(pairs, limit);
+	}
+	
+	public List<String> getTopSources(int limit) {
+		return top(sources, limit);
+	}
+	
+	private static <K> List<K> top(ConcurrentHashMap<K, LongAdder> counts, int limit) {
+		return counts.entrySet().stream()
+			.sorted(Comparator.comparingLong((Map.Entry<K, LongAdder> entry) -> entry.getValue().sum()).reversed())
+			.limit(limit)
+			.map(Map.Entry::getKey)
+			.toList();
+	}
+	
+	public int getTrackedPairs() {
+		return pairs.size();
+	}
+	
+	public record RoutePair(String from, String to) {
+	}
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.ResumableSearch;
+import com.example.javajava.model.PathResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Recent Dijkstra searches per (dataset version, source), kept with their
+// frontier so a later query from the same source only settles what the earlier
+// ones did not. Bounded by memory like the shortest-path tree cache, least
+// recently used first, and emptied by every load.
+@Service
+public final class ResumableSearchCache {
+	
+	private final RoutingProperties routingProperties;
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final LongAdder starts = new LongAdder();
+	private final LongAdder resumes = new LongAdder();
+	private final LongAdder settledAnswers = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private volatile Generation generation = new Generation();
+	
+	public ResumableSearchCache(DataStorageService dataStorageService, RoutingProperties routingProperties) {
+		this.routingProperties = routingProperties;
+		dataStorageService.addSnapshotListener(snapshot -> invalidate());
+	}
+	
+	public PathResult findShortestPath(GraphSnapshot snapshot, String source, String destination) {
+		CompiledGraph graph = snapshot.getGraph();
+		int sourceId = graph.indexOf(source);
+		int destinationId = graph.indexOf(destination);
+		if (sourceId < 0 || destinationId < 0) {
+			return new PathResult();
+		}
+		
+		SearchKey key = new SearchKey(snapshot.getVersion(), sourceId);
+		Generation current = generation;
+		CachedSearch cached = current.searches.get(key);
+		ResumableSearch search;
+		if (cached != null) {
+			cached.lastAccess = System.nanoTime();
+			search = cached.search;
+			if (search.advanceTo(destinationId) == 0) {
+				settledAnswers.increment();
+			} else {
+				resumes.increment();
+			}
+		} else {
+			search = new ResumableSearch(graph, sourceId);
+			starts.increment();
+			store(current, key, search);
+		}
+		return search.findShortestPath(destinationId);
+	}
+	
+	private void store(Generation current, SearchKey key, ResumableSearch search) {
+		long maxBytes = routingProperties.getResumableSearches().getMaxMemoryBytes();
+		if (search.getMemoryBytes() > maxBytes || current.searches.putIfAbsent(key, new CachedSearch(search)) != null) {
+			return;
+		}
+		if (current.memoryBytes.addAndGet(search.getMemoryBytes()) <= maxBytes || !evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			List<Map.Entry<SearchKey, CachedSearch>> candidates = new ArrayList<>(current.searches.entrySet());
+			candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+			for (int i = 0; i < candidates.size() && current.memoryBytes.get() > maxBytes; i++) {
+				Map.Entry<SearchKey, CachedSearch> candidate = candidates.get(i);
+				if (current.searches.remove(candidate.getKey(), candidate.getValue())) {
+					current.memoryBytes.addAndGet(-candidate.getValue().search.getMemoryBytes());
+					evictions.increment();
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+	
+	public void invalidate() {
+		generation = new Generation();
+	}
+	
+	public Map<String, Object> getStatistics() {
+		Generation current = generation;
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("searches", current.searches.size());
+		statistics.put("memoryBytes", current.memoryBytes.get());
+		statistics.put("maxMemoryBytes", routingProperties.getResumableSearches().getMaxMemoryBytes());
+		statistics.put("starts", starts.sum());
+		statistics.put("resumes", resumes.sum());
+		statistics.put("settledAnswers", settledAnswers.sum());
+		statistics.put("evictions", evictions.sum());
+		return statistics;
+	}
+	
+	private record SearchKey(long version, int source) {
+	}
+	
+	// Searches and their memory are swapped together on every load
+	private static final class Generation {
+		
+		private final ConcurrentHashMap<SearchKey, CachedSearch> searches = new ConcurrentHashMap<>();
+		private final AtomicLong memoryBytes = new AtomicLong();
+	}
+	
+	private static final class CachedSearch {
+		
+		private final ResumableSearch search;
+		private volatile long lastAccess = System.nanoTime();
+		
+		private CachedSearch(ResumableSearch search) {
+			this.search = search;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.model.PathResult;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Micro-batching of route requests by origin. The first request for a
+// (dataset version, source) opens a batch and waits up to the configured
+// window; requests from the same source arriving meanwhile add their target
+// and wait for it. The opener then runs a single Dijkstra that stops once every
+// requested target is settled and hands each caller its own path. A batch that
+// reaches the maximum size is closed early, so the window bounds the added
+// latency.
+@Service
+public class RouteBatcher {
+	
+	private final RoutingProperties routingProperties;
+	private final DijkstraEngine dijkstraEngine = new DijkstraEngine();
+	private final ConcurrentHashMap<BatchKey, Batch> open = new ConcurrentHashMap<>();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder batchedRequests = new LongAdder();
+	private final LongAccumulator largestBatch = new LongAccumulator(Math::max, 0);
+	
+	public RouteBatcher(RoutingProperties routingProperties) {
+		this.routingProperties = routingProperties;
+	}
+	
+	public PathResult findShortestPath(GraphSnapshot snapshot, String source, String destination) {
+		CompiledGraph graph = snapshot.getGraph();
+		int sourceId = graph.indexOf(source);
+		int destinationId = graph.indexOf(destination);
+		if (sourceId < 0 || destinationId < 0) {
+			return new PathResult();
+		}
+		
+		BatchKey key = new BatchKey(snapshot.getVersion(), sourceId);
+		while (true) {
+			Batch batch = open.get(key);
+			if (batch == null) {
+				Batch created = new Batch(Thread.currentThread(), routingProperties.getBatching().getMaxSize());
+				CompletableFuture<PathResult> result = created.join(destinationId);
+				batch = open.putIfAbsent(key, created);
+				if (batch == null) {
+					return lead(key, created, graph, sourceId, result);
+				}
+			}
+			CompletableFuture<PathResult> result = batch.join(destinationId);
+			if (result != null) {
+				return await(result);
+			}
+			// Closed before we could join; make sure it is gone and open or join the next one
+			open.remove(key, batch);
+		}
+	}
+	
+	private PathResult lead(BatchKey key, Batch batch, CompiledGraph graph, int source, CompletableFuture<PathResult> result) {
+		long deadline = System.nanoTime() + routingProperties.getBatching().getWindowMicros() * 1000L;
+		for (long remaining = deadline - System.nanoTime(); remaining > 0 && !batch.isClosed(); remaining = deadline - System.nanoTime()) {
+			LockSupport.parkNanos(this, remaining);
+		}
+		open.remove(key, batch);
+		int[] targets = batch.close();
+		
+		try {
+			batch.complete(targets, dijkstraEngine.findShortestPaths(graph, source, targets));
+		} catch (RuntimeException | Error e) {
+			batch.fail(e);
+			throw e;
+		}
+		batches.increment();
+		batchedRequests.add(batch.requests);
+		largestBatch.accumulate(batch.requests);
+		return result.join();
+	}
+	
+	// Waiters see the search's own exception rather than a CompletionException wrapper
+	private static PathResult await(CompletableFuture<PathResult> result) {
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+	
+	public Map<String, Object> getStatistics() {
+		long batchCount = batches.sum();
+		long requests = batchedRequests.sum();
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("windowMicros", routingProperties.getBatching().getWindowMicros());
+		statistics.put("batches", batchCount);
+		statistics.put("requests", requests);
+		statistics.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) requests / batchCount);
+		statistics.put("largestBatch", largestBatch.get());
+		return statistics;
+	}
+	
+	private record BatchKey(long version, int source) {
+	}
+	
+	// Pending targets of one batch; requests for the same target share a future
+	private static final class Batch {
+		
+		private final Thread leader;
+		private final int maxSize;
+		private final Map<Integer, CompletableFuture<PathResult>> results = new LinkedHashMap<>();
+		private int requests;
+		private boolean closed;
+		
+		Batch(Thread leader, int maxSize) {
+			this.leader = leader;
+			this.maxSize = maxSize;
+		}
+		
+		// Returns null once the batch no longer takes requests
+		synchronized CompletableFuture<PathResult> join(int target) {
+			if (closed) {
+				return null;
+			}
+			requests++;
+			CompletableFuture<PathResult> result = results.computeIfAbsent(target, t -> new CompletableFuture<>());
+			if (results.size() >= maxSize) {
+				closed = true;
+				LockSupport.unpark(leader);
+			}
+			return result;
+		}
+		
+		synchronized boolean isClosed() {
+			return closed;
+		}
+		
+		synchronized int[] close() {
+			closed = true;
+			return results.keySet().stream().mapToInt(Integer::intValue).toArray();
+		}
+		
+		void complete(int[] targets, PathResult[] paths) {
+			for (int i = 0; i < targets.length; i++) {
+				results.get(targets[i]).complete(paths[i]);
+			}
+		}
+		
+		void fail(Throwable failure) {
+			results.values().forEach(result -> result.completeExceptionally(failure));
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.PathResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Bounded cache of route results keyed by (from, to, dataset version). Lookups
+// are a ConcurrentHashMap read plus an access stamp, so readers never take a
+// lock. Eviction is least recently used, done in batches by whichever writer
+// pushes the cache over its limit while the others carry on. Every load swaps
+// in an empty map; entries of older versions can never match anyway.
+@Service
+public final class RouteCache {
+	
+	// A full cache drops this share of its entries at once, so sorting by access amortizes over many inserts
+	private static final double EVICTION_FRACTION = 0.1;
+	
+	private final RoutingProperties routingProperties;
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder warmHits = new LongAdder();
+	private volatile ConcurrentHashMap<RouteKey, CachedRoute> entries = new ConcurrentHashMap<>();
+	
+	public RouteCache(DataStorageService dataStorageService, RoutingProperties routingProperties) {
+		this.routingProperties = routingProperties;
+		dataStorageService.addSnapshotListener(snapshot -> invalidate());
+	}
+	
+	public PathResult getOrCompute(long version, String from, String to, Supplier<PathResult> route) {
+		int maxEntries = routingProperties.getRouteCache().getMaxEntries();
+		if (maxEntries == 0) {
+			return route.get();
+		}
+		
+		RouteKey key = new RouteKey(version, from, to);
+		ConcurrentHashMap<RouteKey, CachedRoute> current = entries;
+		CachedRoute cached = current.get(key);
+		if (cached != null) {
+			cached.lastAccess = System.nanoTime();
+			hits.increment();
+			if (cached.warmed) {
+				warmHits.increment();
+			}
+			return cached.result;
+		}
+		
+		misses.increment();
+		PathResult result = route.get();
+		current.put(key, new CachedRoute(result, false));
+		if (current.size() > maxEntries) {
+			evict(current, maxEntries);
+		}
+		return result;
+	}
+	
+	// Stores a precomputed route unless traffic already cached it, and reports which happened
+	public boolean warm(long version, String from, String to, Supplier<PathResult> route) {
+		int maxEntries = routingProperties.getRouteCache().getMaxEntries();
+		RouteKey key = new RouteKey(version, from, to);
+		ConcurrentHashMap<RouteKey, CachedRoute> current = entries;
+		if (maxEntries == 0 || current.containsKey(key)) {
+			return false;
+		}
+		
+		if (current.putIfAbsent(key, new CachedRoute(route.get(), true)) != null) {
+			return false;
+		}
+		if (current.size() > maxEntries) {
+			evict(current, maxEntries);
+		}
+		return true;
+	}
+	
+	private void evict(ConcurrentHashMap<RouteKey, CachedRoute> current, int maxEntries) {
+		// Another writer is already evicting; the cache may overshoot briefly until it is done
+		if (!evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int excess = current.size() - maxEntries;
+			if (excess <= 0) {
+				return;
+			}
+			
+			List<Map.Entry<RouteKey, CachedRoute>> candidates = new ArrayList<>(current.entrySet());
+			candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+			int count = Math.min(candidates.size(), Math.max(excess, (int) (maxEntries * EVICTION_FRACTION)));
+			for (int i = 0; i < count; i++) {
+				if (current.remove(candidates.get(i).getKey(), candidates.get(i).getValue())) {
+					evictions.increment();
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+	
+	public void invalidate() {
+		entries = new ConcurrentHashMap<>();
+	}
+	
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("entries", entries.size());
+		statistics.put("maxEntries", routingProperties.getRouteCache().getMaxEntries());
+		statistics.put("hits", hits.sum());
+		statistics.put("misses", misses.sum());
+		statistics.put("evictions", evictions.sum());
+		statistics.put("warmHits", warmHits.sum());
+		return statistics;
+	}
+	
+	private record RouteKey(long version, String from, String to) {
+	}
+	
+	private static final class CachedRoute {
+		
+		private final PathResult result;
+		// Stored by the warm start rather than by a request
+		private final boolean warmed;
+		private volatile long lastAccess = System.nanoTime();
+		
+		private CachedRoute(PathResult result, boolean warmed) {
+			this.result = result;
+			this.warmed = warmed;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.javajava.service;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.RoutingAlgorithm;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Single-flight for route searches: while one request computes a route for a
+// (dataset version, from, to, algorithm) key, identical requests wait for it
+// and receive the same PathResult instead of searching again. The entry is
+// removed once the search completes, so nothing is cached here.
+@Service
+public class RouteCoalescer {
+	
+	private final ConcurrentHashMap<FlightKey, CompletableFuture<PathResult>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	
+	// A null algorithm stands for the default routing of requests without ?algorithm=
+	public PathResult execute(long version, String from, String to, RoutingAlgorithm algorithm, Supplier<PathResult> route) {
+		FlightKey key = new FlightKey(version, from, to, algorithm);
+		CompletableFuture<PathResult> flight = new CompletableFuture<>();
+		CompletableFuture<PathResult> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			coalesced.increment();
+			return await(existing);
+		}
+		
+		searches.increment();
+		try {
+			PathResult result = route.get();
+			flight.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+	
+	// Waiters see the leader's own exception rather than a CompletionException wrapper
+	private static PathResult await(CompletableFuture<PathResult> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+	
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("searches", searches.sum());
+		statistics.put("coalesced", coalesced.sum());
+		statistics.put("inFlight", inFlight.size());
+		return statistics;
+	}
+	
+	private record FlightKey(long version, String from, String to, RoutingAlgorithm algorithm) {
+	}
+}
\ No newline at end of file
@@ -1,23 +1,100 @@
 package com.example.javajava.service;
 
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.GraphSnapshot;
 import com.example.javajava.model.PathResult;
-import com.example.javajava.model.TravelTime;
+import com.example.javajava.model.RoutingAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class RouteService {
 	
 	private final DataStorageService dataStorageService;
 	private final GraphService graphService;
+	private final RoutingProperties routingProperties;
+	private final RouteCache routeCache;
+	private final ShortestPathTreeCache shortestPathTreeCache;
+	private final ResumableSearchCache resumableSearchCache;
+	private final QueryLog queryLog;
+	private final RouteCoalescer routeCoalescer;
+	private final RouteBatcher routeBatcher;
 	
 	public RouteService(DataStorageService dataStorageService, GraphService graphService) {
+		this(dataStorageService, graphService, new RoutingProperties());
+	}
+	
+	public RouteService(DataStorageService dataStorageService, GraphService graphService, RoutingProperties routingProperties) {
+		this(dataStorageService, graphService, routingProperties, new RouteCache(dataStorageService, routingProperties),
+			new ShortestPathTreeCache(dataStorageService, routingProperties), new ResumableSearchCache(dataStorageService, routingProperties),
+			new QueryLog(), new RouteCoalescer(), new RouteBatcher(routingProperties));
+	}
+	
+	@Autowired
+	public RouteService(DataStorageService dataStorageService, GraphService graphService, RoutingProperties routingProperties,
+			RouteCache routeCache, ShortestPathTreeCache shortestPathTreeCache, ResumableSearchCache resumableSearchCache,
+			QueryLog queryLog, RouteCoalescer routeCoalescer, RouteBatcher routeBatcher) {
 		this.dataStorageService = dataStorageService;
 		this.graphService = graphService;
+		this.routingProperties = routingProperties;
+		this.routeCache = routeCache;
+		this.shortestPathTreeCache = shortestPathTreeCache;
+		this.resumableSearchCache = resumableSearchCache;
+		this.queryLog = queryLog;
+		this.routeCoalescer = routeCoalescer;
+		this.routeBatcher = routeBatcher;
 	}
 	
+	// Results for requests without an explicit algorithm are cached per dataset
+	// version; explicit algorithm requests always search, since they are mostly
+	// used to compare engines. Either way identical concurrent requests share
+	// one search.
 	public PathResult calculateOptimalRoute(String from, String to) {
+		if (from == null || from.isEmpty()) {
+			throw new IllegalArgumentException("From parameter cannot be null or empty");
+		}
+		if (to == null || to.isEmpty()) {
+			throw new IllegalArgumentException("To parameter cannot be null or empty");
+		}
+		
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		if (snapshot.hasLocation(from) && snapshot.hasLocation(to)) {
+			queryLog.record(from, to);
+		}
+		return routeCache.getOrCompute(snapshot.getVersion(), from, to,
+			() -> routeCoalescer.execute(snapshot.getVersion(), from, to, null, () -> routeOriginal(snapshot, from, to)));
+	}
+	
+	// Precomputes a default route into the cache; false when traffic already cached it
+	public boolean warmRoute(GraphSnapshot snapshot, String from, String to) {
+		return routeCache.warm(snapshot.getVersion(), from, to, () -> routeOriginal(snapshot, from, to));
+	}
+	
+	// Between locations as loaded, which simplification may have contracted out of the graph
+	private PathResult routeOriginal(GraphSnapshot snapshot, String from, String to) {
+		return SimplifiedRoutes.route(snapshot.getSimplification(), from, to, (source, target) -> route(snapshot, source, target));
+	}
+	
+	// Small datasets carry an all-pairs table, which beats every search; otherwise
+	// cached shortest-path trees, resumable searches or batching by origin when
+	// enabled, then the configured algorithm
+	private PathResult route(GraphSnapshot snapshot, String from, String to) {
+		if (snapshot.getDistanceTable() != null) {
+			return graphService.findShortestPath(snapshot, from, to, RoutingAlgorithm.TABLE);
+		}
+		if (routingProperties.getShortestPathTrees().isEnabled()) {
+			return shortestPathTreeCache.findShortestPath(snapshot, from, to);
+		}
+		if (routingProperties.getResumableSearches().isEnabled()) {
+			return resumableSearchCache.findShortestPath(snapshot, from, to);
+		}
+		if (routingProperties.getBatching().isEnabled()) {
+			return routeBatcher.findShortestPath(snapshot, from, to);
+		}
+		return graphService.findShortestPath(snapshot, from, to, routingProperties.getAlgorithm());
+	}
+	
+	public PathResult calculateOptimalRoute(String from, String to, RoutingAlgorithm algorithm) {
 		// Validate input parameters
 		if (from == null || from.isEmpty()) {
 			throw new IllegalArgumentException("From parameter cannot be null or empty");
@@ -25,12 +102,28 @@ public class RouteService {
 		if (to == null || to.isEmpty()) {
 			throw new IllegalArgumentException("To parameter cannot be null or empty");
 		}
+		if (algorithm == null) {
+			throw new IllegalArgumentException("Routing algorithm cannot be null");
+		}
 		
-		// Get current travel times and rebuild graph
-		List<TravelTime> travelTimes = dataStorageService.getAllTravelTimes();
-		graphService.buildGraphFromTravelTimes(travelTimes);
+		// Graph is compiled once per data load, queries only read the current snapshot
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		return routeCoalescer.execute(snapshot.getVersion(), from, to, algorithm,
+			() -> SimplifiedRoutes.route(snapshot.getSimplification(), from, to,
+				(source, target) -> graphService.findShortestPath(snapshot, source, target, algorithm)));
+	}
+	
+	// Returns -1 when there is no route; answered from the distance table or hub labels when they are loaded
+	public int calculateTravelTime(String from, String to) {
+		if (from == null || from.isEmpty()) {
+			throw new IllegalArgumentException("From parameter cannot be null or empty");
+		}
+		if (to == null || to.isEmpty()) {
+			throw new IllegalArgumentException("To parameter cannot be null or empty");
+		}
 		
-		// Calculate shortest path
-		return graphService.findShortestPath(from, to);
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		return SimplifiedRoutes.travelTime(snapshot.getSimplification(), from, to,
+			(source, target) -> graphService.findTravelTime(snapshot, source, target, routingProperties.getAlgorithm()));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.ShortestPathTree;
+import com.example.javajava.model.PathResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Shortest-path trees per (dataset version, source), so repeated routes from
+// one origin cost a predecessor walk instead of a search. Lookups are lock-free
+// like the route cache; the least recently used trees are dropped whenever the
+// trees together exceed the configured memory, and every load starts empty.
+@Service
+public final class ShortestPathTreeCache {
+	
+	private final RoutingProperties routingProperties;
+	private final DijkstraEngine dijkstraEngine = new DijkstraEngine();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final LongAdder builds = new LongAdder();
+	private final LongAdder reuses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private volatile Generation generation = new Generation();
+	
+	public ShortestPathTreeCache(DataStorageService dataStorageService, RoutingProperties routingProperties) {
+		this.routingProperties = routingProperties;
+		dataStorageService.addSnapshotListener(snapshot -> invalidate());
+	}
+	
+	public PathResult findShortestPath(GraphSnapshot snapshot, String source, String destination) {
+		CompiledGraph graph = snapshot.getGraph();
+		int sourceId = graph.indexOf(source);
+		int destinationId = graph.indexOf(destination);
+		if (sourceId < 0 || destinationId < 0) {
+			return new PathResult();
+		}
+		return getTree(snapshot.getVersion(), graph, sourceId).findShortestPath(graph, destinationId);
+	}
+	
+	public ShortestPathTree getTree(long version, CompiledGraph graph, int source) {
+		TreeKey key = new TreeKey(version, source);
+		Generation current = generation;
+		CachedTree cached = current.trees.get(key);
+		if (cached != null) {
+			cached.lastAccess = System.nanoTime();
+			reuses.increment();
+			return cached.tree;
+		}
+		
+		ShortestPathTree tree = ShortestPathTree.build(graph, source, dijkstraEngine);
+		builds.increment();
+		store(current, key, tree);
+		return tree;
+	}
+	
+	// Builds a source's tree ahead of traffic; false when traffic already built it
+	public boolean warm(long version, CompiledGraph graph, int source) {
+		TreeKey key = new TreeKey(version, source);
+		Generation current = generation;
+		if (current.trees.containsKey(key)) {
+			return false;
+		}
+		
+		ShortestPathTree tree = ShortestPathTree.build(graph, source, dijkstraEngine);
+		builds.increment();
+		return store(current, key, tree);
+	}
+	
+	private boolean store(Generation current, TreeKey key, ShortestPathTree tree) {
+		long maxBytes = routingProperties.getShortestPathTrees().getMaxMemoryBytes();
+		// A tree larger than the whole budget is used once and not kept
+		if (tree.getMemoryBytes() > maxBytes || current.trees.putIfAbsent(key, new CachedTree(tree)) != null) {
+			return false;
+		}
+		if (current.memoryBytes.addAndGet(tree.getMemoryBytes()) > maxBytes) {
+			evict(current, maxBytes);
+		}
+		return true;
+	}
+	
+	private void evict(Generation current, long maxBytes) {
+		if (!evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			List<Map.Entry<TreeKey, CachedTree>> candidates = new ArrayList<>(current.trees.entrySet());
+			candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+			for (int i = 0; i < candidates.size() && current.memoryBytes.get() > maxBytes; i++) {
+				Map.Entry<TreeKey, CachedTree> candidate = candidates.get(i);
+				if (current.trees.remove(candidate.getKey(), candidate.getValue())) {
+					current.memoryBytes.addAndGet(-candidate.getValue().tree.getMemoryBytes());
+					evictions.increment();
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+	
+	public void invalidate() {
+		generation = new Generation();
+	}
+	
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		Generation current = generation;
+		statistics.put("trees", current.trees.size());
+		statistics.put("memoryBytes", current.memoryBytes.get());
+		statistics.put("maxMemoryBytes", routingProperties.getShortestPathTrees().getMaxMemoryBytes());
+		statistics.put("builds", builds.sum());
+		statistics.put("reuses", reuses.sum());
+		statistics.put("evictions", evictions.sum());
+		return statistics;
+	}
+	
+	private record TreeKey(long version, int source) {
+	}
+	
+	// Trees and their memory are swapped together, so a tree stored into a
+	// replaced generation never counts against the current budget
+	private static final class Generation {
+		
+		private final ConcurrentHashMap<TreeKey, CachedTree> trees = new ConcurrentHashMap<>();
+		private final AtomicLong memoryBytes = new AtomicLong();
+	}
+	
+	private static final class CachedTree {
+		
+		private final ShortestPathTree tree;
+		private volatile long lastAccess = System.nanoTime();
+		
+		private CachedTree(ShortestPathTree tree) {
+			this.tree = tree;
+		}
+	}
+}
\ No newline at end of file
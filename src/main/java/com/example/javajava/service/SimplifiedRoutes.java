@@ -0,0 +1,75 @@
+package com.example.javajava.service;
+
+import com.example.javajava.graph.Simplification;
+import com.example.javajava.model.PathResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
+
+// Answers route requests between original locations on a simplified graph.
+// A contracted location is reached through the ends of its chain, so a
+// request runs one search per pair of ends, at most four, and keeps the
+// fastest combination; two locations on the same chain may also just follow
+// it. Shortcuts in the path found are expanded back into their chains.
+final class SimplifiedRoutes {
+
+	private SimplifiedRoutes() {
+	}
+
+	static PathResult route(Simplification simplification, String from, String to, BiFunction<String, String, PathResult> search) {
+		if (simplification == null) {
+			return search.apply(from, to);
+		}
+		if (!simplification.isContracted(from) && !simplification.isContracted(to)) {
+			PathResult result = search.apply(from, to);
+			List<String> path = result.getPath();
+			List<String> expanded = simplification.expand(path);
+			return expanded == path ? result : new PathResult(expanded, result.getTotalTime());
+		}
+
+		Simplification.Access direct = simplification.within(from, to);
+		List<String> bestPath = direct != null ? direct.path() : null;
+		long bestTime = direct != null ? direct.time() : Long.MAX_VALUE;
+		for (Simplification.Access departure : simplification.departures(from)) {
+			for (Simplification.Access arrival : simplification.arrivals(to)) {
+				PathResult leg = search.apply(departure.location(), arrival.location());
+				long time = (long) departure.time() + leg.getTotalTime() + arrival.time();
+				if (leg.isPathFound() && time < bestTime) {
+					bestTime = time;
+					bestPath = join(departure.path(), simplification.expand(leg.getPath()), arrival.path());
+				}
+			}
+		}
+		return bestPath != null ? new PathResult(bestPath, (int) bestTime) : new PathResult();
+	}
+
+	// Returns -1 when there is no route, as the search does
+	static int travelTime(Simplification simplification, String from, String to, ToIntBiFunction<String, String> search) {
+		if (simplification == null || (!simplification.isContracted(from) && !simplification.isContracted(to))) {
+			return search.applyAsInt(from, to);
+		}
+
+		Simplification.Access direct = simplification.within(from, to);
+		long best = direct != null ? direct.time() : Long.MAX_VALUE;
+		for (Simplification.Access departure : simplification.departures(from)) {
+			for (Simplification.Access arrival : simplification.arrivals(to)) {
+				int leg = search.applyAsInt(departure.location(), arrival.location());
+				if (leg >= 0) {
+					best = Math.min(best, (long) departure.time() + leg + arrival.time());
+				}
+			}
+		}
+		return best != Long.MAX_VALUE ? (int) best : -1;
+	}
+
+	// Consecutive parts share their boundary location, which is kept once
+	private static List<String> join(List<String> departure, List<String> leg, List<String> arrival) {
+		List<String> path = new ArrayList<>(departure.size() + leg.size() + arrival.size());
+		path.addAll(departure);
+		path.addAll(leg.subList(1, leg.size()));
+		path.addAll(arrival.subList(1, arrival.size()));
+		return path;
+	}
+}
\ No newline at end of file
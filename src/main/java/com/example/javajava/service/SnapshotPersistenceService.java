@@ -0,0 +1,156 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.ContractionHierarchy;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.GraphSnapshotFile;
+import com.example.javajava.graph.LandmarkIndex;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps a GraphSnapshotFile of the current dataset in the data directory so a
+// restart serves it right away. Every load and every index attached to it
+// queues a write on a background thread; a write is skipped once a newer state
+// is published, and when the graph, landmarks and hierarchy are the ones
+// already on disk. At startup the file is mapped back before anything else is
+// loaded; a file that cannot be read is reported and the service starts empty.
+@Service
+public class SnapshotPersistenceService {
+	
+	private final DataProperties dataProperties;
+	private final DataStorageService dataStorageService;
+	private final Executor backgroundExecutor;
+	private final LongAdder writes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private volatile Persisted persisted;
+	private volatile long lastWriteMillis = -1;
+	private volatile long lastWriteBytes = -1;
+	private volatile long restoreMillis = -1;
+	private volatile String lastError;
+	
+	@Autowired
+	public SnapshotPersistenceService(DataProperties dataProperties, DataStorageService dataStorageService) {
+		this(dataProperties, dataStorageService, Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "graph-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+	
+	public SnapshotPersistenceService(DataProperties dataProperties, DataStorageService dataStorageService, Executor backgroundExecutor) {
+		this.dataProperties = dataProperties;
+		this.dataStorageService = dataStorageService;
+		this.backgroundExecutor = backgroundExecutor;
+		dataStorageService.addSnapshotListener(this::schedule);
+		dataStorageService.addUpdateListener(this::schedule);
+	}
+	
+	// Runs before the initial file is considered, which a restored dataset makes unnecessary
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void restore() {
+		Path file = getFile();
+		if (!dataProperties.getSnapshot().isEnabled() || !Files.isRegularFile(file)) {
+			return;
+		}
+		
+		long start = System.nanoTime();
+		GraphSnapshot restored;
+		try {
+			restored = GraphSnapshotFile.read(file);
+			restored = restored.withGraph(dataStorageService.prepareGraph(restored.getGraph()));
+		} catch (IOException | UncheckedIOException e) {
+			failures.increment();
+			lastError = e.getMessage();
+			return;
+		}
+		// Recorded first, so publishing it does not write the same content back
+		persisted = Persisted.of(restored);
+		dataStorageService.restoreSnapshot(restored);
+		restoreMillis = (System.nanoTime() - start) / 1_000_000;
+	}
+	
+	private void schedule(GraphSnapshot snapshot) {
+		if (dataProperties.getSnapshot().isEnabled() && snapshot.getGraph().getLocationCount() > 0) {
+			backgroundExecutor.execute(() -> write(snapshot));
+		}
+	}
+	
+	private void write(GraphSnapshot snapshot) {
+		// A newer load or index is queued behind this one and will write instead
+		if (dataStorageService.getSnapshot() != snapshot) {
+			return;
+		}
+		Persisted content = Persisted.of(snapshot);
+		if (content.equals(persisted)) {
+			return;
+		}
+		
+		long start = System.nanoTime();
+		try {
+			Path file = getFile();
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			lastWriteBytes = GraphSnapshotFile.write(snapshot, file);
+			lastWriteMillis = (System.nanoTime() - start) / 1_000_000;
+			persisted = content;
+			writes.increment();
+		} catch (IOException e) {
+			failures.increment();
+			lastError = e.getMessage();
+		}
+	}
+	
+	private Path getFile() {
+		return Path.of(dataProperties.getDirectory()).resolve(dataProperties.getSnapshot().getFile());
+	}
+	
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("enabled", dataProperties.getSnapshot().isEnabled());
+		statistics.put("formatVersion", GraphSnapshotFile.FORMAT_VERSION);
+		statistics.put("writes", writes.sum());
+		statistics.put("lastWriteMillis", lastWriteMillis);
+		statistics.put("lastWriteBytes", lastWriteBytes);
+		statistics.put("restoreMillis", restoreMillis);
+		statistics.put("failures", failures.sum());
+		if (lastError != null) {
+			statistics.put("lastError", lastError);
+		}
+		return statistics;
+	}
+	
+	// Lets a write in progress finish, so the file on disk stays the last complete one
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		if (backgroundExecutor instanceof ExecutorService executorService) {
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+	
+	// What a snapshot file holds; the structures are immutable, so identity tells whether it changed
+	private record Persisted(CompiledGraph graph, LandmarkIndex landmarks, ContractionHierarchy hierarchy) {
+		
+		static Persisted of(GraphSnapshot snapshot) {
+			return new Persisted(snapshot.getGraph(), snapshot.getLandmarks(), snapshot.getHierarchy());
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.Simplification;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Refills the caches after every load with what traffic asked for most: the
+// hottest (from, to) pairs go into the route cache and, when shortest-path
+// trees are enabled, the hottest origins get their trees. Runs on its own
+// background thread while the new dataset is already being served, so each
+// report counts how much of the warm set was ready before a request got to it.
+@Service
+public class WarmStartService {
+	
+	private final DataStorageService dataStorageService;
+	private final RoutingProperties routingProperties;
+	private final RouteService routeService;
+	private final ShortestPathTreeCache shortestPathTreeCache;
+	private final QueryLog queryLog;
+	private final Executor backgroundExecutor;
+	private volatile WarmReport report;
+	
+	@Autowired
+	public WarmStartService(DataStorageService dataStorageService, RoutingProperties routingProperties, RouteService routeService,
+			ShortestPathTreeCache shortestPathTreeCache, QueryLog queryLog) {
+		this(dataStorageService, routingProperties, routeService, shortestPathTreeCache, queryLog,
+			Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "warm-start");
+				thread.setDaemon(true);
+				return thread;
+			}));
+	}
+	
+	public WarmStartService(DataStorageService dataStorageService, RoutingProperties routingProperties, RouteService routeService,
+			ShortestPathTreeCache shortestPathTreeCache, QueryLog queryLog, Executor backgroundExecutor) {
+		this.dataStorageService = dataStorageService;
+		this.routingProperties = routingProperties;
+		this.routeService = routeService;
+		this.shortestPathTreeCache = shortestPathTreeCache;
+		this.queryLog = queryLog;
+		this.backgroundExecutor = backgroundExecutor;
+		dataStorageService.addSnapshotListener(this::onSnapshotLoaded);
+	}
+	
+	private void onSnapshotLoaded(GraphSnapshot snapshot) {
+		RoutingProperties.WarmStart settings = routingProperties.getWarmStart();
+		if (!settings.isEnabled() || snapshot.getGraph().getLocationCount() == 0) {
+			return;
+		}
+		
+		// Planned on the loading thread, so the set reflects traffic up to the reload
+		List<QueryLog.RoutePair> pairs = routingProperties.getRouteCache().getMaxEntries() > 0
+			? queryLog.getTopPairs(settings.getPairs())
+			: List.of();
+		List<String> sources = routingProperties.getShortestPathTrees().isEnabled()
+			? queryLog.getTopSources(settings.getSources())
+			: List.of();
+		WarmReport current = new WarmReport(snapshot.getVersion(), pairs.size(), sources.size());
+		report = current;
+		backgroundExecutor.execute(() -> warm(snapshot, pairs, sources, current));
+	}
+	
+	private void warm(GraphSnapshot snapshot, List<QueryLog.RoutePair> pairs, List<String> sources, WarmReport current) {
+		long start = System.nanoTime();
+		for (QueryLog.RoutePair pair : pairs) {
+			// A newer load has its own warm set
+			if (dataStorageService.getSnapshot().getVersion() != snapshot.getVersion()) {
+				return;
+			}
+			if (!snapshot.hasLocation(pair.from()) || !snapshot.hasLocation(pair.to())) {
+				current.skipped.incrementAndGet();
+			} else if (routeService.warmRoute(snapshot, pair.from(), pair.to())) {
+				current.warmedPairs.incrementAndGet();
+			} else {
+				current.reachedPairs.incrementAndGet();
+			}
+		}
+		for (String source : sources) {
+			if (dataStorageService.getSnapshot().getVersion() != snapshot.getVersion()) {
+				return;
+			}
+			if (!snapshot.hasLocation(source)) {
+				current.skipped.incrementAndGet();
+			} else if (warmSource(snapshot, source)) {
+				current.warmedSources.incrementAndGet();
+			} else {
+				current.reachedSources.incrementAndGet();
+			}
+		}
+		current.millis = (System.nanoTime() - start) / 1_000_000;
+		current.completed = true;
+	}
+	
+	// Routes from a contracted location search from the ends of its chain, so those are the trees to build
+	private boolean warmSource(GraphSnapshot snapshot, String source) {
+		CompiledGraph graph = snapshot.getGraph();
+		Simplification simplification = snapshot.getSimplification();
+		if (simplification == null) {
+			return shortestPathTreeCache.warm(snapshot.getVersion(), graph, graph.indexOf(source));
+		}
+		
+		boolean warmed = false;
+		for (Simplification.Access departure : simplification.departures(source)) {
+			warmed |= shortestPathTreeCache.warm(snapshot.getVersion(), graph, graph.indexOf(departure.location()));
+		}
+		return warmed;
+	}
+	
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> statistics = new LinkedHashMap<>();
+		statistics.put("trackedPairs", queryLog.getTrackedPairs());
+		WarmReport current = report;
+		if (current == null) {
+			return statistics;
+		}
+		
+		int warmed = current.warmedPairs.get() + current.warmedSources.get();
+		int reached = current.reachedPairs.get() + current.reachedSources.get();
+		statistics.put("datasetVersion", current.version);
+		statistics.put("plannedPairs", current.plannedPairs);
+		statistics.put("warmedPairs", current.warmedPairs.get());
+		statistics.put("pairsReachedByTraffic", current.reachedPairs.get());
+		statistics.put("plannedSources", current.plannedSources);
+		statistics.put("warmedSources", current.warmedSources.get());
+		statistics.put("sourcesReachedByTraffic", current.reachedSources.get());
+		statistics.put("skipped", current.skipped.get());
+		// Share of the processed warm set that was ready before any request asked for it
+		statistics.put("coverage", warmed + reached == 0 ? 0.0 : (double) warmed / (warmed + reached));
+		statistics.put("completed", current.completed);
+		statistics.put("millis", current.millis);
+		return statistics;
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		if (backgroundExecutor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+	
+	private static final class WarmReport {
+		
+		private final long version;
+		private final int plannedPairs;
+		private final int plannedSources;
+		private final AtomicInteger warmedPairs = new AtomicInteger();
+		private final AtomicInteger reachedPairs = new AtomicInteger();
+		private final AtomicInteger warmedSources = new AtomicInteger();
+		private final AtomicInteger reachedSources = new AtomicInteger();
+		private final AtomicInteger skipped = new AtomicInteger();
+		private volatile long millis;
+		private volatile boolean completed;
+		
+		private WarmReport(long version, int plannedPairs, int plannedSources) {
+			this.version = version;
+			this.plannedPairs = plannedPairs;
+			this.plannedSources = plannedSources;
+		}
+	}
+}
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.example.javajava.controller;
 
+import com.example.javajava.graph.CompiledGraph;
 import com.example.javajava.model.TravelTime;
 import com.example.javajava.service.CsvDataService;
 import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.LocalDataService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
@@ -12,12 +15,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class DataControllerTest {
@@ -28,12 +34,15 @@ class DataControllerTest {
 	@Mock
 	private DataStorageService dataStorageService;
 	
+	@Mock
+	private LocalDataService localDataService;
+	
 	private DataController dataController;
 	
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
-		dataController = new DataController(csvDataService, dataStorageService);
+		dataController = new DataController(csvDataService, dataStorageService, localDataService);
 	}
 	
 	@Test
@@ -51,7 +60,9 @@ class DataControllerTest {
 		new TravelTime("R12", "R13", 9)
 		);
 		
-		when(csvDataService.parseCSVContent(csvContent)).thenReturn(mockTravelTimes);
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(mockTravelTimes);
+		
+		when(csvDataService.parseCSV(any(InputStream.class))).thenReturn(graph);
 		
 		ResponseEntity<Map<String, Object>> response = dataController.loadData(file);
 		
@@ -60,13 +71,14 @@ class DataControllerTest {
 		assertNotNull(body);
 		assertEquals("Data loaded successfully", body.get("message"));
 		assertEquals(2, body.get("recordsProcessed"));
+		assertTrue(body.get("loadMillis") instanceof Long);
 		
-		verify(csvDataService).parseCSVContent(csvContent);
-		verify(dataStorageService).storeTravelTimes(mockTravelTimes);
+		verify(csvDataService).parseCSV(any(InputStream.class));
+		verify(dataStorageService).storeGraph(graph);
 	}
 	
 	@Test
-	void shouldReturnBadRequestForNullFile() {
+	void shouldReturnBadRequestForNullFile() throws Exception {
 		ResponseEntity<Map<String, Object>> response = dataController.loadData(null);
 		
 		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -74,7 +86,7 @@ class DataControllerTest {
 		assertNotNull(body);
 		assertEquals("No file provided", body.get("error"));
 		
-		verify(csvDataService, never()).parseCSVContent(anyString());
+		verify(csvDataService, never()).parseCSV(any(InputStream.class));
 	}
 	
 	@Test
@@ -93,7 +105,7 @@ class DataControllerTest {
 		assertNotNull(body);
 		assertEquals("File is empty", body.get("error"));
 		
-		verify(csvDataService, never()).parseCSVContent(anyString());
+		verify(csvDataService, never()).parseCSV(any(InputStream.class));
 	}
 	
 	@Test
@@ -106,7 +118,7 @@ class DataControllerTest {
 		invalidCsvContent.getBytes()
 		);
 		
-		when(csvDataService.parseCSVContent(invalidCsvContent))
+		when(csvDataService.parseCSV(any(InputStream.class)))
 		.thenThrow(new IllegalArgumentException("Invalid CSV format"));
 		
 		ResponseEntity<Map<String, Object>> response = dataController.loadData(file);
@@ -116,7 +128,8 @@ class DataControllerTest {
 		assertNotNull(body);
 		assertEquals("Invalid CSV format", body.get("error"));
 		
-		verify(csvDataService).parseCSVContent(invalidCsvContent);
+		verify(csvDataService).parseCSV(any(InputStream.class));
+		verify(dataStorageService, never()).storeGraph(any());
 	}
 	
 	@Test
@@ -129,7 +142,7 @@ class DataControllerTest {
 		csvContent.getBytes()
 		);
 		
-		when(csvDataService.parseCSVContent(csvContent))
+		when(csvDataService.parseCSV(any(InputStream.class)))
 		.thenThrow(new RuntimeException("Unexpected error"));
 		
 		ResponseEntity<Map<String, Object>> response = dataController.loadData(file);
@@ -139,14 +152,14 @@ class DataControllerTest {
 		assertNotNull(body);
 		assertEquals("An error occurred while processing the file", body.get("error"));
 		
-		verify(csvDataService).parseCSVContent(csvContent);
+		verify(csvDataService).parseCSV(any(InputStream.class));
 	}
 	
 	@Test
 	void shouldHandleFileReadError() throws Exception {
 		MultipartFile mockFile = mock(MultipartFile.class);
 		when(mockFile.isEmpty()).thenReturn(false);
-		when(mockFile.getBytes()).thenThrow(new RuntimeException("File read error"));
+		when(mockFile.getInputStream()).thenThrow(new IOException("File read error"));
 		
 		ResponseEntity<Map<String, Object>> response = dataController.loadData(mockFile);
 		
@@ -166,11 +179,9 @@ class DataControllerTest {
 		csvContent.getBytes("UTF-8")
 		);
 		
-		List<TravelTime> mockTravelTimes = Arrays.asList(
-		new TravelTime("Rüte1", "Rüte2", 25)
-		);
-		
-		when(csvDataService.parseCSVContent(csvContent)).thenReturn(mockTravelTimes);
+		// The real parser decodes the stream, so this checks the bytes arrive as UTF-8
+		when(csvDataService.parseCSV(any(InputStream.class)))
+		.thenAnswer(invocation -> new CsvDataService().parseCSV(invocation.<InputStream>getArgument(0)));
 		
 		ResponseEntity<Map<String, Object>> response = dataController.loadData(file);
 		
@@ -178,6 +189,45 @@ class DataControllerTest {
 		Map<String, Object> body = response.getBody();
 		assertEquals(1, body.get("recordsProcessed"));
 		
-		verify(csvDataService).parseCSVContent(csvContent);
+		ArgumentCaptor<CompiledGraph> graph = ArgumentCaptor.forClass(CompiledGraph.class);
+		verify(dataStorageService).storeGraph(graph.capture());
+		assertTrue(graph.getValue().hasLocation("Rüte1"));
+		assertTrue(graph.getValue().hasLocation("Rüte2"));
+	}
+	
+	@Test
+	void shouldLoadLocalFile() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(List.of(new TravelTime("R11", "R12", 20)));
+		when(localDataService.loadFile("travel_times.csv")).thenReturn(graph);
+		
+		ResponseEntity<Map<String, Object>> response = dataController.loadLocalData("travel_times.csv");
+		
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		Map<String, Object> body = response.getBody();
+		assertNotNull(body);
+		assertEquals("Data loaded successfully", body.get("message"));
+		assertEquals(1, body.get("recordsProcessed"));
+		assertTrue(body.get("loadMillis") instanceof Long);
+	}
+	
+	@Test
+	void shouldReturnNotFoundForMissingLocalFile() throws Exception {
+		when(localDataService.loadFile("missing.csv")).thenThrow(new NoSuchFileException("missing.csv"));
+		
+		ResponseEntity<Map<String, Object>> response = dataController.loadLocalData("missing.csv");
+		
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+		assertEquals("File not found: missing.csv", response.getBody().get("error"));
+	}
+	
+	@Test
+	void shouldReturnBadRequestForLocalFileOutsideDataDirectory() throws Exception {
+		when(localDataService.loadFile("../secret.csv"))
+		.thenThrow(new IllegalArgumentException("File must be inside the data directory: ../secret.csv"));
+		
+		ResponseEntity<Map<String, Object>> response = dataController.loadLocalData("../secret.csv");
+		
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertEquals("File must be inside the data directory: ../secret.csv", response.getBody().get("error"));
 	}
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.example.javajava.controller;
 
 import com.example.javajava.model.RouteResponse;
+import com.example.javajava.model.TravelTime;
+import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.GraphService;
 import com.example.javajava.service.RouteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -91,4 +94,47 @@ class RouteControllerTest {
 			routeController.calculateRoute("", "R20");
 		});
 	}
+	
+	@Test
+	void shouldUseRequestedAlgorithm() {
+		storeExerciseRoute();
+		
+		ResponseEntity<?> response = routeController.calculateRoute("CP1", "R20", "bidirectional");
+		
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		RouteResponse routeResponse = (RouteResponse) response.getBody();
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), routeResponse.getPath());
+		assertEquals(74, routeResponse.getTotalTime());
+	}
+	
+	@Test
+	void shouldReturnBadRequestForUnknownAlgorithm() {
+		ResponseEntity<?> response = routeController.calculateRoute("CP1", "R20", "teleport");
+		
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		Map<?, ?> errorResponse = (Map<?, ?>) response.getBody();
+		assertEquals("Unknown routing algorithm: teleport", errorResponse.get("error"));
+	}
+	
+	@Test
+	void shouldReturnTravelTimeOnly() {
+		storeExerciseRoute();
+		
+		ResponseEntity<?> found = routeController.calculateTravelTime("CP1", "R20");
+		ResponseEntity<?> missing = routeController.calculateTravelTime("R20", "CP1");
+		
+		assertEquals(HttpStatus.OK, found.getStatusCode());
+		assertEquals(74, ((Map<?, ?>) found.getBody()).get("tiempoTotal"));
+		assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+	}
+	
+	private void storeExerciseRoute() {
+		DataStorageService dataStorageService = new DataStorageService();
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+		routeService = new RouteService(dataStorageService, new GraphService());
+		routeController = new RouteController(routeService);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.javajava.controller;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.TravelTime;
+import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.GraphIndexService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsControllerTest {
+	
+	@Test
+	void shouldReturnCurrentDatasetStatistics() {
+		DataStorageService dataStorageService = new DataStorageService();
+		StatsController statsController = new StatsController(new GraphIndexService(dataStorageService, new RoutingProperties(), Runnable::run));
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+		
+		ResponseEntity<Map<String, Object>> response = statsController.getStatistics();
+		
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		// CP2 only passes traffic on and is contracted
+		assertEquals(2, response.getBody().get("locations"));
+		assertTrue(response.getBody().containsKey("simplification"));
+		assertTrue(response.getBody().containsKey("landmarks"));
+	}
+}
\ No newline at end of file
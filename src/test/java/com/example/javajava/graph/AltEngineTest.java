@@ -0,0 +1,68 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AltEngineTest {
+	
+	@Test
+	void shouldFindExerciseRoute() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R12", 11),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("R20", "R13", 11),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("R11", "CP1", 92),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "CP1", 10),
+			new TravelTime("CP2", "R20", 67),
+			new TravelTime("R20", "CP2", 60)
+		));
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 2);
+		
+		PathResult result = new AltEngine().findShortestPath(graph, landmarks, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldMatchDijkstraDistancesOnRandomGraph() {
+		CompiledGraph graph = LandmarkIndexTest.randomGraph(300, 1200, 8);
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 4);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		AltEngine alt = new AltEngine();
+		Random random = new Random(1);
+		
+		for (int i = 0; i < 500; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			PathResult expected = dijkstra.findShortestPath(graph, source, target);
+			PathResult actual = alt.findShortestPath(graph, landmarks, source, target);
+			
+			assertEquals(expected.isPathFound(), actual.isPathFound());
+			assertEquals(expected.getTotalTime(), actual.getTotalTime());
+		}
+	}
+	
+	@Test
+	void shouldReturnEmptyResultForUnreachableTarget() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("CP1", "CP2", 7)
+		));
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 2);
+		
+		PathResult result = new AltEngine().findShortestPath(graph, landmarks, graph.indexOf("R11"), graph.indexOf("CP2"));
+		
+		assertFalse(result.isPathFound());
+	}
+}
\ No newline at end of file
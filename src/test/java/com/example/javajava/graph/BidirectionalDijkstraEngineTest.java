@@ -0,0 +1,99 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalDijkstraEngineTest {
+	
+	@Test
+	void shouldFindExerciseRoute() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R12", 11),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("R20", "R13", 11),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("R11", "CP1", 92),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "CP1", 10),
+			new TravelTime("CP2", "R20", 67),
+			new TravelTime("R20", "CP2", 60)
+		));
+		BidirectionalDijkstraEngine engine = new BidirectionalDijkstraEngine();
+		
+		PathResult result = engine.findShortestPath(graph, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldFollowDirectedEdgesOnly() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9)
+		));
+		BidirectionalDijkstraEngine engine = new BidirectionalDijkstraEngine();
+		
+		assertEquals(29, engine.findShortestPath(graph, graph.indexOf("R11"), graph.indexOf("R13")).getTotalTime());
+		assertFalse(engine.findShortestPath(graph, graph.indexOf("R13"), graph.indexOf("R11")).isPathFound());
+	}
+	
+	@Test
+	void shouldMatchUnidirectionalDistancesOnRandomGraph() {
+		CompiledGraph graph = randomGraph(300, 900, 5);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		BidirectionalDijkstraEngine bidirectional = new BidirectionalDijkstraEngine();
+		Random random = new Random(9);
+		
+		for (int i = 0; i < 500; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			PathResult expected = dijkstra.findShortestPath(graph, source, target);
+			PathResult actual = bidirectional.findShortestPath(graph, source, target);
+			
+			assertEquals(expected.isPathFound(), actual.isPathFound());
+			assertEquals(expected.getTotalTime(), actual.getTotalTime());
+			if (actual.isPathFound()) {
+				assertEquals(graph.getLocation(source), actual.getPath().get(0));
+				assertEquals(graph.getLocation(target), actual.getPath().get(actual.getPath().size() - 1));
+				assertEquals(actual.getTotalTime(), pathLength(graph, actual.getPath()));
+			}
+		}
+	}
+	
+	private int pathLength(CompiledGraph graph, List<String> path) {
+		int total = 0;
+		for (int i = 1; i < path.size(); i++) {
+			int from = graph.indexOf(path.get(i - 1));
+			int to = graph.indexOf(path.get(i));
+			int best = Integer.MAX_VALUE;
+			for (int edge = graph.firstEdge(from); edge < graph.endEdge(from); edge++) {
+				if (graph.getTarget(edge) == to) {
+					best = Math.min(best, graph.getWeight(edge));
+				}
+			}
+			assertNotEquals(Integer.MAX_VALUE, best, "Path uses a missing edge");
+			total += best;
+		}
+		return total;
+	}
+	
+	private CompiledGraph randomGraph(int nodes, int edges, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int i = 0; i < edges; i++) {
+			travelTimes.add(new TravelTime("N" + random.nextInt(nodes), "N" + random.nextInt(nodes), random.nextInt(40) + 1));
+		}
+		return CompiledGraph.fromTravelTimes(travelTimes);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledGraphTest {
+	
+	@Test
+	void shouldAssignDenseIdsInFirstSeenOrder() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("CP1", "R11", 84)
+		));
+		
+		assertEquals(4, graph.getLocationCount());
+		assertEquals(3, graph.getEdgeCount());
+		assertEquals(0, graph.indexOf("R11"));
+		assertEquals(1, graph.indexOf("R12"));
+		assertEquals(2, graph.indexOf("R13"));
+		assertEquals(3, graph.indexOf("CP1"));
+		assertEquals("CP1", graph.getLocation(3));
+	}
+	
+	@Test
+	void shouldGroupOutEdgesBySourceInInsertionOrder() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R11", "CP1", 92)
+		));
+		
+		int r11 = graph.indexOf("R11");
+		assertEquals(2, graph.endEdge(r11) - graph.firstEdge(r11));
+		assertEquals("R12", graph.getLocation(graph.getTarget(graph.firstEdge(r11))));
+		assertEquals(20, graph.getWeight(graph.firstEdge(r11)));
+		assertEquals("CP1", graph.getLocation(graph.getTarget(graph.firstEdge(r11) + 1)));
+		assertEquals(92, graph.getWeight(graph.firstEdge(r11) + 1));
+		
+		int r13 = graph.indexOf("R13");
+		assertEquals(graph.firstEdge(r13), graph.endEdge(r13));
+	}
+	
+	@Test
+	void shouldReturnMinusOneForUnknownLocation() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(List.of(new TravelTime("R11", "R12", 20)));
+		
+		assertEquals(-1, graph.indexOf("UNKNOWN"));
+		assertEquals(-1, graph.indexOf(null));
+		assertFalse(graph.hasLocation("UNKNOWN"));
+	}
+	
+	@Test
+	void shouldBuildEmptyGraph() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(List.of());
+		
+		assertEquals(0, graph.getLocationCount());
+		assertEquals(0, graph.getEdgeCount());
+	}
+	
+	@Test
+	void shouldRejectNullTravelTimes() {
+		assertThrows(IllegalArgumentException.class, () -> CompiledGraph.fromTravelTimes(null));
+	}
+	
+	@Test
+	void shouldRejectNonPositiveWeight() {
+		assertThrows(IllegalArgumentException.class, () -> new GraphBuilder().addEdge("R11", "R12", 0));
+	}
+	
+	@Test
+	void shouldRoundTripThroughBuilder() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R11", 9)
+		));
+		
+		CompiledGraph extended = graph.toBuilder().addEdge("R12", "CP1", 5).build();
+		
+		assertEquals(2, graph.getEdgeCount());
+		assertEquals(3, extended.getEdgeCount());
+		assertEquals(graph.indexOf("R12"), extended.indexOf("R12"));
+		assertTrue(extended.hasLocation("CP1"));
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedGraphTest {
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void shouldKeepEveryEdgeSortedByNeighbor() {
+		CompiledGraph graph = generateRandom(500, 3000, 1000, 11);
+		CompressedGraph compressed = CompressedGraph.create(graph);
+		
+		assertEquals("compressed", compressed.getStorage());
+		assertEquals(graph.getEdgeCount(), compressed.getEdgeCount());
+		EdgeCursor out = compressed.outEdges();
+		EdgeCursor in = compressed.inEdges();
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			assertEquals(graph.getLocation(node), compressed.getLocation(node));
+			assertEquals(node, compressed.indexOf(graph.getLocation(node)));
+			assertArrayEquals(outEdges(graph, node), outEdges(compressed, node));
+			assertArrayEquals(inEdges(graph, node), inEdges(compressed, node));
+			
+			// The cursor and the slot accessors agree, in ascending neighbor order
+			out.moveTo(node);
+			int previous = -1;
+			for (int edge = compressed.firstEdge(node); edge < compressed.endEdge(node); edge++) {
+				assertTrue(out.next());
+				assertEquals(compressed.getTarget(edge), out.neighbor());
+				assertEquals(compressed.getWeight(edge), out.weight());
+				assertTrue(out.neighbor() >= previous);
+				previous = out.neighbor();
+			}
+			assertFalse(out.next());
+			in.moveTo(node);
+			for (int inEdge = compressed.firstInEdge(node); inEdge < compressed.endInEdge(node); inEdge++) {
+				assertTrue(in.next());
+				assertEquals(compressed.getSource(inEdge), in.neighbor());
+				assertEquals(compressed.getInWeight(inEdge), in.weight());
+			}
+			assertFalse(in.next());
+		}
+	}
+	
+	@Test
+	void shouldPickNarrowestWeightWidth() {
+		assertEquals(1, CompressedGraph.create(generateRandom(50, 200, 255, 1)).getWeightWidth());
+		assertEquals(2, CompressedGraph.create(generateRandom(50, 200, 65_535, 2)).getWeightWidth());
+		CompressedGraph wide = CompressedGraph.create(generateRandom(50, 200, 1_000_000, 3));
+		assertEquals(4, wide.getWeightWidth());
+		
+		CompiledGraph graph = generateRandom(50, 200, 1_000_000, 3);
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			assertArrayEquals(outEdges(graph, node), outEdges(wide, node));
+		}
+	}
+	
+	@Test
+	void shouldFindTheSameShortestPaths() {
+		CompiledGraph graph = generateRandom(2000, 10000, 30, 5);
+		CompressedGraph compressed = CompressedGraph.create(graph);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		BidirectionalDijkstraEngine bidirectional = new BidirectionalDijkstraEngine();
+		
+		Random random = new Random(8);
+		for (int i = 0; i < 50; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			int expected = dijkstra.findShortestPath(graph, source, target).getTotalTime();
+			assertEquals(expected, dijkstra.findShortestPath(compressed, source, target).getTotalTime());
+			assertEquals(expected, bidirectional.findShortestPath(compressed, source, target).getTotalTime());
+		}
+		assertTrue(compressed.getMemoryBytes() < graph.getMemoryBytes());
+	}
+	
+	@Test
+	void shouldRoundTripThroughSnapshotAndBuilder() throws Exception {
+		CompressedGraph compressed = CompressedGraph.create(generateRandom(300, 1500, 500, 9));
+		Path file = directory.resolve("graph.snapshot");
+		
+		GraphSnapshotFile.write(new GraphSnapshot(1, compressed), file);
+		CompiledGraph restored = GraphSnapshotFile.read(file).getGraph();
+		CompiledGraph rebuilt = compressed.toBuilder().build();
+		
+		for (int node = 0; node < compressed.getLocationCount(); node++) {
+			assertEquals(compressed.getLocation(node), restored.getLocation(node));
+			for (int edge = compressed.firstEdge(node); edge < compressed.endEdge(node); edge++) {
+				assertEquals(compressed.getTarget(edge), restored.getTarget(edge));
+				assertEquals(compressed.getWeight(edge), restored.getWeight(edge));
+				assertEquals(compressed.getTarget(edge), rebuilt.getTarget(edge));
+			}
+			for (int inEdge = compressed.firstInEdge(node); inEdge < compressed.endInEdge(node); inEdge++) {
+				assertEquals(compressed.getSource(inEdge), restored.getSource(inEdge));
+			}
+		}
+		assertSame(compressed, CompressedGraph.create(compressed));
+	}
+	
+	// Edges as sorted (neighbor, weight) pairs, independent of slot order
+	private static long[] outEdges(CompiledGraph graph, int node) {
+		long[] edges = new long[graph.endEdge(node) - graph.firstEdge(node)];
+		for (int i = 0; i < edges.length; i++) {
+			int edge = graph.firstEdge(node) + i;
+			edges[i] = (long) graph.getTarget(edge) << 32 | graph.getWeight(edge);
+		}
+		Arrays.sort(edges);
+		return edges;
+	}
+	
+	private static long[] inEdges(CompiledGraph graph, int node) {
+		long[] edges = new long[graph.endInEdge(node) - graph.firstInEdge(node)];
+		for (int i = 0; i < edges.length; i++) {
+			int inEdge = graph.firstInEdge(node) + i;
+			edges[i] = (long) graph.getSource(inEdge) << 32 | graph.getInWeight(inEdge);
+		}
+		Arrays.sort(edges);
+		return edges;
+	}
+	
+	// Random endpoints, so neighbor gaps range from zero (parallel edges) to several varint bytes
+	private static CompiledGraph generateRandom(int locations, int edges, int maxWeight, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int i = 0; i < locations; i++) {
+			travelTimes.add(new TravelTime("L" + i, "L" + (i + 1) % locations, maxWeight));
+		}
+		for (int i = travelTimes.size(); i < edges; i++) {
+			travelTimes.add(new TravelTime("L" + random.nextInt(locations), "L" + random.nextInt(locations), random.nextInt(maxWeight) + 1));
+		}
+		return CompiledGraph.fromTravelTimes(travelTimes);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+	
+	@Test
+	void shouldFindExerciseRoute() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R12", 11),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("R20", "R13", 11),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("R11", "CP1", 92),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "CP1", 10),
+			new TravelTime("CP2", "R20", 67),
+			new TravelTime("R20", "CP2", 60)
+		));
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		
+		PathResult result = new ContractionHierarchyEngine().findShortestPath(graph, hierarchy, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldUnpackShortcutsIntoOriginalLocations() {
+		// A chain forces shortcuts over the middle nodes whatever the order
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			travelTimes.add(new TravelTime("C" + i, "C" + (i + 1), i + 1));
+		}
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(travelTimes);
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		
+		PathResult result = new ContractionHierarchyEngine().findShortestPath(graph, hierarchy, graph.indexOf("C0"), graph.indexOf("C20"));
+		
+		assertTrue(hierarchy.getShortcutCount() > 0);
+		assertEquals(21, result.getPath().size());
+		for (int i = 0; i <= 20; i++) {
+			assertEquals("C" + i, result.getPath().get(i));
+		}
+		assertEquals(210, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldMatchDijkstraOnRandomGraphs() {
+		for (long seed = 1; seed <= 3; seed++) {
+			CompiledGraph graph = randomGraph(250, 900, seed);
+			ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+			DijkstraEngine dijkstra = new DijkstraEngine();
+			ContractionHierarchyEngine engine = new ContractionHierarchyEngine();
+			Random random = new Random(seed);
+			
+			for (int i = 0; i < 400; i++) {
+				int source = random.nextInt(graph.getLocationCount());
+				int target = random.nextInt(graph.getLocationCount());
+				PathResult expected = dijkstra.findShortestPath(graph, source, target);
+				PathResult actual = engine.findShortestPath(graph, hierarchy, source, target);
+				
+				assertEquals(expected.isPathFound(), actual.isPathFound());
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				if (actual.isPathFound()) {
+					assertEquals(actual.getTotalTime(), pathLength(graph, actual.getPath()));
+				}
+			}
+		}
+	}
+	
+	@Test
+	void shouldAssignEveryNodeADistinctRank() {
+		CompiledGraph graph = randomGraph(100, 300, 4);
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		
+		boolean[] seen = new boolean[graph.getLocationCount()];
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			int rank = hierarchy.getRank(node);
+			assertFalse(seen[rank]);
+			seen[rank] = true;
+		}
+	}
+	
+	static int pathLength(CompiledGraph graph, List<String> path) {
+		int total = 0;
+		for (int i = 1; i < path.size(); i++) {
+			int from = graph.indexOf(path.get(i - 1));
+			int to = graph.indexOf(path.get(i));
+			int best = Integer.MAX_VALUE;
+			for (int edge = graph.firstEdge(from); edge < graph.endEdge(from); edge++) {
+				if (graph.getTarget(edge) == to) {
+					best = Math.min(best, graph.getWeight(edge));
+				}
+			}
+			assertNotEquals(Integer.MAX_VALUE, best, "Path uses a missing edge");
+			total += best;
+		}
+		return total;
+	}
+	
+	static CompiledGraph randomGraph(int nodes, int edges, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int i = 0; i < edges; i++) {
+			travelTimes.add(new TravelTime("N" + random.nextInt(nodes), "N" + random.nextInt(nodes), random.nextInt(40) + 1));
+		}
+		return CompiledGraph.fromTravelTimes(travelTimes);
+	}
+}
\ No newline at end of file
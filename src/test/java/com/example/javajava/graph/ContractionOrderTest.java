@@ -0,0 +1,110 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionOrderTest {
+
+	private final CompiledGraph exerciseGraph = CompiledGraph.fromTravelTimes(Arrays.asList(
+		new TravelTime("R11", "R12", 20),
+		new TravelTime("R12", "R13", 9),
+		new TravelTime("R13", "R20", 9),
+		new TravelTime("CP1", "R11", 84),
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "R20", 67)
+	));
+
+	@Test
+	void shouldFindExerciseRouteAfterCustomization() {
+		ContractionHierarchy hierarchy = ContractionOrder.build(exerciseGraph).customize(exerciseGraph);
+
+		PathResult result = new ContractionHierarchyEngine().findShortestPath(exerciseGraph, hierarchy,
+			exerciseGraph.indexOf("CP1"), exerciseGraph.indexOf("R20"));
+
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+
+	@Test
+	void shouldFollowNewWeightsWithoutRebuildingTheOrder() {
+		ContractionOrder order = ContractionOrder.build(exerciseGraph);
+		CompiledGraph slowerMotorway = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "R11", 4),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+
+		assertTrue(order.supports(slowerMotorway));
+		PathResult result = new ContractionHierarchyEngine().findShortestPath(slowerMotorway, order.customize(slowerMotorway),
+			slowerMotorway.indexOf("CP1"), slowerMotorway.indexOf("R20"));
+
+		assertEquals(Arrays.asList("CP1", "R11", "R12", "R13", "R20"), result.getPath());
+		assertEquals(42, result.getTotalTime());
+	}
+
+	@Test
+	void shouldMatchDijkstraForEveryCustomizedMetric() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(250, 900, 5);
+		ContractionOrder order = ContractionOrder.build(graph);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		ContractionHierarchyEngine engine = new ContractionHierarchyEngine();
+
+		for (long seed = 1; seed <= 3; seed++) {
+			CompiledGraph reweighted = reweight(graph, seed);
+			ContractionHierarchy hierarchy = order.customize(reweighted);
+			Random random = new Random(seed);
+
+			for (int i = 0; i < 400; i++) {
+				int source = random.nextInt(graph.getLocationCount());
+				int target = random.nextInt(graph.getLocationCount());
+				PathResult expected = dijkstra.findShortestPath(reweighted, source, target);
+				PathResult actual = engine.findShortestPath(reweighted, hierarchy, source, target);
+
+				assertEquals(expected.isPathFound(), actual.isPathFound());
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				if (actual.isPathFound()) {
+					assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(reweighted, actual.getPath()));
+				}
+			}
+		}
+	}
+
+	@Test
+	void shouldRejectChangedTopology() {
+		ContractionOrder order = ContractionOrder.build(exerciseGraph);
+		CompiledGraph newLocation = exerciseGraph.toBuilder().addEdge("R20", "CP9", 5).build();
+
+		assertFalse(order.supports(newLocation));
+		assertThrows(IllegalArgumentException.class, () -> order.customize(newLocation));
+	}
+
+	@Test
+	void shouldAcceptReversedEdgesAlongExistingArcs() {
+		ContractionOrder order = ContractionOrder.build(exerciseGraph);
+
+		assertTrue(order.supports(exerciseGraph.toBuilder().addEdge("R20", "R13", 11).build()));
+	}
+
+	private static CompiledGraph reweight(CompiledGraph graph, long seed) {
+		Random random = new Random(seed);
+		GraphBuilder builder = new GraphBuilder();
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			builder.addLocation(graph.getLocation(node));
+		}
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				builder.addEdge(graph.getLocation(node), graph.getLocation(graph.getTarget(edge)), random.nextInt(100) + 1);
+			}
+		}
+		return builder.build();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DijkstraEngineTest {
+	
+	private final CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+		new TravelTime("R11", "R12", 20),
+		new TravelTime("R12", "R13", 9),
+		new TravelTime("R13", "R12", 11),
+		new TravelTime("R13", "R20", 9),
+		new TravelTime("R20", "R13", 11),
+		new TravelTime("CP1", "R11", 84),
+		new TravelTime("R11", "CP1", 92),
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "CP1", 10),
+		new TravelTime("CP2", "R20", 67),
+		new TravelTime("R20", "CP2", 60)
+	));
+	
+	@Test
+	void shouldFindExerciseRoute() {
+		DijkstraEngine engine = new DijkstraEngine();
+		
+		PathResult result = engine.findShortestPath(graph, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldReuseWorkspaceWithoutLeakingPreviousSearch() {
+		DijkstraEngine engine = new DijkstraEngine(new WorkspacePool(1));
+		
+		PathResult first = engine.findShortestPath(graph, graph.indexOf("R11"), graph.indexOf("R20"));
+		PathResult second = engine.findShortestPath(graph, graph.indexOf("R20"), graph.indexOf("R12"));
+		
+		assertEquals(Arrays.asList("R11", "R12", "R13", "R20"), first.getPath());
+		assertEquals(Arrays.asList("R20", "R13", "R12"), second.getPath());
+		assertEquals(22, second.getTotalTime());
+		assertEquals(1, engine.getPool().getIdleCount());
+	}
+	
+	@Test
+	void shouldReturnEmptyResultForUnreachableTarget() {
+		CompiledGraph disconnected = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("CP1", "CP2", 7)
+		));
+		DijkstraEngine engine = new DijkstraEngine();
+		
+		PathResult result = engine.findShortestPath(disconnected, disconnected.indexOf("R11"), disconnected.indexOf("CP2"));
+		
+		assertFalse(result.isPathFound());
+	}
+	
+	@Test
+	void shouldAnswerSameSourceAndTargetWithoutSearching() {
+		DijkstraEngine engine = new DijkstraEngine();
+		
+		PathResult result = engine.findShortestPath(graph, graph.indexOf("R11"), graph.indexOf("R11"));
+		
+		assertEquals(List.of("R11"), result.getPath());
+		assertEquals(0, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldStopOnceTargetIsSettled() {
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		workspace.reset();
+		
+		int distance = new DijkstraEngine().search(graph, graph.indexOf("R11"), graph.indexOf("R12"), workspace);
+		
+		assertEquals(20, distance);
+		assertTrue(workspace.getSettledCount() < graph.getLocationCount());
+		assertTrue(workspace.isSettled(graph.indexOf("R12")));
+	}
+	
+	@Test
+	void shouldAnswerSeveralTargetsWithOneSearch() {
+		DijkstraEngine engine = new DijkstraEngine();
+		int source = graph.indexOf("CP1");
+		int[] targets = {graph.indexOf("R20"), graph.indexOf("CP2"), graph.indexOf("R20"), source};
+		
+		PathResult[] results = engine.findShortestPaths(graph, source, targets);
+		
+		assertEquals(4, results.length);
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), results[0].getPath());
+		assertEquals(74, results[0].getTotalTime());
+		assertEquals(Arrays.asList("CP1", "CP2"), results[1].getPath());
+		assertEquals(7, results[1].getTotalTime());
+		assertEquals(results[0].getPath(), results[2].getPath());
+		assertEquals(List.of("CP1"), results[3].getPath());
+		assertEquals(0, results[3].getTotalTime());
+	}
+	
+	@Test
+	void shouldStopOnceAllTargetsAreSettled() {
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		workspace.reset();
+		int[] targets = {graph.indexOf("CP1"), graph.indexOf("R12")};
+		Arrays.sort(targets);
+		
+		new DijkstraEngine().searchTargets(graph, graph.indexOf("R11"), targets, workspace);
+		
+		assertTrue(workspace.isSettled(graph.indexOf("CP1")));
+		assertTrue(workspace.isSettled(graph.indexOf("R12")));
+		assertEquals(92, workspace.getDistance(graph.indexOf("CP1")));
+		assertTrue(workspace.getSettledCount() < graph.getLocationCount());
+	}
+	
+	@Test
+	void shouldInvalidatePreviousGenerationOnReset() {
+		SearchWorkspace workspace = new SearchWorkspace(4);
+		workspace.reset();
+		workspace.reach(2, 15, 1);
+		workspace.settle(2);
+		
+		workspace.reset();
+		
+		assertEquals(SearchWorkspace.UNREACHABLE, workspace.getDistance(2));
+		assertEquals(SearchWorkspace.NO_PREDECESSOR, workspace.getPredecessor(2));
+		assertFalse(workspace.isSettled(2));
+		assertEquals(0, workspace.getSettledCount());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceTableTest {
+	
+	@Test
+	void shouldAnswerExerciseRouteFromTable() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+		DistanceTable table = DistanceTable.build(graph);
+		DistanceTableEngine engine = new DistanceTableEngine();
+		
+		PathResult result = engine.findShortestPath(graph, table, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(74, engine.distance(table, graph.indexOf("CP1"), graph.indexOf("R20")));
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+		assertEquals(List.of("R12"), engine.findShortestPath(graph, table, graph.indexOf("R12"), graph.indexOf("R12")).getPath());
+	}
+	
+	@Test
+	void shouldReportUnreachableTargets() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("CP1", "CP2", 7)
+		));
+		DistanceTable table = DistanceTable.build(graph);
+		
+		assertEquals(SearchWorkspace.UNREACHABLE, table.distance(graph.indexOf("R11"), graph.indexOf("CP2")));
+		assertEquals(DistanceTable.NO_HOP, table.nextHop(graph.indexOf("R12"), graph.indexOf("R11")));
+		assertFalse(new DistanceTableEngine().findShortestPath(graph, table, graph.indexOf("R12"), graph.indexOf("R11")).isPathFound());
+	}
+	
+	@Test
+	void shouldMatchDijkstraForEveryPair() {
+		// Node counts on both sides of the block size, so padded and multi-block tables are covered
+		for (int nodes : new int[] {50, 150, 300}) {
+			CompiledGraph graph = ContractionHierarchyTest.randomGraph(nodes, nodes * 4, nodes);
+			DistanceTable table = DistanceTable.build(graph);
+			DijkstraEngine dijkstra = new DijkstraEngine();
+			DistanceTableEngine engine = new DistanceTableEngine();
+			
+			for (int source = 0; source < graph.getLocationCount(); source += 7) {
+				for (int target = 0; target < graph.getLocationCount(); target++) {
+					PathResult expected = dijkstra.findShortestPath(graph, source, target);
+					PathResult actual = engine.findShortestPath(graph, table, source, target);
+					
+					assertEquals(expected.isPathFound(), actual.isPathFound());
+					assertEquals(expected.getTotalTime(), actual.getTotalTime());
+					if (actual.isPathFound()) {
+						assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(graph, actual.getPath()));
+					}
+				}
+			}
+		}
+	}
+	
+	@Test
+	void shouldRejectWeightsThatCouldOverflow() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("A", "B", Integer.MAX_VALUE / 2),
+			new TravelTime("B", "C", 1)
+		));
+		
+		assertFalse(DistanceTable.fits(graph));
+		assertThrows(IllegalArgumentException.class, () -> DistanceTable.build(graph));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSimplifierTest {
+	
+	@Test
+	void shouldDropSelfLoopsAndKeepFastestParallelEdge() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("A", "B", 7),
+			new TravelTime("A", "A", 1),
+			new TravelTime("A", "B", 3),
+			new TravelTime("B", "A", 2),
+			new TravelTime("A", "B", 5)
+		));
+		
+		GraphSimplifier.Result result = GraphSimplifier.simplify(graph);
+		
+		CompiledGraph simplified = result.graph();
+		assertEquals(2, simplified.getLocationCount());
+		assertEquals(2, simplified.getEdgeCount());
+		int a = simplified.indexOf("A");
+		assertEquals(1, simplified.endEdge(a) - simplified.firstEdge(a));
+		assertEquals(3, simplified.getWeight(simplified.firstEdge(a)));
+		
+		List<Simplification.Stage> stages = result.simplification().getStages();
+		assertEquals(List.of("self-loops", "parallel-edges", "chains", "parallel-shortcuts"),
+			stages.stream().map(Simplification.Stage::name).toList());
+		assertEquals(5, result.simplification().getInputEdges());
+		assertEquals(4, stages.get(0).edges());
+		assertEquals(2, stages.get(1).edges());
+		assertEquals(2, stages.get(3).locations());
+	}
+	
+	@Test
+	void shouldContractOneWayChainAndExpandItAgain() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("A", "X", 1),
+			new TravelTime("X", "A", 1),
+			new TravelTime("A", "B", 2),
+			new TravelTime("B", "C", 3),
+			new TravelTime("C", "D", 4),
+			new TravelTime("D", "Y", 1),
+			new TravelTime("Y", "D", 1)
+		));
+		
+		GraphSimplifier.Result result = GraphSimplifier.simplify(graph);
+		
+		CompiledGraph simplified = result.graph();
+		Simplification simplification = result.simplification();
+		assertEquals(4, simplified.getLocationCount());
+		assertEquals(5, simplified.getEdgeCount());
+		assertFalse(simplified.hasLocation("B"));
+		assertTrue(simplification.isContracted("C"));
+		assertEquals(1, simplification.getChainCount());
+		assertEquals(2, simplification.getContractedLocationCount());
+		int a = simplified.indexOf("A");
+		PathResult shortcut = new DijkstraEngine().findShortestPath(simplified, a, simplified.indexOf("D"));
+		assertEquals(9, shortcut.getTotalTime());
+		assertEquals(List.of("A", "B", "C", "D"), simplification.expand(shortcut.getPath()));
+		
+		assertEquals(List.of(new Simplification.Access("D", 7, List.of("B", "C", "D"))), simplification.departures("B"));
+		assertEquals(List.of(new Simplification.Access("A", 5, List.of("A", "B", "C"))), simplification.arrivals("C"));
+		assertEquals(3, simplification.within("B", "C").time());
+		assertNull(simplification.within("C", "B"));
+		assertEquals(List.of(new Simplification.Access("X", 0, List.of("X"))), simplification.departures("X"));
+	}
+	
+	@Test
+	void shouldContractTwoWayChainWithTimesPerDirection() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("P", "Q", 1),
+			new TravelTime("Q", "P", 10),
+			new TravelTime("Q", "R", 2),
+			new TravelTime("R", "Q", 20),
+			new TravelTime("R", "S", 3),
+			new TravelTime("S", "R", 30),
+			new TravelTime("P", "X", 1),
+			new TravelTime("X", "P", 1),
+			new TravelTime("P", "Z", 1),
+			new TravelTime("S", "Y", 1)
+		));
+		
+		GraphSimplifier.Result result = GraphSimplifier.simplify(graph);
+		
+		CompiledGraph simplified = result.graph();
+		Simplification simplification = result.simplification();
+		assertEquals(5, simplified.getLocationCount());
+		DijkstraEngine engine = new DijkstraEngine();
+		PathResult back = engine.findShortestPath(simplified, simplified.indexOf("S"), simplified.indexOf("P"));
+		assertEquals(60, back.getTotalTime());
+		assertEquals(List.of("S", "R", "Q", "P"), simplification.expand(back.getPath()));
+		
+		assertEquals(List.of(new Simplification.Access("S", 5, List.of("Q", "R", "S")),
+			new Simplification.Access("P", 10, List.of("Q", "P"))), simplification.departures("Q"));
+		assertEquals(List.of(new Simplification.Access("P", 3, List.of("P", "Q", "R")),
+			new Simplification.Access("S", 30, List.of("S", "R"))), simplification.arrivals("R"));
+		assertEquals(20, simplification.within("R", "Q").time());
+		assertEquals(List.of("R", "Q"), simplification.within("R", "Q").path());
+	}
+	
+	@Test
+	void shouldKeepDirectEdgeFasterThanChainAndLeaveCyclesAlone() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("A", "X", 1),
+			new TravelTime("X", "A", 1),
+			new TravelTime("A", "B", 2),
+			new TravelTime("B", "D", 3),
+			new TravelTime("A", "D", 4),
+			new TravelTime("D", "Y", 1),
+			new TravelTime("Y", "D", 1),
+			new TravelTime("L1", "L2", 1),
+			new TravelTime("L2", "L3", 1),
+			new TravelTime("L3", "L1", 1)
+		));
+		
+		GraphSimplifier.Result result = GraphSimplifier.simplify(graph);
+		
+		CompiledGraph simplified = result.graph();
+		Simplification simplification = result.simplification();
+		assertTrue(simplification.isContracted("B"));
+		assertEquals(List.of("A", "D"), simplification.expand(List.of("A", "D")));
+		int a = simplified.indexOf("A");
+		assertEquals(2, simplified.endEdge(a) - simplified.firstEdge(a));
+		assertTrue(simplified.hasLocation("L1") && simplified.hasLocation("L2") && simplified.hasLocation("L3"));
+		assertEquals(8, simplified.getEdgeCount());
+	}
+	
+	@Test
+	void shouldKeepDistancesBetweenRemainingLocations() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateStreets(12, 3));
+		GraphSimplifier.Result result = GraphSimplifier.simplify(graph);
+		CompiledGraph simplified = result.graph();
+		assertTrue(simplified.getLocationCount() < graph.getLocationCount() / 2);
+		DijkstraEngine engine = new DijkstraEngine();
+		
+		Random random = new Random(8);
+		for (int i = 0; i < 100; i++) {
+			String from = simplified.getLocation(random.nextInt(simplified.getLocationCount()));
+			String to = simplified.getLocation(random.nextInt(simplified.getLocationCount()));
+			PathResult expected = engine.findShortestPath(graph, graph.indexOf(from), graph.indexOf(to));
+			PathResult actual = engine.findShortestPath(simplified, simplified.indexOf(from), simplified.indexOf(to));
+			assertEquals(expected.isPathFound(), actual.isPathFound());
+			assertEquals(expected.getTotalTime(), actual.getTotalTime());
+			if (actual.isPathFound()) {
+				assertEquals(expected.getTotalTime(), timeAlong(graph, result.simplification().expand(actual.getPath())));
+			}
+		}
+	}
+	
+	// Fails unless every step of the path is an edge of the graph
+	private static int timeAlong(CompiledGraph graph, List<String> path) {
+		int time = 0;
+		for (int i = 0; i + 1 < path.size(); i++) {
+			int node = graph.indexOf(path.get(i));
+			int next = graph.indexOf(path.get(i + 1));
+			int fastest = Integer.MAX_VALUE;
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				if (graph.getTarget(edge) == next) {
+					fastest = Math.min(fastest, graph.getWeight(edge));
+				}
+			}
+			assertNotEquals(Integer.MAX_VALUE, fastest, path.get(i) + " -> " + path.get(i + 1));
+			time += fastest;
+		}
+		return time;
+	}
+	
+	// A grid of crossings joined by streets through up to three pass-through
+	// locations, mostly two-way, with some duplicated rows and self-loops
+	private static List<TravelTime> generateStreets(int size, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				String crossing = "X" + row + "_" + column;
+				if (column + 1 < size) {
+					addStreet(travelTimes, random, crossing, "X" + row + "_" + (column + 1));
+				}
+				if (row + 1 < size) {
+					addStreet(travelTimes, random, crossing, "X" + (row + 1) + "_" + column);
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			TravelTime row = travelTimes.get(random.nextInt(travelTimes.size()));
+			travelTimes.add(new TravelTime(row.getFrom(), row.getTo(), random.nextInt(20) + 1));
+			travelTimes.add(new TravelTime(row.getFrom(), row.getFrom(), random.nextInt(20) + 1));
+		}
+		return travelTimes;
+	}
+	
+	private static void addStreet(List<TravelTime> travelTimes, Random random, String from, String to) {
+		boolean twoWay = random.nextInt(10) < 7;
+		String previous = from;
+		int passThrough = random.nextInt(4);
+		for (int i = 0; i <= passThrough; i++) {
+			String next = i < passThrough ? from + "-" + to + "#" + i : to;
+			travelTimes.add(new TravelTime(previous, next, random.nextInt(20) + 1));
+			if (twoWay) {
+				travelTimes.add(new TravelTime(next, previous, random.nextInt(20) + 1));
+			}
+			previous = next;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotFileTest {
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void shouldRestoreGraphLandmarksAndHierarchy() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid(12));
+		GraphSnapshot snapshot = new GraphSnapshot(7, graph)
+			.withLandmarks(LandmarkIndex.build(graph, 4))
+			.withHierarchy(ContractionHierarchy.build(graph));
+		Path file = directory.resolve("graph.snapshot");
+		
+		long bytes = GraphSnapshotFile.write(snapshot, file);
+		GraphSnapshot restored = GraphSnapshotFile.read(file);
+		
+		assertEquals(Files.size(file), bytes);
+		assertFalse(Files.exists(directory.resolve("graph.snapshot.tmp")));
+		assertEquals(0, restored.getVersion());
+		CompiledGraph restoredGraph = restored.getGraph();
+		assertEquals(graph.getLocationCount(), restoredGraph.getLocationCount());
+		assertEquals(graph.getEdgeCount(), restoredGraph.getEdgeCount());
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			assertEquals(node, restoredGraph.indexOf(graph.getLocation(node)));
+			assertEquals(graph.firstInEdge(node), restoredGraph.firstInEdge(node));
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				assertEquals(graph.getTarget(edge), restoredGraph.getTarget(edge));
+				assertEquals(graph.getWeight(edge), restoredGraph.getWeight(edge));
+			}
+		}
+		
+		LandmarkIndex landmarks = restored.getLandmarks();
+		assertEquals(snapshot.getLandmarks().getLandmarkCount(), landmarks.getLandmarkCount());
+		assertEquals(snapshot.getLandmarks().lowerBound(3, 100), landmarks.lowerBound(3, 100));
+		
+		ContractionHierarchy hierarchy = restored.getHierarchy();
+		assertEquals(snapshot.getHierarchy().getShortcutCount(), hierarchy.getShortcutCount());
+		assertEquals(snapshot.getHierarchy().getPreprocessingMillis(), hierarchy.getPreprocessingMillis());
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		ContractionHierarchyEngine engine = new ContractionHierarchyEngine();
+		Random random = new Random(5);
+		for (int i = 0; i < 50; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			assertEquals(dijkstra.findShortestPath(graph, source, target).getTotalTime(),
+				engine.findShortestPath(restoredGraph, hierarchy, source, target).getTotalTime());
+		}
+	}
+	
+	@Test
+	void shouldRestoreGraphWithoutIndexes() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(List.of(new TravelTime("Rüte1", "R12", 20), new TravelTime("R12", "Rüte1", 9)));
+		Path file = directory.resolve("graph.snapshot");
+		
+		GraphSnapshotFile.write(new GraphSnapshot(1, graph), file);
+		GraphSnapshot restored = GraphSnapshotFile.read(file);
+		
+		assertEquals(2, restored.getGraph().getEdgeCount());
+		assertEquals(0, restored.getGraph().indexOf("Rüte1"));
+		assertNull(restored.getLandmarks());
+		assertNull(restored.getHierarchy());
+	}
+	
+	@Test
+	void shouldRestoreContractedChains() throws Exception {
+		GraphSimplifier.Result simplified = GraphSimplifier.simplify(CompiledGraph.fromTravelTimes(List.of(
+			new TravelTime("A", "X", 1),
+			new TravelTime("X", "A", 1),
+			new TravelTime("A", "B", 2),
+			new TravelTime("B", "C", 3),
+			new TravelTime("C", "D", 4),
+			new TravelTime("D", "Y", 1),
+			new TravelTime("Y", "D", 1)
+		)));
+		Path file = directory.resolve("graph.snapshot");
+		
+		GraphSnapshotFile.write(new GraphSnapshot(1, simplified.graph()).withSimplification(simplified.simplification()), file);
+		Simplification restored = GraphSnapshotFile.read(file).getSimplification();
+		
+		assertEquals(List.of("A", "B", "C", "D"), restored.expand(List.of("A", "D")));
+		assertEquals(simplified.simplification().departures("B"), restored.departures("B"));
+		assertEquals(simplified.simplification().getStages(), restored.getStages());
+		assertEquals(7, restored.getInputEdges());
+	}
+	
+	@Test
+	void shouldRejectCorruptedTruncatedAndForeignFiles() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid(4));
+		Path file = directory.resolve("graph.snapshot");
+		GraphSnapshotFile.write(new GraphSnapshot(1, graph).withLandmarks(LandmarkIndex.build(graph, 2)), file);
+		byte[] bytes = Files.readAllBytes(file);
+		
+		byte[] flipped = bytes.clone();
+		flipped[bytes.length / 2] ^= 1;
+		Files.write(file, flipped);
+		IOException corrupted = assertThrows(IOException.class, () -> GraphSnapshotFile.read(file));
+		assertTrue(corrupted.getMessage().contains("checksum mismatch"), corrupted.getMessage());
+		
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(IOException.class, () -> GraphSnapshotFile.read(file));
+		
+		Files.writeString(file, "loc_start;loc_end;time\nA;B;1\n");
+		assertThrows(IOException.class, () -> GraphSnapshotFile.read(file));
+	}
+	
+	@Test
+	void shouldRejectOtherFormatVersionsAndSkipUnknownSections() throws Exception {
+		Path file = directory.resolve("graph.snapshot");
+		GraphSnapshotFile.write(new GraphSnapshot(1, CompiledGraph.fromTravelTimes(generateGrid(3))), file);
+		byte[] bytes = Files.readAllBytes(file);
+		
+		// A section a newer writer might add: tag, length, payload, CRC32C of the payload
+		CRC32C crc = new CRC32C();
+		crc.update(new byte[] {1, 2, 3});
+		ByteBuffer extended = ByteBuffer.allocate(bytes.length + 19).order(ByteOrder.LITTLE_ENDIAN);
+		extended.put(bytes).putInt(99).putLong(3).put(new byte[] {1, 2, 3}).putInt((int) crc.getValue());
+		Files.write(file, extended.array());
+		assertEquals(24, GraphSnapshotFile.read(file).getGraph().getEdgeCount());
+		
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, GraphSnapshotFile.FORMAT_VERSION + 1);
+		Files.write(file, bytes);
+		IOException unsupported = assertThrows(IOException.class, () -> GraphSnapshotFile.read(file));
+		assertTrue(unsupported.getMessage().contains("format version"), unsupported.getMessage());
+	}
+	
+	private static List<TravelTime> generateGrid(int size) {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(size);
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < size) {
+					travelTimes.add(new TravelTime(location, "G" + row + "_" + (column + 1), random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime("G" + row + "_" + (column + 1), location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < size) {
+					travelTimes.add(new TravelTime(location, "G" + (row + 1) + "_" + column, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime("G" + (row + 1) + "_" + column, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		return travelTimes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubLabelsTest {
+	
+	@Test
+	void shouldAnswerExerciseRouteFromLabels() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+		HubLabels labels = HubLabels.build(ContractionHierarchy.build(graph));
+		HubLabelEngine engine = new HubLabelEngine();
+		
+		PathResult result = engine.findShortestPath(graph, labels, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(74, engine.distance(labels, graph.indexOf("CP1"), graph.indexOf("R20")));
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldReportUnreachableTargets() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("CP1", "CP2", 7)
+		));
+		HubLabels labels = HubLabels.build(ContractionHierarchy.build(graph));
+		
+		assertEquals(SearchWorkspace.UNREACHABLE, labels.distance(graph.indexOf("R11"), graph.indexOf("CP2")));
+		assertFalse(new HubLabelEngine().findShortestPath(graph, labels, graph.indexOf("R12"), graph.indexOf("R11")).isPathFound());
+	}
+	
+	@Test
+	void shouldMatchDijkstraOnRandomGraphs() {
+		for (long seed = 1; seed <= 3; seed++) {
+			CompiledGraph graph = ContractionHierarchyTest.randomGraph(250, 900, seed);
+			HubLabels labels = HubLabels.build(ContractionHierarchy.build(graph));
+			DijkstraEngine dijkstra = new DijkstraEngine();
+			HubLabelEngine engine = new HubLabelEngine();
+			Random random = new Random(seed);
+			
+			for (int i = 0; i < 400; i++) {
+				int source = random.nextInt(graph.getLocationCount());
+				int target = random.nextInt(graph.getLocationCount());
+				PathResult expected = dijkstra.findShortestPath(graph, source, target);
+				PathResult actual = engine.findShortestPath(graph, labels, source, target);
+				
+				assertEquals(expected.isPathFound(), actual.isPathFound());
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				if (actual.isPathFound()) {
+					assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(graph, actual.getPath()));
+				}
+			}
+		}
+	}
+	
+	@Test
+	void shouldWorkFromCustomizedHierarchy() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(200, 700, 9);
+		HubLabels labels = HubLabels.build(ContractionOrder.build(graph).customize(graph));
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		Random random = new Random(9);
+		
+		for (int i = 0; i < 300; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			PathResult expected = dijkstra.findShortestPath(graph, source, target);
+			int distance = labels.distance(source, target);
+			
+			assertEquals(expected.isPathFound() ? expected.getTotalTime() : SearchWorkspace.UNREACHABLE, distance);
+		}
+	}
+	
+	@Test
+	void shouldReportLabelSizes() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(100, 300, 4);
+		HubLabels labels = HubLabels.build(ContractionHierarchy.build(graph));
+		
+		assertEquals(graph.getLocationCount(), labels.getNodeCount());
+		assertTrue(labels.getAverageLabelSize() >= 1);
+		assertTrue(labels.getMaxLabelSize() >= labels.getAverageLabelSize());
+		assertEquals(4L * 2 * (graph.getLocationCount() + 1) + 12L * labels.getEntryCount(), labels.getMemoryBytes());
+	}
+}
\ No newline at end of file
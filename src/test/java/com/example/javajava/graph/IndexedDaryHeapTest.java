@@ -0,0 +1,83 @@
+package com.example.javajava.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedDaryHeapTest {
+	
+	@Test
+	void shouldPollNodesInKeyOrder() {
+		IndexedDaryHeap heap = new IndexedDaryHeap(10);
+		heap.insertOrDecrease(3, 30);
+		heap.insertOrDecrease(1, 10);
+		heap.insertOrDecrease(7, 70);
+		heap.insertOrDecrease(2, 20);
+		
+		assertEquals(1, heap.poll());
+		assertEquals(2, heap.poll());
+		assertEquals(3, heap.poll());
+		assertEquals(7, heap.poll());
+		assertTrue(heap.isEmpty());
+	}
+	
+	@Test
+	void shouldDecreaseKeyInPlace() {
+		IndexedDaryHeap heap = new IndexedDaryHeap(10);
+		heap.insertOrDecrease(4, 40);
+		heap.insertOrDecrease(5, 50);
+		
+		heap.insertOrDecrease(5, 5);
+		
+		assertEquals(2, heap.size());
+		assertEquals(5, heap.peekNode());
+		assertEquals(5, heap.keyOf(5));
+	}
+	
+	@Test
+	void shouldIgnoreLargerKey() {
+		IndexedDaryHeap heap = new IndexedDaryHeap(10);
+		heap.insertOrDecrease(4, 40);
+		
+		heap.insertOrDecrease(4, 80);
+		
+		assertEquals(40, heap.keyOf(4));
+	}
+	
+	@Test
+	void shouldClearOnlyQueuedNodes() {
+		IndexedDaryHeap heap = new IndexedDaryHeap(10);
+		heap.insertOrDecrease(1, 10);
+		heap.insertOrDecrease(2, 20);
+		heap.poll();
+		
+		heap.clear();
+		
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(1));
+		assertFalse(heap.contains(2));
+	}
+	
+	@Test
+	void shouldMatchSortedOrderForRandomKeys() {
+		Random random = new Random(42);
+		IndexedDaryHeap heap = new IndexedDaryHeap(4);
+		heap.ensureCapacity(1000);
+		List<Integer> keys = new ArrayList<>();
+		for (int node = 0; node < 1000; node++) {
+			int key = random.nextInt(10_000);
+			heap.insertOrDecrease(node, key);
+			keys.add(key);
+		}
+		keys.sort(null);
+		
+		for (int expected : keys) {
+			assertEquals(expected, heap.peekKey());
+			heap.poll();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandmarkIndexTest {
+	
+	@Test
+	void shouldNeverOverestimateDistance() {
+		CompiledGraph graph = randomGraph(200, 800, 3);
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 6);
+		DijkstraEngine engine = new DijkstraEngine();
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		
+		for (int source = 0; source < graph.getLocationCount(); source += 7) {
+			workspace.reset();
+			engine.searchAll(graph, source, workspace, false);
+			for (int target = 0; target < graph.getLocationCount(); target++) {
+				int distance = workspace.getDistance(target);
+				if (distance != SearchWorkspace.UNREACHABLE) {
+					assertTrue(landmarks.lowerBound(source, target) <= distance);
+				}
+			}
+		}
+	}
+	
+	@Test
+	void shouldGiveExactBoundTowardsLandmark() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R11", 5)
+		));
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 1);
+		int landmark = landmarks.getLandmark(0);
+		
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+			workspace.reset();
+			int distance = new DijkstraEngine().search(graph, node, landmark, workspace);
+			assertEquals(distance, landmarks.lowerBound(node, landmark));
+		}
+	}
+	
+	@Test
+	void shouldPickDistinctLandmarksAcrossComponents() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R11", 20),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "CP1", 7)
+		));
+		
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 2);
+		
+		assertEquals(2, landmarks.getLandmarkCount());
+		boolean firstInRoads = graph.getLocation(landmarks.getLandmark(0)).startsWith("R");
+		boolean secondInRoads = graph.getLocation(landmarks.getLandmark(1)).startsWith("R");
+		assertNotEquals(firstInRoads, secondInRoads);
+	}
+	
+	@Test
+	void shouldClampLandmarkCountToLocationCount() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(List.of(new TravelTime("R11", "R12", 20)));
+		
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, 16);
+		
+		assertEquals(2, landmarks.getLandmarkCount());
+		assertEquals(4L * (2 + 2 * 2 * 2), landmarks.getMemoryBytes());
+	}
+	
+	@Test
+	void shouldRejectNonPositiveLandmarkCount() {
+		assertThrows(IllegalArgumentException.class, () -> LandmarkIndex.build(CompiledGraph.EMPTY, 0));
+	}
+	
+	static CompiledGraph randomGraph(int nodes, int edges, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int i = 0; i < edges; i++) {
+			travelTimes.add(new TravelTime("N" + random.nextInt(nodes), "N" + random.nextInt(nodes), random.nextInt(40) + 1));
+		}
+		return CompiledGraph.fromTravelTimes(travelTimes);
+	}
+}
\ No newline at end of file
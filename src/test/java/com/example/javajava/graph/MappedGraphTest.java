@@ -0,0 +1,124 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedGraphTest {
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void shouldMatchHeapGraph() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid(15));
+		MappedGraph mapped = MappedGraph.create(graph, directory);
+		
+		assertEquals("heap", graph.getStorage());
+		assertEquals("mapped", mapped.getStorage());
+		assertTrue(mapped.getMemoryBytes() > 0);
+		assertEquals(graph.getLocationCount(), mapped.getLocationCount());
+		assertEquals(graph.getEdgeCount(), mapped.getEdgeCount());
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			assertEquals(graph.getLocation(node), mapped.getLocation(node));
+			assertEquals(node, mapped.indexOf(graph.getLocation(node)));
+			assertEquals(graph.firstEdge(node), mapped.firstEdge(node));
+			assertEquals(graph.endEdge(node), mapped.endEdge(node));
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				assertEquals(graph.getTarget(edge), mapped.getTarget(edge));
+				assertEquals(graph.getWeight(edge), mapped.getWeight(edge));
+			}
+			assertEquals(graph.firstInEdge(node), mapped.firstInEdge(node));
+			assertEquals(graph.endInEdge(node), mapped.endInEdge(node));
+			for (int inEdge = graph.firstInEdge(node); inEdge < graph.endInEdge(node); inEdge++) {
+				assertEquals(graph.getSource(inEdge), mapped.getSource(inEdge));
+				assertEquals(graph.getInWeight(inEdge), mapped.getInWeight(inEdge));
+			}
+		}
+		
+		DijkstraEngine engine = new DijkstraEngine();
+		Random random = new Random(3);
+		for (int i = 0; i < 50; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			assertEquals(engine.findShortestPath(graph, source, target).getTotalTime(),
+				engine.findShortestPath(mapped, source, target).getTotalTime());
+		}
+	}
+	
+	@Test
+	void shouldLookUpNamesByTheirBytes() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(List.of(
+			new TravelTime("Zürich", "São Paulo", 5),
+			new TravelTime("São Paulo", "東京", 7),
+			new TravelTime("東京", "Zürich", 3)
+		));
+		MappedGraph mapped = MappedGraph.create(graph, directory);
+		
+		assertEquals(graph.indexOf("東京"), mapped.indexOf("東京"));
+		assertEquals("São Paulo", mapped.getLocation(mapped.indexOf("São Paulo")));
+		assertTrue(mapped.hasLocation("Zürich"));
+		assertEquals(-1, mapped.indexOf("Zurich"));
+		assertEquals(-1, mapped.indexOf(""));
+		assertEquals(-1, mapped.indexOf(null));
+	}
+	
+	@Test
+	void shouldUnlinkItsFileAndKeepServingFromTheMapping() throws Exception {
+		MappedGraph mapped = MappedGraph.create(CompiledGraph.fromTravelTimes(generateGrid(4)), directory);
+		
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(0, files.count());
+		}
+		assertEquals(mapped, MappedGraph.create(mapped, directory));
+		assertEquals("G3_3", mapped.getLocation(mapped.indexOf("G3_3")));
+		
+		MappedGraph empty = MappedGraph.create(CompiledGraph.EMPTY, directory);
+		assertEquals(0, empty.getLocationCount());
+		assertEquals(0, empty.getEdgeCount());
+		assertEquals(-1, empty.indexOf("G0_0"));
+	}
+	
+	@Test
+	void shouldWriteTheSameSnapshotAsHeapGraph() throws Exception {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid(6));
+		Path heapFile = directory.resolve("heap.snapshot");
+		Path mappedFile = directory.resolve("mapped.snapshot");
+		
+		GraphSnapshotFile.write(new GraphSnapshot(1, graph), heapFile);
+		GraphSnapshotFile.write(new GraphSnapshot(1, MappedGraph.create(graph, directory)), mappedFile);
+		
+		assertEquals(-1, Files.mismatch(heapFile, mappedFile));
+		CompiledGraph restored = GraphSnapshotFile.read(mappedFile).getGraph();
+		assertEquals(graph.getEdgeCount(), restored.getEdgeCount());
+		assertEquals(graph.indexOf("G5_5"), restored.indexOf("G5_5"));
+	}
+	
+	private static List<TravelTime> generateGrid(int size) {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(size);
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < size) {
+					travelTimes.add(new TravelTime(location, "G" + row + "_" + (column + 1), random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime("G" + row + "_" + (column + 1), location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < size) {
+					travelTimes.add(new TravelTime(location, "G" + (row + 1) + "_" + column, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime("G" + (row + 1) + "_" + column, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		return travelTimes;
+	}
+}
\ No newline at end of file
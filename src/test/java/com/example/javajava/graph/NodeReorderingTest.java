@@ -0,0 +1,112 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeReorderingTest {
+	
+	@Test
+	void shouldPlaceEveryNodeExactlyOnce() {
+		// Two components and an isolated location
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("A", "B", 1),
+			new TravelTime("B", "C", 2),
+			new TravelTime("X", "Y", 3),
+			new TravelTime("C", "A", 4)
+		));
+		GraphBuilder builder = graph.toBuilder();
+		builder.addLocation("Lonely");
+		graph = builder.build();
+		
+		int[] order = NodeReordering.reverseCuthillMcKee(graph);
+		
+		int[] sorted = order.clone();
+		Arrays.sort(sorted);
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			assertEquals(node, sorted[node]);
+		}
+		CompiledGraph reordered = NodeReordering.apply(graph, order);
+		assertEquals(graph.getEdgeCount(), reordered.getEdgeCount());
+		assertEquals(graph.getLocationCount(), reordered.getLocationCount());
+		assertEquals(-1, reordered.indexOf("Z"));
+		int y = reordered.indexOf("Y");
+		assertEquals(1, reordered.endInEdge(y) - reordered.firstInEdge(y));
+		assertEquals("X", reordered.getLocation(reordered.getSource(reordered.firstInEdge(y))));
+		assertEquals(3, reordered.getInWeight(reordered.firstInEdge(y)));
+	}
+	
+	@Test
+	void shouldKeepRoutesBetweenNamedLocations() {
+		List<TravelTime> travelTimes = generateShuffledGrid(20, 4);
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(travelTimes);
+		CompiledGraph reordered = NodeReordering.reorder(graph);
+		DijkstraEngine engine = new DijkstraEngine();
+		
+		Random random = new Random(6);
+		for (int i = 0; i < 50; i++) {
+			String from = graph.getLocation(random.nextInt(graph.getLocationCount()));
+			String to = graph.getLocation(random.nextInt(graph.getLocationCount()));
+			assertEquals(engine.findShortestPath(graph, graph.indexOf(from), graph.indexOf(to)).getTotalTime(),
+				engine.findShortestPath(reordered, reordered.indexOf(from), reordered.indexOf(to)).getTotalTime());
+		}
+		
+		// Every edge of the original is still there between the same names
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			int moved = reordered.indexOf(graph.getLocation(node));
+			assertEquals(graph.endEdge(node) - graph.firstEdge(node), reordered.endEdge(moved) - reordered.firstEdge(moved));
+			for (int edge = graph.firstEdge(node), other = reordered.firstEdge(moved); edge < graph.endEdge(node); edge++, other++) {
+				assertEquals(graph.getLocation(graph.getTarget(edge)), reordered.getLocation(reordered.getTarget(other)));
+				assertEquals(graph.getWeight(edge), reordered.getWeight(other));
+			}
+		}
+	}
+	
+	@Test
+	void shouldBringNeighborsCloseTogether() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateShuffledGrid(40, 9));
+		CompiledGraph reordered = NodeReordering.reorder(graph);
+		
+		// Reverse Cuthill-McKee bounds a grid's bandwidth by about its width
+		assertTrue(bandwidth(graph) > 400, "Shuffled ids should start out scattered");
+		assertTrue(bandwidth(reordered) <= 2 * 40, "Bandwidth was " + bandwidth(reordered));
+	}
+	
+	private static int bandwidth(CompiledGraph graph) {
+		int bandwidth = 0;
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				bandwidth = Math.max(bandwidth, Math.abs(graph.getTarget(edge) - node));
+			}
+		}
+		return bandwidth;
+	}
+	
+	// A grid whose rows arrive in random order, so first-seen ids are scattered
+	private static List<TravelTime> generateShuffledGrid(int size, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < size) {
+					travelTimes.add(new TravelTime(location, "G" + row + "_" + (column + 1), random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime("G" + row + "_" + (column + 1), location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < size) {
+					travelTimes.add(new TravelTime(location, "G" + (row + 1) + "_" + column, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime("G" + (row + 1) + "_" + column, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		Collections.shuffle(travelTimes, random);
+		return travelTimes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverlayGraphTest {
+	
+	@Test
+	void shouldFindExerciseRouteAcrossCells() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+		OverlayGraph overlay = OverlayGraph.customize(graph, CellPartition.build(graph, 2, 2));
+		
+		PathResult result = new OverlayEngine().findShortestPath(graph, overlay, graph.indexOf("CP1"), graph.indexOf("R20"));
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldMatchDijkstraForEveryPartitionShape() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(300, 1000, 3);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		OverlayEngine engine = new OverlayEngine();
+		
+		for (int[] shape : new int[][] {{8, 1}, {8, 3}, {30, 2}, {1000, 1}}) {
+			OverlayGraph overlay = OverlayGraph.customize(graph, CellPartition.build(graph, shape[0], shape[1]));
+			Random random = new Random(shape[0]);
+			for (int i = 0; i < 300; i++) {
+				int source = random.nextInt(graph.getLocationCount());
+				int target = random.nextInt(graph.getLocationCount());
+				PathResult expected = dijkstra.findShortestPath(graph, source, target);
+				PathResult actual = engine.findShortestPath(graph, overlay, source, target);
+				
+				assertEquals(expected.isPathFound(), actual.isPathFound());
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				if (actual.isPathFound()) {
+					assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(graph, actual.getPath()));
+				}
+			}
+		}
+	}
+	
+	@Test
+	void shouldMatchDijkstraOnCompressedGraph() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(300, 1000, 4);
+		CompressedGraph compressed = CompressedGraph.create(graph);
+		OverlayGraph overlay = OverlayGraph.customize(compressed, CellPartition.build(compressed, 20, 2));
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		OverlayEngine engine = new OverlayEngine();
+		
+		Random random = new Random(4);
+		for (int i = 0; i < 300; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			PathResult expected = dijkstra.findShortestPath(graph, source, target);
+			PathResult actual = engine.findShortestPath(compressed, overlay, source, target);
+			
+			assertEquals(expected.isPathFound(), actual.isPathFound());
+			assertEquals(expected.getTotalTime(), actual.getTotalTime());
+			if (actual.isPathFound()) {
+				assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(graph, actual.getPath()));
+			}
+		}
+	}
+	
+	@Test
+	void shouldNestCellsAcrossLevels() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(300, 1000, 5);
+		CellPartition partition = CellPartition.build(graph, 10, 3);
+		
+		for (int level = 1; level < partition.getLevelCount(); level++) {
+			int[] parent = new int[partition.getCellCount(level)];
+			Arrays.fill(parent, -1);
+			for (int node = 0; node < graph.getLocationCount(); node++) {
+				int cell = partition.getCell(level, node);
+				int upper = partition.getCell(level + 1, node);
+				assertTrue(parent[cell] < 0 || parent[cell] == upper, "A cell must sit inside a single parent");
+				parent[cell] = upper;
+			}
+		}
+	}
+	
+	@Test
+	void shouldRecustomizeOnlyCellsWithChangedWeights() {
+		GraphBuilder builder = new GraphBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.addEdge("N" + i, "N" + (i + 1), 5);
+			builder.addEdge("N" + (i + 1), "N" + i, 5);
+		}
+		CompiledGraph graph = builder.build();
+		CellPartition partition = CellPartition.build(graph, 10, 2);
+		OverlayGraph overlay = OverlayGraph.customize(graph, partition);
+		
+		GraphBuilder changed = new GraphBuilder();
+		for (int i = 0; i < 200; i++) {
+			changed.addEdge("N" + i, "N" + (i + 1), i == 100 ? 1 : 5);
+			changed.addEdge("N" + (i + 1), "N" + i, 5);
+		}
+		CompiledGraph reloaded = changed.build();
+		OverlayGraph recustomized = overlay.recustomize(reloaded);
+		
+		assertEquals(overlay.getTotalCells(), overlay.getCustomizedCells());
+		assertEquals(partition.getLevelCount(), recustomized.getCustomizedCells());
+		PathResult result = new OverlayEngine().findShortestPath(reloaded, recustomized, reloaded.indexOf("N0"), reloaded.indexOf("N200"));
+		assertEquals(996, result.getTotalTime());
+		assertEquals(201, result.getPath().size());
+	}
+	
+	@Test
+	void shouldRejectChangedTopology() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(50, 150, 7);
+		OverlayGraph overlay = OverlayGraph.customize(graph, CellPartition.build(graph, 8, 2));
+		CompiledGraph extended = graph.toBuilder().addEdge("N1", "N2", 3).build();
+		
+		assertFalse(overlay.getPartition().supports(extended));
+		assertThrows(IllegalArgumentException.class, () -> overlay.recustomize(extended));
+	}
+	
+	@Test
+	void shouldRejectInvalidPartitionSettings() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(10, 20, 1);
+		
+		assertThrows(IllegalArgumentException.class, () -> CellPartition.build(graph, 0, 2));
+		assertThrows(IllegalArgumentException.class, () -> CellPartition.build(graph, 8, 0));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableSearchTest {
+	
+	@Test
+	void shouldAnswerSettledDestinationsWithoutSearching() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R11", 5),
+			new TravelTime("R11", "R20", 9)
+		));
+		ResumableSearch search = new ResumableSearch(graph, graph.indexOf("CP1"));
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R11"), search.findShortestPath(graph.indexOf("R11")).getPath());
+		int settled = search.getSettledCount();
+		
+		assertEquals(0, search.advanceTo(graph.indexOf("CP2")));
+		assertEquals(7, search.findShortestPath(graph.indexOf("CP2")).getTotalTime());
+		assertEquals(settled, search.getSettledCount());
+		assertEquals(1, search.advanceTo(graph.indexOf("R20")));
+		assertEquals(21, search.findShortestPath(graph.indexOf("R20")).getTotalTime());
+	}
+	
+	@Test
+	void shouldReportUnreachableDestinations() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("CP1", "CP2", 7)
+		));
+		ResumableSearch search = new ResumableSearch(graph, graph.indexOf("R11"));
+		
+		assertFalse(search.findShortestPath(graph.indexOf("CP2")).isPathFound());
+		assertEquals(20, search.findShortestPath(graph.indexOf("R12")).getTotalTime());
+	}
+	
+	@Test
+	void shouldMatchDijkstraWhenResumedInAnyOrder() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(300, 1200, 13);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		Random random = new Random(13);
+		
+		for (int source = 0; source < graph.getLocationCount(); source += 37) {
+			ResumableSearch search = new ResumableSearch(graph, source);
+			for (int i = 0; i < 200; i++) {
+				int target = random.nextInt(graph.getLocationCount());
+				PathResult expected = dijkstra.findShortestPath(graph, source, target);
+				PathResult actual = search.findShortestPath(target);
+				
+				assertEquals(expected.isPathFound(), actual.isPathFound());
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				if (actual.isPathFound()) {
+					assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(graph, actual.getPath()));
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
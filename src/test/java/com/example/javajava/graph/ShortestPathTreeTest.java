@@ -0,0 +1,61 @@
+package com.example.javajava.graph;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathTreeTest {
+	
+	@Test
+	void shouldAnswerEveryDestinationFromOneSearch() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("R11", "R20", 5),
+			new TravelTime("R20", "R21", 1)
+		));
+		ShortestPathTree tree = ShortestPathTree.build(graph, graph.indexOf("CP1"), new DijkstraEngine());
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20", "R21"), tree.findShortestPath(graph, graph.indexOf("R21")).getPath());
+		assertEquals(75, tree.distance(graph.indexOf("R21")));
+		assertEquals(Arrays.asList("CP1"), tree.findShortestPath(graph, graph.indexOf("CP1")).getPath());
+		assertEquals(8L * graph.getLocationCount(), tree.getMemoryBytes());
+	}
+	
+	@Test
+	void shouldReportUnreachableDestinations() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("CP1", "CP2", 7)
+		));
+		ShortestPathTree tree = ShortestPathTree.build(graph, graph.indexOf("R12"), new DijkstraEngine());
+		
+		assertEquals(SearchWorkspace.UNREACHABLE, tree.distance(graph.indexOf("R11")));
+		assertFalse(tree.findShortestPath(graph, graph.indexOf("CP2")).isPathFound());
+	}
+	
+	@Test
+	void shouldMatchDijkstraOnRandomGraphs() {
+		CompiledGraph graph = ContractionHierarchyTest.randomGraph(300, 1200, 5);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		
+		for (int source = 0; source < graph.getLocationCount(); source += 29) {
+			ShortestPathTree tree = ShortestPathTree.build(graph, source, dijkstra);
+			for (int target = 0; target < graph.getLocationCount(); target++) {
+				PathResult expected = dijkstra.findShortestPath(graph, source, target);
+				PathResult actual = tree.findShortestPath(graph, target);
+				
+				assertEquals(expected.isPathFound(), actual.isPathFound());
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				if (actual.isPathFound()) {
+					assertEquals(actual.getTotalTime(), ContractionHierarchyTest.pathLength(graph, actual.getPath()));
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
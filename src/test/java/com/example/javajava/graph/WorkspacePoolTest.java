@@ -0,0 +1,45 @@
+package com.example.javajava.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspacePoolTest {
+	
+	@Test
+	void shouldHandOutPooledWorkspaceAfterRelease() {
+		WorkspacePool pool = new WorkspacePool(2);
+		SearchWorkspace workspace = pool.acquire(10);
+		pool.release(workspace);
+		
+		assertSame(workspace, pool.acquire(10));
+	}
+	
+	@Test
+	void shouldGrowPooledWorkspaceForLargerGraph() {
+		WorkspacePool pool = new WorkspacePool(1);
+		pool.release(pool.acquire(10));
+		
+		SearchWorkspace workspace = pool.acquire(500);
+		
+		assertTrue(workspace.getCapacity() >= 500);
+	}
+	
+	@Test
+	void shouldCreateWorkspaceWhenPoolIsExhausted() {
+		WorkspacePool pool = new WorkspacePool(1);
+		SearchWorkspace first = pool.acquire(10);
+		SearchWorkspace second = pool.acquire(10);
+		
+		assertNotSame(first, second);
+		
+		pool.release(first);
+		pool.release(second);
+		assertEquals(1, pool.getIdleCount());
+	}
+	
+	@Test
+	void shouldRejectNonPositiveSlotCount() {
+		assertThrows(IllegalArgumentException.class, () -> new WorkspacePool(0));
+	}
+}
\ No newline at end of file
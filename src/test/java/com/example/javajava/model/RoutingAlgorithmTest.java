@@ -0,0 +1,30 @@
+package com.example.javajava.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingAlgorithmTest {
+	
+	@Test
+	void shouldParseParameterIgnoringCase() {
+		assertEquals(RoutingAlgorithm.DIJKSTRA, RoutingAlgorithm.fromParameter("dijkstra"));
+		assertEquals(RoutingAlgorithm.BIDIRECTIONAL, RoutingAlgorithm.fromParameter("Bidirectional"));
+		assertEquals(RoutingAlgorithm.HUB_LABELS, RoutingAlgorithm.fromParameter("hub-labels"));
+	}
+	
+	@Test
+	void shouldRejectUnknownAlgorithm() {
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+			RoutingAlgorithm.fromParameter("teleport");
+		});
+		
+		assertEquals("Unknown routing algorithm: teleport", exception.getMessage());
+	}
+	
+	@Test
+	void shouldRejectEmptyAlgorithm() {
+		assertThrows(IllegalArgumentException.class, () -> RoutingAlgorithm.fromParameter(""));
+		assertThrows(IllegalArgumentException.class, () -> RoutingAlgorithm.fromParameter(null));
+	}
+}
\ No newline at end of file
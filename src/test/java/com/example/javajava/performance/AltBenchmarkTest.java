@@ -0,0 +1,84 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.AltEngine;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.LandmarkIndex;
+import com.example.javajava.graph.SearchWorkspace;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AltBenchmarkTest {
+	
+	private static final int GRID_SIZE = 150;
+	private static final int LANDMARKS = 16;
+	private static final int QUERIES = 300;
+	
+	@Test
+	void shouldSettleFarFewerNodesThanDijkstra() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid());
+		LandmarkIndex landmarks = LandmarkIndex.build(graph, LANDMARKS);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		AltEngine alt = new AltEngine();
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		Random random = new Random(17);
+		
+		long dijkstraSettled = 0;
+		long altSettled = 0;
+		long dijkstraNanos = 0;
+		long altNanos = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			
+			workspace.reset();
+			long start = System.nanoTime();
+			int expected = dijkstra.search(graph, source, target, workspace);
+			dijkstraNanos += System.nanoTime() - start;
+			dijkstraSettled += workspace.getSettledCount();
+			
+			workspace.reset();
+			start = System.nanoTime();
+			int actual = alt.search(graph, landmarks, source, target, workspace);
+			altNanos += System.nanoTime() - start;
+			altSettled += workspace.getSettledCount();
+			
+			assertEquals(expected, actual);
+		}
+		
+		System.out.println("ALT preprocessing: " + LANDMARKS + " landmarks, " + landmarks.getPreprocessingMillis()
+			+ "ms, " + landmarks.getMemoryBytes() / 1024 + "KiB");
+		System.out.println("Dijkstra: " + dijkstraSettled / QUERIES + " settled/query, " + dijkstraNanos / QUERIES / 1_000 + "us/query");
+		System.out.println("ALT: " + altSettled / QUERIES + " settled/query, " + altNanos / QUERIES / 1_000 + "us/query");
+		assertTrue(altSettled * 5 < dijkstraSettled, "ALT should settle several times fewer nodes");
+	}
+	
+	private List<TravelTime> generateGrid() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String east = "G" + row + "_" + (column + 1);
+					travelTimes.add(new TravelTime(location, east, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(east, location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < GRID_SIZE) {
+					String south = "G" + (row + 1) + "_" + column;
+					travelTimes.add(new TravelTime(location, south, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(south, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
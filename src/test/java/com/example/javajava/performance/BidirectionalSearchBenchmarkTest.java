@@ -0,0 +1,86 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.BidirectionalDijkstraEngine;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.SearchWorkspace;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalSearchBenchmarkTest {
+	
+	private static final int GRID_SIZE = 150;
+	private static final int QUERIES = 300;
+	
+	@Test
+	void shouldSettleFewerNodesThanUnidirectionalSearch() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid());
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		BidirectionalDijkstraEngine bidirectional = new BidirectionalDijkstraEngine();
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		SearchWorkspace forward = new SearchWorkspace(graph.getLocationCount());
+		SearchWorkspace backward = new SearchWorkspace(graph.getLocationCount());
+		Random random = new Random(17);
+		
+		long unidirectionalSettled = 0;
+		long bidirectionalSettled = 0;
+		long unidirectionalNanos = 0;
+		long bidirectionalNanos = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			
+			workspace.reset();
+			long start = System.nanoTime();
+			int expected = dijkstra.search(graph, source, target, workspace);
+			unidirectionalNanos += System.nanoTime() - start;
+			unidirectionalSettled += workspace.getSettledCount();
+			
+			forward.reset();
+			backward.reset();
+			start = System.nanoTime();
+			int meetingNode = bidirectional.search(graph, source, target, forward, backward);
+			bidirectionalNanos += System.nanoTime() - start;
+			bidirectionalSettled += forward.getSettledCount() + backward.getSettledCount();
+			
+			assertEquals(expected, forward.getDistance(meetingNode) + backward.getDistance(meetingNode));
+		}
+		
+		System.out.println("Grid " + GRID_SIZE + "x" + GRID_SIZE + ", " + graph.getEdgeCount() + " edges");
+		System.out.println("Unidirectional: " + unidirectionalSettled / QUERIES + " settled/query, "
+			+ unidirectionalNanos / QUERIES / 1_000 + "us/query");
+		System.out.println("Bidirectional: " + bidirectionalSettled / QUERIES + " settled/query, "
+			+ bidirectionalNanos / QUERIES / 1_000 + "us/query");
+		assertTrue(bidirectionalSettled < unidirectionalSettled);
+	}
+	
+	// Road-like grid with both directions per street, where search balls grow with distance
+	private List<TravelTime> generateGrid() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String east = "G" + row + "_" + (column + 1);
+					travelTimes.add(new TravelTime(location, east, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(east, location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < GRID_SIZE) {
+					String south = "G" + (row + 1) + "_" + column;
+					travelTimes.add(new TravelTime(location, south, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(south, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.BidirectionalDijkstraEngine;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.CompressedGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedGraphBenchmarkTest {
+	
+	private static final int GRID_SIZE = 300;
+	private static final int QUERIES = 100;
+	private static final int ROUNDS = 3;
+	
+	@Test
+	void shouldShrinkEdgesAtModestQueryCost() {
+		CompiledGraph graph = generateGrid();
+		long start = System.nanoTime();
+		CompressedGraph compressed = CompressedGraph.create(graph);
+		long encodeMillis = (System.nanoTime() - start) / 1_000_000;
+		
+		double csrBytesPerEdge = graph.getMemoryBytes() / (double) graph.getEdgeCount();
+		double compressedBytesPerEdge = compressed.getMemoryBytes() / (double) compressed.getEdgeCount();
+		System.out.printf("Graph of %d edges, both directions: CSR %.2f bytes/edge, compressed %.2f bytes/edge "
+			+ "(%d-byte weights), encoded in %dms%n", graph.getEdgeCount(), csrBytesPerEdge, compressedBytesPerEdge,
+			compressed.getWeightWidth(), encodeMillis);
+		
+		int[][] queries = generateQueries();
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		BidirectionalDijkstraEngine bidirectional = new BidirectionalDijkstraEngine();
+		long csrDijkstra = Long.MAX_VALUE;
+		long compressedDijkstra = Long.MAX_VALUE;
+		long csrBidirectional = Long.MAX_VALUE;
+		long compressedBidirectional = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			csrDijkstra = Math.min(csrDijkstra, measure(() -> runDijkstra(dijkstra, graph, queries)));
+			compressedDijkstra = Math.min(compressedDijkstra, measure(() -> runDijkstra(dijkstra, compressed, queries)));
+			csrBidirectional = Math.min(csrBidirectional, measure(() -> runBidirectional(bidirectional, graph, queries)));
+			compressedBidirectional = Math.min(compressedBidirectional, measure(() -> runBidirectional(bidirectional, compressed, queries)));
+		}
+		System.out.println("Dijkstra: CSR " + csrDijkstra / QUERIES / 1000 + "us/query, compressed "
+			+ compressedDijkstra / QUERIES / 1000 + "us/query");
+		System.out.println("Bidirectional: CSR " + csrBidirectional / QUERIES / 1000 + "us/query, compressed "
+			+ compressedBidirectional / QUERIES / 1000 + "us/query");
+		
+		for (int[] query : queries) {
+			assertEquals(dijkstra.findShortestPath(graph, query[0], query[1]).getTotalTime(),
+				dijkstra.findShortestPath(compressed, query[0], query[1]).getTotalTime());
+		}
+		// Offsets stay four bytes per node in both layouts, so the edges themselves shrink by more than this
+		assertTrue(compressedBytesPerEdge < 0.6 * csrBytesPerEdge, "Compressed edges should take little more than half the space");
+		assertTrue(compressedDijkstra < 3 * csrDijkstra, "Decoding should not dominate the search");
+	}
+	
+	private static long measure(Runnable queries) {
+		long start = System.nanoTime();
+		queries.run();
+		return System.nanoTime() - start;
+	}
+	
+	private static void runDijkstra(DijkstraEngine engine, CompiledGraph graph, int[][] queries) {
+		for (int[] query : queries) {
+			engine.findShortestPath(graph, query[0], query[1]);
+		}
+	}
+	
+	private static void runBidirectional(BidirectionalDijkstraEngine engine, CompiledGraph graph, int[][] queries) {
+		for (int[] query : queries) {
+			engine.findShortestPath(graph, query[0], query[1]);
+		}
+	}
+	
+	private static int[][] generateQueries() {
+		Random random = new Random(7);
+		int[][] queries = new int[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new int[] {random.nextInt(GRID_SIZE * GRID_SIZE), random.nextInt(GRID_SIZE * GRID_SIZE)};
+		}
+		return queries;
+	}
+	
+	private static CompiledGraph generateGrid() {
+		GraphBuilder builder = new GraphBuilder();
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				builder.addLocation("G" + row + "_" + column);
+			}
+		}
+		Random random = new Random(42);
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				int node = row * GRID_SIZE + column;
+				if (column + 1 < GRID_SIZE) {
+					builder.addEdge(node, node + 1, random.nextInt(20) + 1);
+					builder.addEdge(node + 1, node, random.nextInt(20) + 1);
+				}
+				if (row + 1 < GRID_SIZE) {
+					builder.addEdge(node, node + GRID_SIZE, random.nextInt(20) + 1);
+					builder.addEdge(node + GRID_SIZE, node, random.nextInt(20) + 1);
+				}
+			}
+		}
+		return builder.build();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.GraphService;
+import com.example.javajava.service.RouteService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ConcurrentReloadStressTest {
+	
+	private static final int LOCATIONS = 1000;
+	private static final int ROWS = 8000;
+	private static final int QUERIES = 100;
+	private static final long RUN_MILLIS = 750;
+	
+	@Test
+	void shouldReturnConsistentRoutesWhileReloading() throws Exception {
+		long throughput = runWithReloads(Math.max(2, Runtime.getRuntime().availableProcessors()));
+		
+		assertTrue(throughput > 0);
+	}
+	
+	@Test
+	void shouldScaleReadThroughputWhileReloading() throws Exception {
+		int readers = Runtime.getRuntime().availableProcessors();
+		assumeTrue(readers >= 4, "Throughput scaling needs several cores");
+		
+		long singleReaderThroughput = runWithReloads(1);
+		long multiReaderThroughput = runWithReloads(readers);
+		
+		assertTrue(multiReaderThroughput > singleReaderThroughput,
+			"Lock-free reads should scale with reader threads");
+	}
+	
+	private long runWithReloads(int readers) throws Exception {
+		List<TravelTime> datasetA = generateDataset(1);
+		List<TravelTime> datasetB = generateDataset(2);
+		String[][] queries = generateQueries();
+		PathResult[] expectedA = expectedResults(datasetA, queries);
+		PathResult[] expectedB = expectedResults(datasetB, queries);
+		
+		DataStorageService dataStorageService = new DataStorageService();
+		RouteService routeService = new RouteService(dataStorageService, new GraphService());
+		dataStorageService.storeTravelTimes(datasetA);
+		
+		long throughput = run(routeService, dataStorageService, datasetA, datasetB, queries, expectedA, expectedB, readers);
+		System.out.println("Throughput while reloading, " + readers + " readers: " + throughput + " queries/s");
+		return throughput;
+	}
+	
+	private long run(RouteService routeService, DataStorageService dataStorageService,
+			List<TravelTime> datasetA, List<TravelTime> datasetB, String[][] queries,
+			PathResult[] expectedA, PathResult[] expectedB, int readers) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicLong completedQueries = new AtomicLong();
+		AtomicLong reloads = new AtomicLong();
+		
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			futures.add(executor.submit(() -> {
+				boolean useA = false;
+				while (running.get()) {
+					dataStorageService.storeTravelTimes(useA ? datasetA : datasetB);
+					useA = !useA;
+					reloads.incrementAndGet();
+				}
+			}));
+			for (int reader = 0; reader < readers; reader++) {
+				int offset = reader;
+				futures.add(executor.submit(() -> {
+					for (int i = offset; running.get(); i++) {
+						int query = i % queries.length;
+						PathResult result = routeService.calculateOptimalRoute(queries[query][0], queries[query][1]);
+						assertTrue(sameResult(result, expectedA[query]) || sameResult(result, expectedB[query]),
+							"Query " + queries[query][0] + " -> " + queries[query][1] + " saw a result from neither dataset");
+						completedQueries.incrementAndGet();
+					}
+				}));
+			}
+			
+			Thread.sleep(RUN_MILLIS);
+			running.set(false);
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		assertTrue(reloads.get() > 1, "Reloads should run while queries are served");
+		return completedQueries.get() * 1000 / RUN_MILLIS;
+	}
+	
+	private boolean sameResult(PathResult actual, PathResult expected) {
+		return actual.isPathFound() == expected.isPathFound()
+			&& actual.getTotalTime() == expected.getTotalTime()
+			&& actual.getPath().equals(expected.getPath());
+	}
+	
+	private PathResult[] expectedResults(List<TravelTime> dataset, String[][] queries) {
+		GraphService graphService = new GraphService();
+		graphService.buildGraphFromTravelTimes(dataset);
+		
+		PathResult[] results = new PathResult[queries.length];
+		for (int i = 0; i < queries.length; i++) {
+			results[i] = graphService.findShortestPath(queries[i][0], queries[i][1]);
+		}
+		return results;
+	}
+	
+	private String[][] generateQueries() {
+		Random random = new Random(3);
+		String[][] queries = new String[QUERIES][2];
+		for (String[] query : queries) {
+			query[0] = "L" + random.nextInt(LOCATIONS);
+			query[1] = "L" + random.nextInt(LOCATIONS);
+		}
+		return queries;
+	}
+	
+	private List<TravelTime> generateDataset(long seed) {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(seed);
+		
+		for (int i = 0; i < LOCATIONS; i++) {
+			travelTimes.add(new TravelTime("L" + i, "L" + ((i + 1) % LOCATIONS), random.nextInt(50) + 1));
+		}
+		while (travelTimes.size() < ROWS) {
+			int from = random.nextInt(LOCATIONS);
+			int to = random.nextInt(LOCATIONS);
+			if (from != to) {
+				travelTimes.add(new TravelTime("L" + from, "L" + to, random.nextInt(100) + 1));
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.ContractionHierarchy;
+import com.example.javajava.graph.ContractionHierarchyEngine;
+import com.example.javajava.graph.ContractionOrder;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.SearchWorkspace;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyBenchmarkTest {
+	
+	private static final int GRID_SIZE = 100;
+	private static final int QUERIES = 1000;
+	
+	@Test
+	void shouldAnswerQueriesSettlingFarFewerNodes() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid(42));
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		ContractionHierarchyEngine engine = new ContractionHierarchyEngine();
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		SearchWorkspace forward = new SearchWorkspace(graph.getLocationCount());
+		SearchWorkspace backward = new SearchWorkspace(graph.getLocationCount());
+		Random random = new Random(17);
+		
+		long dijkstraSettled = 0;
+		long hierarchySettled = 0;
+		long[] latencies = new long[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			
+			workspace.reset();
+			int expected = dijkstra.search(graph, source, target, workspace);
+			dijkstraSettled += workspace.getSettledCount();
+			
+			forward.reset();
+			backward.reset();
+			long start = System.nanoTime();
+			int meetingNode = engine.search(hierarchy, source, target, forward, backward);
+			latencies[i] = System.nanoTime() - start;
+			hierarchySettled += forward.getSettledCount() + backward.getSettledCount();
+			
+			assertEquals(expected, forward.getDistance(meetingNode) + backward.getDistance(meetingNode));
+		}
+		
+		Arrays.sort(latencies);
+		System.out.println("CH preprocessing: " + hierarchy.getPreprocessingMillis() + "ms, "
+			+ hierarchy.getShortcutCount() + " shortcuts over " + graph.getEdgeCount() + " edges");
+		System.out.println("Dijkstra: " + dijkstraSettled / QUERIES + " settled/query");
+		System.out.println("CH: " + hierarchySettled / QUERIES + " settled/query, p50/p99 "
+			+ latencies[QUERIES / 2] / 1_000 + "us / " + latencies[QUERIES * 99 / 100] / 1_000 + "us");
+		assertTrue(hierarchySettled * 10 < dijkstraSettled, "CH should settle an order of magnitude fewer nodes");
+	}
+	
+	@Test
+	void shouldCustomizeWeightOnlyReloadFasterThanRebuilding() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid(42));
+		ContractionOrder order = ContractionOrder.build(graph);
+		order.customize(graph);
+		
+		// Same location pairs, new travel times: what a traffic-estimate re-upload looks like
+		CompiledGraph reloaded = CompiledGraph.fromTravelTimes(generateGrid(43));
+		ContractionHierarchy rebuilt = ContractionHierarchy.build(reloaded);
+		assertTrue(order.supports(reloaded));
+		ContractionHierarchy customized = order.customize(reloaded);
+		
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		ContractionHierarchyEngine engine = new ContractionHierarchyEngine();
+		SearchWorkspace workspace = new SearchWorkspace(reloaded.getLocationCount());
+		SearchWorkspace forward = new SearchWorkspace(reloaded.getLocationCount());
+		SearchWorkspace backward = new SearchWorkspace(reloaded.getLocationCount());
+		Random random = new Random(17);
+		long settled = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			int source = random.nextInt(reloaded.getLocationCount());
+			int target = random.nextInt(reloaded.getLocationCount());
+			workspace.reset();
+			int expected = dijkstra.search(reloaded, source, target, workspace);
+			forward.reset();
+			backward.reset();
+			int meetingNode = engine.search(customized, source, target, forward, backward);
+			settled += forward.getSettledCount() + backward.getSettledCount();
+			assertEquals(expected, forward.getDistance(meetingNode) + backward.getDistance(meetingNode));
+		}
+		
+		System.out.println("CH full rebuild: " + rebuilt.getPreprocessingMillis() + "ms");
+		System.out.println("CCH order: " + order.getPreprocessingMillis() + "ms, " + order.getArcCount() + " arcs, customization: "
+			+ customized.getCustomizationMillis() + "ms, " + settled / QUERIES + " settled/query");
+		assertTrue(customized.getCustomizationMillis() < rebuilt.getPreprocessingMillis(),
+			"Customizing an existing order should beat contracting from scratch");
+	}
+	
+	private List<TravelTime> generateGrid(long seed) {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(seed);
+		
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String east = "G" + row + "_" + (column + 1);
+					travelTimes.add(new TravelTime(location, east, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(east, location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < GRID_SIZE) {
+					String south = "G" + (row + 1) + "_" + column;
+					travelTimes.add(new TravelTime(location, south, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(south, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
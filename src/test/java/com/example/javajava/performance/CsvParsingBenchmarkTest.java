@@ -0,0 +1,156 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.controller.DataController;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.model.TravelTime;
+import com.example.javajava.service.CsvDataService;
+import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.LocalDataService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CsvParsingBenchmarkTest {
+	
+	private static final int LOCATIONS = 5000;
+	private static final int ROWS = 300_000;
+	private static final int LARGE_ROWS = 2_000_000;
+	private static final int FILE_ROWS = 1_000_000;
+	private static final int ROUNDS = 5;
+	
+	private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	
+	@Test
+	void shouldTokenizeFasterAndWithLessGarbageThanStringParser() throws Exception {
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters are not available");
+		
+		String csvContent = generateCsv(ROWS);
+		byte[] csvBytes = csvContent.getBytes(StandardCharsets.UTF_8);
+		CsvDataService csvDataService = new CsvDataService();
+		
+		// Best of several rounds, the first ones warm up both paths; allocation counts every thread, chunks are parsed on the pool
+		long stringNanos = Long.MAX_VALUE;
+		long stringBytes = 0;
+		long tokenizerNanos = Long.MAX_VALUE;
+		long tokenizerBytes = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long allocated = allocatedBytes();
+			long start = System.nanoTime();
+			List<TravelTime> travelTimes = csvDataService.parseCSVContent(csvContent);
+			stringNanos = Math.min(stringNanos, System.nanoTime() - start);
+			stringBytes = allocatedBytes() - allocated;
+			
+			allocated = allocatedBytes();
+			start = System.nanoTime();
+			CompiledGraph graph = csvDataService.parseCSV(new ByteArrayInputStream(csvBytes));
+			tokenizerNanos = Math.min(tokenizerNanos, System.nanoTime() - start);
+			tokenizerBytes = allocatedBytes() - allocated;
+			
+			assertEquals(travelTimes.size(), graph.getEdgeCount());
+		}
+		
+		System.out.println("CSV parsing, " + ROWS + " rows (" + csvBytes.length / 1024 + "KiB) over " + LOCATIONS + " locations");
+		System.out.println("parseCSVContent: " + stringNanos / 1_000_000 + "ms, " + stringBytes / ROWS + " bytes/row allocated");
+		System.out.println("Byte tokenizer into compiled graph: " + tokenizerNanos / 1_000_000 + "ms, " + tokenizerBytes / ROWS + " bytes/row allocated");
+		assertTrue(tokenizerNanos < stringNanos, "Byte tokenizer should beat the String parser");
+		assertTrue(tokenizerBytes * 2 < stringBytes, "Byte tokenizer should allocate far less than the String parser");
+	}
+	
+	@Test
+	void shouldScaleChunkedParsingWithCores() throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		assumeTrue(cores >= 4, "Parallel speedup needs several cores");
+		
+		byte[] csvBytes = generateCsv(LARGE_ROWS).getBytes(StandardCharsets.UTF_8);
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool all = new ForkJoinPool(cores);
+		try {
+			long sequentialNanos = bestOf(new CsvDataService(1024 * 1024, single), csvBytes);
+			long parallelNanos = bestOf(new CsvDataService(1024 * 1024, all), csvBytes);
+			
+			System.out.println("Chunked CSV parsing, " + LARGE_ROWS + " rows: 1 thread " + sequentialNanos / 1_000_000
+				+ "ms, " + cores + " threads " + parallelNanos / 1_000_000 + "ms, speedup " + (double) sequentialNanos / parallelNanos);
+			assertTrue(parallelNanos * 3 < sequentialNanos * 2, "Chunks should parse in parallel");
+		} finally {
+			single.shutdown();
+			all.shutdown();
+		}
+	}
+	
+	@Test
+	void shouldLoadLocalFileAtLeastAsFastAsUpload(@TempDir Path dataDirectory) throws Exception {
+		byte[] csvBytes = generateCsv(FILE_ROWS).getBytes(StandardCharsets.UTF_8);
+		Files.write(dataDirectory.resolve("travel_times.csv"), csvBytes);
+		MockMultipartFile upload = new MockMultipartFile("file", "travel_times.csv", "text/csv", csvBytes);
+		
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setDirectory(dataDirectory.toString());
+		CsvDataService csvDataService = new CsvDataService();
+		DataStorageService dataStorageService = new DataStorageService();
+		DataController dataController = new DataController(csvDataService, dataStorageService,
+			new LocalDataService(dataProperties, csvDataService, dataStorageService));
+		
+		// Load times as the endpoints report them, best of several rounds
+		long uploadMillis = Long.MAX_VALUE;
+		long localMillis = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			uploadMillis = Math.min(uploadMillis, loadMillis(dataController.loadData(upload)));
+			localMillis = Math.min(localMillis, loadMillis(dataController.loadLocalData("travel_times.csv")));
+		}
+		
+		System.out.println("Loading " + FILE_ROWS + " rows (" + csvBytes.length / (1024 * 1024) + "MiB): multipart upload "
+			+ uploadMillis + "ms, memory-mapped local file " + localMillis + "ms");
+		assertEquals(FILE_ROWS, dataStorageService.getDataCount());
+		assertTrue(localMillis <= uploadMillis * 5 / 4 + 5, "Mapped file should load about as fast as an upload or faster");
+	}
+	
+	private static long loadMillis(ResponseEntity<Map<String, Object>> response) {
+		assertTrue(response.getStatusCode().is2xxSuccessful(), String.valueOf(response.getBody()));
+		return (Long) response.getBody().get("loadMillis");
+	}
+	
+	private static long bestOf(CsvDataService csvDataService, byte[] csvBytes) throws Exception {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			CompiledGraph graph = csvDataService.parseCSV(new ByteArrayInputStream(csvBytes));
+			best = Math.min(best, System.nanoTime() - start);
+			assertEquals(LARGE_ROWS, graph.getEdgeCount());
+		}
+		return best;
+	}
+	
+	private long allocatedBytes() {
+		long total = 0;
+		for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			total += Math.max(0, allocated);
+		}
+		return total;
+	}
+	
+	private static String generateCsv(int rows) {
+		Random random = new Random(42);
+		StringBuilder csv = new StringBuilder("loc_start;loc_end;time\n");
+		for (int i = 0; i < rows; i++) {
+			csv.append("Location ").append(random.nextInt(LOCATIONS)).append(';')
+				.append("Location ").append(random.nextInt(LOCATIONS)).append(';')
+				.append(random.nextInt(120) + 1).append('\n');
+		}
+		return csv.toString();
+	}
+}
\ No newline at end of file
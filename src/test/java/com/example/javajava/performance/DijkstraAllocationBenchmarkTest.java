@@ -0,0 +1,150 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.SearchWorkspace;
+import com.example.javajava.graph.WorkspacePool;
+import com.example.javajava.model.Edge;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DijkstraAllocationBenchmarkTest {
+	
+	private static final int LOCATIONS = 5000;
+	private static final int ROWS = 40000;
+	private static final int QUERIES = 500;
+	
+	@Test
+	void shouldSearchWithoutAllocatingPerQuery() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters are not available");
+		
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateDataset());
+		DijkstraEngine engine = new DijkstraEngine(new WorkspacePool(1));
+		int[][] queries = generateQueries(graph);
+		for (int[] query : queries) {
+			search(engine, graph, query);
+		}
+		
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		long checksum = 0;
+		for (int[] query : queries) {
+			checksum += search(engine, graph, query);
+		}
+		long bytesPerQuery = (threads.getThreadAllocatedBytes(threadId) - before) / QUERIES;
+		
+		System.out.println("Primitive Dijkstra allocation: " + bytesPerQuery + " bytes/query (checksum " + checksum + ")");
+		assertTrue(bytesPerQuery < 64, "Search allocated " + bytesPerQuery + " bytes per query");
+	}
+	
+	@Test
+	void shouldReportLatencyPercentilesAgainstBoxedDijkstra() {
+		List<TravelTime> travelTimes = generateDataset();
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(travelTimes);
+		Map<String, List<Edge>> adjacencyList = new HashMap<>();
+		for (TravelTime travelTime : travelTimes) {
+			adjacencyList.computeIfAbsent(travelTime.getFrom(), k -> new ArrayList<>()).add(new Edge(travelTime.getTo(), travelTime.getTime()));
+			adjacencyList.computeIfAbsent(travelTime.getTo(), k -> new ArrayList<>());
+		}
+		DijkstraEngine engine = new DijkstraEngine();
+		int[][] queries = generateQueries(graph);
+		
+		long[] boxed = new long[QUERIES];
+		long[] primitive = new long[QUERIES];
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < QUERIES; i++) {
+				String source = graph.getLocation(queries[i][0]);
+				String target = graph.getLocation(queries[i][1]);
+				
+				long start = System.nanoTime();
+				int expected = boxedDistance(adjacencyList, source, target);
+				boxed[i] = System.nanoTime() - start;
+				
+				start = System.nanoTime();
+				int actual = engine.findShortestPath(graph, queries[i][0], queries[i][1]).getTotalTime();
+				primitive[i] = System.nanoTime() - start;
+				
+				assertEquals(expected, actual);
+			}
+		}
+		
+		Arrays.sort(boxed);
+		Arrays.sort(primitive);
+		System.out.println("Boxed Dijkstra p50/p99: " + boxed[QUERIES / 2] / 1_000 + "us / " + boxed[QUERIES * 99 / 100] / 1_000 + "us");
+		System.out.println("Primitive Dijkstra p50/p99: " + primitive[QUERIES / 2] / 1_000 + "us / " + primitive[QUERIES * 99 / 100] / 1_000 + "us");
+	}
+	
+	private int search(DijkstraEngine engine, CompiledGraph graph, int[] query) {
+		SearchWorkspace workspace = engine.getPool().acquire(graph.getLocationCount());
+		try {
+			return engine.search(graph, query[0], query[1], workspace);
+		} finally {
+			engine.getPool().release(workspace);
+		}
+	}
+	
+	// HashMap/PriorityQueue Dijkstra as GraphService ran it before the primitive engine
+	private int boxedDistance(Map<String, List<Edge>> adjacencyList, String source, String target) {
+		if (source.equals(target)) {
+			return 0;
+		}
+		Map<String, Integer> distances = new HashMap<>();
+		Set<String> visited = new HashSet<>();
+		PriorityQueue<Map.Entry<String, Integer>> queue = new PriorityQueue<>(Map.Entry.comparingByValue());
+		for (String location : adjacencyList.keySet()) {
+			distances.put(location, Integer.MAX_VALUE);
+		}
+		distances.put(source, 0);
+		queue.add(Map.entry(source, 0));
+		
+		while (!queue.isEmpty()) {
+			String current = queue.poll().getKey();
+			if (!visited.add(current)) continue;
+			if (current.equals(target)) return distances.get(current);
+			
+			for (Edge edge : adjacencyList.get(current)) {
+				int newDistance = distances.get(current) + edge.getWeight();
+				if (newDistance < distances.get(edge.getDestination())) {
+					distances.put(edge.getDestination(), newDistance);
+					queue.add(Map.entry(edge.getDestination(), newDistance));
+				}
+			}
+		}
+		return 0;
+	}
+	
+	private int[][] generateQueries(CompiledGraph graph) {
+		Random random = new Random(11);
+		int[][] queries = new int[QUERIES][2];
+		for (int[] query : queries) {
+			query[0] = random.nextInt(graph.getLocationCount());
+			query[1] = random.nextInt(graph.getLocationCount());
+		}
+		return queries;
+	}
+	
+	private List<TravelTime> generateDataset() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int i = 0; i < LOCATIONS; i++) {
+			travelTimes.add(new TravelTime("L" + i, "L" + ((i + 1) % LOCATIONS), random.nextInt(50) + 1));
+		}
+		while (travelTimes.size() < ROWS) {
+			int from = random.nextInt(LOCATIONS);
+			int to = random.nextInt(LOCATIONS);
+			if (from != to) {
+				travelTimes.add(new TravelTime("L" + from, "L" + to, random.nextInt(100) + 1));
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
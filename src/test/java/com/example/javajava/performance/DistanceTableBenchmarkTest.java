@@ -0,0 +1,86 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.DistanceTable;
+import com.example.javajava.graph.DistanceTableEngine;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceTableBenchmarkTest {
+	
+	// 2025 locations, just above the default routing.distance-table.max-locations
+	private static final int GRID_SIZE = 45;
+	private static final int QUERIES = 2_000;
+	
+	@Test
+	void shouldAnswerRoutesFasterThanDijkstra() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid());
+		DistanceTable table = DistanceTable.build(graph);
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		DistanceTableEngine engine = new DistanceTableEngine();
+		
+		int[] sources = new int[QUERIES];
+		int[] targets = new int[QUERIES];
+		Random random = new Random(17);
+		for (int i = 0; i < QUERIES; i++) {
+			sources[i] = random.nextInt(graph.getLocationCount());
+			targets[i] = random.nextInt(graph.getLocationCount());
+		}
+		
+		// Warm both paths before timing
+		for (int round = 0; round < 2; round++) {
+			long dijkstraNanos = 0;
+			long tableNanos = 0;
+			for (int i = 0; i < QUERIES; i++) {
+				long start = System.nanoTime();
+				PathResult expected = dijkstra.findShortestPath(graph, sources[i], targets[i]);
+				dijkstraNanos += System.nanoTime() - start;
+				
+				start = System.nanoTime();
+				PathResult actual = engine.findShortestPath(graph, table, sources[i], targets[i]);
+				tableNanos += System.nanoTime() - start;
+				
+				assertEquals(expected.getTotalTime(), actual.getTotalTime());
+				assertEquals(graph.getLocation(targets[i]), actual.getPath().get(actual.getPath().size() - 1));
+			}
+			
+			if (round == 1) {
+				System.out.println("Distance table: " + graph.getLocationCount() + " locations, " + table.getPreprocessingMillis()
+					+ "ms preprocessing, " + table.getMemoryBytes() / 1024 + "KiB");
+				System.out.println("Dijkstra: " + dijkstraNanos / QUERIES / 1000 + "us/query, table: " + tableNanos / QUERIES / 1000 + "us/query");
+				assertTrue(tableNanos < dijkstraNanos, "Table lookups should beat Dijkstra searches");
+			}
+		}
+	}
+	
+	private List<TravelTime> generateGrid() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String east = "G" + row + "_" + (column + 1);
+					travelTimes.add(new TravelTime(location, east, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(east, location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < GRID_SIZE) {
+					String south = "G" + (row + 1) + "_" + column;
+					travelTimes.add(new TravelTime(location, south, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(south, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
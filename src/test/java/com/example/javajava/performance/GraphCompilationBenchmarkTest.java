@@ -0,0 +1,141 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.model.Edge;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.GraphService;
+import com.example.javajava.service.RouteService;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphCompilationBenchmarkTest {
+	
+	private static final int LOCATIONS = 2000;
+	private static final int ROWS = 20000;
+	private static final int QUERIES = 200;
+	
+	@Test
+	void shouldAnswerFromCompiledGraphFasterThanRebuildPerRequest() {
+		List<TravelTime> travelTimes = generateDataset();
+		DataStorageService dataStorageService = new DataStorageService();
+		RouteService routeService = new RouteService(dataStorageService, new GraphService());
+		
+		long loadStart = System.nanoTime();
+		dataStorageService.storeTravelTimes(travelTimes);
+		long loadNanos = System.nanoTime() - loadStart;
+		
+		Random random = new Random(7);
+		String[][] queries = new String[QUERIES][2];
+		for (String[] query : queries) {
+			query[0] = "L" + random.nextInt(LOCATIONS);
+			query[1] = "L" + random.nextInt(LOCATIONS);
+		}
+		
+		// Warm up both paths
+		for (int i = 0; i < 20; i++) {
+			rebuildPerRequest(dataStorageService, queries[i][0], queries[i][1]);
+			routeService.calculateOptimalRoute(queries[i][0], queries[i][1]);
+		}
+		
+		long rebuildStart = System.nanoTime();
+		List<PathResult> rebuildResults = new ArrayList<>();
+		for (String[] query : queries) {
+			rebuildResults.add(rebuildPerRequest(dataStorageService, query[0], query[1]));
+		}
+		long rebuildNanos = System.nanoTime() - rebuildStart;
+		
+		long compiledStart = System.nanoTime();
+		List<PathResult> compiledResults = new ArrayList<>();
+		for (String[] query : queries) {
+			compiledResults.add(routeService.calculateOptimalRoute(query[0], query[1]));
+		}
+		long compiledNanos = System.nanoTime() - compiledStart;
+		
+		for (int i = 0; i < QUERIES; i++) {
+			assertEquals(rebuildResults.get(i).isPathFound(), compiledResults.get(i).isPathFound());
+			assertEquals(rebuildResults.get(i).getTotalTime(), compiledResults.get(i).getTotalTime());
+		}
+		
+		System.out.println("Dataset: " + ROWS + " rows, " + LOCATIONS + " locations, compile on load: "
+			+ loadNanos / 1_000 + "us");
+		System.out.println("Rebuild per request: " + rebuildNanos / QUERIES / 1_000 + "us/query");
+		System.out.println("Compiled graph: " + compiledNanos / QUERIES / 1_000 + "us/query");
+		assertTrue(compiledNanos < rebuildNanos,
+			"Compiled graph queries should be faster than rebuilding the graph per request");
+	}
+	
+	// The pre-compilation request path: copy the stored rows, rebuild a
+	// String-keyed adjacency map and run Dijkstra over it.
+	private PathResult rebuildPerRequest(DataStorageService dataStorageService, String source, String destination) {
+		Map<String, List<Edge>> adjacencyList = new HashMap<>();
+		for (TravelTime travelTime : dataStorageService.getAllTravelTimes()) {
+			adjacencyList.computeIfAbsent(travelTime.getFrom(), k -> new ArrayList<>());
+			adjacencyList.computeIfAbsent(travelTime.getTo(), k -> new ArrayList<>());
+			adjacencyList.get(travelTime.getFrom()).add(new Edge(travelTime.getTo(), travelTime.getTime()));
+		}
+		
+		if (!adjacencyList.containsKey(source) || !adjacencyList.containsKey(destination)) {
+			return new PathResult();
+		}
+		if (source.equals(destination)) {
+			return new PathResult(List.of(source), 0);
+		}
+		
+		Map<String, Integer> distances = new HashMap<>();
+		Map<String, String> previous = new HashMap<>();
+		PriorityQueue<Map.Entry<String, Integer>> unvisited = new PriorityQueue<>(Map.Entry.comparingByValue());
+		Set<String> visited = new HashSet<>();
+		for (String location : adjacencyList.keySet()) {
+			distances.put(location, Integer.MAX_VALUE);
+		}
+		distances.put(source, 0);
+		unvisited.add(Map.entry(source, 0));
+		
+		while (!unvisited.isEmpty()) {
+			String current = unvisited.poll().getKey();
+			if (!visited.add(current)) continue;
+			if (current.equals(destination)) break;
+			
+			for (Edge edge : adjacencyList.get(current)) {
+				int newDistance = distances.get(current) + edge.getWeight();
+				if (newDistance < distances.get(edge.getDestination())) {
+					distances.put(edge.getDestination(), newDistance);
+					previous.put(edge.getDestination(), current);
+					unvisited.add(Map.entry(edge.getDestination(), newDistance));
+				}
+			}
+		}
+		
+		if (!previous.containsKey(destination)) {
+			return new PathResult();
+		}
+		
+		LinkedList<String> path = new LinkedList<>();
+		for (String current = destination; current != null; current = previous.get(current)) {
+			path.addFirst(current);
+		}
+		return new PathResult(path, distances.get(destination));
+	}
+	
+	private List<TravelTime> generateDataset() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int i = 0; i < LOCATIONS; i++) {
+			travelTimes.add(new TravelTime("L" + i, "L" + ((i + 1) % LOCATIONS), random.nextInt(50) + 1));
+		}
+		while (travelTimes.size() < ROWS) {
+			int from = random.nextInt(LOCATIONS);
+			int to = random.nextInt(LOCATIONS);
+			if (from != to) {
+				travelTimes.add(new TravelTime("L" + from, "L" + to, random.nextInt(100) + 1));
+			}
+		}
+		
+		return travelTimes;
+	}
+}
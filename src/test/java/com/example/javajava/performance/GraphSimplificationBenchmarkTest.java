@@ -0,0 +1,128 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphBuilder;
+import com.example.javajava.graph.GraphSimplifier;
+import com.example.javajava.graph.Simplification;
+import com.example.javajava.model.PathResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A street network as exported from a map: crossings on a grid joined by
+// streets through pass-through locations, with some rows repeated at other
+// times and some self-loops. Reports what each simplification stage removed
+// and how long it took, then compares searches between crossings on the raw
+// and the simplified graph, with the simplified paths expanded again.
+class GraphSimplificationBenchmarkTest {
+	
+	private static final int GRID_SIZE = 250;
+	private static final int QUERIES = 20;
+	private static final int ROUNDS = 3;
+	
+	@Test
+	void shouldShrinkStreetNetworkAndSpeedUpSearches() {
+		CompiledGraph raw = generateStreets();
+		long start = System.nanoTime();
+		GraphSimplifier.Result result = GraphSimplifier.simplify(raw);
+		long simplifyMillis = (System.nanoTime() - start) / 1_000_000;
+		CompiledGraph simplified = result.graph();
+		Simplification simplification = result.simplification();
+		
+		System.out.println("Simplified " + raw.getLocationCount() + " locations and " + raw.getEdgeCount() + " edges in " + simplifyMillis + "ms");
+		for (Simplification.Stage stage : simplification.getStages()) {
+			System.out.printf("  %-18s %5dms  %8d locations  %8d edges%n", stage.name(), stage.millis(), stage.locations(), stage.edges());
+		}
+		System.out.printf("Locations -%.0f%%, edges -%.0f%%, %d chains%n",
+			100 - 100.0 * simplified.getLocationCount() / raw.getLocationCount(),
+			100 - 100.0 * simplified.getEdgeCount() / raw.getEdgeCount(), simplification.getChainCount());
+		
+		String[][] queries = new String[QUERIES][];
+		Random random = new Random(31);
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new String[] {crossing(random.nextInt(GRID_SIZE), random.nextInt(GRID_SIZE)),
+				crossing(random.nextInt(GRID_SIZE), random.nextInt(GRID_SIZE))};
+		}
+		
+		DijkstraEngine engine = new DijkstraEngine();
+		long rawNanos = Long.MAX_VALUE;
+		long simplifiedNanos = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			rawNanos = Math.min(rawNanos, measure(engine, raw, null, queries));
+			simplifiedNanos = Math.min(simplifiedNanos, measure(engine, simplified, simplification, queries));
+		}
+		System.out.println("Dijkstra: raw " + rawNanos / QUERIES / 1000 + "us/query, simplified and expanded "
+			+ simplifiedNanos / QUERIES / 1000 + "us/query");
+		
+		for (String[] query : queries) {
+			PathResult expected = engine.findShortestPath(raw, raw.indexOf(query[0]), raw.indexOf(query[1]));
+			PathResult actual = engine.findShortestPath(simplified, simplified.indexOf(query[0]), simplified.indexOf(query[1]));
+			assertEquals(expected.getTotalTime(), actual.getTotalTime());
+			List<String> expanded = simplification.expand(actual.getPath());
+			assertEquals(expected.getPath().get(expected.getPath().size() - 1), expanded.get(expanded.size() - 1));
+			assertTrue(expanded.size() >= actual.getPath().size());
+		}
+		assertTrue(simplified.getLocationCount() < raw.getLocationCount() / 2, "Most pass-through locations should be contracted");
+		assertTrue(simplified.getEdgeCount() < raw.getEdgeCount() / 2, "Contracted chains should take their edges along");
+		assertTrue(simplifiedNanos < rawNanos, "Searches should get faster on the simplified graph");
+	}
+	
+	private static long measure(DijkstraEngine engine, CompiledGraph graph, Simplification simplification, String[][] queries) {
+		long start = System.nanoTime();
+		for (String[] query : queries) {
+			PathResult result = engine.findShortestPath(graph, graph.indexOf(query[0]), graph.indexOf(query[1]));
+			if (simplification != null) {
+				simplification.expand(result.getPath());
+			}
+		}
+		return System.nanoTime() - start;
+	}
+	
+	private static String crossing(int row, int column) {
+		return "X" + row + "_" + column;
+	}
+	
+	private static CompiledGraph generateStreets() {
+		Random random = new Random(17);
+		GraphBuilder builder = new GraphBuilder();
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				int crossing = builder.addLocation(crossing(row, column));
+				if (column + 1 < GRID_SIZE) {
+					addStreet(builder, random, crossing, builder.addLocation(crossing(row, column + 1)));
+				}
+				if (row + 1 < GRID_SIZE) {
+					addStreet(builder, random, crossing, builder.addLocation(crossing(row + 1, column)));
+				}
+			}
+		}
+		return builder.build();
+	}
+	
+	// Up to four pass-through locations, one street in five one-way
+	private static void addStreet(GraphBuilder builder, Random random, int from, int to) {
+		boolean twoWay = random.nextInt(5) > 0;
+		int previous = from;
+		int passThrough = random.nextInt(5);
+		for (int i = 0; i <= passThrough; i++) {
+			int next = i < passThrough ? builder.addLocation("S" + from + "_" + to + "_" + i) : to;
+			int time = random.nextInt(20) + 1;
+			builder.addEdge(previous, next, time);
+			if (twoWay) {
+				builder.addEdge(next, previous, random.nextInt(20) + 1);
+			}
+			// A repeated row, slower or faster, and now and then a self-loop
+			if (random.nextInt(50) == 0) {
+				builder.addEdge(previous, next, random.nextInt(20) + 1);
+			}
+			if (random.nextInt(100) == 0) {
+				builder.addEdge(next, next, 1);
+			}
+			previous = next;
+		}
+	}
+}
\ No newline at end of file
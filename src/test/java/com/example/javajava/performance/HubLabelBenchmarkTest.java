@@ -0,0 +1,89 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.ContractionHierarchy;
+import com.example.javajava.graph.ContractionHierarchyEngine;
+import com.example.javajava.graph.HubLabels;
+import com.example.javajava.graph.SearchWorkspace;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubLabelBenchmarkTest {
+	
+	private static final int GRID_SIZE = 70;
+	private static final int QUERIES = 20_000;
+	
+	@Test
+	void shouldAnswerDistanceQueriesFasterThanHierarchySearch() {
+		CompiledGraph graph = CompiledGraph.fromTravelTimes(generateGrid());
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+		HubLabels labels = HubLabels.build(hierarchy);
+		ContractionHierarchyEngine engine = new ContractionHierarchyEngine();
+		SearchWorkspace forward = new SearchWorkspace(graph.getLocationCount());
+		SearchWorkspace backward = new SearchWorkspace(graph.getLocationCount());
+		
+		int[] sources = new int[QUERIES];
+		int[] targets = new int[QUERIES];
+		Random random = new Random(17);
+		for (int i = 0; i < QUERIES; i++) {
+			sources[i] = random.nextInt(graph.getLocationCount());
+			targets[i] = random.nextInt(graph.getLocationCount());
+		}
+		
+		// Warm both paths before timing
+		for (int round = 0; round < 2; round++) {
+			long hierarchyNanos = 0;
+			long labelNanos = 0;
+			for (int i = 0; i < QUERIES; i++) {
+				forward.reset();
+				backward.reset();
+				long start = System.nanoTime();
+				int meetingNode = engine.search(hierarchy, sources[i], targets[i], forward, backward);
+				hierarchyNanos += System.nanoTime() - start;
+				
+				start = System.nanoTime();
+				int distance = labels.distance(sources[i], targets[i]);
+				labelNanos += System.nanoTime() - start;
+				
+				assertEquals(forward.getDistance(meetingNode) + backward.getDistance(meetingNode), distance);
+			}
+			
+			if (round == 1) {
+				System.out.println("Hub labels: " + labels.getPreprocessingMillis() + "ms preprocessing, "
+					+ String.format("%.1f", labels.getAverageLabelSize()) + " avg / " + labels.getMaxLabelSize() + " max label size, "
+					+ labels.getMemoryBytes() / 1024 + "KiB");
+				System.out.println("CH search: " + hierarchyNanos / QUERIES + "ns/query, label merge: " + labelNanos / QUERIES + "ns/query");
+				assertTrue(labelNanos < hierarchyNanos, "Label merges should beat hierarchy searches");
+			}
+		}
+	}
+	
+	private List<TravelTime> generateGrid() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String east = "G" + row + "_" + (column + 1);
+					travelTimes.add(new TravelTime(location, east, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(east, location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < GRID_SIZE) {
+					String south = "G" + (row + 1) + "_" + column;
+					travelTimes.add(new TravelTime(location, south, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(south, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphBuilder;
+import com.example.javajava.graph.MappedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Heap footprint, full collection pause, resident set size and query latency
+// of the same graph kept in heap arrays and in a mapping. RSS comes from
+// /proc/self/status and is only reported on Linux.
+class MappedGraphBenchmarkTest {
+	
+	private static final int GRID_SIZE = 700;
+	private static final int ROUNDS = 3;
+	private static final int QUERIES = 40;
+	
+	@Test
+	void shouldKeepMappedGraphOffTheHeap(@TempDir Path directory) throws Exception {
+		long baselineHeap = heapAfterCollection();
+		long baselinePause = fullCollectionMillis();
+		
+		CompiledGraph graph = generateGrid();
+		Measurement heap = measure(graph, baselineHeap);
+		MappedGraph mapped = MappedGraph.create(graph, directory);
+		graph = null;
+		Measurement off = measure(mapped, baselineHeap);
+		
+		System.out.println("Graph of " + mapped.getLocationCount() + " locations and " + mapped.getEdgeCount() + " edges, "
+			+ mapped.getMemoryBytes() / (1024 * 1024) + "MiB mapped; full collection without a graph: " + baselinePause + "ms");
+		System.out.println("Heap:   " + heap);
+		System.out.println("Mapped: " + off);
+		assertTrue(off.heapBytes * 4 < heap.heapBytes, "A mapped graph should keep almost nothing on the heap");
+		assertTrue(off.queryMicros < 3 * heap.queryMicros + 1000, "Queries on the mapping should stay close to heap speed");
+	}
+	
+	private static Measurement measure(CompiledGraph graph, long baselineHeap) {
+		long heapBytes = heapAfterCollection() - baselineHeap;
+		long pauseMillis = fullCollectionMillis();
+		
+		DijkstraEngine engine = new DijkstraEngine();
+		Random random = new Random(17);
+		long queryNanos = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				engine.findShortestPath(graph, random.nextInt(graph.getLocationCount()), random.nextInt(graph.getLocationCount()));
+			}
+			queryNanos = Math.min(queryNanos, (System.nanoTime() - start) / QUERIES);
+		}
+		return new Measurement(heapBytes, pauseMillis, residentSetSize(), queryNanos / 1000);
+	}
+	
+	private static long heapAfterCollection() {
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+	
+	// Shortest of a few explicit collections, as the collectors account for them
+	private static long fullCollectionMillis() {
+		long shortest = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long before = collectionMillis();
+			System.gc();
+			shortest = Math.min(shortest, collectionMillis() - before);
+		}
+		return shortest;
+	}
+	
+	private static long collectionMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return millis;
+	}
+	
+	private static String residentSetSize() {
+		Path status = Path.of("/proc/self/status");
+		if (!Files.isReadable(status)) {
+			return "n/a";
+		}
+		try {
+			StringBuilder rss = new StringBuilder();
+			for (String line : Files.readAllLines(status)) {
+				if (line.startsWith("VmRSS:") || line.startsWith("RssAnon:") || line.startsWith("RssFile:")) {
+					rss.append(rss.length() == 0 ? "" : ", ").append(line.replaceAll("\\s+", " "));
+				}
+			}
+			return rss.toString();
+		} catch (IOException e) {
+			return "n/a";
+		}
+	}
+	
+	private static CompiledGraph generateGrid() {
+		GraphBuilder builder = new GraphBuilder();
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				builder.addLocation("G" + row + "_" + column);
+			}
+		}
+		Random random = new Random(42);
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				int node = row * GRID_SIZE + column;
+				if (column + 1 < GRID_SIZE) {
+					builder.addEdge(node, node + 1, random.nextInt(20) + 1);
+					builder.addEdge(node + 1, node, random.nextInt(20) + 1);
+				}
+				if (row + 1 < GRID_SIZE) {
+					builder.addEdge(node, node + GRID_SIZE, random.nextInt(20) + 1);
+					builder.addEdge(node + GRID_SIZE, node, random.nextInt(20) + 1);
+				}
+			}
+		}
+		return builder.build();
+	}
+	
+	private record Measurement(long heapBytes, long pauseMillis, String residentSetSize, long queryMicros) {
+		
+		@Override
+		public String toString() {
+			return heapBytes / (1024 * 1024) + "MiB on the heap, full collection " + pauseMillis + "ms, " + residentSetSize
+				+ ", " + queryMicros + "us per query";
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphBuilder;
+import com.example.javajava.graph.NodeReordering;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Queries on a grid whose ids arrive in random order, as from a CSV without
+// any spatial sorting, before and after renumbering. The JVM cannot read
+// hardware cache counters, so locality is reported as the mean id gap along
+// an edge and the share of edges whose endpoints share a 4 KiB page of a
+// per-node int array; run it under perf stat -e cache-misses to count misses.
+class NodeReorderingBenchmarkTest {
+	
+	private static final int GRID_SIZE = 500;
+	private static final int QUERIES = 20;
+	private static final int ROUNDS = 3;
+	
+	@Test
+	void shouldSpeedUpSearchesOnScatteredIds() {
+		CompiledGraph scattered = generateScatteredGrid();
+		long start = System.nanoTime();
+		CompiledGraph reordered = NodeReordering.reorder(scattered);
+		long reorderMillis = (System.nanoTime() - start) / 1_000_000;
+		
+		String[][] queries = new String[QUERIES][];
+		Random random = new Random(23);
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new String[] {scattered.getLocation(random.nextInt(GRID_SIZE * GRID_SIZE)),
+				scattered.getLocation(random.nextInt(GRID_SIZE * GRID_SIZE))};
+		}
+		
+		DijkstraEngine engine = new DijkstraEngine();
+		long scatteredNanos = Long.MAX_VALUE;
+		long reorderedNanos = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			scatteredNanos = Math.min(scatteredNanos, measure(engine, scattered, queries));
+			reorderedNanos = Math.min(reorderedNanos, measure(engine, reordered, queries));
+		}
+		
+		System.out.println("Reordered " + scattered.getLocationCount() + " locations in " + reorderMillis + "ms");
+		System.out.printf("Mean id gap per edge: input order %.0f, reordered %.0f; edges within a page: %.1f%%, reordered %.1f%%%n",
+			meanGap(scattered), meanGap(reordered), 100 * samePageShare(scattered), 100 * samePageShare(reordered));
+		System.out.println("Dijkstra: input order " + scatteredNanos / QUERIES / 1000 + "us/query, reordered "
+			+ reorderedNanos / QUERIES / 1000 + "us/query");
+		
+		for (String[] query : queries) {
+			assertEquals(engine.findShortestPath(scattered, scattered.indexOf(query[0]), scattered.indexOf(query[1])).getTotalTime(),
+				engine.findShortestPath(reordered, reordered.indexOf(query[0]), reordered.indexOf(query[1])).getTotalTime());
+		}
+		assertTrue(samePageShare(reordered) > 10 * samePageShare(scattered), "Renumbering should put neighbors on shared pages");
+		assertTrue(reorderedNanos < scatteredNanos, "Searches should get faster on the renumbered graph");
+	}
+	
+	private static long measure(DijkstraEngine engine, CompiledGraph graph, String[][] queries) {
+		long start = System.nanoTime();
+		for (String[] query : queries) {
+			engine.findShortestPath(graph, graph.indexOf(query[0]), graph.indexOf(query[1]));
+		}
+		return System.nanoTime() - start;
+	}
+	
+	private static double meanGap(CompiledGraph graph) {
+		long gaps = 0;
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				gaps += Math.abs(graph.getTarget(edge) - node);
+			}
+		}
+		return gaps / (double) graph.getEdgeCount();
+	}
+	
+	private static double samePageShare(CompiledGraph graph) {
+		long shared = 0;
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				if (graph.getTarget(edge) / 1024 == node / 1024) {
+					shared++;
+				}
+			}
+		}
+		return shared / (double) graph.getEdgeCount();
+	}
+	
+	private static CompiledGraph generateScatteredGrid() {
+		int nodeCount = GRID_SIZE * GRID_SIZE;
+		int[] ids = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			ids[i] = i;
+		}
+		Random random = new Random(42);
+		for (int i = nodeCount - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = ids[i];
+			ids[i] = ids[j];
+			ids[j] = swap;
+		}
+		
+		// Grid cell ids[i] becomes node i, so grid neighbors get unrelated ids
+		GraphBuilder builder = new GraphBuilder();
+		int[] nodes = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			nodes[ids[i]] = builder.addLocation("G" + ids[i] / GRID_SIZE + "_" + ids[i] % GRID_SIZE);
+		}
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				int cell = row * GRID_SIZE + column;
+				if (column + 1 < GRID_SIZE) {
+					builder.addEdge(nodes[cell], nodes[cell + 1], random.nextInt(20) + 1);
+					builder.addEdge(nodes[cell + 1], nodes[cell], random.nextInt(20) + 1);
+				}
+				if (row + 1 < GRID_SIZE) {
+					builder.addEdge(nodes[cell], nodes[cell + GRID_SIZE], random.nextInt(20) + 1);
+					builder.addEdge(nodes[cell + GRID_SIZE], nodes[cell], random.nextInt(20) + 1);
+				}
+			}
+		}
+		return builder.build();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CellPartition;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.DijkstraEngine;
+import com.example.javajava.graph.GraphBuilder;
+import com.example.javajava.graph.OverlayEngine;
+import com.example.javajava.graph.OverlayGraph;
+import com.example.javajava.graph.SearchWorkspace;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverlayBenchmarkTest {
+	
+	private static final int CELL_SIZE = 256;
+	private static final int LEVELS = 2;
+	private static final int QUERIES = 100;
+	
+	@Test
+	void shouldScaleFromHundredThousandToOneMillionEdges() {
+		// Square grids with both directions per street: ~100k, ~400k and ~1M edges
+		for (int gridSize : new int[] {160, 320, 500}) {
+			benchmark(gridSize);
+		}
+	}
+	
+	private void benchmark(int gridSize) {
+		CompiledGraph graph = generateGrid(gridSize, 42, -1);
+		CellPartition partition = CellPartition.build(graph, CELL_SIZE, LEVELS);
+		OverlayGraph overlay = OverlayGraph.customize(graph, partition);
+		
+		DijkstraEngine dijkstra = new DijkstraEngine();
+		OverlayEngine engine = new OverlayEngine();
+		SearchWorkspace workspace = new SearchWorkspace(graph.getLocationCount());
+		Random random = new Random(17);
+		long dijkstraSettled = 0;
+		long overlaySettled = 0;
+		long dijkstraNanos = 0;
+		long overlayNanos = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			int source = random.nextInt(graph.getLocationCount());
+			int target = random.nextInt(graph.getLocationCount());
+			
+			workspace.reset();
+			long start = System.nanoTime();
+			int expected = dijkstra.search(graph, source, target, workspace);
+			dijkstraNanos += System.nanoTime() - start;
+			dijkstraSettled += workspace.getSettledCount();
+			
+			workspace.reset();
+			start = System.nanoTime();
+			int actual = engine.search(overlay, source, target, workspace);
+			overlayNanos += System.nanoTime() - start;
+			overlaySettled += workspace.getSettledCount();
+			
+			assertEquals(expected, actual);
+		}
+		
+		// One street gets a new travel time: only the cells around it are redone
+		CompiledGraph reloaded = generateGrid(gridSize, 42, graph.getEdgeCount() / 2);
+		OverlayGraph recustomized = overlay.recustomize(reloaded);
+		
+		System.out.println("Overlay " + graph.getEdgeCount() + " edges: partition " + partition.getPreprocessingMillis()
+			+ "ms, customization " + overlay.getCustomizationMillis() + "ms over " + overlay.getTotalCells() + " cells, "
+			+ overlay.getMemoryBytes() / 1024 + "KiB");
+		System.out.println("  single-edge reload: " + recustomized.getCustomizationMillis() + "ms over "
+			+ recustomized.getCustomizedCells() + " cells");
+		System.out.println("  Dijkstra " + dijkstraSettled / QUERIES + " settled, " + dijkstraNanos / QUERIES / 1_000
+			+ "us/query; overlay " + overlaySettled / QUERIES + " settled, " + overlayNanos / QUERIES / 1_000 + "us/query");
+		
+		assertEquals(LEVELS, recustomized.getCustomizedCells());
+		assertTrue(overlaySettled * 5 < dijkstraSettled, "Overlay should settle far fewer nodes");
+	}
+	
+	// changedEdge gets weight 100 instead of its random weight, -1 changes nothing
+	private CompiledGraph generateGrid(int gridSize, long seed, int changedEdge) {
+		GraphBuilder builder = new GraphBuilder();
+		Random random = new Random(seed);
+		int edge = 0;
+		
+		for (int row = 0; row < gridSize; row++) {
+			for (int column = 0; column < gridSize; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < gridSize) {
+					String east = "G" + row + "_" + (column + 1);
+					builder.addEdge(location, east, weight(random, edge++, changedEdge));
+					builder.addEdge(east, location, weight(random, edge++, changedEdge));
+				}
+				if (row + 1 < gridSize) {
+					String south = "G" + (row + 1) + "_" + column;
+					builder.addEdge(location, south, weight(random, edge++, changedEdge));
+					builder.addEdge(south, location, weight(random, edge++, changedEdge));
+				}
+			}
+		}
+		
+		return builder.build();
+	}
+	
+	private int weight(Random random, int edge, int changedEdge) {
+		int weight = random.nextInt(20) + 1;
+		return edge == changedEdge ? 100 : weight;
+	}
+}
\ No newline at end of file
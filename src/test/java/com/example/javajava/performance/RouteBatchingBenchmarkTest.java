@@ -0,0 +1,149 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import com.example.javajava.service.DataStorageService;
+import com.example.javajava.service.GraphService;
+import com.example.javajava.service.QueryLog;
+import com.example.javajava.service.ResumableSearchCache;
+import com.example.javajava.service.RouteBatcher;
+import com.example.javajava.service.RouteCache;
+import com.example.javajava.service.RouteCoalescer;
+import com.example.javajava.service.RouteService;
+import com.example.javajava.service.ShortestPathTreeCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteBatchingBenchmarkTest {
+	
+	private static final int GRID_SIZE = 100;
+	private static final int ORIGINS = 4;
+	private static final int CLIENTS = 32;
+	private static final int REQUESTS_PER_CLIENT = 40;
+	
+	@Test
+	void shouldRaiseThroughputOfBurstFromFewOrigins() throws Exception {
+		List<TravelTime> grid = generateGrid();
+		String[][] queries = generateQueries();
+		
+		// Warm both paths before timing
+		burst(grid, queries, false);
+		burst(grid, queries, true);
+		long[] unbatched = burst(grid, queries, false);
+		long[] batched = burst(grid, queries, true);
+		
+		System.out.println("Burst of " + CLIENTS * REQUESTS_PER_CLIENT + " routes from " + ORIGINS + " origins, unbatched: "
+			+ describe(unbatched) + ", batched: " + describe(batched));
+		assertTrue(throughput(batched) > throughput(unbatched), "Batching by origin should raise burst throughput");
+		assertTrue(percentile(batched, 0.99) < percentile(unbatched, 0.99), "Batching should not hurt tail latency under a burst");
+	}
+	
+	// Returns each request's latency in nanoseconds, followed by the wall time of the whole burst
+	private long[] burst(List<TravelTime> grid, String[][] queries, boolean batching) throws Exception {
+		RoutingProperties routingProperties = new RoutingProperties();
+		routingProperties.getRouteCache().setMaxEntries(0);
+		routingProperties.getBatching().setEnabled(batching);
+		DataStorageService dataStorageService = new DataStorageService();
+		GraphService graphService = new GraphService();
+		RouteBatcher routeBatcher = new RouteBatcher(routingProperties);
+		RouteService routeService = new RouteService(dataStorageService, graphService, routingProperties,
+			new RouteCache(dataStorageService, routingProperties), new ShortestPathTreeCache(dataStorageService, routingProperties),
+			new ResumableSearchCache(dataStorageService, routingProperties), new QueryLog(), new RouteCoalescer(), routeBatcher);
+		dataStorageService.storeTravelTimes(grid);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+		CountDownLatch start = new CountDownLatch(1);
+		long[] latencies = new long[queries.length + 1];
+		try {
+			List<Future<?>> clients = new ArrayList<>();
+			for (int client = 0; client < CLIENTS; client++) {
+				int first = client * REQUESTS_PER_CLIENT;
+				clients.add(executor.submit(() -> {
+					start.await();
+					for (int i = first; i < first + REQUESTS_PER_CLIENT; i++) {
+						long begin = System.nanoTime();
+						PathResult result = routeService.calculateOptimalRoute(queries[i][0], queries[i][1]);
+						latencies[i] = System.nanoTime() - begin;
+						assertTrue(result.isPathFound());
+					}
+					return null;
+				}));
+			}
+			long begin = System.nanoTime();
+			start.countDown();
+			for (Future<?> client : clients) {
+				client.get(60, TimeUnit.SECONDS);
+			}
+			latencies[queries.length] = System.nanoTime() - begin;
+			if (batching) {
+				System.out.println("Batching: " + routeBatcher.getStatistics());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return latencies;
+	}
+	
+	private static long throughput(long[] measurements) {
+		return (measurements.length - 1) * 1_000_000_000L / measurements[measurements.length - 1];
+	}
+	
+	private static long percentile(long[] measurements, double fraction) {
+		long[] latencies = Arrays.copyOf(measurements, measurements.length - 1);
+		Arrays.sort(latencies);
+		return latencies[(int) Math.min(latencies.length - 1, latencies.length * fraction)];
+	}
+	
+	private static String describe(long[] measurements) {
+		return throughput(measurements) + " routes/s, p50 " + percentile(measurements, 0.5) / 1000
+			+ "us, p99 " + percentile(measurements, 0.99) / 1000 + "us";
+	}
+	
+	private String[][] generateQueries() {
+		Random random = new Random(7);
+		String[] origins = new String[ORIGINS];
+		for (int i = 0; i < ORIGINS; i++) {
+			origins[i] = "G" + random.nextInt(GRID_SIZE) + "_" + random.nextInt(GRID_SIZE);
+		}
+		String[][] queries = new String[CLIENTS * REQUESTS_PER_CLIENT][];
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = new String[] {origins[i % ORIGINS], "G" + random.nextInt(GRID_SIZE) + "_" + random.nextInt(GRID_SIZE)};
+		}
+		return queries;
+	}
+	
+	private List<TravelTime> generateGrid() {
+		List<TravelTime> travelTimes = new ArrayList<>();
+		Random random = new Random(42);
+		
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String east = "G" + row + "_" + (column + 1);
+					travelTimes.add(new TravelTime(location, east, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(east, location, random.nextInt(20) + 1));
+				}
+				if (row + 1 < GRID_SIZE) {
+					String south = "G" + (row + 1) + "_" + column;
+					travelTimes.add(new TravelTime(location, south, random.nextInt(20) + 1));
+					travelTimes.add(new TravelTime(south, location, random.nextInt(20) + 1));
+				}
+			}
+		}
+		
+		return travelTimes;
+	}
+}
\ No newline at end of file
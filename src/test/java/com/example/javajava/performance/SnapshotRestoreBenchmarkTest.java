@@ -0,0 +1,83 @@
+package com.example.javajava.performance;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.ContractionHierarchy;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.graph.GraphSnapshotFile;
+import com.example.javajava.graph.LandmarkIndex;
+import com.example.javajava.service.CsvDataService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotRestoreBenchmarkTest {
+	
+	private static final int GRID_SIZE = 100;
+	private static final int LANDMARKS = 8;
+	private static final int ROUNDS = 3;
+	
+	@Test
+	void shouldRestoreFromSnapshotMuchFasterThanReloading(@TempDir Path directory) throws Exception {
+		byte[] csvBytes = generateGridCsv().getBytes(StandardCharsets.UTF_8);
+		CsvDataService csvDataService = new CsvDataService();
+		Path file = directory.resolve("graph.snapshot");
+		
+		// What a restart costs without the snapshot: parse the upload again and redo the preprocessing
+		long reloadNanos = Long.MAX_VALUE;
+		GraphSnapshot loaded = null;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			CompiledGraph graph = csvDataService.parseCSV(new ByteArrayInputStream(csvBytes));
+			loaded = new GraphSnapshot(1, graph)
+				.withLandmarks(LandmarkIndex.build(graph, LANDMARKS))
+				.withHierarchy(ContractionHierarchy.build(graph));
+			reloadNanos = Math.min(reloadNanos, System.nanoTime() - start);
+		}
+		
+		long writeStart = System.nanoTime();
+		long bytes = GraphSnapshotFile.write(loaded, file);
+		long writeNanos = System.nanoTime() - writeStart;
+		
+		long restoreNanos = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			GraphSnapshot restored = GraphSnapshotFile.read(file);
+			restoreNanos = Math.min(restoreNanos, System.nanoTime() - start);
+			assertEquals(loaded.getGraph().getEdgeCount(), restored.getGraph().getEdgeCount());
+			assertEquals(loaded.getHierarchy().getShortcutCount(), restored.getHierarchy().getShortcutCount());
+		}
+		
+		System.out.println("Snapshot of " + loaded.getGraph().getEdgeCount() + " edges, " + LANDMARKS + " landmarks and "
+			+ loaded.getHierarchy().getShortcutCount() + " shortcuts: " + bytes / 1024 + "KiB, written in " + writeNanos / 1_000_000 + "ms");
+		System.out.println("Restart by reparsing and preprocessing: " + reloadNanos / 1_000_000 + "ms, by restoring the snapshot: "
+			+ restoreNanos / 1_000_000 + "ms");
+		assertTrue(restoreNanos * 10 < reloadNanos, "Restoring should be an order of magnitude faster than reloading");
+	}
+	
+	private static String generateGridCsv() {
+		Random random = new Random(42);
+		StringBuilder csv = new StringBuilder("loc_start;loc_end;time\n");
+		for (int row = 0; row < GRID_SIZE; row++) {
+			for (int column = 0; column < GRID_SIZE; column++) {
+				String location = "G" + row + "_" + column;
+				if (column + 1 < GRID_SIZE) {
+					String right = "G" + row + "_" + (column + 1);
+					csv.append(location).append(';').append(right).append(';').append(random.nextInt(20) + 1).append('\n');
+					csv.append(right).append(';').append(location).append(';').append(random.nextInt(20) + 1).append('\n');
+				}
+				if (row + 1 < GRID_SIZE) {
+					String below = "G" + (row + 1) + "_" + column;
+					csv.append(location).append(';').append(below).append(';').append(random.nextInt(20) + 1).append('\n');
+					csv.append(below).append(';').append(location).append(';').append(random.nextInt(20) + 1).append('\n');
+				}
+			}
+		}
+		return csv.toString();
+	}
+}
\ No newline at end of file
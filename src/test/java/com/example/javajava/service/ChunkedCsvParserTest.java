@@ -0,0 +1,131 @@
+package com.example.javajava.service;
+
+import com.example.javajava.graph.CompiledGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedCsvParserTest {
+	
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+	private final ForkJoinPool single = new ForkJoinPool(1);
+	
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+		single.shutdown();
+	}
+	
+	@Test
+	void shouldBuildSameGraphForAnyChunkSize() throws Exception {
+		String csvContent = generateCsv(2000) + "\r\nLöcation Ü;  Location 3 ;5\r\n\r\nLocation 7;Location 1;9";
+		List<String> expected = describe(new ChunkedCsvParser(1024, single).parse(stream(csvContent)));
+		
+		for (int chunkSize : new int[] {1, 7, 64, 1000, 1 << 20}) {
+			List<String> actual = describe(new ChunkedCsvParser(chunkSize, pool).parse(stream(csvContent)));
+			
+			assertEquals(expected, actual, "Chunk size " + chunkSize);
+		}
+		assertEquals(2002, new ChunkedCsvParser(64, pool).parse(stream(csvContent)).getEdgeCount());
+	}
+	
+	@Test
+	void shouldParseBufferInPlaceLikeStream() throws Exception {
+		String csvContent = generateCsv(2000) + "\r\nLöcation Ü;  Location 3 ;5\r\n\r\nLocation 7;Location 1;9";
+		byte[] bytes = csvContent.getBytes(StandardCharsets.UTF_8);
+		List<String> expected = describe(new ChunkedCsvParser(1024, single).parse(stream(csvContent)));
+		
+		for (int chunkSize : new int[] {1, 7, 64, 1000, 1 << 20}) {
+			// Direct and offset, like a mapped file region
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 10);
+			buffer.position(10);
+			buffer.put(bytes);
+			buffer.position(10);
+			
+			assertEquals(expected, describe(new ChunkedCsvParser(chunkSize, pool).parse(buffer)), "Chunk size " + chunkSize);
+			assertEquals(expected, describe(new ChunkedCsvParser(chunkSize, single).parse(ByteBuffer.wrap(bytes))), "Chunk size " + chunkSize);
+		}
+		
+		IllegalArgumentException expectedError = assertThrows(IllegalArgumentException.class,
+			() -> new ChunkedCsvParser(64, single).parse(stream(csvContent + "\nA;B;x")));
+		IllegalArgumentException actualError = assertThrows(IllegalArgumentException.class,
+			() -> new ChunkedCsvParser(64, pool).parse(ByteBuffer.wrap((csvContent + "\nA;B;x").getBytes(StandardCharsets.UTF_8))));
+		assertEquals(expectedError.getMessage(), actualError.getMessage());
+	}
+	
+	@Test
+	void shouldReportGlobalLineNumberOfFirstInvalidRow() {
+		StringBuilder csv = new StringBuilder("loc_start;loc_end;time\n");
+		for (int i = 0; i < 500; i++) {
+			csv.append(i == 321 ? "A;B\n" : i == 400 ? "A;B;x\n" : "A;B;1\n");
+			if (i % 50 == 0) {
+				csv.append("\r\n");
+			}
+		}
+		String csvContent = csv.toString();
+		IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+			() -> new CsvDataService().parseCSVContent(csvContent));
+		
+		for (int chunkSize : new int[] {3, 32, 256, 4096}) {
+			IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+				() -> new ChunkedCsvParser(chunkSize, pool).parse(stream(csvContent)));
+			
+			assertEquals(expected.getMessage(), actual.getMessage(), "Chunk size " + chunkSize);
+		}
+		assertTrue(expected.getMessage().contains("line 330: A;B"), expected.getMessage());
+	}
+	
+	@Test
+	void shouldParseEmptyInputAndLinesLongerThanChunk() throws Exception {
+		assertEquals(0, new ChunkedCsvParser(16, pool).parse(stream("")).getLocationCount());
+		
+		String longName = "N".repeat(100);
+		CompiledGraph graph = new ChunkedCsvParser(16, pool).parse(stream("A;" + longName + ";3\n" + longName + ";B;4\n"));
+		
+		assertEquals(List.of("A", longName, "B"), List.of(graph.getLocation(0), graph.getLocation(1), graph.getLocation(2)));
+		assertEquals(2, graph.getEdgeCount());
+	}
+	
+	@Test
+	void shouldRejectNonPositiveChunkSize() {
+		assertThrows(IllegalArgumentException.class, () -> new ChunkedCsvParser(0, pool));
+	}
+	
+	// Locations in id order, then every edge, so equal descriptions mean equal graphs
+	private static List<String> describe(CompiledGraph graph) {
+		List<String> description = new ArrayList<>();
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			description.add(graph.getLocation(node));
+		}
+		for (int node = 0; node < graph.getLocationCount(); node++) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				description.add(node + ">" + graph.getTarget(edge) + "=" + graph.getWeight(edge));
+			}
+		}
+		return description;
+	}
+	
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static String generateCsv(int rows) {
+		Random random = new Random(3);
+		StringBuilder csv = new StringBuilder("loc_start;loc_end;time\n");
+		for (int i = 0; i < rows; i++) {
+			csv.append("Location ").append(random.nextInt(300)).append(';')
+				.append("Location ").append(random.nextInt(300)).append(';')
+				.append(random.nextInt(60) + 1).append(i % 3 == 0 ? "\r\n" : "\n");
+		}
+		return csv.toString();
+	}
+}
\ No newline at end of file
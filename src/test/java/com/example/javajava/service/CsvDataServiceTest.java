@@ -1,9 +1,13 @@
 package com.example.javajava.service;
 
+import com.example.javajava.graph.CompiledGraph;
 import com.example.javajava.model.TravelTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -147,4 +151,64 @@ class CsvDataServiceTest {
 		assertEquals("Location A", result.get(0).getFrom());
 		assertEquals("Location B", result.get(0).getTo());
 	}
+	
+	@Test
+	void shouldStreamRowsIntoGraph() throws Exception {
+		String csvContent = "loc_start;loc_end;time\r\nR11;R12;20\r\n\r\nR12;R13;9\r\nR11;R13;35";
+		
+		CompiledGraph graph = csvDataService.parseCSV(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+		
+		assertEquals(3, graph.getLocationCount());
+		assertEquals(3, graph.getEdgeCount());
+		int r11 = graph.indexOf("R11");
+		assertEquals(2, graph.endEdge(r11) - graph.firstEdge(r11));
+		assertEquals(graph.indexOf("R12"), graph.getTarget(graph.firstEdge(r11)));
+	}
+	
+	@Test
+	void shouldReportLineNumberOfInvalidStreamedRow() {
+		String csvContent = "loc_start;loc_end;time\nR11;R12;20\n\nR12;R13\nR13;R20;11";
+		
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+			() -> csvDataService.parseCSV(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8))));
+		
+		assertEquals("Invalid CSV format. Expected 3 fields separated by ';', got 2 fields in line 4: R12;R13", exception.getMessage());
+	}
+	
+	@Test
+	void shouldReportLineNumberOfNonPositiveTime() {
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+			() -> csvDataService.parseCSVContent("R11;R12;20\nR12;R13;0"));
+		
+		assertEquals("Time must be positive in line 2: R12;R13;0", exception.getMessage());
+	}
+	
+	@Test
+	void shouldStreamInputLargerThanReadBuffer() throws Exception {
+		int rows = 100_000;
+		// Rows are generated as they are read, the input never exists as a whole
+		InputStream input = new InputStream() {
+			private int row;
+			private byte[] line = new byte[0];
+			private int position;
+			
+			@Override
+			public int read() {
+				if (position == line.length) {
+					if (row == rows) {
+						return -1;
+					}
+					line = ("L" + row % 100 + ";L" + (row + 1) % 100 + ";" + (row % 7 + 1) + "\n").getBytes(StandardCharsets.UTF_8);
+					position = 0;
+					row++;
+				}
+				return line[position++];
+			}
+		};
+		
+		CompiledGraph graph = csvDataService.parseCSV(input);
+		
+		assertEquals(100, graph.getLocationCount());
+		assertEquals(rows, graph.getEdgeCount());
+	}
 }
\ No newline at end of file
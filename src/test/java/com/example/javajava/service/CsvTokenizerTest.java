@@ -0,0 +1,127 @@
+package com.example.javajava.service;
+
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTokenizerTest {
+	
+	private final CsvDataService csvDataService = new CsvDataService();
+	
+	@Test
+	void shouldAcceptSameRowsAsStringParser() throws Exception {
+		String csvContent = "loc_start;loc_end;time\r\n  R11 ; R12 ;20  \r\rR12;R13;+9;\nRüte1;Rüte2;25\r\n\n\tCP1;CP2;7";
+		
+		List<String> expected = describe(csvDataService.parseCSVContent(csvContent));
+		List<String> actual = new ArrayList<>();
+		LocationDictionary dictionary = new LocationDictionary();
+		new CsvTokenizer(dictionary, (from, to, time) -> actual.add(dictionary.getName(from) + ">" + dictionary.getName(to) + "=" + time))
+			.tokenize(oneByteAtATime(csvContent));
+		
+		assertEquals(List.of("R11>R12=20", "R12>R13=9", "Rüte1>Rüte2=25", "CP1>CP2=7"), expected);
+		assertEquals(expected, actual);
+	}
+	
+	@Test
+	void shouldRejectRowsWithSameMessagesAsStringParser() {
+		String[] invalidRows = {
+			"R11;R12",
+			"R11;R12;20;5",
+			";;",
+			"R11; ;20",
+			"R11;R12;abc",
+			"R11;R12;-",
+			"R11;R12;2147483648",
+			"R11;R12;0",
+			"R11;R12;-5"
+		};
+		for (String row : invalidRows) {
+			String csvContent = "R1;R2;3\r\n\r\n" + row + "\nR3;R4;5";
+			
+			IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+				() -> csvDataService.parseCSVContent(csvContent));
+			IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+				() -> csvDataService.parseCSV(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8))));
+			
+			assertEquals(expected.getMessage(), actual.getMessage());
+			assertTrue(actual.getMessage().contains("line 3"), actual.getMessage());
+		}
+	}
+	
+	@Test
+	void shouldAcceptExtremeTimes() throws Exception {
+		CompiledGraph graph = csvDataService.parseCSV(new ByteArrayInputStream("A;B;2147483647\nB;A;007".getBytes(StandardCharsets.UTF_8)));
+		
+		assertEquals(Integer.MAX_VALUE, graph.getWeight(graph.firstEdge(graph.indexOf("A"))));
+		assertEquals(7, graph.getWeight(graph.firstEdge(graph.indexOf("B"))));
+	}
+	
+	@Test
+	void shouldInternEachLocationOnce() {
+		LocationDictionary dictionary = new LocationDictionary();
+		byte[] buffer = "xR11xR11R12".getBytes(StandardCharsets.UTF_8);
+		
+		int first = dictionary.intern(buffer, 1, 3);
+		int second = dictionary.intern(buffer, 5, 3);
+		int other = dictionary.intern(buffer, 8, 3);
+		
+		assertEquals(first, second);
+		assertNotEquals(first, other);
+		assertEquals("R11", dictionary.getName(first));
+		assertSame(dictionary.getName(first), dictionary.getName(second));
+		assertEquals(2, dictionary.size());
+	}
+	
+	@Test
+	void shouldKeepIdsStableWhileGrowing() {
+		LocationDictionary dictionary = new LocationDictionary();
+		for (int i = 0; i < 5000; i++) {
+			byte[] name = ("Location " + i).getBytes(StandardCharsets.UTF_8);
+			assertEquals(i, dictionary.intern(name, 0, name.length));
+		}
+		for (int i = 0; i < 5000; i++) {
+			byte[] name = ("Location " + i).getBytes(StandardCharsets.UTF_8);
+			assertEquals(i, dictionary.intern(name, 0, name.length));
+			assertEquals("Location " + i, dictionary.getName(i));
+		}
+		assertEquals(5000, dictionary.size());
+	}
+	
+	@Test
+	void shouldHandleLineLongerThanReadBuffer() throws Exception {
+		String longName = "L".repeat(200_000);
+		String csvContent = "A;" + longName + ";4\n" + longName + ";B;6";
+		
+		CompiledGraph graph = csvDataService.parseCSV(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+		
+		assertEquals(3, graph.getLocationCount());
+		assertTrue(graph.hasLocation(longName));
+		assertEquals(2, graph.getEdgeCount());
+	}
+	
+	private static List<String> describe(List<TravelTime> travelTimes) {
+		List<String> rows = new ArrayList<>();
+		for (TravelTime travelTime : travelTimes) {
+			rows.add(travelTime.getFrom() + ">" + travelTime.getTo() + "=" + travelTime.getTime());
+		}
+		return rows;
+	}
+	
+	// Splits every line break, \r\n pair and multi-byte character across reads
+	private static InputStream oneByteAtATime(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public synchronized int read(byte[] buffer, int offset, int length) {
+				return super.read(buffer, offset, Math.min(length, 1));
+			}
+		};
+	}
+}
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.example.javajava.service;
 
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.GraphSnapshot;
 import com.example.javajava.model.TravelTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -150,4 +156,168 @@ class DataStorageServiceTest {
 		
 		assertEquals(2, count);
 	}
+	
+	@Test
+	void shouldCompileGraphOnStore() {
+		List<TravelTime> travelTimes = Arrays.asList(
+		new TravelTime("R11", "R12", 20),
+		new TravelTime("R12", "R13", 9)
+		);
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		// R12 only passes traffic on and is contracted
+		assertEquals(2, dataStorageService.getGraph().getLocationCount());
+		assertEquals(1, dataStorageService.getGraph().getEdgeCount());
+		assertEquals(2, dataStorageService.getDataCount());
+		assertSame(dataStorageService.getGraph(), dataStorageService.getGraph());
+	}
+	
+	@Test
+	void shouldResetGraphOnClear() {
+		dataStorageService.storeTravelTimes(Arrays.asList(new TravelTime("R11", "R12", 20)));
+		
+		dataStorageService.clearAllData();
+		
+		assertEquals(0, dataStorageService.getGraph().getLocationCount());
+	}
+	
+	@Test
+	void shouldPublishNewSnapshotVersionOnEachLoad() {
+		GraphSnapshot initial = dataStorageService.getSnapshot();
+		
+		dataStorageService.storeTravelTimes(Arrays.asList(new TravelTime("R11", "R12", 20)));
+		GraphSnapshot first = dataStorageService.getSnapshot();
+		dataStorageService.storeTravelTimes(Arrays.asList(new TravelTime("R11", "R12", 30)));
+		GraphSnapshot second = dataStorageService.getSnapshot();
+		
+		assertTrue(first.getVersion() > initial.getVersion());
+		assertTrue(second.getVersion() > first.getVersion());
+		assertEquals(20, first.getTravelTimes().get(0).getTime());
+		assertEquals(30, second.getTravelTimes().get(0).getTime());
+	}
+	
+	@Test
+	void shouldStoreStreamedGraphWithoutRawRows() {
+		List<String> notified = new ArrayList<>();
+		dataStorageService.addSnapshotListener(snapshot -> notified.add(snapshot.getGraph().getLocation(0)));
+		
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R11", "R13", 35),
+			new TravelTime("R13", "R12", 5)
+		)));
+		
+		// Ids are renumbered on load, the listener sees the graph as stored
+		assertEquals(List.of(dataStorageService.getGraph().getLocation(0)), notified);
+		assertEquals(4, dataStorageService.getDataCount());
+		List<TravelTime> fromR11 = dataStorageService.getTravelTimesFrom("R11");
+		assertEquals(2, fromR11.size());
+		assertEquals(35, fromR11.get(1).getTime());
+		assertEquals(3, dataStorageService.getAllLocations().size());
+	}
+	
+	@Test
+	void shouldKeepParsedRowsOfSimplifiedStreamedGraph() {
+		List<TravelTime> travelTimes = List.of(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9)
+		);
+		
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(travelTimes));
+		
+		// The graph only keeps the R11 to R20 shortcut, the rows are the ones parsed
+		assertEquals(1, dataStorageService.getGraph().getEdgeCount());
+		assertEquals(describe(travelTimes), describe(dataStorageService.getAllTravelTimes()));
+		assertEquals(3, dataStorageService.getDataCount());
+		List<String> locations = dataStorageService.getAllLocations();
+		assertEquals(4, locations.size());
+		assertTrue(locations.containsAll(List.of("R11", "R12", "R13", "R20")));
+		assertEquals(List.of("R12-R13:9"), describe(dataStorageService.getTravelTimesFrom("R12")));
+	}
+	
+	@Test
+	void shouldMoveGraphsIntoMappedStorage(@TempDir Path directory) {
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setDirectory(directory.toString());
+		dataProperties.setStorage(DataProperties.Storage.MAPPED);
+		DataStorageService mappedStorage = new DataStorageService(dataProperties);
+		
+		mappedStorage.storeTravelTimes(List.of(new TravelTime("R11", "R12", 20), new TravelTime("R12", "R13", 9), new TravelTime("R12", "R11", 4)));
+		CompiledGraph graph = mappedStorage.getGraph();
+		
+		assertEquals("mapped", graph.getStorage());
+		assertEquals(3, graph.getEdgeCount());
+		assertEquals("R13", graph.getLocation(graph.getTarget(graph.firstEdge(graph.indexOf("R12")))));
+		assertEquals(3, mappedStorage.getAllTravelTimes().size());
+		
+		mappedStorage.restoreSnapshot(new GraphSnapshot(0, CompiledGraph.fromTravelTimes(List.of(new TravelTime("A", "B", 1)))));
+		assertEquals("mapped", mappedStorage.getGraph().getStorage());
+		assertSame(mappedStorage.getGraph(), mappedStorage.prepareGraph(mappedStorage.getGraph()));
+		assertEquals("heap", dataStorageService.prepareGraph(CompiledGraph.fromTravelTimes(List.of(new TravelTime("A", "B", 1)))).getStorage());
+	}
+	
+	@Test
+	void shouldCompressGraphsWhenConfigured() {
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setStorage(DataProperties.Storage.COMPRESSED);
+		DataStorageService compressedStorage = new DataStorageService(dataProperties);
+		
+		compressedStorage.storeTravelTimes(List.of(new TravelTime("R11", "R13", 20), new TravelTime("R11", "R12", 9)));
+		CompiledGraph graph = compressedStorage.getGraph();
+		
+		assertEquals("compressed", graph.getStorage());
+		assertEquals(2, graph.getEdgeCount());
+		// Out-edges are ordered by target id, R13 came first
+		assertEquals("R13", graph.getLocation(graph.getTarget(graph.firstEdge(graph.indexOf("R11")))));
+		assertEquals(9, graph.getWeight(graph.firstEdge(graph.indexOf("R11")) + 1));
+	}
+	
+	@Test
+	void shouldSimplifyGraphsByDefault() {
+		List<TravelTime> travelTimes = List.of(
+			new TravelTime("R11", "R11", 5),
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R11", "R12", 9),
+			new TravelTime("R12", "R13", 4),
+			new TravelTime("R12", "CP1", 1),
+			new TravelTime("R13", "R20", 11),
+			new TravelTime("R20", "R12", 3),
+			new TravelTime("R20", "CP1", 2)
+		);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		
+		// R13 only passes traffic from R12 on to R20
+		assertEquals(4, snapshot.getGraph().getLocationCount());
+		assertEquals(5, snapshot.getGraph().getEdgeCount());
+		assertFalse(snapshot.getGraph().hasLocation("R13"));
+		assertTrue(snapshot.getSimplification().isContracted("R13"));
+		assertEquals(8, snapshot.getSimplification().getInputEdges());
+		assertEquals(travelTimes, dataStorageService.getAllTravelTimes());
+		assertEquals(8, dataStorageService.getDataCount());
+	}
+	
+	@Test
+	void shouldKeepGraphAsLoadedWhenSimplificationIsDisabled() {
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setSimplify(false);
+		DataStorageService rawStorage = new DataStorageService(dataProperties);
+		
+		rawStorage.storeTravelTimes(List.of(new TravelTime("R11", "R11", 5), new TravelTime("R11", "R12", 20), new TravelTime("R12", "R13", 9)));
+		
+		assertEquals(3, rawStorage.getGraph().getLocationCount());
+		assertEquals(3, rawStorage.getGraph().getEdgeCount());
+		assertNull(rawStorage.getSnapshot().getSimplification());
+	}
+	
+	private static List<String> describe(List<TravelTime> travelTimes) {
+		List<String> rows = new ArrayList<>(travelTimes.size());
+		for (TravelTime travelTime : travelTimes) {
+			rows.add(travelTime.getFrom() + "-" + travelTime.getTo() + ":" + travelTime.getTime());
+		}
+		return rows;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,286 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.RoutingAlgorithm;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphIndexServiceTest {
+	
+	private DataStorageService dataStorageService;
+	private RoutingProperties routingProperties;
+	private GraphIndexService graphIndexService;
+	
+	private final List<TravelTime> travelTimes = Arrays.asList(
+		new TravelTime("R11", "R12", 20),
+		new TravelTime("R12", "R13", 9),
+		new TravelTime("R13", "R20", 9),
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "R20", 67)
+	);
+	
+	@BeforeEach
+	void setUp() {
+		dataStorageService = new DataStorageService();
+		routingProperties = new RoutingProperties();
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+	}
+	
+	@Test
+	void shouldAttachLandmarksAfterLoad() {
+		routingProperties.getLandmarks().setCount(3);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertNotNull(dataStorageService.getSnapshot().getLandmarks());
+		assertEquals(3, dataStorageService.getSnapshot().getLandmarks().getLandmarkCount());
+	}
+	
+	@Test
+	void shouldSkipLandmarksWhenDisabled() {
+		routingProperties.getLandmarks().setCount(0);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertNull(dataStorageService.getSnapshot().getLandmarks());
+	}
+	
+	@Test
+	void shouldAnswerAltRoutesThroughRouteService() {
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties);
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		PathResult result = routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.ALT);
+		
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldReportLandmarkStatistics() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		Map<String, Object> statistics = graphIndexService.getStatistics();
+		
+		// R12, R13 and CP2 only pass traffic on and are contracted
+		assertEquals(3, statistics.get("locations"));
+		assertEquals(2, statistics.get("edges"));
+		Map<?, ?> simplification = (Map<?, ?>) statistics.get("simplification");
+		assertEquals(6, simplification.get("inputLocations"));
+		assertEquals(5, simplification.get("inputEdges"));
+		assertEquals(3, simplification.get("contractedLocations"));
+		assertEquals(4, ((List<?>) simplification.get("stages")).size());
+		Map<?, ?> landmarks = (Map<?, ?>) statistics.get("landmarks");
+		assertEquals(3, landmarks.get("count"));
+		assertTrue((Long) landmarks.get("memoryBytes") > 0);
+		assertNotNull(landmarks.get("preprocessingMillis"));
+	}
+	
+	@Test
+	void shouldRejectNegativeLandmarkCount() {
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getLandmarks().setCount(-1));
+	}
+	
+	@Test
+	void shouldAttachHierarchyFromBackgroundExecutor() {
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertNotNull(dataStorageService.getSnapshot().getHierarchy());
+		PathResult result = routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.CH);
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+		assertTrue(graphIndexService.getStatistics().containsKey("contractionHierarchy"));
+	}
+	
+	@Test
+	void shouldFallBackToDijkstraUntilHierarchyIsReady() {
+		List<Runnable> pending = new ArrayList<>();
+		DataStorageService storage = new DataStorageService();
+		new GraphIndexService(storage, routingProperties, pending::add);
+		RouteService routeService = new RouteService(storage, new GraphService(), routingProperties);
+		
+		storage.storeTravelTimes(travelTimes);
+		
+		assertNull(storage.getSnapshot().getHierarchy());
+		assertEquals(74, routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.CH).getTotalTime());
+		
+		pending.forEach(Runnable::run);
+		assertNotNull(storage.getSnapshot().getHierarchy());
+	}
+	
+	@Test
+	void shouldBuildLandmarksInBackgroundAndFallBackUntilReady() {
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		routingProperties.getContractionHierarchy().setEnabled(false);
+		List<Runnable> pending = new ArrayList<>();
+		DataStorageService storage = new DataStorageService();
+		new GraphIndexService(storage, routingProperties, pending::add);
+		RouteService routeService = new RouteService(storage, new GraphService(), routingProperties);
+		
+		storage.storeTravelTimes(travelTimes);
+		storage.storeTravelTimes(travelTimes);
+		
+		assertNull(storage.getSnapshot().getLandmarks());
+		assertEquals(74, routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.ALT).getTotalTime());
+		// The first load was replaced before its task ran
+		pending.get(0).run();
+		assertNull(storage.getSnapshot().getLandmarks());
+		pending.get(1).run();
+		assertNotNull(storage.getSnapshot().getLandmarks());
+	}
+	
+	@Test
+	void shouldDiscardHierarchyOfReplacedDataset() {
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		routingProperties.getLandmarks().setCount(0);
+		List<Runnable> pending = new ArrayList<>();
+		DataStorageService storage = new DataStorageService();
+		new GraphIndexService(storage, routingProperties, pending::add);
+		
+		storage.storeTravelTimes(travelTimes);
+		storage.storeTravelTimes(Arrays.asList(new TravelTime("R11", "R12", 5)));
+		pending.get(0).run();
+		
+		assertNull(storage.getSnapshot().getHierarchy());
+		pending.get(1).run();
+		assertNotNull(storage.getSnapshot().getHierarchy());
+	}
+	
+	@Test
+	void shouldReuseContractionOrderWhenOnlyWeightsChange() {
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 3)
+		));
+		
+		assertEquals(10, routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.CH).getTotalTime());
+		Map<?, ?> hierarchy = (Map<?, ?>) graphIndexService.getStatistics().get("contractionHierarchy");
+		assertEquals(1L, hierarchy.get("orderBuilds"));
+		assertEquals(1L, hierarchy.get("orderReuses"));
+		assertNotNull(hierarchy.get("customizationMillis"));
+	}
+	
+	@Test
+	void shouldRebuildContractionOrderWhenTopologyChanges() {
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		List<TravelTime> extended = new ArrayList<>(travelTimes);
+		extended.add(new TravelTime("R11", "CP2", 4));
+		dataStorageService.storeTravelTimes(extended);
+		
+		Map<?, ?> hierarchy = (Map<?, ?>) graphIndexService.getStatistics().get("contractionHierarchy");
+		assertEquals(2L, hierarchy.get("orderBuilds"));
+		assertEquals(0L, hierarchy.get("orderReuses"));
+	}
+	
+	@Test
+	void shouldAttachHubLabelsOnlyWhenEnabled() {
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		assertNull(dataStorageService.getSnapshot().getHubLabels());
+		
+		routingProperties.getHubLabels().setEnabled(true);
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertNotNull(dataStorageService.getSnapshot().getHubLabels());
+		Map<?, ?> labels = (Map<?, ?>) graphIndexService.getStatistics().get("hubLabels");
+		assertTrue((Long) labels.get("entries") >= 6);
+		assertNotNull(labels.get("averageLabelSize"));
+		assertNotNull(labels.get("maxLabelSize"));
+	}
+	
+	@Test
+	void shouldAnswerTravelTimeFromHubLabels() {
+		routingProperties.getHubLabels().setEnabled(true);
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertEquals(74, routeService.calculateTravelTime("CP1", "R20"));
+		assertEquals(-1, routeService.calculateTravelTime("R20", "CP1"));
+		PathResult result = routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.HUB_LABELS);
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+	}
+	
+	@Test
+	void shouldReuseOverlayPartitionWhenOnlyWeightsChange() {
+		routingProperties.getOverlay().setEnabled(true);
+		routingProperties.getOverlay().setCellSize(2);
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		assertEquals(74, routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.OVERLAY).getTotalTime());
+		Map<?, ?> initial = (Map<?, ?>) graphIndexService.getStatistics().get("overlay");
+		
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 3)
+		));
+		
+		assertEquals(10, routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.OVERLAY).getTotalTime());
+		Map<?, ?> reloaded = (Map<?, ?>) graphIndexService.getStatistics().get("overlay");
+		assertEquals(initial.get("totalCells"), initial.get("customizedCells"));
+		assertTrue((Integer) reloaded.get("customizedCells") < (Integer) reloaded.get("totalCells"));
+	}
+	
+	@Test
+	void shouldRejectInvalidOverlaySettings() {
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getOverlay().setCellSize(0));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getOverlay().setLevels(0));
+	}
+	
+	@Test
+	void shouldSelectDistanceTableAutomaticallyForSmallDatasets() {
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertNotNull(dataStorageService.getSnapshot().getDistanceTable());
+		PathResult result = routeService.calculateOptimalRoute("CP1", "R20");
+		assertEquals(Arrays.asList("CP1", "CP2", "R20"), result.getPath());
+		assertEquals(74, result.getTotalTime());
+		assertEquals(-1, routeService.calculateTravelTime("R20", "CP1"));
+		Map<?, ?> table = (Map<?, ?>) graphIndexService.getStatistics().get("distanceTable");
+		assertEquals(3, table.get("locations"));
+		assertTrue((Long) table.get("memoryBytes") > 0);
+	}
+	
+	@Test
+	void shouldSkipDistanceTableAboveLocationLimit() {
+		routingProperties.getDistanceTable().setMaxLocations(2);
+		graphIndexService = new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertNull(dataStorageService.getSnapshot().getDistanceTable());
+		assertFalse(graphIndexService.getStatistics().containsKey("distanceTable"));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getDistanceTable().setMaxLocations(-1));
+	}
+}
\ No newline at end of file
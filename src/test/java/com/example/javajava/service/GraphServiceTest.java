@@ -67,6 +67,19 @@ class GraphServiceTest {
 		assertEquals(20, neighbors.get(0).getWeight());
 	}
 	
+	@Test
+	void shouldAddBatchOfEdgesToCurrentGraph() {
+		graphService.addEdge("R11", "R12", 20);
+		graphService.addEdges(Arrays.asList(
+			new TravelTime("R11", "R13", 15),
+			new TravelTime("R13", "CP1", 92)
+		));
+		
+		assertEquals(2, graphService.getNeighbors("R11").size());
+		assertEquals(107, graphService.findShortestPath("R11", "CP1").getTotalTime());
+		assertThrows(IllegalArgumentException.class, () -> graphService.addEdges(null));
+	}
+	
 	@Test
 	void shouldHandleMultipleEdgesFromSameSource() {
 		graphService.addEdge("R11", "R12", 20);
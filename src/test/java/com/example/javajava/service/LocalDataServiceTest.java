@@ -0,0 +1,139 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LocalDataServiceTest {
+	
+	@TempDir
+	Path root;
+	
+	private Path dataDirectory;
+	private DataProperties dataProperties;
+	private DataStorageService dataStorageService;
+	private LocalDataService localDataService;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		dataDirectory = Files.createDirectory(root.resolve("data"));
+		dataProperties = new DataProperties();
+		dataProperties.setDirectory(dataDirectory.toString());
+		dataStorageService = new DataStorageService();
+		localDataService = new LocalDataService(dataProperties, new CsvDataService(), dataStorageService);
+	}
+	
+	@Test
+	void shouldLoadMappedFileIntoStorage() throws Exception {
+		Files.writeString(dataDirectory.resolve("travel_times.csv"), "loc_start;loc_end;time\nRüte1;R12;20\r\nR12;R13;9", StandardCharsets.UTF_8);
+		
+		CompiledGraph graph = localDataService.loadFile("travel_times.csv");
+		
+		assertEquals(2, graph.getEdgeCount());
+		assertTrue(dataStorageService.getGraph().hasLocation("Rüte1"));
+		assertTrue(dataStorageService.getSnapshot().hasLocation("R12"));
+		assertEquals(2, dataStorageService.getDataCount());
+	}
+	
+	@Test
+	void shouldReportParsedRowsOfSimplifiedFile() throws Exception {
+		// A repeated row, a self-loop, and A and B only passing traffic on from D to C, slower than D's own edge
+		Files.writeString(dataDirectory.resolve("roads.csv"), "A;B;1\nA;B;4\nB;C;2\nC;C;1\nC;D;1\nD;C;1\nD;A;1\n");
+		
+		CompiledGraph graph = localDataService.loadFile("roads.csv");
+		
+		assertEquals(7, graph.getEdgeCount());
+		assertEquals(7, dataStorageService.getDataCount());
+		assertEquals(2, dataStorageService.getGraph().getEdgeCount());
+	}
+	
+	@Test
+	void shouldLoadFilesFromSubdirectories() throws Exception {
+		Files.createDirectory(dataDirectory.resolve("cities"));
+		Files.writeString(dataDirectory.resolve("cities/a.csv"), "A;B;1\n");
+		
+		assertEquals(1, localDataService.loadFile("cities/../cities/a.csv").getEdgeCount());
+	}
+	
+	@Test
+	void shouldRejectFilesOutsideDataDirectory() throws Exception {
+		Files.writeString(root.resolve("secret.csv"), "A;B;1\n");
+		
+		assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile("../secret.csv"));
+		assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile(root.resolve("secret.csv").toString()));
+		assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile("."));
+		assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile(" "));
+		assertEquals(0, dataStorageService.getDataCount());
+	}
+	
+	@Test
+	void shouldRejectLinksLeadingOutOfDataDirectory() throws Exception {
+		Path secret = Files.writeString(root.resolve("secret.csv"), "A;B;1\n");
+		try {
+			Files.createSymbolicLink(dataDirectory.resolve("link.csv"), secret);
+		} catch (UnsupportedOperationException | IOException e) {
+			assumeTrue(false, "Symbolic links not supported");
+		}
+		
+		assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile("link.csv"));
+	}
+	
+	@Test
+	void shouldReportMissingAndEmptyFiles() throws Exception {
+		Files.createFile(dataDirectory.resolve("empty.csv"));
+		Files.createDirectory(dataDirectory.resolve("folder"));
+		
+		assertThrows(NoSuchFileException.class, () -> localDataService.loadFile("missing.csv"));
+		assertThrows(NoSuchFileException.class, () -> localDataService.loadFile("folder"));
+		IllegalArgumentException empty = assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile("empty.csv"));
+		assertEquals("File is empty", empty.getMessage());
+	}
+	
+	@Test
+	void shouldKeepPreviousDataWhenFileIsInvalid() throws Exception {
+		Files.writeString(dataDirectory.resolve("good.csv"), "A;B;1\n");
+		Files.writeString(dataDirectory.resolve("bad.csv"), "A;B;1\nA;B\n");
+		localDataService.loadFile("good.csv");
+		
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> localDataService.loadFile("bad.csv"));
+		
+		assertTrue(error.getMessage().contains("line 2"), error.getMessage());
+		assertEquals(1, dataStorageService.getDataCount());
+	}
+	
+	@Test
+	void shouldLoadInitialFileOnlyWhenConfigured() throws Exception {
+		Files.writeString(dataDirectory.resolve("initial.csv"), "A;B;1\nB;C;2\n");
+		
+		localDataService.loadInitialFile();
+		assertEquals(0, dataStorageService.getDataCount());
+		
+		dataProperties.setInitialFile("initial.csv");
+		localDataService.loadInitialFile();
+		assertEquals(2, dataStorageService.getDataCount());
+	}
+	
+	@Test
+	void shouldNotLoadInitialFileOverRestoredDataset() throws Exception {
+		Files.writeString(dataDirectory.resolve("initial.csv"), "A;B;1\nB;C;2\n");
+		dataProperties.setInitialFile("initial.csv");
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(List.of(new TravelTime("X", "Y", 3))));
+		
+		localDataService.loadInitialFile();
+		
+		assertEquals(1, dataStorageService.getDataCount());
+	}
+}
\ No newline at end of file
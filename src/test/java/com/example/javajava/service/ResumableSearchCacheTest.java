@@ -0,0 +1,97 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableSearchCacheTest {
+	
+	private DataStorageService dataStorageService;
+	private RoutingProperties routingProperties;
+	private ResumableSearchCache searchCache;
+	private RouteService routeService;
+	
+	private final List<TravelTime> travelTimes = Arrays.asList(
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "R11", 5),
+		new TravelTime("R11", "R12", 9),
+		new TravelTime("R12", "R20", 9)
+	);
+	
+	@BeforeEach
+	void setUp() {
+		// Sizes and reuse counts here are per graph node, so the graph is kept as loaded
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setSimplify(false);
+		dataStorageService = new DataStorageService(dataProperties);
+		routingProperties = new RoutingProperties();
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		routingProperties.getRouteCache().setMaxEntries(0);
+		routingProperties.getResumableSearches().setEnabled(true);
+		searchCache = new ResumableSearchCache(dataStorageService, routingProperties);
+		routeService = new RouteService(dataStorageService, new GraphService(), routingProperties,
+			new RouteCache(dataStorageService, routingProperties), new ShortestPathTreeCache(dataStorageService, routingProperties), searchCache,
+			new QueryLog(), new RouteCoalescer(), new RouteBatcher(routingProperties));
+	}
+	
+	@Test
+	void shouldResumeFartherAndAnswerNearerDestinations() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertEquals(12, routeService.calculateOptimalRoute("CP1", "R11").getTotalTime());
+		assertEquals(30, routeService.calculateOptimalRoute("CP1", "R20").getTotalTime());
+		assertEquals(Arrays.asList("CP1", "CP2"), routeService.calculateOptimalRoute("CP1", "CP2").getPath());
+		
+		Map<String, Object> statistics = searchCache.getStatistics();
+		assertEquals(1L, statistics.get("starts"));
+		assertEquals(1L, statistics.get("resumes"));
+		assertEquals(1L, statistics.get("settledAnswers"));
+		assertEquals(1, statistics.get("searches"));
+		assertEquals(28L * 5, statistics.get("memoryBytes"));
+	}
+	
+	@Test
+	void shouldDropSearchesOnLoad() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP1", "R20");
+		
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 3)
+		));
+		
+		assertEquals(10, routeService.calculateOptimalRoute("CP1", "R20").getTotalTime());
+		assertEquals(2L, searchCache.getStatistics().get("starts"));
+		assertEquals(1, searchCache.getStatistics().get("searches"));
+	}
+	
+	@Test
+	void shouldEvictLeastRecentlyUsedSearchesOverMemoryLimit() {
+		routingProperties.getResumableSearches().setMaxMemoryMb(1);
+		// 25k locations make each search 700 KB, so the 1 MB budget holds one
+		List<TravelTime> chain = new ArrayList<>();
+		for (int i = 0; i < 25_000; i++) {
+			chain.add(new TravelTime("N" + i, "N" + (i + 1), 1));
+		}
+		dataStorageService.storeTravelTimes(chain);
+		
+		routeService.calculateOptimalRoute("N0", "N10");
+		routeService.calculateOptimalRoute("N5", "N10");
+		routeService.calculateOptimalRoute("N5", "N20");
+		
+		Map<String, Object> statistics = searchCache.getStatistics();
+		assertEquals(1, statistics.get("searches"));
+		assertEquals(1L, statistics.get("evictions"));
+		assertEquals(1L, statistics.get("resumes"));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getResumableSearches().setMaxMemoryMb(0));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteBatcherTest {
+	
+	private DataStorageService dataStorageService;
+	private RoutingProperties routingProperties;
+	private RouteBatcher routeBatcher;
+	
+	@BeforeEach
+	void setUp() {
+		// The batcher searches the graph by name; RouteService resolves contracted locations before it
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setSimplify(false);
+		dataStorageService = new DataStorageService(dataProperties);
+		routingProperties = new RoutingProperties();
+		routeBatcher = new RouteBatcher(routingProperties);
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+	}
+	
+	@Test
+	void shouldAnswerBurstFromOneOriginWithOneSearch() throws Exception {
+		// Long window and a batch size equal to the burst, so the batch closes as soon as everyone joined
+		routingProperties.getBatching().setWindowMicros(2_000_000);
+		routingProperties.getBatching().setMaxSize(4);
+		List<String> destinations = List.of("R11", "R12", "CP2", "R20");
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(destinations.size());
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<PathResult>> results = new ArrayList<>();
+			for (String destination : destinations) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return routeBatcher.findShortestPath(snapshot, "CP1", destination);
+				}));
+			}
+			start.countDown();
+			
+			assertEquals(Arrays.asList("CP1", "R11"), results.get(0).get(10, TimeUnit.SECONDS).getPath());
+			assertEquals(104, results.get(1).get(10, TimeUnit.SECONDS).getTotalTime());
+			assertEquals(7, results.get(2).get(10, TimeUnit.SECONDS).getTotalTime());
+			assertEquals(Arrays.asList("CP1", "CP2", "R20"), results.get(3).get(10, TimeUnit.SECONDS).getPath());
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		assertEquals(1L, routeBatcher.getStatistics().get("batches"));
+		assertEquals(4L, routeBatcher.getStatistics().get("requests"));
+		assertEquals(4L, routeBatcher.getStatistics().get("largestBatch"));
+	}
+	
+	@Test
+	void shouldSearchAloneWithoutWindow() {
+		routingProperties.getBatching().setWindowMicros(0);
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		
+		assertEquals(74, routeBatcher.findShortestPath(snapshot, "CP1", "R20").getTotalTime());
+		assertEquals(List.of("R12", "R13"), routeBatcher.findShortestPath(snapshot, "R12", "R13").getPath());
+		
+		assertEquals(2L, routeBatcher.getStatistics().get("batches"));
+		assertEquals(1.0, routeBatcher.getStatistics().get("averageBatchSize"));
+	}
+	
+	@Test
+	void shouldReturnEmptyResultForUnknownLocationOrUnreachableTarget() {
+		GraphSnapshot snapshot = dataStorageService.getSnapshot();
+		
+		assertFalse(routeBatcher.findShortestPath(snapshot, "CP1", "NOPE").isPathFound());
+		assertFalse(routeBatcher.findShortestPath(snapshot, "R20", "CP1").isPathFound());
+		assertEquals(1L, routeBatcher.getStatistics().get("batches"));
+	}
+	
+	@Test
+	void shouldBatchDefaultRoutesWhenEnabled() {
+		routingProperties.getBatching().setEnabled(true);
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		RouteService routeService = new RouteService(dataStorageService, new GraphService(), routingProperties,
+			new RouteCache(dataStorageService, routingProperties), new ShortestPathTreeCache(dataStorageService, routingProperties),
+			new ResumableSearchCache(dataStorageService, routingProperties), new QueryLog(), new RouteCoalescer(), routeBatcher);
+		dataStorageService.storeTravelTimes(List.of(new TravelTime("CP1", "CP2", 7), new TravelTime("CP2", "R20", 67)));
+		
+		PathResult result = routeService.calculateOptimalRoute("CP1", "R20");
+		
+		assertEquals(74, result.getTotalTime());
+		assertEquals(1L, routeBatcher.getStatistics().get("batches"));
+	}
+	
+	@Test
+	void shouldRejectInvalidBatchingSettings() {
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getBatching().setWindowMicros(-1));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getBatching().setMaxSize(0));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteCacheTest {
+	
+	private DataStorageService dataStorageService;
+	private RoutingProperties routingProperties;
+	private RouteCache routeCache;
+	private RouteService routeService;
+	
+	private final List<TravelTime> travelTimes = Arrays.asList(
+		new TravelTime("R11", "R12", 20),
+		new TravelTime("R12", "R13", 9),
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "R13", 67)
+	);
+	
+	@BeforeEach
+	void setUp() {
+		dataStorageService = new DataStorageService();
+		routingProperties = new RoutingProperties();
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		routeCache = new RouteCache(dataStorageService, routingProperties);
+		routeService = new RouteService(dataStorageService, new GraphService(), routingProperties, routeCache,
+			new ShortestPathTreeCache(dataStorageService, routingProperties), new ResumableSearchCache(dataStorageService, routingProperties),
+			new QueryLog(), new RouteCoalescer(), new RouteBatcher(routingProperties));
+	}
+	
+	@Test
+	void shouldServeRepeatedRoutesFromCache() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		PathResult first = routeService.calculateOptimalRoute("R11", "R13");
+		PathResult second = routeService.calculateOptimalRoute("R11", "R13");
+		
+		assertSame(first, second);
+		assertEquals(Arrays.asList("R11", "R12", "R13"), second.getPath());
+		Map<String, Object> statistics = routeCache.getStatistics();
+		assertEquals(1L, statistics.get("hits"));
+		assertEquals(1L, statistics.get("misses"));
+		assertEquals(1, statistics.get("entries"));
+	}
+	
+	@Test
+	void shouldInvalidateOnLoad() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		assertEquals(74, routeService.calculateOptimalRoute("CP1", "R13").getTotalTime());
+		
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R13", 3)
+		));
+		
+		assertEquals(10, routeService.calculateOptimalRoute("CP1", "R13").getTotalTime());
+		assertEquals(0L, routeCache.getStatistics().get("hits"));
+		assertEquals(1, routeCache.getStatistics().get("entries"));
+	}
+	
+	@Test
+	void shouldNotServeEntriesOfAnOlderVersion() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("R11", "R13");
+		
+		// Clearing bumps the version without notifying listeners
+		dataStorageService.clearAllData();
+		
+		assertFalse(routeService.calculateOptimalRoute("R11", "R13").isPathFound());
+		assertEquals(0L, routeCache.getStatistics().get("hits"));
+	}
+	
+	@Test
+	void shouldEvictLeastRecentlyUsedRoutes() {
+		routingProperties.getRouteCache().setMaxEntries(2);
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		routeService.calculateOptimalRoute("R11", "R12");
+		routeService.calculateOptimalRoute("R11", "R13");
+		routeService.calculateOptimalRoute("R11", "R12");
+		routeService.calculateOptimalRoute("CP1", "R13");
+		routeService.calculateOptimalRoute("R11", "R12");
+		
+		Map<String, Object> statistics = routeCache.getStatistics();
+		assertEquals(2, statistics.get("entries"));
+		assertEquals(1L, statistics.get("evictions"));
+		assertEquals(2L, statistics.get("hits"));
+	}
+	
+	@Test
+	void shouldBypassCacheWhenDisabled() {
+		routingProperties.getRouteCache().setMaxEntries(0);
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		routeService.calculateOptimalRoute("R11", "R13");
+		routeService.calculateOptimalRoute("R11", "R13");
+		
+		assertEquals(0, routeCache.getStatistics().get("entries"));
+		assertEquals(0L, routeCache.getStatistics().get("hits"));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getRouteCache().setMaxEntries(-1));
+	}
+	
+	@Test
+	void shouldServeConcurrentReaders() throws Exception {
+		dataStorageService.storeTravelTimes(travelTimes);
+		AtomicInteger searches = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<PathResult>> results = new ArrayList<>();
+			for (int i = 0; i < 400; i++) {
+				results.add(executor.submit(() -> routeCache.getOrCompute(dataStorageService.getSnapshot().getVersion(), "R11", "R13", () -> {
+					searches.incrementAndGet();
+					return routeService.calculateOptimalRoute("R11", "R13", routingProperties.getAlgorithm());
+				})));
+			}
+			for (Future<PathResult> result : results) {
+				assertEquals(29, result.get().getTotalTime());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		Map<String, Object> statistics = routeCache.getStatistics();
+		assertEquals(400L, (Long) statistics.get("hits") + (Long) statistics.get("misses"));
+		assertEquals(searches.get(), ((Long) statistics.get("misses")).intValue());
+		assertEquals(1, statistics.get("entries"));
+	}
+}
\ No newline at end of file
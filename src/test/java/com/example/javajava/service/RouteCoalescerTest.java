@@ -0,0 +1,148 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.RoutingAlgorithm;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteCoalescerTest {
+	
+	private static final int BURST = 16;
+	
+	@Test
+	void shouldShareOneSearchAcrossIdenticalBurst() throws Exception {
+		DataStorageService dataStorageService = new DataStorageService();
+		RoutingProperties routingProperties = new RoutingProperties();
+		AtomicInteger searches = new AtomicInteger();
+		// Slow enough that the whole burst arrives while the first search is running
+		GraphService slowGraphService = new GraphService() {
+			@Override
+			public PathResult findShortestPath(GraphSnapshot snapshot, String source, String destination, RoutingAlgorithm algorithm) {
+				searches.incrementAndGet();
+				sleep(200);
+				return super.findShortestPath(snapshot, source, destination, algorithm);
+			}
+		};
+		RouteCoalescer coalescer = new RouteCoalescer();
+		RouteService routeService = new RouteService(dataStorageService, slowGraphService, routingProperties,
+			new RouteCache(dataStorageService, routingProperties), new ShortestPathTreeCache(dataStorageService, routingProperties),
+			new ResumableSearchCache(dataStorageService, routingProperties), new QueryLog(), coalescer, new RouteBatcher(routingProperties));
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 67)
+		));
+		
+		ExecutorService executor = Executors.newFixedThreadPool(BURST);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<PathResult>> results = new ArrayList<>();
+			for (int i = 0; i < BURST; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return routeService.calculateOptimalRoute("CP1", "R20", RoutingAlgorithm.DIJKSTRA);
+				}));
+			}
+			start.countDown();
+			
+			PathResult first = results.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<PathResult> result : results) {
+				assertSame(first, result.get(10, TimeUnit.SECONDS));
+			}
+			assertEquals(74, first.getTotalTime());
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		assertTrue(searches.get() < BURST / 2, "Identical concurrent requests should share searches");
+		assertEquals((long) searches.get(), coalescer.getStatistics().get("searches"));
+		assertEquals((long) BURST - searches.get(), coalescer.getStatistics().get("coalesced"));
+		assertEquals(0, coalescer.getStatistics().get("inFlight"));
+	}
+	
+	@Test
+	void shouldNotCoalesceAcrossDatasetVersions() throws Exception {
+		RouteCoalescer coalescer = new RouteCoalescer();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PathResult old = new PathResult(List.of("A", "B"), 5);
+		PathResult fresh = new PathResult(List.of("A", "B"), 3);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<PathResult> leader = executor.submit(() -> coalescer.execute(1, "A", "B", null, () -> {
+				leaderStarted.countDown();
+				await(release);
+				return old;
+			}));
+			leaderStarted.await();
+			
+			assertSame(fresh, coalescer.execute(2, "A", "B", null, () -> fresh));
+			release.countDown();
+			assertSame(old, leader.get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2L, coalescer.getStatistics().get("searches"));
+		assertEquals(0L, coalescer.getStatistics().get("coalesced"));
+	}
+	
+	@Test
+	void shouldPassLeaderFailureToWaiters() throws Exception {
+		RouteCoalescer coalescer = new RouteCoalescer();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<PathResult> leader = executor.submit(() -> coalescer.execute(1, "A", "B", null, () -> {
+				leaderStarted.countDown();
+				await(release);
+				throw new IllegalStateException("search failed");
+			}));
+			leaderStarted.await();
+			Future<PathResult> waiter = executor.submit(() -> coalescer.execute(1, "A", "B", null, () -> {
+				throw new AssertionError("waiter must not search");
+			}));
+			while ((Long) coalescer.getStatistics().get("coalesced") == 0 && !waiter.isDone()) {
+				Thread.onSpinWait();
+			}
+			release.countDown();
+			
+			ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+			ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+			assertInstanceOf(IllegalStateException.class, waiterFailure.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.example.javajava.service;
 
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CompiledGraph;
 import com.example.javajava.model.PathResult;
+import com.example.javajava.model.RoutingAlgorithm;
 import com.example.javajava.model.TravelTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -195,4 +201,109 @@ class RouteServiceTest {
 			routeService.calculateOptimalRoute("R11", "");
 		});
 	}
+	
+	@Test
+	void shouldUseConfiguredDefaultAlgorithm() {
+		RoutingProperties routingProperties = new RoutingProperties();
+		routingProperties.setAlgorithm(RoutingAlgorithm.BIDIRECTIONAL);
+		routeService = new RouteService(dataStorageService, graphService, routingProperties);
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9)
+		));
+		
+		PathResult result = routeService.calculateOptimalRoute("R11", "R13");
+		
+		assertEquals(Arrays.asList("R11", "R12", "R13"), result.getPath());
+		assertEquals(29, result.getTotalTime());
+	}
+	
+	@Test
+	void shouldRejectNullAlgorithm() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			routeService.calculateOptimalRoute("R11", "R12", null);
+		});
+	}
+	
+	@Test
+	void shouldRouteBetweenContractedLocationsOfSimplifiedGraph() {
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setSimplify(true);
+		dataStorageService = new DataStorageService(dataProperties);
+		routeService = new RouteService(dataStorageService, graphService);
+		List<TravelTime> travelTimes = generateStreets(8, 5);
+		dataStorageService.storeTravelTimes(travelTimes);
+		CompiledGraph original = CompiledGraph.fromTravelTimes(travelTimes);
+		assertTrue(dataStorageService.getGraph().getLocationCount() < original.getLocationCount());
+		
+		Random random = new Random(12);
+		for (int i = 0; i < 200; i++) {
+			String from = original.getLocation(random.nextInt(original.getLocationCount()));
+			String to = original.getLocation(random.nextInt(original.getLocationCount()));
+			PathResult expected = graphService.findShortestPath(original, from, to);
+			
+			PathResult result = routeService.calculateOptimalRoute(from, to);
+			PathResult bidirectional = routeService.calculateOptimalRoute(from, to, RoutingAlgorithm.BIDIRECTIONAL);
+			
+			assertEquals(expected.isPathFound(), result.isPathFound(), from + " -> " + to);
+			assertEquals(expected.getTotalTime(), result.getTotalTime(), from + " -> " + to);
+			assertEquals(expected.getTotalTime(), bidirectional.getTotalTime(), from + " -> " + to);
+			assertEquals(expected.isPathFound() ? expected.getTotalTime() : -1, routeService.calculateTravelTime(from, to));
+			if (result.isPathFound()) {
+				assertEquals(from, result.getPath().get(0));
+				assertEquals(to, result.getPath().get(result.getPath().size() - 1));
+				assertEquals(expected.getTotalTime(), timeAlong(original, result.getPath()), from + " -> " + to);
+			}
+		}
+	}
+	
+	// Fails unless every step of the path is an edge of the graph
+	private static int timeAlong(CompiledGraph graph, List<String> path) {
+		int time = 0;
+		for (int i = 0; i + 1 < path.size(); i++) {
+			int node = graph.indexOf(path.get(i));
+			int next = graph.indexOf(path.get(i + 1));
+			int fastest = Integer.MAX_VALUE;
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				if (graph.getTarget(edge) == next) {
+					fastest = Math.min(fastest, graph.getWeight(edge));
+				}
+			}
+			assertNotEquals(Integer.MAX_VALUE, fastest, path.get(i) + " -> " + path.get(i + 1));
+			time += fastest;
+		}
+		return time;
+	}
+	
+	// A grid of crossings joined by streets through up to three pass-through locations, some of them one-way
+	private static List<TravelTime> generateStreets(int size, long seed) {
+		Random random = new Random(seed);
+		List<TravelTime> travelTimes = new ArrayList<>();
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				String crossing = "X" + row + "_" + column;
+				if (column + 1 < size) {
+					addStreet(travelTimes, random, crossing, "X" + row + "_" + (column + 1));
+				}
+				if (row + 1 < size) {
+					addStreet(travelTimes, random, crossing, "X" + (row + 1) + "_" + column);
+				}
+			}
+		}
+		return travelTimes;
+	}
+	
+	private static void addStreet(List<TravelTime> travelTimes, Random random, String from, String to) {
+		boolean twoWay = random.nextInt(10) < 7;
+		String previous = from;
+		int passThrough = random.nextInt(4);
+		for (int i = 0; i <= passThrough; i++) {
+			String next = i < passThrough ? from + "-" + to + "#" + i : to;
+			travelTimes.add(new TravelTime(previous, next, random.nextInt(20) + 1));
+			if (twoWay) {
+				travelTimes.add(new TravelTime(next, previous, random.nextInt(20) + 1));
+			}
+			previous = next;
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.PathResult;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathTreeCacheTest {
+	
+	private DataStorageService dataStorageService;
+	private RoutingProperties routingProperties;
+	private ShortestPathTreeCache treeCache;
+	private RouteService routeService;
+	
+	private final List<TravelTime> travelTimes = Arrays.asList(
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "R20", 67),
+		new TravelTime("CP1", "R11", 20),
+		new TravelTime("R11", "R12", 9),
+		new TravelTime("R12", "R20", 9)
+	);
+	
+	@BeforeEach
+	void setUp() {
+		// Sizes and reuse counts here are per graph node, so the graph is kept as loaded
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setSimplify(false);
+		dataStorageService = new DataStorageService(dataProperties);
+		routingProperties = new RoutingProperties();
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		routingProperties.getRouteCache().setMaxEntries(0);
+		routingProperties.getShortestPathTrees().setEnabled(true);
+		treeCache = new ShortestPathTreeCache(dataStorageService, routingProperties);
+		routeService = new RouteService(dataStorageService, new GraphService(), routingProperties,
+			new RouteCache(dataStorageService, routingProperties), treeCache, new ResumableSearchCache(dataStorageService, routingProperties),
+			new QueryLog(), new RouteCoalescer(), new RouteBatcher(routingProperties));
+	}
+	
+	@Test
+	void shouldReuseTreeForEveryDestinationOfAnOrigin() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		PathResult toStore = routeService.calculateOptimalRoute("CP1", "R20");
+		PathResult toDepot = routeService.calculateOptimalRoute("CP1", "CP2");
+		routeService.calculateOptimalRoute("CP1", "R12");
+		
+		assertEquals(Arrays.asList("CP1", "R11", "R12", "R20"), toStore.getPath());
+		assertEquals(38, toStore.getTotalTime());
+		assertEquals(7, toDepot.getTotalTime());
+		Map<String, Object> statistics = treeCache.getStatistics();
+		assertEquals(1L, statistics.get("builds"));
+		assertEquals(2L, statistics.get("reuses"));
+		assertEquals(1, statistics.get("trees"));
+		assertEquals(40L, statistics.get("memoryBytes"));
+	}
+	
+	@Test
+	void shouldDropTreesOnLoad() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP1", "R20");
+		
+		dataStorageService.storeTravelTimes(Arrays.asList(
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "R20", 3)
+		));
+		
+		assertEquals(10, routeService.calculateOptimalRoute("CP1", "R20").getTotalTime());
+		assertEquals(2L, treeCache.getStatistics().get("builds"));
+		assertEquals(0L, treeCache.getStatistics().get("reuses"));
+	}
+	
+	@Test
+	void shouldEvictLeastRecentlyUsedTreesOverMemoryLimit() {
+		routingProperties.getShortestPathTrees().setMaxMemoryMb(1);
+		// 70k locations make each tree 560 KB, so the 1 MB budget holds one
+		List<TravelTime> chain = new ArrayList<>();
+		for (int i = 0; i < 70_000; i++) {
+			chain.add(new TravelTime("N" + i, "N" + (i + 1), 1));
+		}
+		dataStorageService.storeTravelTimes(chain);
+		
+		routeService.calculateOptimalRoute("N0", "N10");
+		routeService.calculateOptimalRoute("N5", "N10");
+		routeService.calculateOptimalRoute("N5", "N20");
+		
+		Map<String, Object> statistics = treeCache.getStatistics();
+		assertEquals(1, statistics.get("trees"));
+		assertEquals(1L, statistics.get("evictions"));
+		assertEquals(1L, statistics.get("reuses"));
+		assertTrue((Long) statistics.get("memoryBytes") <= (Long) statistics.get("maxMemoryBytes"));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getShortestPathTrees().setMaxMemoryMb(0));
+	}
+	
+	@Test
+	void shouldReturnNoRouteForUnknownLocations() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		
+		assertFalse(routeService.calculateOptimalRoute("CP1", "X9").isPathFound());
+		assertEquals(0L, treeCache.getStatistics().get("builds"));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.graph.CompiledGraph;
+import com.example.javajava.graph.GraphSnapshot;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotPersistenceServiceTest {
+	
+	@TempDir
+	Path dataDirectory;
+	
+	private DataProperties dataProperties;
+	private RoutingProperties routingProperties;
+	
+	@BeforeEach
+	void setUp() {
+		dataProperties = new DataProperties();
+		dataProperties.setDirectory(dataDirectory.toString());
+		routingProperties = new RoutingProperties();
+		routingProperties.getLandmarks().setCount(2);
+	}
+	
+	@Test
+	void shouldWriteAfterLoadAndRestoreWithIndexes() throws Exception {
+		DataStorageService dataStorageService = new DataStorageService();
+		new GraphIndexService(dataStorageService, routingProperties, Runnable::run);
+		SnapshotPersistenceService persistence = new SnapshotPersistenceService(dataProperties, dataStorageService, Runnable::run);
+		
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(travelTimes()));
+		
+		Path file = dataDirectory.resolve("graph.snapshot");
+		assertTrue(Files.isRegularFile(file));
+		Map<String, Object> statistics = persistence.getStatistics();
+		assertEquals(Files.size(file), statistics.get("lastWriteBytes"));
+		assertEquals(0L, statistics.get("failures"));
+		
+		// A restart: fresh services over the same directory
+		DataStorageService restarted = new DataStorageService();
+		GraphIndexService restartedIndexes = new GraphIndexService(restarted, routingProperties, Runnable::run);
+		SnapshotPersistenceService restartedPersistence = new SnapshotPersistenceService(dataProperties, restarted, Runnable::run);
+		restartedPersistence.restore();
+		
+		GraphSnapshot restored = restarted.getSnapshot();
+		assertEquals(1, restored.getVersion());
+		// The ring from R11 round to R12 is contracted, and R11's own edge to R12 is the faster one
+		assertEquals(dataStorageService.getGraph().getEdgeCount(), restored.getGraph().getEdgeCount());
+		assertEquals(2, restored.getGraph().getEdgeCount());
+		assertFalse(restored.getGraph().hasLocation("CP1"));
+		assertTrue(restored.hasLocation("CP1"));
+		assertEquals(11, restored.getSimplification().getInputEdges());
+		assertEquals(2, restored.getLandmarks().getLandmarkCount());
+		assertNotNull(restored.getHierarchy());
+		assertTrue((Long) restartedPersistence.getStatistics().get("restoreMillis") >= 0);
+		// Nothing changed, so nothing is written back
+		assertEquals(0L, restartedPersistence.getStatistics().get("writes"));
+		assertEquals(0L, ((Map<?, ?>) restartedIndexes.getStatistics().get("contractionHierarchy")).get("orderBuilds"));
+	}
+	
+	@Test
+	void shouldStartEmptyWhenSnapshotIsUnreadable() throws Exception {
+		Files.writeString(dataDirectory.resolve("graph.snapshot"), "not a snapshot");
+		DataStorageService dataStorageService = new DataStorageService();
+		SnapshotPersistenceService persistence = new SnapshotPersistenceService(dataProperties, dataStorageService, Runnable::run);
+		
+		persistence.restore();
+		
+		assertEquals(0, dataStorageService.getSnapshot().getVersion());
+		assertEquals(1L, persistence.getStatistics().get("failures"));
+		assertNotNull(persistence.getStatistics().get("lastError"));
+	}
+	
+	@Test
+	void shouldSkipStatesAlreadyReplaced() throws Exception {
+		DataStorageService dataStorageService = new DataStorageService();
+		List<Runnable> queued = new ArrayList<>();
+		SnapshotPersistenceService persistence = new SnapshotPersistenceService(dataProperties, dataStorageService, queued::add);
+		
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(travelTimes()));
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(List.of(new TravelTime("A", "B", 1))));
+		queued.forEach(Runnable::run);
+		
+		assertEquals(1L, persistence.getStatistics().get("writes"));
+		DataStorageService restarted = new DataStorageService();
+		new SnapshotPersistenceService(dataProperties, restarted, Runnable::run).restore();
+		assertEquals(1, restarted.getGraph().getEdgeCount());
+	}
+	
+	@Test
+	void shouldNeitherWriteNorRestoreWhenDisabled() {
+		dataProperties.getSnapshot().setEnabled(false);
+		DataStorageService dataStorageService = new DataStorageService();
+		SnapshotPersistenceService persistence = new SnapshotPersistenceService(dataProperties, dataStorageService, Runnable::run);
+		
+		dataStorageService.storeGraph(CompiledGraph.fromTravelTimes(travelTimes()));
+		persistence.restore();
+		
+		assertFalse(Files.exists(dataDirectory.resolve("graph.snapshot")));
+		assertEquals(1, dataStorageService.getSnapshot().getVersion());
+	}
+	
+	private static List<TravelTime> travelTimes() {
+		return Arrays.asList(
+			new TravelTime("R11", "R12", 20),
+			new TravelTime("R12", "R13", 9),
+			new TravelTime("R13", "R12", 11),
+			new TravelTime("R13", "R20", 9),
+			new TravelTime("R20", "R13", 11),
+			new TravelTime("CP1", "R11", 84),
+			new TravelTime("R11", "CP1", 92),
+			new TravelTime("CP1", "CP2", 7),
+			new TravelTime("CP2", "CP1", 10),
+			new TravelTime("CP2", "R20", 67),
+			new TravelTime("R20", "CP2", 60)
+		);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.example.javajava.service;
+
+import com.example.javajava.config.DataProperties;
+import com.example.javajava.config.RoutingProperties;
+import com.example.javajava.model.TravelTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmStartServiceTest {
+	
+	private DataStorageService dataStorageService;
+	private RoutingProperties routingProperties;
+	private RouteCache routeCache;
+	private ShortestPathTreeCache treeCache;
+	private QueryLog queryLog;
+	private RouteService routeService;
+	private WarmStartService warmStartService;
+	private final List<Runnable> pending = new ArrayList<>();
+	
+	private final List<TravelTime> travelTimes = Arrays.asList(
+		new TravelTime("CP1", "CP2", 7),
+		new TravelTime("CP2", "R20", 67),
+		new TravelTime("CP1", "R11", 20),
+		new TravelTime("R11", "R20", 9)
+	);
+	
+	@BeforeEach
+	void setUp() {
+		createServices(new DataProperties());
+	}
+	
+	private void createServices(DataProperties dataProperties) {
+		dataStorageService = new DataStorageService(dataProperties);
+		routingProperties = new RoutingProperties();
+		routingProperties.getDistanceTable().setMaxLocations(0);
+		routeCache = new RouteCache(dataStorageService, routingProperties);
+		treeCache = new ShortestPathTreeCache(dataStorageService, routingProperties);
+		queryLog = new QueryLog();
+		routeService = new RouteService(dataStorageService, new GraphService(), routingProperties, routeCache, treeCache,
+			new ResumableSearchCache(dataStorageService, routingProperties), queryLog, new RouteCoalescer(), new RouteBatcher(routingProperties));
+		warmStartService = new WarmStartService(dataStorageService, routingProperties, routeService, treeCache, queryLog, pending::add);
+	}
+	
+	@Test
+	void shouldWarmHottestRoutesAfterReload() {
+		routingProperties.getWarmStart().setPairs(1);
+		dataStorageService.storeTravelTimes(travelTimes);
+		pending.clear();
+		routeService.calculateOptimalRoute("CP1", "R20");
+		routeService.calculateOptimalRoute("CP1", "R20");
+		routeService.calculateOptimalRoute("CP1", "CP2");
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		pending.forEach(Runnable::run);
+		
+		assertEquals(29, routeService.calculateOptimalRoute("CP1", "R20").getTotalTime());
+		assertEquals(1L, routeCache.getStatistics().get("warmHits"));
+		Map<String, Object> statistics = warmStartService.getStatistics();
+		assertEquals(1, statistics.get("plannedPairs"));
+		assertEquals(1, statistics.get("warmedPairs"));
+		assertEquals(1.0, statistics.get("coverage"));
+		assertEquals(true, statistics.get("completed"));
+	}
+	
+	@Test
+	void shouldLogAndWarmRoutesBetweenContractedLocations() {
+		DataProperties dataProperties = new DataProperties();
+		dataProperties.setSimplify(true);
+		createServices(dataProperties);
+		dataStorageService.storeTravelTimes(travelTimes);
+		// CP2 only passes traffic on from CP1 to R20
+		assertFalse(dataStorageService.getGraph().hasLocation("CP2"));
+		routeService.calculateOptimalRoute("CP2", "R20");
+		pending.clear();
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		pending.forEach(Runnable::run);
+		
+		assertEquals(List.of("CP2", "R20"), routeService.calculateOptimalRoute("CP2", "R20").getPath());
+		assertEquals(1L, routeCache.getStatistics().get("warmHits"));
+		Map<String, Object> statistics = warmStartService.getStatistics();
+		assertEquals(1, statistics.get("warmedPairs"));
+		assertEquals(0, statistics.get("skipped"));
+	}
+	
+	@Test
+	void shouldCountRoutesTrafficReachedFirst() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP1", "R20");
+		routeService.calculateOptimalRoute("CP2", "R20");
+		pending.clear();
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP1", "R20");
+		pending.forEach(Runnable::run);
+		
+		Map<String, Object> statistics = warmStartService.getStatistics();
+		assertEquals(1, statistics.get("warmedPairs"));
+		assertEquals(1, statistics.get("pairsReachedByTraffic"));
+		assertEquals(0.5, statistics.get("coverage"));
+	}
+	
+	@Test
+	void shouldWarmOriginTreesWhenEnabled() {
+		routingProperties.getShortestPathTrees().setEnabled(true);
+		routingProperties.getWarmStart().setPairs(0);
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP1", "R20");
+		pending.clear();
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		pending.forEach(Runnable::run);
+		routeService.calculateOptimalRoute("CP1", "CP2");
+		
+		assertEquals(1, warmStartService.getStatistics().get("warmedSources"));
+		assertEquals(1L, treeCache.getStatistics().get("reuses"));
+	}
+	
+	@Test
+	void shouldWarmTreesAtChainEndsOfContractedOrigin() {
+		routingProperties.getShortestPathTrees().setEnabled(true);
+		routingProperties.getWarmStart().setPairs(0);
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP2", "R20");
+		pending.clear();
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		pending.forEach(Runnable::run);
+		// Routes from CP2 leave its chain at R20, whose tree was built ahead of them
+		assertEquals(67, routeService.calculateOptimalRoute("CP2", "R20").getTotalTime());
+		
+		Map<String, Object> statistics = warmStartService.getStatistics();
+		assertEquals(1, statistics.get("warmedSources"));
+		assertEquals(0, statistics.get("skipped"));
+		assertEquals(1L, treeCache.getStatistics().get("reuses"));
+	}
+	
+	@Test
+	void shouldAbandonWarmSetOfReplacedDataset() {
+		dataStorageService.storeTravelTimes(travelTimes);
+		routeService.calculateOptimalRoute("CP1", "R20");
+		pending.clear();
+		
+		dataStorageService.storeTravelTimes(travelTimes);
+		Runnable stale = pending.get(0);
+		routingProperties.getWarmStart().setEnabled(false);
+		dataStorageService.storeTravelTimes(travelTimes);
+		stale.run();
+		
+		assertEquals(0, routeCache.getStatistics().get("entries"));
+		assertEquals(false, warmStartService.getStatistics().get("completed"));
+		assertThrows(IllegalArgumentException.class, () -> routingProperties.getWarmStart().setPairs(-1));
+	}
+	
+	@Test
+	void shouldRankPairsAndSourcesByRequests() {
+		queryLog.record("A", "B");
+		queryLog.record("C", "D");
+		queryLog.record("C", "E");
+		queryLog.record("A", "B");
+		queryLog.record("A", "B");
+		
+		assertEquals(List.of(new QueryLog.RoutePair("A", "B")), queryLog.getTopPairs(1));
+		assertEquals(List.of("A", "C"), queryLog.getTopSources(5));
+		assertEquals(3, queryLog.getTrackedPairs());
+	}
+}
\ No newline at end of file